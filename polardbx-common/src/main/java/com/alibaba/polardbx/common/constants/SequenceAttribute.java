@@ -104,9 +104,13 @@ public class SequenceAttribute {
 
     public static final int GROUP_SEQ_UPDATE_INTERVAL = 60;
 
+    public static final int DEFAULT_PREFETCH_WATERMARK = 50;
+
     public static final String GROUP_SEQ_NODE = "NODE";
     public static final String GROUP_SEQ_RANGE = "RANGE [ MIN, MAX ]";
     public static final String GROUP_SEQ_MIN_VALUE = "MIN VALUE";
+    public static final String GROUP_SEQ_PREFETCH_LEAD = "PREFETCH LEAD (MS)";
+    public static final String GROUP_SEQ_PREFETCH_STALLS = "PREFETCH STALLS";
 
     public static final String NO_AUTO_VALUE_ON_ZERO = "NO_AUTO_VALUE_ON_ZERO";
 
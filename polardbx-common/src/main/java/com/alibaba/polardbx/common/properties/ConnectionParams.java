@@ -281,6 +281,9 @@ public class ConnectionParams {
         10000L,
         false);
 
+    public static final IntConfigParam TSO_FETCH_MAX_INFLIGHT = new IntConfigParam(
+        ConnectionProperties.TSO_FETCH_MAX_INFLIGHT, 1, 64, 4, true);
+
     public static final LongConfigParam MAX_TRX_DURATION = new LongConfigParam(
         ConnectionProperties.MAX_TRX_DURATION,
         null,
@@ -796,6 +799,20 @@ public class ConnectionParams {
         -1L,
         false);
 
+    public static final LongConfigParam GSI_BACKFILL_SPLIT_COUNT = new LongConfigParam(
+        ConnectionProperties.GSI_BACKFILL_SPLIT_COUNT,
+        1L,
+        1024L,
+        1L,
+        false);
+
+    public static final LongConfigParam GSI_BACKFILL_SPLIT_MIN_ROWS = new LongConfigParam(
+        ConnectionProperties.GSI_BACKFILL_SPLIT_MIN_ROWS,
+        0L,
+        Long.MAX_VALUE,
+        1000000L,
+        false);
+
     public static final LongConfigParam GSI_CHECK_BATCH_SIZE = new LongConfigParam(
         ConnectionProperties.GSI_CHECK_BATCH_SIZE,
         16L,
@@ -867,6 +884,11 @@ public class ConnectionParams {
         true,
         false);
 
+    public static final BooleanConfigParam ENABLE_MDL_FAST_PATH =
+        new BooleanConfigParam(ConnectionProperties.ENABLE_MDL_FAST_PATH,
+            true,
+            true);
+
     public static final BooleanConfigParam ALWAYS_REBUILD_PLAN =
         new BooleanConfigParam(ConnectionProperties.ALWAYS_REBUILD_PLAN,
             false,
@@ -1229,6 +1251,12 @@ public class ConnectionParams {
     public static final BooleanConfigParam PLAN_CACHE = new BooleanConfigParam(ConnectionProperties.PLAN_CACHE, true,
         true);
 
+    /**
+     * Lexer-level fingerprint cache in front of the sql parameterization
+     */
+    public static final BooleanConfigParam ENABLE_PARAMETERIZE_CACHE = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_PARAMETERIZE_CACHE, true, true);
+
     /**
      * Physical sql template string cache for external sql
      */
@@ -1276,6 +1304,9 @@ public class ConnectionParams {
     public static final BooleanConfigParam MPP_TASK_LOCAL_BUFFER_ENABLED = new BooleanConfigParam(
         ConnectionProperties.MPP_TASK_LOCAL_BUFFER_ENABLED, true, true);
 
+    public static final StringConfigParam MPP_EXCHANGE_COMPRESSION_CODEC = new StringConfigParam(
+        ConnectionProperties.MPP_EXCHANGE_COMPRESSION_CODEC, "NONE", true);
+
     public static final BooleanConfigParam MPP_QUERY_PHASED_EXEC_SCHEDULE_ENABLE = new BooleanConfigParam(
         ConnectionProperties.MPP_QUERY_PHASED_EXEC_SCHEDULE_ENABLE, false, true);
 
@@ -1423,6 +1454,13 @@ public class ConnectionParams {
         ConnectionProperties.HYBRID_HASH_JOIN_MAX_RECURSIVE_DEPTH, 1, Integer.MAX_VALUE,
         3, true);
 
+    public static final IntConfigParam PARALLEL_HASH_JOIN_RADIX_BITS = new IntConfigParam(
+        ConnectionProperties.PARALLEL_HASH_JOIN_RADIX_BITS, 0, 12,
+        0, true);
+
+    public static final BooleanConfigParam ENABLE_PRIMITIVE_KEY_HASH_JOIN = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_PRIMITIVE_KEY_HASH_JOIN, true, true);
+
     public static final BooleanConfigParam ENABLE_PARAMETER_PLAN = new BooleanConfigParam(
         ConnectionProperties.ENABLE_PARAMETER_PLAN, true, true);
 
@@ -1667,6 +1705,12 @@ public class ConnectionParams {
     public static final BooleanConfigParam ENABLE_RUNTIME_FILTER_XXHASH = new BooleanConfigParam(
         ConnectionProperties.ENABLE_RUNTIME_FILTER_XXHASH, true, true);
 
+    public static final BooleanConfigParam ENABLE_RUNTIME_FILTER_PARTITION_PRUNING = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_RUNTIME_FILTER_PARTITION_PRUNING, false, true);
+
+    public static final LongConfigParam RUNTIME_FILTER_PRUNING_MAX_KEYS = new LongConfigParam(
+        ConnectionProperties.RUNTIME_FILTER_PRUNING_MAX_KEYS, 0L, 4096L, 64L, true);
+
     // Whether underlying mysqls all support bloom filter udf, can only be set by system, not by user
     public static final BooleanConfigParam STORAGE_SUPPORTS_BLOOM_FILTER = new BooleanConfigParam(
         ConnectionProperties.STORAGE_SUPPORTS_BLOOM_FILTER, false, false);
@@ -2026,6 +2070,8 @@ public class ConnectionParams {
         ConnectionProperties.ENABLE_FILE_STORE_CHECK_TABLE, false, true);
     public static final BooleanConfigParam ENABLE_OSS_BUFFER_POOL = new BooleanConfigParam(
         ConnectionProperties.ENABLE_OSS_BUFFER_POOL, false, true);
+    public static final LongConfigParam OSS_BUFFER_POOL_CAPACITY = new LongConfigParam(
+        ConnectionProperties.OSS_BUFFER_POOL_CAPACITY, 0L, Long.MAX_VALUE, 512L * 1024 * 1024, true);
     public static final BooleanConfigParam ENABLE_OSS_DELAY_MATERIALIZATION = new BooleanConfigParam(
         ConnectionProperties.ENABLE_OSS_DELAY_MATERIALIZATION, false, true);
     public static final BooleanConfigParam ENABLE_OSS_ZERO_COPY = new BooleanConfigParam(
@@ -2034,6 +2080,10 @@ public class ConnectionParams {
         ConnectionProperties.ENABLE_OSS_COMPATIBLE, true, true);
     public static final BooleanConfigParam ENABLE_OSS_DELAY_MATERIALIZATION_ON_EXCHANGE = new BooleanConfigParam(
         ConnectionProperties.ENABLE_OSS_DELAY_MATERIALIZATION_ON_EXCHANGE, false, true);
+    public static final BooleanConfigParam ENABLE_OSS_DICTIONARY_BLOCK = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_OSS_DICTIONARY_BLOCK, false, true);
+    public static final BooleanConfigParam ENABLE_RLE_CONSTANT_BLOCK = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_RLE_CONSTANT_BLOCK, false, true);
     public static final BooleanConfigParam ENABLE_OSS_FILE_CONCURRENT_SPLIT_ROUND_ROBIN = new BooleanConfigParam(
         ConnectionProperties.ENABLE_OSS_FILE_CONCURRENT_SPLIT_ROUND_ROBIN, false, true);
     public static final BooleanConfigParam ENABLE_REUSE_VECTOR = new BooleanConfigParam(
@@ -2042,6 +2092,10 @@ public class ConnectionParams {
         ConnectionProperties.ENABLE_DECIMAL_FAST_VEC, false, true);
     public static final BooleanConfigParam ENABLE_UNIQUE_HASH_KEY = new BooleanConfigParam(
         ConnectionProperties.ENABLE_UNIQUE_HASH_KEY, false, true);
+    public static final BooleanConfigParam ENABLE_PACKED_GROUP_KEY = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_PACKED_GROUP_KEY, true, true);
+    public static final BooleanConfigParam ENABLE_NORMALIZED_SORT_KEY = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_NORMALIZED_SORT_KEY, true, true);
     public static final IntConfigParam BLOCK_BUILDER_CAPACITY = new IntConfigParam(
         ConnectionProperties.BLOCK_BUILDER_CAPACITY, 1, Integer.MAX_VALUE, 4, true);
     public static BooleanConfigParam ENABLE_HASH_TABLE_BLOOM_FILTER = new BooleanConfigParam(
@@ -21,6 +21,7 @@ public class ConnectionProperties {
     public static final String PLAN_CACHE = "PLAN_CACHE";
     public static final String PHY_SQL_TEMPLATE_CACHE = "PHY_SQL_TEMPLATE_CACHE";
     public static final String PREPARE_OPTIMIZE = "PREPARE_OPTIMIZE";
+    public static final String ENABLE_PARAMETERIZE_CACHE = "ENABLE_PARAMETERIZE_CACHE";
 
     public static final String ENABLE_RECYCLEBIN = "ENABLE_RECYCLEBIN";
 
@@ -72,6 +73,11 @@ public class ConnectionProperties {
 
     public static final String GET_TSO_TIMEOUT = "GET_TSO_TIMEOUT";
 
+    /**
+     * Max concurrent batch requests for fetching TSO from GMS
+     */
+    public static final String TSO_FETCH_MAX_INFLIGHT = "TSO_FETCH_MAX_INFLIGHT";
+
     public static final String PURGE_HISTORY_MS = "PURGE_HISTORY_MS";
 
     /**
@@ -203,6 +209,16 @@ public class ConnectionProperties {
      */
     public static final String GROUP_SEQ_CHECK_INTERVAL = "GROUP_SEQ_CHECK_INTERVAL";
 
+    /**
+     * 是否对 Group Sequence 启用后台预取下一个区间
+     */
+    public static final String ENABLE_GROUP_SEQ_PREFETCH = "ENABLE_GROUP_SEQ_PREFETCH";
+
+    /**
+     * Group Sequence 当前区间使用超过该百分比后开始预取下一个区间
+     */
+    public static final String GROUP_SEQ_PREFETCH_WATERMARK = "GROUP_SEQ_PREFETCH_WATERMARK";
+
     /**
      * BlockIndexNLJoin : block size
      */
@@ -559,6 +575,16 @@ public class ConnectionProperties {
 
     public static final String GSI_BACKFILL_PARALLELISM = "GSI_BACKFILL_PARALLELISM";
 
+    /**
+     * 单个物理表按主键采样切分成的区间数，各区间并行回填，1 表示不切分
+     */
+    public static final String GSI_BACKFILL_SPLIT_COUNT = "GSI_BACKFILL_SPLIT_COUNT";
+
+    /**
+     * 物理表估算行数不少于该值时才切分区间
+     */
+    public static final String GSI_BACKFILL_SPLIT_MIN_ROWS = "GSI_BACKFILL_SPLIT_MIN_ROWS";
+
     public static final String GSI_CHECK_BATCH_SIZE = "GSI_CHECK_BATCH_SIZE";
 
     public static final String GSI_CHECK_SPEED_LIMITATION = "GSI_CHECK_SPEED_LIMITATION";
@@ -583,6 +609,11 @@ public class ConnectionProperties {
 
     public static final String ENABLE_MDL = "ENABLE_MDL";
 
+    /**
+     * Acquire shared MDL on per-core striped counters, exclusive MDL revokes the fast path
+     */
+    public static final String ENABLE_MDL_FAST_PATH = "ENABLE_MDL_FAST_PATH";
+
     public static final String ALWAYS_REBUILD_PLAN = "ALWAYS_REBUILD_PLAN";
 
     public static final String PARALLELISM = "PARALLELISM";
@@ -848,6 +879,11 @@ public class ConnectionProperties {
 
     public static final String MPP_TASK_LOCAL_BUFFER_ENABLED = "MPP_TASK_LOCAL_BUFFER_ENABLED";
 
+    /**
+     * Codec of the chunks sent between mpp tasks: NONE, LZ4 or ZSTD
+     */
+    public static final String MPP_EXCHANGE_COMPRESSION_CODEC = "MPP_EXCHANGE_COMPRESSION_CODEC";
+
     public static final String MPP_TABLESCAN_DS_MAX_SIZE = "MPP_TABLESCAN_DS_MAX_SIZE";
 
     public static final String MPP_TABLESCAN_CONNECTION_STRATEGY = "MPP_TABLESCAN_CONNECTION_STRATEGY";
@@ -931,6 +967,11 @@ public class ConnectionProperties {
 
     public static final String MPP_SPILL_PATHS = "MPP_SPILL_PATHS";
 
+    /**
+     * Codec of the chunks written to spill files: NONE, LZ4 or ZSTD
+     */
+    public static final String MPP_SPILL_COMPRESSION_CODEC = "MPP_SPILL_COMPRESSION_CODEC";
+
     public static final String MPP_MAX_SPILL_SPACE_THRESHOLD = "MPP_MAX_SPILL_SPACE_THRESHOLD";
 
     public static final String MPP_AVAILABLE_SPILL_SPACE_THRESHOLD = "MPP_AVAILABLE_SPILL_SPACE_THRESHOLD";
@@ -945,6 +986,16 @@ public class ConnectionProperties {
 
     public static final String HYBRID_HASH_JOIN_MAX_RECURSIVE_DEPTH = "HYBRID_HASH_JOIN_MAX_RECURSIVE_DEPTH";
 
+    /**
+     * Radix bits to partition the shared build of parallel hash join, 0 means building one concurrent hash table
+     */
+    public static final String PARALLEL_HASH_JOIN_RADIX_BITS = "PARALLEL_HASH_JOIN_RADIX_BITS";
+
+    /**
+     * Join single BIGINT/INT keys by raw values, or by direct addressing if keys are dense
+     */
+    public static final String ENABLE_PRIMITIVE_KEY_HASH_JOIN = "ENABLE_PRIMITIVE_KEY_HASH_JOIN";
+
     public static final String MPP_LESS_REVOKE_BYTES = "MPP_LESS_REVOKE_BYTES";
 
     public static final String MPP_ALLOCATOR_SIZE = "MPP_ALLOCATOR_SIZE";
@@ -1073,6 +1124,16 @@ public class ConnectionProperties {
 
     public static final String ENABLE_RUNTIME_FILTER_XXHASH = "ENABLE_RUNTIME_FILTER_XXHASH";
 
+    /**
+     * Prune the splits of a partitioned scan by the keys or min/max of its runtime filters
+     */
+    public static final String ENABLE_RUNTIME_FILTER_PARTITION_PRUNING = "ENABLE_RUNTIME_FILTER_PARTITION_PRUNING";
+
+    /**
+     * Max distinct build keys kept per runtime filter column for partition pruning
+     */
+    public static final String RUNTIME_FILTER_PRUNING_MAX_KEYS = "RUNTIME_FILTER_PRUNING_MAX_KEYS";
+
     public static final String ENABLE_SPLIT_RUNTIME_FILTER = "ENABLE_SPLIT_RUNTIME_FILTER";
 
     public static final String ENABLE_OPTIMIZE_SCAN_WITH_RUNTIME_FILTER = "ENABLE_OPTIMIZE_SCAN_WITH_RUNTIME_FILTER";
@@ -1119,6 +1180,16 @@ public class ConnectionProperties {
 
     public static final String STORAGE_BUSY_THRESHOLD = "STORAGE_BUSY_THRESHOLD";
 
+    /**
+     * route slave reads by EWMA response time and in-flight connections with power-of-two-choices
+     */
+    public static final String ENABLE_LATENCY_AWARE_SLAVE_ROUTE = "ENABLE_LATENCY_AWARE_SLAVE_ROUTE";
+
+    /**
+     * max replication lag in seconds a slave can serve reads, <0 means use STORAGE_DELAY_THRESHOLD
+     */
+    public static final String STORAGE_MAX_LAG_SECONDS = "STORAGE_MAX_LAG_SECONDS";
+
     /**
      * set the operation strategy when the slave delay
      * <0 means nothing, =1 change master, =2 throw exception
@@ -1313,14 +1384,28 @@ public class ConnectionProperties {
     public static final String FILE_PATTERN = "FILE_PATTERN";
     public static final String ENABLE_FILE_STORE_CHECK_TABLE = "ENABLE_FILE_STORE_CHECK_TABLE";
     public static final String ENABLE_OSS_BUFFER_POOL = "ENABLE_OSS_BUFFER_POOL";
+    /**
+     * Max bytes of serialized blocks held off-heap by the OSS buffer pool
+     */
+    public static final String OSS_BUFFER_POOL_CAPACITY = "OSS_BUFFER_POOL_CAPACITY";
     public static final String ENABLE_OSS_DELAY_MATERIALIZATION = "ENABLE_OSS_DELAY_MATERIALIZATION";
     public static final String ENABLE_OSS_ZERO_COPY = "ENABLE_OSS_ZERO_COPY";
     public static final String ENABLE_OSS_COMPATIBLE = "ENABLE_OSS_COMPATIBLE";
     public static final String ENABLE_OSS_DELAY_MATERIALIZATION_ON_EXCHANGE = "ENABLE_OSS_DELAY_MATERIALIZATION_ON_EXCHANGE";
+    /**
+     * Read low-cardinality VARCHAR columns of ORC archives as dictionary blocks
+     */
+    public static final String ENABLE_OSS_DICTIONARY_BLOCK = "ENABLE_OSS_DICTIONARY_BLOCK";
+    /**
+     * Output constant VARCHAR projections as run-length encoded blocks
+     */
+    public static final String ENABLE_RLE_CONSTANT_BLOCK = "ENABLE_RLE_CONSTANT_BLOCK";
     public static final String ENABLE_OSS_FILE_CONCURRENT_SPLIT_ROUND_ROBIN = "ENABLE_OSS_FILE_CONCURRENT_SPLIT_ROUND_ROBIN";
     public static final String ENABLE_REUSE_VECTOR = "ENABLE_REUSE_VECTOR";
     public static final String ENABLE_DECIMAL_FAST_VEC = "ENABLE_DECIMAL_FAST_VEC";
     public static final String ENABLE_UNIQUE_HASH_KEY = "ENABLE_UNIQUE_HASH_KEY";
+    public static final String ENABLE_PACKED_GROUP_KEY = "ENABLE_PACKED_GROUP_KEY";
+    public static final String ENABLE_NORMALIZED_SORT_KEY = "ENABLE_NORMALIZED_SORT_KEY";
     public static final String BLOCK_BUILDER_CAPACITY = "BLOCK_BUILDER_CAPACITY";
     public static final String ENABLE_HASH_TABLE_BLOOM_FILTER = "ENABLE_HASH_TABLE_BLOOM_FILTER";
     public static final String ENABLE_COMMON_SUB_EXPRESSION_TREE_ELIMINATE = "ENABLE_COMMON_SUB_EXPRESSION_TREE_ELIMINATE";
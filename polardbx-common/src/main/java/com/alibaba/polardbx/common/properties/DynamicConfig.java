@@ -49,12 +49,27 @@ public class DynamicConfig {
             case ConnectionProperties.STORAGE_BUSY_THRESHOLD:
                 busyThreshold = parseValue(value, Integer.class, 100);
                 break;
+            case ConnectionProperties.ENABLE_LATENCY_AWARE_SLAVE_ROUTE:
+                enableLatencyAwareSlaveRoute = parseValue(value, Boolean.class, true);
+                break;
+            case ConnectionProperties.STORAGE_MAX_LAG_SECONDS:
+                storageMaxLagSeconds = parseValue(value, Integer.class, -1);
+                break;
             case ConnectionProperties.KEEP_TSO_HEARTBEAT_ON_CDC_CON:
                 keepTsoBasedCDC = parseValue(value, Boolean.class, true);
                 break;
             case ConnectionProperties.FORCE_RECREATE_GROUP_DATASOURCE:
                 enableCreateGroupDataSource = parseValue(value, Boolean.class, false);
                 break;
+            case ConnectionProperties.ENABLE_MDL_FAST_PATH:
+                enableMdlFastPath = parseValue(value, Boolean.class, true);
+                break;
+            case ConnectionProperties.TSO_FETCH_MAX_INFLIGHT:
+                tsoFetchMaxInflight = parseValue(value, Integer.class, tsoFetchMaxInflightDefault);
+                break;
+            case ConnectionProperties.OSS_BUFFER_POOL_CAPACITY:
+                ossBufferPoolCapacity = parseValue(value, Long.class, ossBufferPoolCapacityDefault);
+                break;
             case ConnectionProperties.PURGE_HISTORY_MS: {
                 long tempPurgeHistoryMs = parseValue(value, Long.class, 600 * 1000L);
                 if (tempPurgeHistoryMs > 0 && tempPurgeHistoryMs < purgeHistoryMs) {
@@ -119,6 +134,18 @@ public class DynamicConfig {
         return busyThreshold;
     }
 
+    private volatile boolean enableLatencyAwareSlaveRoute = true;
+
+    public boolean isEnableLatencyAwareSlaveRoute() {
+        return enableLatencyAwareSlaveRoute;
+    }
+
+    private volatile int storageMaxLagSeconds = -1;
+
+    public int getStorageMaxLagSeconds() {
+        return storageMaxLagSeconds;
+    }
+
     private volatile boolean keepTsoBasedCDC = true;
 
     public boolean isKeepTsoBasedCDC() {
@@ -131,6 +158,28 @@ public class DynamicConfig {
         return enableCreateGroupDataSource;
     }
 
+    private volatile boolean enableMdlFastPath = true;
+
+    public boolean isEnableMdlFastPath() {
+        return enableMdlFastPath;
+    }
+
+    private static final int tsoFetchMaxInflightDefault =
+        parseValue(ConnectionParams.TSO_FETCH_MAX_INFLIGHT.getDefault(), Integer.class, 4);
+    private volatile int tsoFetchMaxInflight = tsoFetchMaxInflightDefault;
+
+    public int getTsoFetchMaxInflight() {
+        return tsoFetchMaxInflight;
+    }
+
+    private static final long ossBufferPoolCapacityDefault =
+        parseValue(ConnectionParams.OSS_BUFFER_POOL_CAPACITY.getDefault(), Long.class, 512L * 1024 * 1024);
+    private volatile long ossBufferPoolCapacity = ossBufferPoolCapacityDefault;
+
+    public long getOssBufferPoolCapacity() {
+        return ossBufferPoolCapacity;
+    }
+
     private static final long defaultPurgeHistoryMs = 600 * 1000L;
 
     private static final long maxPurgeHistoryMs = 600 * 1000L;
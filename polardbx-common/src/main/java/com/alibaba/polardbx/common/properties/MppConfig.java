@@ -76,6 +76,7 @@ import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_QU
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_QUERY_REMOTE_TASK_MIN_ERROR;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_REMOTE_TASK_CALLBACK_THREAD_SIZE;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SCHEMA_MAX_MEM;
+import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SPILL_COMPRESSION_CODEC;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SPILL_PATHS;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SPLIT_RUN_QUANTA;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_STATUS_REFRESH_MAX_WAIT;
@@ -295,6 +296,9 @@ public class MppConfig {
             case MPP_MAX_QUERY_SPILL_SPACE_THRESHOLD:
                 maxQuerySpillSpaceThreshold = parseValue(value, Double.class, DEFAULT_MAX_QUERY_SPILL_SPACE_THRESHOLD);
                 break;
+            case MPP_SPILL_COMPRESSION_CODEC:
+                spillCompressionCodec = parseValue(value, String.class, DEFAULT_SPILL_COMPRESSION_CODEC);
+                break;
             case MPP_SPILL_PATHS:
                 List<String> spillPathsSplit = ImmutableList.copyOf(
                     Splitter.on(",").trimResults().omitEmptyStrings().split(value));
@@ -746,6 +750,13 @@ public class MppConfig {
         return spillPaths;
     }
 
+    private static final String DEFAULT_SPILL_COMPRESSION_CODEC = "NONE";
+    private String spillCompressionCodec = DEFAULT_SPILL_COMPRESSION_CODEC;
+
+    public String getSpillCompressionCodec() {
+        return spillCompressionCodec;
+    }
+
     public static <T> T parseValue(String value, Class<T> type, T defaultValue) {
         if (value == null) {
             return defaultValue;
@@ -19,7 +19,11 @@ package com.alibaba.polardbx.common.utils.bloomfilter;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * @author chenzilin
@@ -53,6 +57,11 @@ public class MinMaxFilterInfo {
     private Float minFloat;
     private Float maxFloat;
 
+    /**
+     * Distinct build side keys, null if they were not collected or exceeded the limit
+     */
+    private List<String> valueSet;
+
     @JsonCreator
     public MinMaxFilterInfo(@JsonProperty("type") TYPE type,
                             @JsonProperty("minNumber") Long minNumber,
@@ -122,6 +131,14 @@ public class MinMaxFilterInfo {
         } else if (other.maxFloat != null) {
             maxFloat = Math.max(maxFloat, other.maxFloat);
         }
+
+        if (valueSet == null || other.valueSet == null) {
+            valueSet = null;
+        } else {
+            Set<String> union = new LinkedHashSet<>(valueSet);
+            union.addAll(other.valueSet);
+            valueSet = new ArrayList<>(union);
+        }
     }
 
     @JsonProperty
@@ -169,6 +186,16 @@ public class MinMaxFilterInfo {
         return type;
     }
 
+    @JsonProperty
+    public List<String> getValueSet() {
+        return valueSet;
+    }
+
+    @JsonProperty
+    public void setValueSet(List<String> valueSet) {
+        this.valueSet = valueSet;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -186,11 +213,13 @@ public class MinMaxFilterInfo {
                 Objects.equals(minDouble, ((MinMaxFilterInfo) o).minDouble) &&
                 Objects.equals(maxDouble, ((MinMaxFilterInfo) o).maxDouble) &&
                 Objects.equals(minFloat, ((MinMaxFilterInfo) o).minFloat) &&
-                Objects.equals(maxFloat, ((MinMaxFilterInfo) o).maxFloat);
+                Objects.equals(maxFloat, ((MinMaxFilterInfo) o).maxFloat) &&
+                Objects.equals(valueSet, ((MinMaxFilterInfo) o).valueSet);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(type, minNumber, maxNumber, minString, maxString, minDouble, maxDouble, minFloat, maxFloat);
+        return Objects.hash(type, minNumber, maxNumber, minString, maxString, minDouble, maxDouble, minFloat, maxFloat,
+            valueSet);
     }
 }
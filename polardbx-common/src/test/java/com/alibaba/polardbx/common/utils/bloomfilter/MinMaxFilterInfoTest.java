@@ -0,0 +1,63 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.common.utils.bloomfilter;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MinMaxFilterInfoTest {
+
+    @Test
+    public void testMergeValueSet() {
+        MinMaxFilterInfo left = longInfo(1L, 5L);
+        left.setValueSet(Arrays.asList("1", "5"));
+        MinMaxFilterInfo right = longInfo(3L, 9L);
+        right.setValueSet(Arrays.asList("5", "9"));
+
+        left.merge(right);
+        assertEquals(Long.valueOf(1L), left.getMinNumber());
+        assertEquals(Long.valueOf(9L), left.getMaxNumber());
+        assertEquals(new HashSet<>(Arrays.asList("1", "5", "9")), new HashSet<>(left.getValueSet()));
+    }
+
+    @Test
+    public void testMergeWithoutValueSet() {
+        MinMaxFilterInfo left = longInfo(1L, 5L);
+        left.setValueSet(Arrays.asList("1", "5"));
+        MinMaxFilterInfo overflow = longInfo(3L, 100L);
+
+        left.merge(overflow);
+        assertNull(left.getValueSet());
+        assertEquals(Long.valueOf(100L), left.getMaxNumber());
+
+        // stays unknown even if the next producer collected its keys
+        MinMaxFilterInfo next = longInfo(2L, 2L);
+        next.setValueSet(Arrays.asList("2"));
+        left.merge(next);
+        assertNull(left.getValueSet());
+    }
+
+    private static MinMaxFilterInfo longInfo(Long min, Long max) {
+        return new MinMaxFilterInfo(MinMaxFilterInfo.TYPE.LONG, min, max, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.stats;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExponentialHistogramTest {
+
+    @Test
+    public void testPercentile() {
+        final ExponentialHistogram histogram = new ExponentialHistogram();
+        Assert.assertEquals(0, histogram.getPercentile(99));
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(5050, histogram.getSum());
+        Assert.assertEquals(100, histogram.getMax());
+        Assert.assertEquals(50.5, histogram.getAverage(), 0.001);
+
+        // 50 falls in [32, 64)
+        Assert.assertEquals(63, histogram.getPercentile(50));
+        // 99 falls in [64, 128), bounded by max
+        Assert.assertEquals(100, histogram.getPercentile(99));
+        Assert.assertEquals(1, histogram.getPercentile(1));
+    }
+
+    @Test
+    public void testReset() {
+        final ExponentialHistogram histogram = new ExponentialHistogram();
+        histogram.record(0);
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(3, histogram.getCount());
+        Assert.assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+
+        histogram.reset();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.atom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EWMA of connection holding time and count of in-flight connections of an atom,
+ * used to route reads to the least loaded replica.
+ */
+public class AtomLatencyStats {
+
+    private static final double ALPHA = 0.3;
+
+    /**
+     * storage inst id -> stats of slave atoms routed to it, weakly held so that
+     * stats of reloaded data sources go away with them
+     */
+    private static final Map<String, Set<AtomLatencyStats>> STORAGE_STATS = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private volatile double ewmaNanos = 0;
+    private volatile long samples = 0;
+
+    /**
+     * @return start time to be passed to {@link #end(long)}
+     */
+    public long begin() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    public void end(long startNanos) {
+        inFlight.decrementAndGet();
+        observe(System.nanoTime() - startNanos);
+    }
+
+    synchronized void observe(long elapsedNanos) {
+        ewmaNanos = samples == 0 ? elapsedNanos : ewmaNanos + ALPHA * (elapsedNanos - ewmaNanos);
+        samples++;
+    }
+
+    /**
+     * Expected waiting of a new request, lower is better.
+     * An atom without samples scores 0 so that it gets probed.
+     */
+    public double score() {
+        return ewmaNanos * (inFlight.get() + 1);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public double getEwmaMillis() {
+        return ewmaNanos / 1_000_000D;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public static void register(String storageInstId, AtomLatencyStats stats) {
+        STORAGE_STATS.computeIfAbsent(storageInstId,
+            k -> Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()))).add(stats);
+    }
+
+    /**
+     * Summary of all slave atoms on a storage instance, null if none is registered
+     */
+    public static String describeStorage(String storageInstId) {
+        Set<AtomLatencyStats> statsSet = STORAGE_STATS.get(storageInstId);
+        if (statsSet == null) {
+            return null;
+        }
+        List<AtomLatencyStats> snapshot;
+        synchronized (statsSet) {
+            snapshot = new ArrayList<>(statsSet);
+        }
+        if (snapshot.isEmpty()) {
+            return null;
+        }
+        int inFlight = 0;
+        double ewmaMillis = 0;
+        int sampled = 0;
+        for (AtomLatencyStats stats : snapshot) {
+            inFlight += stats.getInFlight();
+            if (stats.getSamples() > 0) {
+                ewmaMillis += stats.getEwmaMillis();
+                sampled++;
+            }
+        }
+        double avgMillis = sampled == 0 ? 0 : ewmaMillis / sampled;
+        return String.format("rt_ms=%.3f,inflight=%d,score=%.3f", avgMillis, inFlight, avgMillis * (inFlight + 1));
+    }
+}
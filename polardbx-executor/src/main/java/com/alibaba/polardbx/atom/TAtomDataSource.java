@@ -59,6 +59,9 @@ public class TAtomDataSource extends AbstractTAtomDataSource {
     @Deprecated
     private boolean masterDB = true;
 
+    // 读连接的响应时间与并发，用于备库选择
+    private final AtomLatencyStats latencyStats = new AtomLatencyStats();
+
     public TAtomDataSource() {
         dsConfHandle = new TAtomDsConfHandle(this);
     }
@@ -304,4 +307,8 @@ public class TAtomDataSource extends AbstractTAtomDataSource {
     public boolean isMasterDB() {
         return masterDB;
     }
+
+    public AtomLatencyStats getLatencyStats() {
+        return latencyStats;
+    }
 }
@@ -16,14 +16,15 @@
 
 package com.alibaba.polardbx.executor.archive.reader;
 
-import com.alibaba.polardbx.common.Engine;
-import com.alibaba.polardbx.common.exception.TddlNestableRuntimeException;
+import com.alibaba.polardbx.common.properties.DynamicConfig;
 import com.alibaba.polardbx.common.utils.GeneralUtil;
 import com.alibaba.polardbx.executor.archive.columns.ColumnProvider;
 import com.alibaba.polardbx.executor.archive.columns.ColumnProviders;
 import com.alibaba.polardbx.executor.chunk.Block;
 import com.alibaba.polardbx.executor.chunk.BlockBuilder;
 import com.alibaba.polardbx.executor.chunk.BlockBuilders;
+import com.alibaba.polardbx.executor.chunk.BlockEncoding;
+import com.alibaba.polardbx.executor.chunk.BlockEncodingBuilders;
 import com.alibaba.polardbx.executor.chunk.Chunk;
 import com.alibaba.polardbx.gms.engine.FileSystemManager;
 import com.alibaba.polardbx.gms.engine.FileSystemUtils;
@@ -31,8 +32,10 @@ import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
 import com.alibaba.polardbx.optimizer.config.table.OSSOrcFileMeta;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.field.SessionProperties;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -42,20 +45,31 @@ import org.apache.orc.OrcFile;
 import org.apache.orc.Reader;
 import org.apache.orc.RecordReader;
 import org.apache.orc.TypeDescription;
+import sun.misc.Cleaner;
+import sun.nio.ch.DirectBuffer;
 
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Cache of decoded orc columns, bounded by bytes.
+ * Blocks are serialized off-heap and materialized lazily when the chunk is iterated.
+ */
 public class BufferPoolManager {
     private static volatile BufferPoolManager instance;
 
-    private static int BUFFER_POOL_SIZE = 200000;
-
-    private static int BUFFER_POOL_EXPIRE_HOURS = 24;
+    /**
+     * Only used to size the frequency sketch
+     */
+    private static final int EXPECTED_ENTRIES = 1 << 16;
 
     public static BufferPoolManager getInstance() {
         if (instance == null) {
@@ -68,26 +82,200 @@ public class BufferPoolManager {
         return instance;
     }
 
-    private Cache<Key, List<Block>> cache;
+    private final SegmentedLruCache<Key, SerializedBlocks> cache;
+
+    /**
+     * schema.table -> stats
+     */
+    private final Map<String, TableStats> tableStats = new ConcurrentHashMap<>();
 
     private BufferPoolManager() {
-        cache = CacheBuilder.newBuilder()
-                .maximumSize(BUFFER_POOL_SIZE)
-                .expireAfterWrite(BUFFER_POOL_EXPIRE_HOURS, TimeUnit.HOURS)
-                .softValues()
-                .build();
+        cache = new SegmentedLruCache<>(DynamicConfig.getInstance().getOssBufferPoolCapacity(), EXPECTED_ENTRIES,
+                SerializedBlocks::getSizeInBytes,
+                (key, value) -> {
+                    statsOf(key.logicalSchemaName, key.logicalTableName).bytes.add(-value.getSizeInBytes());
+                    // drop the reference held by cache, direct memory is freed once no reader holds it
+                    value.release();
+                });
     }
 
     public void clear() {
         cache.invalidateAll();
     }
 
+    /**
+     * @param logicalTableName null for all tables in schema
+     */
     public void invalidate(String schemaName, String logicalTableName) {
-        for (Key key : cache.asMap().keySet()) {
-            if (key.logicalSchemaName.equalsIgnoreCase(schemaName) && key.logicalTableName.equalsIgnoreCase(logicalTableName)) {
-                cache.invalidate(key);
+        cache.invalidateIf(key -> key.logicalSchemaName.equalsIgnoreCase(schemaName)
+                && (logicalTableName == null || key.logicalTableName.equalsIgnoreCase(logicalTableName)));
+    }
+
+    /**
+     * @return count of the columns already cached, used to read cached files first
+     */
+    public int cachedColumns(OSSOrcFileMeta fileMeta, List<ColumnMeta> columnMetas) {
+        int cached = 0;
+        for (ColumnMeta columnMeta : columnMetas) {
+            if (cache.containsKey(new Key(fileMeta.getLogicalTableSchema(), fileMeta.getLogicalTableName(),
+                    fileMeta.getFileName(), columnMeta.getName()))) {
+                cached++;
             }
         }
+        return cached;
+    }
+
+    public long getCapacity() {
+        return cache.getCapacity();
+    }
+
+    public long getUsedBytes() {
+        return cache.weightedSize();
+    }
+
+    public Map<String, TableStats> getTableStats() {
+        return tableStats;
+    }
+
+    private TableStats statsOf(String schemaName, String logicalTableName) {
+        return tableStats.computeIfAbsent(schemaName + "." + logicalTableName,
+                k -> new TableStats(schemaName, logicalTableName));
+    }
+
+    public static class TableStats {
+        public final String schemaName;
+        public final String tableName;
+        public final LongAdder hits = new LongAdder();
+        public final LongAdder misses = new LongAdder();
+        public final LongAdder rejects = new LongAdder();
+        /**
+         * Bytes held in cache
+         */
+        public final LongAdder bytes = new LongAdder();
+
+        public TableStats(String schemaName, String tableName) {
+            this.schemaName = schemaName;
+            this.tableName = tableName;
+        }
+    }
+
+    /**
+     * Blocks of one column serialized into a heap buffer, moved into a direct buffer
+     * only after the cache admits it, so that rejected columns never allocate direct memory.
+     * The direct buffer is freed explicitly when the last reference is released instead of waiting for GC.
+     */
+    static class SerializedBlocks {
+        private final BlockEncoding encoding;
+        private volatile ByteBuffer buffer;
+        private final int[] offsets;
+        /**
+         * Starts with the reference of cache
+         */
+        private final AtomicInteger refCount = new AtomicInteger(1);
+
+        private SerializedBlocks(BlockEncoding encoding, ByteBuffer buffer, int[] offsets) {
+            this.encoding = encoding;
+            this.buffer = buffer;
+            this.offsets = offsets;
+        }
+
+        static SerializedBlocks serialize(BlockEncoding encoding, List<Block> blocks) {
+            long estimated = 0;
+            for (Block block : blocks) {
+                estimated += block.getSizeInBytes();
+            }
+            DynamicSliceOutput output = new DynamicSliceOutput((int) Math.min(Integer.MAX_VALUE, estimated + 64));
+            int[] offsets = new int[blocks.size() + 1];
+            for (int i = 0; i < blocks.size(); i++) {
+                offsets[i] = output.size();
+                encoding.writeBlock(output, blocks.get(i));
+            }
+            offsets[blocks.size()] = output.size();
+
+            return new SerializedBlocks(encoding, output.slice().toByteBuffer().slice(), offsets);
+        }
+
+        /**
+         * Copy the bytes off heap, called once the entry is admitted
+         */
+        void moveOffHeap() {
+            final ByteBuffer heap = buffer;
+            if (heap.isDirect()) {
+                return;
+            }
+            ByteBuffer direct = ByteBuffer.allocateDirect(heap.remaining());
+            direct.put(heap.duplicate());
+            direct.flip();
+            buffer = direct;
+        }
+
+        boolean isOffHeap() {
+            return buffer.isDirect();
+        }
+
+        /**
+         * @return false if already released, the buffer must not be accessed then
+         */
+        boolean retain() {
+            while (true) {
+                final int count = refCount.get();
+                if (count <= 0) {
+                    return false;
+                }
+                if (refCount.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            if (refCount.decrementAndGet() == 0) {
+                free(buffer);
+            }
+        }
+
+        boolean isReleased() {
+            return refCount.get() <= 0;
+        }
+
+        private static void free(ByteBuffer buffer) {
+            if (!buffer.isDirect()) {
+                return;
+            }
+            Cleaner cleaner = ((DirectBuffer) buffer).cleaner();
+            if (cleaner != null) {
+                cleaner.clean();
+            }
+        }
+
+        long getSizeInBytes() {
+            return buffer.capacity() + (long) offsets.length * Integer.BYTES;
+        }
+
+        /**
+         * Must be called with a reference retained. Bytes are copied on heap so that the blocks,
+         * which are decoded on access, stay valid after the direct buffer is freed
+         *
+         * @return blocks decoded on access
+         */
+        List<Block> materialize() {
+            final ByteBuffer source = buffer.duplicate();
+            final byte[] bytes = new byte[source.remaining()];
+            source.get(bytes);
+            final Slice slice = Slices.wrappedBuffer(bytes);
+            return new AbstractList<Block>() {
+                @Override
+                public Block get(int index) {
+                    return encoding.readBlock(slice.slice(offsets[index], offsets[index + 1] - offsets[index])
+                            .getInput());
+                }
+
+                @Override
+                public int size() {
+                    return offsets.length - 1;
+                }
+            };
+        }
     }
 
     public static class Key {
@@ -121,79 +309,121 @@ public class BufferPoolManager {
     }
 
     public List<Block> getImpl(OSSOrcFileMeta fileMeta, String column, OSSReadOption ossReadOption,
-                               ExecutionContext executionContext) throws ExecutionException {
-        return cache.get(new Key(fileMeta.getLogicalTableSchema(), fileMeta.getLogicalTableName(), fileMeta.getFileName(), column), () -> {
-            long stamp = FileSystemManager.readLockWithTimeOut(ossReadOption.getEngine());
+                               ExecutionContext executionContext) {
+        Key key = new Key(fileMeta.getLogicalTableSchema(), fileMeta.getLogicalTableName(), fileMeta.getFileName(),
+                column);
+        TableStats stats = statsOf(key.logicalSchemaName, key.logicalTableName);
+
+        SerializedBlocks cached = cache.getIfPresent(key);
+        // may be evicted and released right after lookup, treat it as a miss then
+        if (cached != null && cached.retain()) {
             try {
-                FileSystem fileSystem = FileSystemManager.getFileSystemGroup(ossReadOption.getEngine()).getMaster();
+                stats.hits.increment();
+                return cached.materialize();
+            } finally {
+                cached.release();
+            }
+        }
+        stats.misses.increment();
 
-                String orcPath = FileSystemUtils.buildUri(fileSystem, fileMeta.getFileName());
+        ColumnMeta columnMeta = ossReadOption.getColumnMetas().stream()
+                .filter(x -> x.getName().equals(column)).findFirst().get();
+        List<Block> blocks = load(fileMeta, columnMeta, ossReadOption, executionContext);
 
-                Configuration configuration = new Configuration(false);
-                configuration.setLong(OrcConf.MAX_MERGE_DISTANCE.getAttribute(), ossReadOption.getMaxMergeDistance());
+        // capacity is dynamic config
+        cache.setCapacity(DynamicConfig.getInstance().getOssBufferPoolCapacity());
+        BlockEncoding encoding = BlockEncodingBuilders.create(ImmutableList.of(columnMeta.getDataType())).get(0);
+        SerializedBlocks serialized = SerializedBlocks.serialize(encoding, blocks);
+        if (cache.put(key, serialized)) {
+            stats.bytes.add(serialized.getSizeInBytes());
+            // skip if evicted in the meantime, otherwise the direct buffer would never be freed explicitly
+            if (serialized.retain()) {
+                try {
+                    serialized.moveOffHeap();
+                } finally {
+                    serialized.release();
+                }
+            }
+        } else {
+            stats.rejects.increment();
+        }
+        return blocks;
+    }
 
-                Reader reader = OrcFile.createReader(new Path(URI.create(orcPath)),
-                        OrcFile.readerOptions(configuration).filesystem(fileSystem).orcTail(fileMeta.getOrcTail()));
+    private List<Block> load(OSSOrcFileMeta fileMeta, ColumnMeta columnMeta, OSSReadOption ossReadOption,
+                             ExecutionContext executionContext) {
+        long stamp = FileSystemManager.readLockWithTimeOut(ossReadOption.getEngine());
+        try {
+            FileSystem fileSystem = FileSystemManager.getFileSystemGroup(ossReadOption.getEngine()).getMaster();
 
-                ColumnMeta columnMeta = ossReadOption.getColumnMetas().stream()
-                        .filter(x -> x.getName().equals(column)).findFirst().get();
+            String orcPath = FileSystemUtils.buildUri(fileSystem, fileMeta.getFileName());
 
-                TypeDescription schema = TypeDescription.createStruct();
+            Configuration configuration = new Configuration(false);
+            configuration.setLong(OrcConf.MAX_MERGE_DISTANCE.getAttribute(), ossReadOption.getMaxMergeDistance());
 
-                schema.addField(
-                        fileMeta.getTypeDescription().getFieldNames().get(fileMeta.getColumnMetas().indexOf(columnMeta)),
-                        fileMeta.getTypeDescription().getChildren().get(fileMeta.getColumnMetas().indexOf(columnMeta)).clone());
+            Reader reader = OrcFile.createReader(new Path(URI.create(orcPath)),
+                    OrcFile.readerOptions(configuration).filesystem(fileSystem).orcTail(fileMeta.getOrcTail()));
 
-                // reader filter options
-                Reader.Options readerOptions = new Reader.Options(configuration)
-                        .schema(schema);
+            TypeDescription schema = TypeDescription.createStruct();
 
-                RecordReader recordReader = reader.rows(readerOptions);
+            schema.addField(
+                    fileMeta.getTypeDescription().getFieldNames().get(fileMeta.getColumnMetas().indexOf(columnMeta)),
+                    fileMeta.getTypeDescription().getChildren().get(fileMeta.getColumnMetas().indexOf(columnMeta)).clone());
 
-                ColumnProvider columnProvider = ColumnProviders.getProvider(columnMeta);
+            // reader filter options
+            Reader.Options readerOptions = new Reader.Options(configuration)
+                    .schema(schema);
 
-                SessionProperties sessionProperties = SessionProperties.fromExecutionContext(executionContext);
+            RecordReader recordReader = reader.rows(readerOptions);
 
-                VectorizedRowBatch buffer = schema.createRowBatch(1000);
+            ColumnProvider columnProvider = ColumnProviders.getProvider(columnMeta);
 
-                List<Block> result = new ArrayList<>();
+            SessionProperties sessionProperties = SessionProperties.fromExecutionContext(executionContext);
 
-                while (recordReader.nextBatch(buffer)) {
-                    if (buffer.size == 0) {
-                        continue;
-                    }
-                    BlockBuilder blockBuilder = BlockBuilders.create(columnMeta.getDataType(), executionContext);
-                    columnProvider.transform(buffer.cols[0], blockBuilder, 0, buffer.size, sessionProperties);
-                    result.add(blockBuilder.build());
-                }
+            VectorizedRowBatch buffer = schema.createRowBatch(1000);
 
-                return result;
-            } catch (Throwable e) {
-                throw GeneralUtil.nestedException(e);
-            } finally {
-                FileSystemManager.unlockRead(ossReadOption.getEngine(), stamp);
+            List<Block> result = new ArrayList<>();
+
+            while (recordReader.nextBatch(buffer)) {
+                if (buffer.size == 0) {
+                    continue;
+                }
+                BlockBuilder blockBuilder = BlockBuilders.create(columnMeta.getDataType(), executionContext);
+                columnProvider.transform(buffer.cols[0], blockBuilder, 0, buffer.size, sessionProperties);
+                result.add(blockBuilder.build());
             }
-        });
+
+            return result;
+        } catch (Throwable e) {
+            throw GeneralUtil.nestedException(e);
+        } finally {
+            FileSystemManager.unlockRead(ossReadOption.getEngine(), stamp);
+        }
     }
 
+    /**
+     * @return chunks whose blocks are materialized on access
+     */
     public List<Chunk> get(OSSOrcFileMeta fileMeta, String[] columns, OSSReadOption ossReadOption,
                            ExecutionContext executionContext) {
-        try {
-            List<Block>[] blockLists = new List[columns.length];
-            for (int i = 0; i < columns.length; i++) {
-                blockLists[i] = getImpl(fileMeta, columns[i], ossReadOption, executionContext);
-            }
-            List<Chunk> result = new ArrayList<>();
-            for (int i = 0; i < blockLists[0].size(); i++) {
+        List<Block>[] blockLists = new List[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            blockLists[i] = getImpl(fileMeta, columns[i], ossReadOption, executionContext);
+        }
+        return new AbstractList<Chunk>() {
+            @Override
+            public Chunk get(int index) {
                 Block[] blocks = new Block[columns.length];
                 for (int j = 0; j < columns.length; j++) {
-                    blocks[j] = blockLists[j].get(i);
+                    blocks[j] = blockLists[j].get(index);
                 }
-                result.add(new Chunk(blocks));
+                return new Chunk(blocks);
             }
-            return result;
-        } catch (ExecutionException e) {
-            throw new TddlNestableRuntimeException(e);
-        }
+
+            @Override
+            public int size() {
+                return blockLists[0].size();
+            }
+        };
     }
 }
@@ -32,6 +32,7 @@ import com.alibaba.polardbx.executor.chunk.RandomAccessBlock;
 import com.alibaba.polardbx.executor.chunk.SliceBlock;
 import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
 import com.alibaba.polardbx.optimizer.config.table.FileMeta;
+import com.alibaba.polardbx.optimizer.config.table.OSSOrcFileMeta;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
@@ -47,6 +48,7 @@ import org.apache.calcite.util.ImmutableBitSet;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -60,11 +62,15 @@ public class OSSPhysicalTableReadResult extends SimpleOSSPhysicalTableReadResult
     private int taskIndex;
     private volatile boolean isFinished;
 
+    /**
+     * @param cacheFirst read the files with more columns in buffer pool first,
+     * only when the scan has no order requirement
+     */
     public OSSPhysicalTableReadResult(OSSReadOption readOption, ExecutionContext executionContext,
                                       List<AggregateCall> aggCalls, List<RelColumnOrigin> aggColumns,
-                                      ImmutableBitSet groupSet, RelDataType dataType) {
+                                      ImmutableBitSet groupSet, RelDataType dataType, boolean cacheFirst) {
         super();
-        List<ORCReaderTask> taskList = new ArrayList<>();
+        List<Pair<Integer, ORCReaderTask>> cachedAndTasks = new ArrayList<>();
         for (int i = 0; i < readOption.getTableFileList().size(); i++) {
             String tableFile = readOption.getTableFileList().get(i);
             FileMeta fileMeta = readOption.getPhyTableFileMetas().get(i);
@@ -72,8 +78,15 @@ public class OSSPhysicalTableReadResult extends SimpleOSSPhysicalTableReadResult
 
             ORCReaderTask task = new ORCReaderTask(readOption, tableFile, fileMeta, pruningResult,
                 aggCalls, aggColumns, dataType == null ? null : CalciteUtils.getTypes(dataType), executionContext);
-            taskList.add(task);
+            int cachedColumns = cacheFirst && fileMeta instanceof OSSOrcFileMeta ? BufferPoolManager.getInstance()
+                .cachedColumns((OSSOrcFileMeta) fileMeta, readOption.getColumnMetas()) : 0;
+            cachedAndTasks.add(Pair.of(cachedColumns, task));
+        }
+        if (cacheFirst) {
+            // Read the cached files first, before they are evicted by loading the missed ones. The sort is stable.
+            cachedAndTasks.sort(Comparator.comparingInt((Pair<Integer, ORCReaderTask> p) -> p.getKey()).reversed());
         }
+        List<ORCReaderTask> taskList = cachedAndTasks.stream().map(Pair::getValue).collect(Collectors.toList());
 
         this.orcReaderTaskList = taskList;
         this.readOption = readOption;
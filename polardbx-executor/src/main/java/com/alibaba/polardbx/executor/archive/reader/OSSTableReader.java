@@ -33,9 +33,10 @@ public class OSSTableReader implements BatchReader<OSSPhysicalTableReadResult> {
     private ImmutableBitSet group;
     private RelDataType dataType;
     List<RelColumnOrigin> aggColumns;
+    private boolean cacheFirst;
 
     public OSSTableReader(OSSReadOption OSSReadOption, ExecutionContext executionContext,
-                          LogicalAggregate agg, List<RelColumnOrigin> aggColumns) {
+                          LogicalAggregate agg, List<RelColumnOrigin> aggColumns, boolean cacheFirst) {
         this.OSSReadOption = OSSReadOption;
         this.executionContext = executionContext;
         if (agg != null) {
@@ -48,11 +49,13 @@ public class OSSTableReader implements BatchReader<OSSPhysicalTableReadResult> {
             this.dataType = null;
         }
         this.aggColumns = aggColumns;
+        this.cacheFirst = cacheFirst;
     }
 
     @Override
     public OSSPhysicalTableReadResult readBatch() {
-        return new OSSPhysicalTableReadResult(OSSReadOption, executionContext, aggCalls, aggColumns, group, dataType);
+        return new OSSPhysicalTableReadResult(OSSReadOption, executionContext, aggCalls, aggColumns, group, dataType,
+            cacheFirst);
     }
 
     @Override
@@ -0,0 +1,113 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.archive.reader;
+
+import com.alibaba.polardbx.executor.chunk.Block;
+import com.alibaba.polardbx.executor.chunk.BlockBuilders;
+import com.alibaba.polardbx.executor.chunk.DictionaryBlock;
+import com.alibaba.polardbx.executor.chunk.RunLengthEncodedBlock;
+import com.alibaba.polardbx.executor.chunk.SliceBlockBuilder;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.SliceType;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+
+/**
+ * Build dictionary or run-length encoded blocks from VARCHAR column vectors.
+ * <p>
+ * The rows of a dictionary-encoded ORC stripe all refer to the same dictionary buffer,
+ * and the same value always has the same (start, length) in it, so the distinct values
+ * can be found without comparing bytes.
+ */
+public class OrcDictionaryBlocks {
+
+    /**
+     * Give up when the distinct values exceed this ratio of rows.
+     */
+    private static final double MAX_DICTIONARY_RATIO = 0.5;
+
+    public static boolean isSupported(DataType dataType) {
+        return dataType instanceof SliceType;
+    }
+
+    /**
+     * @param selection positions of the vector to read, or null to read the first positionCount ones
+     * @return the encoded block, or null if the vector is not worth encoding
+     */
+    public static Block tryBuild(ColumnVector vector, DataType dataType, int[] selection, int positionCount,
+                                 ExecutionContext context) {
+        if (!isSupported(dataType) || !(vector instanceof BytesColumnVector) || positionCount == 0) {
+            return null;
+        }
+        BytesColumnVector bytesVector = (BytesColumnVector) vector;
+        SliceBlockBuilder dictionaryBuilder = (SliceBlockBuilder) BlockBuilders.create(dataType, context);
+
+        if (vector.isRepeating) {
+            appendEntry(bytesVector, 0, dictionaryBuilder);
+            return new RunLengthEncodedBlock(dictionaryBuilder.build(), positionCount);
+        }
+
+        final int maxEntries = Math.max(1, (int) (positionCount * MAX_DICTIONARY_RATIO));
+        final Long2IntOpenHashMap entries = new Long2IntOpenHashMap();
+        entries.defaultReturnValue(-1);
+        final int[] ids = new int[positionCount];
+        byte[] base = null;
+        int nullId = -1;
+        int entryCount = 0;
+
+        for (int i = 0; i < positionCount; i++) {
+            int idx = selection == null ? i : selection[i];
+            if (vector.isNull[idx]) {
+                if (nullId == -1) {
+                    nullId = entryCount++;
+                    dictionaryBuilder.appendNull();
+                }
+                ids[i] = nullId;
+                continue;
+            }
+            if (base == null) {
+                base = bytesVector.vector[idx];
+            } else if (bytesVector.vector[idx] != base) {
+                // 不是字典编码的 stripe
+                return null;
+            }
+            long key = ((long) bytesVector.start[idx] << 32) | (bytesVector.length[idx] & 0xFFFFFFFFL);
+            int id = entries.get(key);
+            if (id == -1) {
+                if (entryCount >= maxEntries) {
+                    return null;
+                }
+                id = entryCount++;
+                entries.put(key, id);
+                dictionaryBuilder.writeBytes(base, bytesVector.start[idx], bytesVector.length[idx]);
+            }
+            ids[i] = id;
+        }
+        return new DictionaryBlock(dictionaryBuilder.build(), ids);
+    }
+
+    private static void appendEntry(BytesColumnVector vector, int idx, SliceBlockBuilder builder) {
+        if (vector.isNull[idx]) {
+            builder.appendNull();
+        } else {
+            builder.writeBytes(vector.vector[idx], vector.start[idx], vector.length[idx]);
+        }
+    }
+}
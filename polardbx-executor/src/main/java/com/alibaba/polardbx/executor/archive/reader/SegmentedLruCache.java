@@ -0,0 +1,226 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.archive.reader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache bounded by total weight, evicted by segmented LRU.
+ * <p>
+ * New entries go to the probation segment and are promoted to the protected segment on hit.
+ * When space is needed, a new entry is only admitted if it is accessed more frequently
+ * than all the victims it replaces (TinyLFU), so that a large one-off scan can not flush
+ * the hot entries.
+ */
+public class SegmentedLruCache<K, V> {
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final ToLongFunction<V> weigher;
+    private final BiConsumer<K, V> removalListener;
+    private final FrequencySketch sketch;
+
+    /**
+     * Both in LRU order, eldest first
+     */
+    private final LinkedHashMap<K, Node<V>> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Node<V>> protect = new LinkedHashMap<>();
+
+    private long capacity;
+    private long probationWeight;
+    private long protectedWeight;
+
+    public SegmentedLruCache(long capacity, int expectedEntries, ToLongFunction<V> weigher,
+                             BiConsumer<K, V> removalListener) {
+        this.capacity = capacity;
+        this.weigher = weigher;
+        this.removalListener = removalListener;
+        this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    public synchronized V getIfPresent(K key) {
+        sketch.increment(key);
+
+        Node<V> node = protect.remove(key);
+        if (node != null) {
+            protect.put(key, node);
+            return node.value;
+        }
+
+        node = probation.remove(key);
+        if (node == null) {
+            return null;
+        }
+
+        // promote
+        probationWeight -= node.weight;
+        protect.put(key, node);
+        protectedWeight += node.weight;
+        demoteProtected();
+        return node.value;
+    }
+
+    public synchronized boolean containsKey(K key) {
+        return protect.containsKey(key) || probation.containsKey(key);
+    }
+
+    /**
+     * @return false if the entry is not admitted
+     */
+    public synchronized boolean put(K key, V value) {
+        final long weight = weigher.applyAsLong(value);
+        invalidate(key);
+        if (weight > capacity) {
+            return false;
+        }
+
+        final List<K> victims = new ArrayList<>();
+        if (!selectVictims(key, weight, victims)) {
+            return false;
+        }
+        for (K victim : victims) {
+            invalidate(victim);
+        }
+
+        probation.put(key, new Node<>(value, weight));
+        probationWeight += weight;
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        Node<V> node = probation.remove(key);
+        if (node != null) {
+            probationWeight -= node.weight;
+        } else if ((node = protect.remove(key)) != null) {
+            protectedWeight -= node.weight;
+        } else {
+            return;
+        }
+        removalListener.accept(key, node.value);
+    }
+
+    public synchronized void invalidateIf(Predicate<K> predicate) {
+        final List<K> keys = new ArrayList<>();
+        for (K key : probation.keySet()) {
+            if (predicate.test(key)) {
+                keys.add(key);
+            }
+        }
+        for (K key : protect.keySet()) {
+            if (predicate.test(key)) {
+                keys.add(key);
+            }
+        }
+        keys.forEach(this::invalidate);
+    }
+
+    public void invalidateAll() {
+        invalidateIf(key -> true);
+    }
+
+    /**
+     * Shrink immediately if the new capacity is smaller
+     */
+    public synchronized void setCapacity(long capacity) {
+        if (this.capacity == capacity) {
+            return;
+        }
+        this.capacity = capacity;
+        while (weightedSize() > capacity) {
+            final K eldest = eldest();
+            if (eldest == null) {
+                break;
+            }
+            invalidate(eldest);
+        }
+        demoteProtected();
+    }
+
+    public synchronized long weightedSize() {
+        return probationWeight + protectedWeight;
+    }
+
+    public synchronized int size() {
+        return probation.size() + protect.size();
+    }
+
+    public synchronized long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Victims are taken from probation first, the candidate is rejected if any victim is hotter
+     */
+    private boolean selectVictims(K candidate, long weight, List<K> victims) {
+        long toFree = weightedSize() + weight - capacity;
+        if (toFree <= 0) {
+            return true;
+        }
+        final int candidateFrequency = sketch.frequency(candidate);
+        for (Map<K, Node<V>> segment : Arrays.asList(probation, protect)) {
+            final Iterator<Map.Entry<K, Node<V>>> it = segment.entrySet().iterator();
+            while (toFree > 0 && it.hasNext()) {
+                final Map.Entry<K, Node<V>> entry = it.next();
+                if (sketch.frequency(entry.getKey()) >= candidateFrequency) {
+                    return false;
+                }
+                victims.add(entry.getKey());
+                toFree -= entry.getValue().weight;
+            }
+        }
+        return toFree <= 0;
+    }
+
+    private void demoteProtected() {
+        final long protectedCapacity = (long) (capacity * PROTECTED_RATIO);
+        final Iterator<Map.Entry<K, Node<V>>> it = protect.entrySet().iterator();
+        while (protectedWeight > protectedCapacity && it.hasNext()) {
+            final Map.Entry<K, Node<V>> entry = it.next();
+            it.remove();
+            protectedWeight -= entry.getValue().weight;
+            probation.put(entry.getKey(), entry.getValue());
+            probationWeight += entry.getValue().weight;
+        }
+    }
+
+    private K eldest() {
+        if (!probation.isEmpty()) {
+            return probation.keySet().iterator().next();
+        }
+        if (!protect.isEmpty()) {
+            return protect.keySet().iterator().next();
+        }
+        return null;
+    }
+
+    private static class Node<V> {
+        final V value;
+        final long weight;
+
+        Node(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
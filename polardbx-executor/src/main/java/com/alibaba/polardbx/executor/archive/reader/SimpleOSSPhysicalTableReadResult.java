@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.executor.archive.reader;
 
+import com.alibaba.polardbx.common.properties.ConnectionParams;
 import com.alibaba.polardbx.common.utils.GeneralUtil;
 import com.alibaba.polardbx.common.utils.Pair;
 import com.alibaba.polardbx.executor.archive.columns.ColumnProvider;
@@ -24,6 +25,7 @@ import com.alibaba.polardbx.executor.chunk.Block;
 import com.alibaba.polardbx.executor.chunk.BlockBuilder;
 import com.alibaba.polardbx.executor.chunk.BlockBuilders;
 import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.alibaba.polardbx.executor.chunk.DictionaryBlock;
 import com.alibaba.polardbx.executor.chunk.IntegerBlock;
 import com.alibaba.polardbx.executor.chunk.LongBlock;
 import com.alibaba.polardbx.executor.chunk.MutableChunk;
@@ -97,10 +99,22 @@ public class SimpleOSSPhysicalTableReadResult {
         RandomAccessBlock[] blocksForCompute = new RandomAccessBlock[filterBitmap.length];
 
         int inProjectCount = inProjectDataTypeList.size();
+        final boolean useDictionary = useDictionaryBlock(context);
+
+        // a single dictionary-encoded filter column is evaluated on its dictionary entries
+        DictionaryBlock dictionaryForFilter = null;
+        int dictionaryFilterIndex = useDictionary ? singleFilterColumn(filterBitmap, inProjectCount) : -1;
+        if (dictionaryFilterIndex >= 0) {
+            Block encoded = OrcDictionaryBlocks.tryBuild(batch.cols[dictionaryFilterIndex],
+                inProjectDataTypeList.get(dictionaryFilterIndex), null, resultRows, context);
+            if (encoded instanceof DictionaryBlock) {
+                dictionaryForFilter = (DictionaryBlock) encoded;
+            }
+        }
 
         // make block for pre-filter
         for (int i = 0; i < inProjectCount; i++) {
-            if (filterBitmap[i] == 1) {
+            if (filterBitmap[i] == 1 && dictionaryForFilter == null) {
                 DataType dataType = inProjectDataTypeList.get(i);
                 BlockBuilder blockBuilder = BlockBuilders.create(dataType, context);
 
@@ -117,8 +131,10 @@ public class SimpleOSSPhysicalTableReadResult {
         }
 
         // pre-filter
-        Pair<Integer, int[]> sel =
-            preFilter(condition, preAllocatedChunk, filterBitmap, context,
+        Pair<Integer, int[]> sel = dictionaryForFilter != null
+            ? preFilterOnDictionary(condition, preAllocatedChunk, context, dictionaryForFilter,
+            dictionaryFilterIndex, inProjectCount)
+            : preFilter(condition, preAllocatedChunk, filterBitmap, context,
                 resultRows, blocksForCompute, inProjectCount);
 
         int selSize = sel.getKey();
@@ -131,6 +147,13 @@ public class SimpleOSSPhysicalTableReadResult {
         if (!withAgg()) {
             Block[] blocks = new Block[blockBuilders.length];
             for (int i = 0; i < blockCount; i++) {
+                if (useDictionary) {
+                    blocks[i] = encodedBlock(batch, inProjectDataTypeList, outProject[i], selection, selSize,
+                        dictionaryForFilter, dictionaryFilterIndex, context);
+                    if (blocks[i] != null) {
+                        continue;
+                    }
+                }
                 BlockBuilder blockBuilder = blockBuilders[i];
                 ColumnVector columnVector = batch.cols[outProject[i]];
                 this.columnProviders.get(outProject[i]).transform(
@@ -148,6 +171,13 @@ public class SimpleOSSPhysicalTableReadResult {
         // deal with agg with filter
         Block[] blocks = new Block[outProject.length];
         for (int i = 0; i < outProject.length; i++) {
+            if (useDictionary) {
+                blocks[i] = encodedBlock(batch, inProjectDataTypeList, outProject[i], selection, selSize,
+                    dictionaryForFilter, dictionaryFilterIndex, context);
+                if (blocks[i] != null) {
+                    continue;
+                }
+            }
             DataType dataType = inProjectDataTypeList.get(outProject[i]);
             BlockBuilder blockBuilder = BlockBuilders.create(dataType, context);
 
@@ -171,8 +201,15 @@ public class SimpleOSSPhysicalTableReadResult {
         final int resultRows = batch.size;
         // buffer to block builders
         Block[] blocks = new Block[blockBuilders.length];
+        final boolean useDictionary = useDictionaryBlock(context);
         for (int i = 0; i < inProjectDataTypeList.size(); i++) {
             DataType dataType = inProjectDataTypeList.get(i);
+            if (useDictionary) {
+                blocks[i] = OrcDictionaryBlocks.tryBuild(batch.cols[i], dataType, null, resultRows, context);
+                if (blocks[i] != null) {
+                    continue;
+                }
+            }
             BlockBuilder blockBuilder = BlockBuilders.create(dataType, context);
 
             ColumnVector columnVector = batch.cols[i];
@@ -209,7 +246,89 @@ public class SimpleOSSPhysicalTableReadResult {
 
         // get filtered block
         RandomAccessBlock filteredBlock = preAllocatedChunk.slotIn(condition.getOutputIndex());
+        boolean[] matched = matchedPositions(filteredBlock);
+
+        // convert to selection (need cache)
+        int[] selection = new int[matched.length];
+        int selSize = 0;
+        for (int pos = 0; pos < selection.length; pos++) {
+            if (matched[pos]) {
+                selection[selSize++] = pos;
+            }
+        }
+
+        return Pair.of(selSize, selection);
+    }
+
+    /**
+     * Evaluate the condition once per dictionary entry, and select the rows by their ids.
+     */
+    @NotNull
+    protected Pair<Integer, int[]> preFilterOnDictionary(VectorizedExpression condition,
+                                                         MutableChunk preAllocatedChunk,
+                                                         ExecutionContext context,
+                                                         DictionaryBlock dictionaryBlock,
+                                                         int columnIndex, int inProjectCount) {
+        Block dictionary = dictionaryBlock.getDictionary();
+        preAllocatedChunk.setSlotAt((RandomAccessBlock) dictionary, columnIndex);
+        preAllocatedChunk.reallocate(dictionary.getPositionCount(), inProjectCount, true);
+        EvaluationContext evaluationContext = new EvaluationContext(preAllocatedChunk, context);
+        condition.eval(evaluationContext);
+
+        boolean[] matched = matchedPositions(preAllocatedChunk.slotIn(condition.getOutputIndex()));
 
+        int positionCount = dictionaryBlock.getPositionCount();
+        int[] ids = dictionaryBlock.getIds();
+        int[] selection = new int[positionCount];
+        int selSize = 0;
+        for (int pos = 0; pos < positionCount; pos++) {
+            if (matched[ids[pos]]) {
+                selection[selSize++] = pos;
+            }
+        }
+        return Pair.of(selSize, selection);
+    }
+
+    /**
+     * Build the encoded block of the selected rows, reusing the dictionary of the filter column.
+     *
+     * @return null if the column should be read as a flat block
+     */
+    private Block encodedBlock(VectorizedRowBatch batch, List<DataType<?>> inProjectDataTypeList, int columnIndex,
+                               int[] selection, int selSize, DictionaryBlock dictionaryForFilter,
+                               int dictionaryFilterIndex, ExecutionContext context) {
+        if (dictionaryForFilter != null && columnIndex == dictionaryFilterIndex) {
+            int[] ids = new int[selSize];
+            for (int i = 0; i < selSize; i++) {
+                ids[i] = dictionaryForFilter.getId(selection[i]);
+            }
+            return new DictionaryBlock(dictionaryForFilter.getDictionary(), ids);
+        }
+        return OrcDictionaryBlocks.tryBuild(batch.cols[columnIndex], inProjectDataTypeList.get(columnIndex),
+            selection, selSize, context);
+    }
+
+    private static int singleFilterColumn(int[] filterBitmap, int inProjectCount) {
+        int index = -1;
+        for (int i = 0; i < inProjectCount; i++) {
+            if (filterBitmap[i] == 1) {
+                if (index >= 0) {
+                    return -1;
+                }
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    private static boolean useDictionaryBlock(ExecutionContext context) {
+        return context.getParamManager().getBoolean(ConnectionParams.ENABLE_OSS_DICTIONARY_BLOCK);
+    }
+
+    /**
+     * @return whether the condition is true at each position of the result block
+     */
+    private static boolean[] matchedPositions(RandomAccessBlock filteredBlock) {
         boolean[] nulls = filteredBlock.nulls();
         boolean[] inputArray = null;
         if (filteredBlock instanceof LongBlock) {
@@ -228,16 +347,10 @@ public class SimpleOSSPhysicalTableReadResult {
             GeneralUtil.nestedException("Invalid result block: " + filteredBlock.getClass());
         }
 
-        // convert to selection (need cache)
-        int[] selection = new int[inputArray.length];
-        int selSize = 0;
-        for (int pos = 0; pos < selection.length; pos++) {
-            if (nulls[pos] == false && inputArray[pos] == true) {
-                selection[selSize++] = pos;
-            }
+        for (int pos = 0; pos < inputArray.length; pos++) {
+            inputArray[pos] = !nulls[pos] && inputArray[pos];
         }
-
-        return Pair.of(selSize, selection);
+        return inputArray;
     }
 
     protected Chunk aggExec(Chunk chunk, List<DataType<?>> inProjectDataTypeList, int[] outProject,
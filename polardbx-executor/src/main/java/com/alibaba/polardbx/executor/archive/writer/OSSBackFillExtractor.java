@@ -186,6 +186,14 @@ public class OSSBackFillExtractor extends Extractor {
         return this.sourcePhyTables;
     }
 
+    /**
+     * File store is written sequentially for each physical table, and file store source can not be sampled.
+     */
+    @Override
+    protected boolean supportSplitRanges() {
+        return false;
+    }
+
     /**
      * Get max primary key value from physical table
      *
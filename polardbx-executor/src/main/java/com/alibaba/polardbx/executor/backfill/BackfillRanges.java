@@ -0,0 +1,260 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.backfill;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.polardbx.common.jdbc.ParameterContext;
+import com.alibaba.polardbx.common.utils.GeneralUtil;
+import com.alibaba.polardbx.common.utils.TStringUtil;
+import com.alibaba.polardbx.executor.gsi.utils.Transformer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primary key ranges of one physical table which are backfilled concurrently.
+ * Serialized into EXTRA of backfill_objects as checkpoint, so that a resumed job
+ * continues from the position mark of each range.
+ * <p>
+ * Range i covers (lower, upper], null lower means unbounded and null upper means
+ * the upper bound of the physical table.
+ */
+public class BackfillRanges {
+
+    private long estimatedRows;
+    private List<Range> ranges = new ArrayList<>();
+
+    public BackfillRanges() {
+    }
+
+    public BackfillRanges(long estimatedRows, List<List<ParameterContext>> splitPoints) {
+        this.estimatedRows = estimatedRows;
+        Position lower = null;
+        for (List<ParameterContext> splitPoint : splitPoints) {
+            final Position upper = Position.fromParams(splitPoint);
+            ranges.add(new Range(ranges.size(), lower, upper));
+            lower = upper;
+        }
+        ranges.add(new Range(ranges.size(), lower, null));
+    }
+
+    /**
+     * @return null if extra does not contain any range
+     */
+    public static BackfillRanges fromExtra(String extra) {
+        if (TStringUtil.isBlank(extra)) {
+            return null;
+        }
+        try {
+            final BackfillRanges result = JSON.parseObject(extra, BackfillRanges.class);
+            return null == result || GeneralUtil.isEmpty(result.ranges) ? null : result;
+        } catch (Exception e) {
+            // Not written by split backfill
+            return null;
+        }
+    }
+
+    public String toExtra() {
+        return JSON.toJSONString(this);
+    }
+
+    /**
+     * Pick splitCount - 1 evenly spaced split points from ordered samples
+     */
+    public static <T> List<T> pickSplitPoints(List<T> orderedSamples, int splitCount) {
+        final List<T> result = new ArrayList<>();
+        final int sampleCount = orderedSamples.size();
+        if (splitCount <= 1 || sampleCount == 0) {
+            return result;
+        }
+        int lastIndex = -1;
+        for (int i = 1; i < splitCount; i++) {
+            final int index = (int) ((long) i * sampleCount / splitCount);
+            if (index > lastIndex && index < sampleCount) {
+                result.add(orderedSamples.get(index));
+                lastIndex = index;
+            }
+        }
+        return result;
+    }
+
+    public long sumSuccessRowCount() {
+        return ranges.stream().mapToLong(Range::getSuccessRowCount).sum();
+    }
+
+    public boolean allFinished() {
+        return ranges.stream().allMatch(Range::isFinished);
+    }
+
+    /**
+     * Progress of the physical table, never reach 100 before all ranges finished
+     */
+    public int computeProgress() {
+        if (allFinished()) {
+            return 100;
+        }
+        final long finished = ranges.stream().filter(Range::isFinished).count();
+        final long byRange = 100 * finished / ranges.size();
+        final long byRows = estimatedRows <= 0 ? 0 : 100 * sumSuccessRowCount() / estimatedRows;
+        return (int) Math.min(99, Math.max(byRange, byRows));
+    }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    public void setEstimatedRows(long estimatedRows) {
+        this.estimatedRows = estimatedRows;
+    }
+
+    public List<Range> getRanges() {
+        return ranges;
+    }
+
+    public void setRanges(List<Range> ranges) {
+        this.ranges = ranges;
+    }
+
+    public static class Range {
+        private int id;
+        private Position lower;
+        private Position upper;
+        private Position last;
+        private long successRowCount;
+        private boolean finished;
+
+        public Range() {
+        }
+
+        public Range(int id, Position lower, Position upper) {
+            this.id = id;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        /**
+         * Lower bound of next batch, position mark first
+         */
+        public List<ParameterContext> nextLowerParams() {
+            final Position from = null != last ? last : lower;
+            return null == from ? new ArrayList<>() : from.toParams();
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public Position getLower() {
+            return lower;
+        }
+
+        public void setLower(Position lower) {
+            this.lower = lower;
+        }
+
+        public Position getUpper() {
+            return upper;
+        }
+
+        public void setUpper(Position upper) {
+            this.upper = upper;
+        }
+
+        public Position getLast() {
+            return last;
+        }
+
+        public void setLast(Position last) {
+            this.last = last;
+        }
+
+        public long getSuccessRowCount() {
+            return successRowCount;
+        }
+
+        public void setSuccessRowCount(long successRowCount) {
+            this.successRowCount = successRowCount;
+        }
+
+        public boolean isFinished() {
+            return finished;
+        }
+
+        public void setFinished(boolean finished) {
+            this.finished = finished;
+        }
+
+        @Override
+        public String toString() {
+            return "Range{" + id + ", (" + lower + ", " + upper + "], last=" + last + ", rows=" + successRowCount
+                + ", finished=" + finished + "}";
+        }
+    }
+
+    /**
+     * Serialized primary key value
+     */
+    public static class Position {
+        private List<String> methods = new ArrayList<>();
+        private List<String> values = new ArrayList<>();
+
+        public Position() {
+        }
+
+        public static Position fromParams(List<ParameterContext> params) {
+            final Position position = new Position();
+            for (ParameterContext pc : params) {
+                position.methods.add(pc.getParameterMethod().name());
+                position.values.add(Transformer.serializeParam(pc));
+            }
+            return position;
+        }
+
+        public List<ParameterContext> toParams() {
+            final List<ParameterContext> params = new ArrayList<>(values.size());
+            for (int i = 0; i < values.size(); i++) {
+                params.add(Transformer.buildParamByType(i + 1, methods.get(i), values.get(i)));
+            }
+            return params;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public List<String> getValues() {
+            return values;
+        }
+
+        public void setValues(List<String> values) {
+            this.values = values;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(values);
+        }
+    }
+}
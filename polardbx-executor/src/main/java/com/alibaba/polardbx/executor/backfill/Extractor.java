@@ -34,6 +34,7 @@ import com.alibaba.polardbx.executor.ddl.newengine.DdlEngineStats;
 import com.alibaba.polardbx.executor.ddl.newengine.cross.CrossEngineValidator;
 import com.alibaba.polardbx.executor.gsi.GsiBackfillManager;
 import com.alibaba.polardbx.executor.gsi.GsiUtils;
+import com.alibaba.polardbx.executor.gsi.PhysicalPlanBuilder;
 import com.alibaba.polardbx.executor.gsi.utils.Transformer;
 import com.alibaba.polardbx.executor.spi.ITransactionManager;
 import com.alibaba.polardbx.executor.utils.failpoint.FailPoint;
@@ -79,10 +80,12 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static com.alibaba.polardbx.ErrorCode.ER_LOCK_DEADLOCK;
 import static com.alibaba.polardbx.ErrorCode.ER_LOCK_WAIT_TIMEOUT;
+import static com.alibaba.polardbx.executor.gsi.GsiBackfillManager.BackfillStatus.RUNNING;
 import static com.alibaba.polardbx.executor.gsi.GsiBackfillManager.BackfillStatus.SUCCESS;
 import static com.alibaba.polardbx.executor.gsi.GsiBackfillManager.BackfillStatus.UNFINISHED;
 import static com.alibaba.polardbx.executor.gsi.GsiUtils.RETRY_COUNT;
@@ -98,6 +101,12 @@ import static com.alibaba.polardbx.executor.utils.failpoint.FailPointKey.FP_RAND
  */
 public class Extractor {
 
+    /**
+     * Expected sampled rows for each split range
+     */
+    private static final int SAMPLE_ROWS_PER_RANGE = 100;
+    private static final long MAX_SAMPLE_ROWS = 100000L;
+
     protected final String schemaName;
     protected final String sourceTableName;
     private final String targetTableName;
@@ -367,12 +376,14 @@ public class Extractor {
                     ec.getTraceId(), tasks.get(0).get(0).jobId, tasks.size(), parallelism));
         }
 
+        // Large physical table is split into primary key ranges which are backfilled concurrently.
+        final List<Runnable> units = buildBackfillUnits(ec, tasks, consumer);
+
         AtomicReference<Exception> excep = new AtomicReference<>(null);
         if (parallelism <= 0 || parallelism >= PriorityWorkQueue.getInstance().getCorePoolSize()) {
             // Full queued.
-            tasks.forEach(v -> {
-                FutureTask<Void> task = new FutureTask<>(
-                    () -> foreachPhyTableBatch(v.get(0).physicalDb, v.get(0).physicalTable, v, ec, consumer), null);
+            units.forEach(v -> {
+                FutureTask<Void> task = new FutureTask<>(v, null);
                 futures.add(task);
                 PriorityWorkQueue.getInstance()
                     .executeWithContext(task, PriorityFIFOTask.TaskPriority.GSI_BACKFILL_TASK);
@@ -381,7 +392,7 @@ public class Extractor {
 
             // Use a bounded blocking queue to control the parallelism.
             BlockingQueue<Object> blockingQueue = new ArrayBlockingQueue<>((int) parallelism);
-            tasks.forEach(v -> {
+            units.forEach(v -> {
                 try {
                     blockingQueue.put(new Object());
                 } catch (Exception e) {
@@ -390,7 +401,7 @@ public class Extractor {
                 if (null == excep.get()) {
                     FutureTask<Void> task = new FutureTask<>(() -> {
                         try {
-                            foreachPhyTableBatch(v.get(0).physicalDb, v.get(0).physicalTable, v, ec, consumer);
+                            v.run();
                         } finally {
                             // Poll in finally to prevent dead lock on putting blockingQueue.
                             blockingQueue.poll();
@@ -440,6 +451,138 @@ public class Extractor {
         reporter.updateBackfillStatus(ec, GsiBackfillManager.BackfillStatus.SUCCESS);
     }
 
+    /**
+     * Build backfill units, one for each physical table or for each unfinished range of a split physical table
+     */
+    private List<Runnable> buildBackfillUnits(ExecutionContext ec,
+                                              List<List<GsiBackfillManager.BackfillObjectBean>> tasks,
+                                              BatchConsumer consumer) {
+        final List<Runnable> units = new ArrayList<>(tasks.size());
+        final RangeSampler sampler = supportSplitRanges() ? buildRangeSampler(ec, tasks) : null;
+
+        for (List<GsiBackfillManager.BackfillObjectBean> v : tasks) {
+            final String dbIndex = v.get(0).physicalDb;
+            final String phyTable = v.get(0).physicalTable;
+
+            // Ranges of resumed job are loaded from checkpoint
+            BackfillRanges ranges = supportSplitRanges() ? BackfillRanges.fromExtra(v.get(0).extra) : null;
+            if (null == ranges && null != sampler && isFreshPhyTable(v)) {
+                ranges = sampler.split(ec, dbIndex, phyTable);
+            }
+
+            if (null == ranges) {
+                units.add(() -> foreachPhyTableBatch(dbIndex, phyTable, v, ec, consumer));
+            } else {
+                final BackfillRanges finalRanges = ranges;
+                ranges.getRanges()
+                    .stream()
+                    .filter(range -> !range.isFinished())
+                    .forEach(range -> units.add(
+                        () -> foreachRangeBatch(dbIndex, phyTable, v, finalRanges, range, ec, consumer)));
+            }
+        }
+        Collections.shuffle(units);
+        return units;
+    }
+
+    /**
+     * Whether physical table can be split into ranges, source must be scanned by PhyTableOperation
+     */
+    protected boolean supportSplitRanges() {
+        return true;
+    }
+
+    private boolean isFreshPhyTable(List<GsiBackfillManager.BackfillObjectBean> backfillObjects) {
+        return backfillObjects.get(0).successRowCount == 0
+            && GeneralUtil.isEmpty(initSelectParam(backfillObjects, primaryKeysIdMap))
+            && GeneralUtil.isNotEmpty(buildUpperBoundParam(backfillObjects.size(), backfillObjects, primaryKeysIdMap));
+    }
+
+    private RangeSampler buildRangeSampler(ExecutionContext ec,
+                                           List<List<GsiBackfillManager.BackfillObjectBean>> tasks) {
+        final int splitCount = (int) ec.getParamManager().getLong(ConnectionParams.GSI_BACKFILL_SPLIT_COUNT);
+        final long minRows = ec.getParamManager().getLong(ConnectionParams.GSI_BACKFILL_SPLIT_MIN_ROWS);
+        if (splitCount <= 1 || tasks.isEmpty()) {
+            return null;
+        }
+
+        // No physical table can be large enough if the logical table is not, unknown statistics is skipped too
+        final long logicalRows =
+            OptimizerContext.getContext(schemaName).getStatisticManager().getRowCount(sourceTableName).getLongValue();
+        if (logicalRows <= 0 || logicalRows < minRows) {
+            return null;
+        }
+
+        final int phyTableCount = reporter.getBackfillBean().backfillObjects.size();
+        final long avgRows = Math.max(1L, logicalRows / Math.max(1, phyTableCount));
+        final long expectSamples = (long) SAMPLE_ROWS_PER_RANGE * splitCount;
+        final float percentage = (float) Math.max(0.001, Math.min(100.0, 100.0 * expectSamples / avgRows));
+
+        final ExtractorInfo info = buildExtractorInfo(ec, schemaName, sourceTableName, targetTableName);
+        final PhyTableOperation planSample = new PhysicalPlanBuilder(schemaName, ec)
+            .buildSelectPkSampleForBackfill(info.getSourceTableMeta(), info.getPrimaryKeys(), percentage,
+                MAX_SAMPLE_ROWS);
+        return new RangeSampler(planSample, percentage, splitCount, minRows, info.getPrimaryKeys().size());
+    }
+
+    /**
+     * Sample primary keys of physical table on DN and pick split points from them
+     */
+    private class RangeSampler {
+        private final PhyTableOperation planSample;
+        private final float percentage;
+        private final int splitCount;
+        private final long minRows;
+        private final int pkCount;
+
+        private RangeSampler(PhyTableOperation planSample, float percentage, int splitCount, long minRows,
+                             int pkCount) {
+            this.planSample = planSample;
+            this.percentage = percentage;
+            this.splitCount = splitCount;
+            this.minRows = minRows;
+            this.pkCount = pkCount;
+        }
+
+        private BackfillRanges split(ExecutionContext baseEc, String dbIndex, String phyTable) {
+            final Map<Integer, ParameterContext> params = new HashMap<>(1);
+            params.put(1, PlannerUtils.buildParameterContextForTableName(phyTable, 1));
+
+            final PhyTableOperation plan = new PhyTableOperation(planSample);
+            plan.setDbIndex(dbIndex);
+            plan.setTableNames(ImmutableList.of(ImmutableList.of(phyTable)));
+            plan.setParam(params);
+
+            final List<Map<Integer, ParameterContext>> samples = GsiUtils.wrapWithSingleDbTrx(tm, baseEc, (ec) -> {
+                final Cursor cursor = ExecutorHelper.execute(plan, ec);
+                try {
+                    return Transformer.buildBatchParam(cursor);
+                } finally {
+                    cursor.close(new ArrayList<>());
+                }
+            });
+
+            final long estimatedRows = (long) (samples.size() * 100.0 / percentage);
+            if (estimatedRows < minRows) {
+                return null;
+            }
+
+            final List<List<ParameterContext>> splitPoints = BackfillRanges.pickSplitPoints(samples, splitCount)
+                .stream()
+                .map(row -> IntStream.range(0, pkCount).mapToObj(i -> row.get(i + 1)).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+            if (splitPoints.isEmpty()) {
+                return null;
+            }
+
+            final BackfillRanges ranges = new BackfillRanges(estimatedRows, splitPoints);
+            SQLRecorderLogger.ddlLogger.warn(MessageFormat.format(
+                "[{0}] Backfill split {1}[{2}] estimated rows {3} into {4} range(s) with {5} sample(s)",
+                baseEc.getTraceId(), dbIndex, phyTable, estimatedRows, ranges.getRanges().size(), samples.size()));
+            return ranges;
+        }
+    }
+
     /**
      * Lock and read batch from physical table, feed them to consumer
      *
@@ -455,12 +598,73 @@ public class Extractor {
         // Load upper bound
         List<ParameterContext> upperBoundParam =
             buildUpperBoundParam(backfillObjects.size(), backfillObjects, primaryKeysIdMap);
-        final boolean withUpperBound = GeneralUtil.isNotEmpty(upperBoundParam);
 
         // Init historical position mark
-        long successRowCount = backfillObjects.get(0).successRowCount;
+        final AtomicLong successRowCount = new AtomicLong(backfillObjects.get(0).successRowCount);
         List<ParameterContext> lastPk = initSelectParam(backfillObjects, primaryKeysIdMap);
 
+        final List<Map<Integer, ParameterContext>> lastBatch =
+            scanRange(dbIndex, phyTable, lastPk, upperBoundParam, ec, loader,
+                (batch, beforeLastPk, nextPk, finished) -> reporter.updatePositionMark(ec, backfillObjects,
+                    successRowCount.addAndGet(batch.size()), nextPk, beforeLastPk, finished, primaryKeysIdMap));
+
+        reporter.addBackfillCount(successRowCount.get());
+
+        SQLRecorderLogger.ddlLogger.warn(MessageFormat.format("[{0}] Last backfill row for {1}[{2}][{3}]: {4}",
+            ec.getTraceId(),
+            dbIndex,
+            phyTable,
+            successRowCount.get(),
+            GsiUtils.rowToString(lastBatch.isEmpty() ? null : lastBatch.get(lastBatch.size() - 1))));
+    }
+
+    /**
+     * Lock and read batch from one range of physical table, feed them to consumer
+     */
+    private void foreachRangeBatch(String dbIndex, String phyTable,
+                                   List<GsiBackfillManager.BackfillObjectBean> backfillObjects,
+                                   BackfillRanges ranges, BackfillRanges.Range range,
+                                   ExecutionContext ec,
+                                   BatchConsumer loader) {
+        final List<ParameterContext> tableUpperBound =
+            buildUpperBoundParam(backfillObjects.size(), backfillObjects, primaryKeysIdMap);
+        final List<ParameterContext> upperBoundParam =
+            null == range.getUpper() ? tableUpperBound : range.getUpper().toParams();
+        final long historyRowCount = range.getSuccessRowCount();
+
+        final List<Map<Integer, ParameterContext>> lastBatch =
+            scanRange(dbIndex, phyTable, range.nextLowerParams(), upperBoundParam, ec, loader,
+                (batch, beforeLastPk, nextPk, finished) -> reporter.updateRangePositionMark(ec, backfillObjects,
+                    ranges, range, batch.size(), nextPk, finished, tableUpperBound, primaryKeysIdMap));
+
+        reporter.addBackfillCount(range.getSuccessRowCount() - historyRowCount);
+
+        SQLRecorderLogger.ddlLogger.warn(MessageFormat.format(
+            "[{0}] Last backfill row for {1}[{2}] range {3}[{4}]: {5}",
+            ec.getTraceId(),
+            dbIndex,
+            phyTable,
+            range.getId(),
+            range.getSuccessRowCount(),
+            GsiUtils.rowToString(lastBatch.isEmpty() ? null : lastBatch.get(lastBatch.size() - 1))));
+    }
+
+    /**
+     * Scan (lastPk, upperBound] batch by batch with keyset pagination, every batch obeys the throttle
+     *
+     * @param lastPk lower bound, empty for unbounded
+     * @param upperBoundParam upper bound, empty for unbounded
+     * @param listener called after each batch loaded
+     * @return last batch
+     */
+    private List<Map<Integer, ParameterContext>> scanRange(String dbIndex, String phyTable,
+                                                           List<ParameterContext> lastPk,
+                                                           List<ParameterContext> upperBoundParam,
+                                                           ExecutionContext ec,
+                                                           BatchConsumer loader,
+                                                           BatchListener listener) {
+        final boolean withUpperBound = GeneralUtil.isNotEmpty(upperBoundParam);
+
         List<Map<Integer, ParameterContext>> lastBatch = null;
         boolean finished = false;
         do {
@@ -502,9 +706,7 @@ public class Extractor {
             finished = lastBatch.size() != batchSize;
 
             // Update position mark
-            successRowCount += lastBatch.size();
-            reporter.updatePositionMark(ec, backfillObjects, successRowCount, lastPk, beforeLastPk, finished,
-                primaryKeysIdMap);
+            listener.onBatch(lastBatch, beforeLastPk, lastPk, finished);
             ec.getStats().backfillRows.addAndGet(lastBatch.size());
             DdlEngineStats.METRIC_BACKFILL_ROWS_FINISHED.update(lastBatch.size());
             long elapsedMillis = System.currentTimeMillis() - start;
@@ -530,14 +732,13 @@ public class Extractor {
         } while (!finished);
 
         DdlEngineStats.METRIC_BACKFILL_ROWS_SPEED.set(0);
-        reporter.addBackfillCount(successRowCount);
+        return lastBatch;
+    }
 
-        SQLRecorderLogger.ddlLogger.warn(MessageFormat.format("[{0}] Last backfill row for {1}[{2}][{3}]: {4}",
-            ec.getTraceId(),
-            dbIndex,
-            phyTable,
-            successRowCount,
-            GsiUtils.rowToString(lastBatch.isEmpty() ? null : lastBatch.get(lastBatch.size() - 1))));
+    @FunctionalInterface
+    private interface BatchListener {
+        void onBatch(List<Map<Integer, ParameterContext>> batch, List<ParameterContext> beforeLastPk,
+                     List<ParameterContext> lastPk, boolean finished);
     }
 
     /**
@@ -779,6 +980,40 @@ public class Extractor {
             final Integer partial =
                 backfillManager.updateBackfillObject(backfillObjects, pk, successRowCount, status, primaryKeysIdMap);
 
+            updateProgress(ec, backfillObjects, partial);
+        }
+
+        /**
+         * Checkpoint all ranges of physical table into EXTRA, position mark is set to upper bound after all finished
+         */
+        public void updateRangePositionMark(ExecutionContext ec,
+                                            List<GsiBackfillManager.BackfillObjectBean> backfillObjects,
+                                            BackfillRanges ranges, BackfillRanges.Range range, long batchRowCount,
+                                            List<ParameterContext> lastPk, boolean finished,
+                                            List<ParameterContext> upperBound, Map<Long, Long> primaryKeysIdMap) {
+            final int partial;
+            synchronized (ranges) {
+                range.setSuccessRowCount(range.getSuccessRowCount() + batchRowCount);
+                if (null != lastPk) {
+                    range.setLast(BackfillRanges.Position.fromParams(lastPk));
+                }
+                range.setFinished(finished);
+
+                final boolean allFinished = ranges.allFinished();
+                backfillManager.updateBackfillObject(backfillObjects,
+                    allFinished ? upperBound : null,
+                    ranges.sumSuccessRowCount(),
+                    allFinished ? SUCCESS : RUNNING,
+                    primaryKeysIdMap,
+                    ranges.toExtra());
+                partial = ranges.computeProgress();
+            }
+
+            updateProgress(ec, backfillObjects, partial);
+        }
+
+        private void updateProgress(ExecutionContext ec, List<GsiBackfillManager.BackfillObjectBean> backfillObjects,
+                                    Integer partial) {
             assert backfillBean.backfillObjects != null;
             final GsiBackfillManager.BackfillObjectKey key = backfillObjects.get(0).key();
             final int objectsCount = backfillBean.backfillObjects.size();
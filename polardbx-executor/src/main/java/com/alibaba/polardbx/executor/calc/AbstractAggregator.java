@@ -69,6 +69,10 @@ public abstract class AbstractAggregator implements Aggregator {
         return originTargetIndexes;
     }
 
+    public int[] getAggIndexInChunk() {
+        return aggIndexInChunk;
+    }
+
     public void setAggIndexInChunk(int[] aggIndexInChunk) {
         this.aggIndexInChunk = aggIndexInChunk;
     }
@@ -27,6 +27,43 @@ public interface Aggregator {
      */
     void accumulate(int groupId, Chunk inputChunk, int position);
 
+    /**
+     * @param groupIds group id of each position in the input chunk
+     * @param selection positions to accumulate, or null for positions [0, selSize)
+     * @param selSize number of positions to accumulate
+     * <p>
+     * Accumulate a batch of values column-at-a-time. Falls back to per-row accumulation by default,
+     * aggregators on primitive types override it to avoid the per-row virtual call and block lookup
+     */
+    default void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        if (selection == null) {
+            for (int pos = 0; pos < selSize; pos++) {
+                accumulate(groupIds[pos], inputChunk, pos);
+            }
+        } else {
+            for (int i = 0; i < selSize; i++) {
+                final int pos = selection[i];
+                accumulate(groupIds[pos], inputChunk, pos);
+            }
+        }
+    }
+
+    /**
+     * Whether {@link #retract} can undo accumulate, so that a sliding window frame is moved
+     * incrementally instead of being recomputed for each row
+     */
+    default boolean supportsRetract() {
+        return false;
+    }
+
+    /**
+     * Remove a value accumulated before from the group. Null inputs are skipped like in accumulate,
+     * and the caller resets the group instead once no non-null input is left in it.
+     */
+    default void retract(int groupId, Chunk inputChunk, int position) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support retract");
+    }
+
     /**
      * write aggregated result to the block builder
      */
@@ -19,6 +19,7 @@ package com.alibaba.polardbx.executor.calc.aggfunctions;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
 import com.alibaba.polardbx.executor.calc.AbstractAggregator;
 import com.alibaba.polardbx.optimizer.state.NullableLongGroupState;
+import com.alibaba.polardbx.executor.chunk.Block;
 import com.alibaba.polardbx.executor.chunk.BlockBuilder;
 import com.alibaba.polardbx.executor.chunk.Chunk;
 
@@ -55,6 +56,62 @@ public class Count extends AbstractAggregator {
         }
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        assert inputChunk.getBlockCount() > 0;
+        final Block[] blocks = new Block[aggIndexInChunk.length];
+        boolean mayHaveNull = false;
+        for (int i = 0; i < aggIndexInChunk.length; i++) {
+            blocks[i] = inputChunk.getBlock(aggIndexInChunk[i]);
+            mayHaveNull |= blocks[i].mayHaveNull();
+        }
+
+        int currentGroup = -1;
+        long count = 0L;
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (mayHaveNull && anyNull(blocks, position)) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            if (groupId != currentGroup) {
+                if (currentGroup >= 0) {
+                    groupState.set(currentGroup, count);
+                }
+                currentGroup = groupId;
+                count = groupState.get(groupId);
+            }
+            count++;
+        }
+        if (currentGroup >= 0) {
+            groupState.set(currentGroup, count);
+        }
+    }
+
+    @Override
+    public boolean supportsRetract() {
+        return !isDistinct;
+    }
+
+    @Override
+    public void retract(int groupId, Chunk inputChunk, int position) {
+        for (int i = 0; i < aggIndexInChunk.length; i++) {
+            if (inputChunk.getBlock(aggIndexInChunk[i]).isNull(position)) {
+                return;
+            }
+        }
+        groupState.set(groupId, groupState.get(groupId) - 1);
+    }
+
+    private static boolean anyNull(Block[] blocks, int position) {
+        for (Block block : blocks) {
+            if (block.isNull(position)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void writeResultTo(int groupId, BlockBuilder bb) {
         if (groupState.isNull(groupId)) {
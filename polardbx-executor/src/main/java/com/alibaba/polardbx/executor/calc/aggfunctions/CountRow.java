@@ -44,6 +44,36 @@ public class CountRow extends AbstractAggregator {
         groupState.set(groupId, groupState.get(groupId) + 1);
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        int currentGroup = -1;
+        long count = 0L;
+        for (int i = 0; i < selSize; i++) {
+            final int groupId = groupIds[selection == null ? i : selection[i]];
+            if (groupId != currentGroup) {
+                if (currentGroup >= 0) {
+                    groupState.set(currentGroup, count);
+                }
+                currentGroup = groupId;
+                count = groupState.get(groupId);
+            }
+            count++;
+        }
+        if (currentGroup >= 0) {
+            groupState.set(currentGroup, count);
+        }
+    }
+
+    @Override
+    public boolean supportsRetract() {
+        return !isDistinct;
+    }
+
+    @Override
+    public void retract(int groupId, Chunk inputChunk, int position) {
+        groupState.set(groupId, groupState.get(groupId) - 1);
+    }
+
     @Override
     public void writeResultTo(int position, BlockBuilder bb) {
         bb.writeLong(groupState.get(position));
@@ -92,6 +92,24 @@ public class Decimal2DecimalSum extends AbstractAggregator {
         }
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        if (!(state instanceof NullableDecimalGroupState)) {
+            // box 状态可能在中途切换，逐行处理
+            super.accumulate(groupIds, inputChunk, selection, selSize);
+            return;
+        }
+        final DecimalBlock decimalBlock = (DecimalBlock) inputChunk.getBlock(aggIndexInChunk[0]);
+        final boolean mayHaveNull = decimalBlock.mayHaveNull();
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (mayHaveNull && decimalBlock.isNull(position)) {
+                continue;
+            }
+            normalAdd(groupIds[position], position, decimalBlock);
+        }
+    }
+
     private void normalAdd(int groupId, int position, DecimalBlock decimalBlock) {
         NullableDecimalGroupState decimalGroupState = (NullableDecimalGroupState) state;
         Decimal value = decimalBlock.getDecimal(position);
@@ -116,6 +134,36 @@ public class Decimal2DecimalSum extends AbstractAggregator {
         }
     }
 
+    @Override
+    public boolean supportsRetract() {
+        return !isDistinct;
+    }
+
+    @Override
+    public void retract(int groupId, Chunk inputChunk, int position) {
+        Block block = inputChunk.getBlock(aggIndexInChunk[0]);
+        if (block.isNull(position)) {
+            return;
+        }
+        if (state instanceof DecimalBoxGroupState) {
+            this.state = ((DecimalBoxGroupState) state).toDecimalGroupState();
+        }
+
+        NullableDecimalGroupState decimalGroupState = (NullableDecimalGroupState) state;
+        Decimal value = ((DecimalBlock) block).getDecimal(position);
+        Decimal beforeValue = decimalGroupState.get(groupId);
+        FastDecimalUtils.sub(
+            beforeValue.getDecimalStructure(),
+            value.getDecimalStructure(),
+            cache.getDecimalStructure(),
+            true);
+
+        // swap variants to avoid allocating memory
+        Decimal afterValue = cache;
+        cache = beforeValue;
+        decimalGroupState.set(groupId, afterValue);
+    }
+
     @Override
     public void writeResultTo(int groupId, BlockBuilder bb) {
         if (state instanceof DecimalBoxGroupState) {
@@ -69,6 +69,35 @@ public abstract class LittleNum2DecimalSum extends AbstractAggregator {
         }
     }
 
+    @Override
+    public boolean supportsRetract() {
+        return !isDistinct;
+    }
+
+    @Override
+    public void retract(int groupId, Chunk inputChunk, int position) {
+        Block block = inputChunk.getBlock(aggIndexInChunk[0]);
+        if (block.isNull(position)) {
+            return;
+        }
+
+        final long value = getLong(block, position);
+        long oldValue = partialGroupState.get(groupId);
+        long sumValue = oldValue - value;
+        // HD 2-12 Overflow iff the arguments have different signs and the result differs from the first
+        if (((oldValue ^ value) & (oldValue ^ sumValue)) < 0) {
+            if (overflowToDecimal == null) {
+                overflowToDecimal = new HashMap<>();
+            }
+            Decimal previousSum = overflowToDecimal.getOrDefault(groupId, Decimal.ZERO);
+            overflowToDecimal.put(groupId,
+                previousSum.add(Decimal.fromLong(oldValue)).subtract(Decimal.fromLong(value)));
+            partialGroupState.set(groupId, 0L);
+        } else {
+            partialGroupState.set(groupId, sumValue);
+        }
+    }
+
     abstract long getLong(Block block, int position);
 
     @Override
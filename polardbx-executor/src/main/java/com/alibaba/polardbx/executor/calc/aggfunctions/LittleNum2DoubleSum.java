@@ -52,6 +52,42 @@ public abstract class LittleNum2DoubleSum extends AbstractAggregator {
         }
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        final Block block = inputChunk.getBlock(aggIndexInChunk[0]);
+        final boolean mayHaveNull = block.mayHaveNull();
+
+        // 保持与逐行累加相同的求和顺序
+        int currentGroup = -1;
+        boolean sumIsNull = true;
+        double sum = 0;
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (mayHaveNull && block.isNull(position)) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            if (groupId != currentGroup) {
+                if (currentGroup >= 0) {
+                    groupState.set(currentGroup, sum);
+                }
+                currentGroup = groupId;
+                sumIsNull = groupState.isNull(groupId);
+                sum = sumIsNull ? 0 : groupState.get(groupId);
+            }
+            final double value = getDouble(block, position);
+            if (sumIsNull) {
+                sum = value;
+                sumIsNull = false;
+            } else {
+                sum = value + sum;
+            }
+        }
+        if (currentGroup >= 0) {
+            groupState.set(currentGroup, sum);
+        }
+    }
+
     abstract double getDouble(Block block, int position);
 
     @Override
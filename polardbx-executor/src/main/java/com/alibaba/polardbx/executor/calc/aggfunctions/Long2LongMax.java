@@ -62,6 +62,41 @@ public class Long2LongMax extends AbstractAggregator {
         }
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk chunk, int[] selection, int selSize) {
+        final Block block = chunk.getBlock(aggIndexInChunk[0]);
+        final boolean mayHaveNull = block.mayHaveNull();
+
+        int currentGroup = -1;
+        boolean maxIsNull = true;
+        long max = 0;
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (mayHaveNull && block.isNull(position)) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            if (groupId != currentGroup) {
+                if (currentGroup >= 0) {
+                    groupState.set(currentGroup, max);
+                }
+                currentGroup = groupId;
+                maxIsNull = groupState.isNull(groupId);
+                max = maxIsNull ? 0 : groupState.get(groupId);
+            }
+            final long value = block.getLong(position);
+            if (maxIsNull) {
+                max = value;
+                maxIsNull = false;
+            } else {
+                max = Math.max(value, max);
+            }
+        }
+        if (currentGroup >= 0) {
+            groupState.set(currentGroup, max);
+        }
+    }
+
     @Override
     public void writeResultTo(int groupId, BlockBuilder bb) {
         if (groupState.isNull(groupId)) {
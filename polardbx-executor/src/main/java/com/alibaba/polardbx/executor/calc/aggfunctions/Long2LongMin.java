@@ -41,4 +41,39 @@ public class Long2LongMin extends Long2LongMax {
             groupState.set(groupId, afterValue);
         }
     }
+
+    @Override
+    public void accumulate(int[] groupIds, Chunk chunk, int[] selection, int selSize) {
+        final Block block = chunk.getBlock(aggIndexInChunk[0]);
+        final boolean mayHaveNull = block.mayHaveNull();
+
+        int currentGroup = -1;
+        boolean minIsNull = true;
+        long min = 0;
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (mayHaveNull && block.isNull(position)) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            if (groupId != currentGroup) {
+                if (currentGroup >= 0) {
+                    groupState.set(currentGroup, min);
+                }
+                currentGroup = groupId;
+                minIsNull = groupState.isNull(groupId);
+                min = minIsNull ? 0 : groupState.get(groupId);
+            }
+            final long value = block.getLong(position);
+            if (minIsNull) {
+                min = value;
+                minIsNull = false;
+            } else {
+                min = Math.min(value, min);
+            }
+        }
+        if (currentGroup >= 0) {
+            groupState.set(currentGroup, min);
+        }
+    }
 }
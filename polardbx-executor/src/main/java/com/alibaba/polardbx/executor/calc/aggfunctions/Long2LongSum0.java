@@ -53,6 +53,34 @@ public class Long2LongSum0 extends AbstractAggregator {
         groupState.set(groupId, afterValue);
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk chunk, int[] selection, int selSize) {
+        final Block block = chunk.getBlock(aggIndexInChunk[0]);
+        final boolean mayHaveNull = block.mayHaveNull();
+
+        // 连续相同分组的值先在局部变量中累加
+        int currentGroup = -1;
+        long sum = 0L;
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (mayHaveNull && block.isNull(position)) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            if (groupId != currentGroup) {
+                if (currentGroup >= 0) {
+                    groupState.set(currentGroup, sum);
+                }
+                currentGroup = groupId;
+                sum = groupState.get(groupId);
+            }
+            sum += block.getLong(position);
+        }
+        if (currentGroup >= 0) {
+            groupState.set(currentGroup, sum);
+        }
+    }
+
     @Override
     public void resetToInitValue(int groupId) {
         groupState.set(groupId, 0L);
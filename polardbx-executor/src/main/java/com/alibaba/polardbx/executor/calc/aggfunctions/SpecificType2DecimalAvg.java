@@ -86,6 +86,32 @@ public abstract class SpecificType2DecimalAvg extends AbstractAggregator {
         }
     }
 
+    @Override
+    public boolean supportsRetract() {
+        return !isDistinct;
+    }
+
+    @Override
+    public void retract(int groupId, Chunk chunk, int position) {
+        Block block = chunk.getBlock(aggIndexInChunk[0]);
+        if (block.isNull(position)) {
+            return;
+        }
+
+        long count = state.getLong(groupId) - 1;
+        if (count == 0) {
+            state.setNull(groupId);
+            return;
+        }
+        final Decimal value = getDecimal(block, position);
+        Decimal before = state.getDecimal(groupId);
+        FastDecimalUtils.sub(before.getDecimalStructure(), value.getDecimalStructure(), cache.getDecimalStructure(),
+            true);
+        Decimal sum = cache;
+        cache = before;
+        state.set(groupId, sum, count);
+    }
+
     abstract Decimal getDecimal(Block block, int position);
 
     @Override
@@ -33,7 +33,30 @@ import java.util.List;
 
 public abstract class BlockEncodingBuilders {
 
+    /**
+     * Create the encodings of columns. Each encoding also accepts dictionary and
+     * run-length encoded blocks of its column type.
+     */
     public static List<BlockEncoding> create(List<DataType> types) {
+        return create(types, true, false);
+    }
+
+    /**
+     * @param multiFormat write dictionary and run-length encoded blocks as they are, with a marker
+     * before each block. Otherwise blocks are flattened and written in the format of older nodes.
+     * @param lightweightEncoding also pack flat long and slice blocks when writing, requires multi-format
+     */
+    public static List<BlockEncoding> create(List<DataType> types, boolean multiFormat,
+                                             boolean lightweightEncoding) {
+        List<BlockEncoding> flatEncodings = createFlat(types);
+        List<BlockEncoding> blockEncodingList = new ArrayList<>(flatEncodings.size());
+        for (BlockEncoding flatEncoding : flatEncodings) {
+            blockEncodingList.add(new MultiFormatBlockEncoding(flatEncoding, multiFormat, lightweightEncoding));
+        }
+        return blockEncodingList;
+    }
+
+    private static List<BlockEncoding> createFlat(List<DataType> types) {
         // Very special cases e.g. compound type
         if (types == null || types.isEmpty()) {
             throw new IllegalArgumentException("types is empty!");
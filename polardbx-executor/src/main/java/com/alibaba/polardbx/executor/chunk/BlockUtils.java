@@ -18,6 +18,7 @@ package com.alibaba.polardbx.executor.chunk;
 
 import com.alibaba.polardbx.common.datatype.Decimal;
 import com.alibaba.polardbx.common.datatype.UInt64;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 
 public class BlockUtils {
@@ -46,6 +47,18 @@ public class BlockUtils {
         }
     }
 
+    /**
+     * Materialize dictionary and run-length encoded blocks, for the operators requiring random access blocks.
+     */
+    public static Block flatten(Block block, ExecutionContext context) {
+        if (block instanceof DictionaryBlock) {
+            return ((DictionaryBlock) block).flatten(context);
+        } else if (block instanceof RunLengthEncodedBlock) {
+            return ((RunLengthEncodedBlock) block).flatten(context);
+        }
+        return block;
+    }
+
     public static void copySelectedInCommon(boolean selectedInUse, int[] sel, int size, RandomAccessBlock srcVector,
                                             RandomAccessBlock dstVector) {
         DataType dataType = dstVector.getType();
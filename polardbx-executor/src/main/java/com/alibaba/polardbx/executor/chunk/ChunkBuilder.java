@@ -92,13 +92,51 @@ public class ChunkBuilder {
         }
     }
 
+    /**
+     * Append positions[offset, offset + length) of the source chunk column by column
+     */
+    public void appendPositions(Chunk sourceChunk, int[] positions, int offset, int length) {
+        final int end = offset + length;
+        for (int channel = 0; channel < blockBuilders.length; channel++) {
+            Block block = sourceChunk.getBlock(channel);
+            BlockBuilder blockBuilder = blockBuilders[channel];
+            if (block.mayHaveNull()) {
+                for (int i = offset; i < end; i++) {
+                    if (block.isNull(positions[i])) {
+                        blockBuilder.appendNull();
+                    } else {
+                        block.writePositionTo(positions[i], blockBuilder);
+                    }
+                }
+            } else {
+                for (int i = offset; i < end; i++) {
+                    block.writePositionTo(positions[i], blockBuilder);
+                }
+            }
+        }
+        declaredPositions += length;
+    }
+
+    public int remainingCapacity() {
+        return Math.max(0, chunkLimit - declaredPositions);
+    }
+
     public Chunk fromPartition(List<Integer> assignedPositions, Chunk sourceChunk) {
         if (assignedPositions.isEmpty()) {
             return null;
         }
-        final int sourceChunkLimit = assignedPositions.size();
         // pre-unbox
-        int[] positions = assignedPositions.stream().mapToInt(i -> i).toArray();
+        return fromPartition(assignedPositions.stream().mapToInt(i -> i).toArray(), sourceChunk);
+    }
+
+    /**
+     * The positions array may be referenced by the result chunk as selection, so do not reuse it
+     */
+    public Chunk fromPartition(int[] positions, Chunk sourceChunk) {
+        if (positions.length == 0) {
+            return null;
+        }
+        final int sourceChunkLimit = positions.length;
         // for delay materialization
         int selSize = sourceChunkLimit;
         int[] newSelection;
@@ -145,6 +145,12 @@ public abstract class Converters {
         public Block apply(Block block) {
             if (block instanceof SliceBlock) {
                 ((SliceBlock) block).resetCollation(collationName);
+            } else if (block instanceof DictionaryBlock
+                && ((DictionaryBlock) block).getDictionary() instanceof SliceBlock) {
+                ((SliceBlock) ((DictionaryBlock) block).getDictionary()).resetCollation(collationName);
+            } else if (block instanceof RunLengthEncodedBlock
+                && ((RunLengthEncodedBlock) block).getValue() instanceof SliceBlock) {
+                ((SliceBlock) ((RunLengthEncodedBlock) block).getValue()).resetCollation(collationName);
             }
             return block;
         }
@@ -0,0 +1,266 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.chunk;
+
+import com.alibaba.polardbx.common.datatype.Decimal;
+import com.alibaba.polardbx.common.utils.hash.IStreamingHasher;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.google.common.base.Preconditions;
+import io.airlift.slice.Slice;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+import static com.alibaba.polardbx.common.utils.memory.SizeOf.sizeOf;
+
+/**
+ * Block of ids pointing into a dictionary block, for low-cardinality columns.
+ * A null row points to a null entry of the dictionary.
+ * <p>
+ * Hash codes are computed once per dictionary entry, and rows of blocks sharing
+ * the same dictionary are compared by ids first.
+ */
+public class DictionaryBlock implements Block {
+
+    private static final long INSTANCE_SIZE = ClassLayout.parseClass(DictionaryBlock.class).instanceSize();
+
+    private final Block dictionary;
+
+    private final int[] ids;
+
+    private final int positionCount;
+
+    /**
+     * Lazily computed hash code of each dictionary entry
+     */
+    private int[] entryHashes;
+
+    public DictionaryBlock(Block dictionary, int[] ids) {
+        this(dictionary, ids, ids.length);
+    }
+
+    public DictionaryBlock(Block dictionary, int[] ids, int positionCount) {
+        Preconditions.checkArgument(positionCount <= ids.length, "ids is shorter than position count");
+        this.dictionary = Preconditions.checkNotNull(dictionary);
+        this.ids = ids;
+        this.positionCount = positionCount;
+    }
+
+    public Block getDictionary() {
+        return dictionary;
+    }
+
+    public int[] getIds() {
+        return ids;
+    }
+
+    public int getId(int position) {
+        checkReadablePosition(position);
+        return ids[position];
+    }
+
+    public DataType getType() {
+        return ((RandomAccessBlock) dictionary).getType();
+    }
+
+    /**
+     * Get the region of a VARCHAR dictionary without copying.
+     */
+    public Slice getRegion(int position) {
+        return ((SliceBlock) dictionary).getRegion(getId(position));
+    }
+
+    /**
+     * Materialize the rows into a flat block of the dictionary type
+     */
+    public Block flatten(ExecutionContext context) {
+        BlockBuilder blockBuilder = BlockBuilders.create(getType(), context, positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            dictionary.writePositionTo(ids[position], blockBuilder);
+        }
+        return blockBuilder.build();
+    }
+
+    @Override
+    public boolean isNull(int position) {
+        return dictionary.isNull(getId(position));
+    }
+
+    @Override
+    public byte getByte(int position) {
+        return dictionary.getByte(getId(position));
+    }
+
+    @Override
+    public short getShort(int position) {
+        return dictionary.getShort(getId(position));
+    }
+
+    @Override
+    public int getInt(int position) {
+        return dictionary.getInt(getId(position));
+    }
+
+    @Override
+    public long getLong(int position) {
+        return dictionary.getLong(getId(position));
+    }
+
+    @Override
+    public double getDouble(int position) {
+        return dictionary.getDouble(getId(position));
+    }
+
+    @Override
+    public float getFloat(int position) {
+        return dictionary.getFloat(getId(position));
+    }
+
+    @Override
+    public Timestamp getTimestamp(int position) {
+        return dictionary.getTimestamp(getId(position));
+    }
+
+    @Override
+    public Date getDate(int position) {
+        return dictionary.getDate(getId(position));
+    }
+
+    @Override
+    public Time getTime(int position) {
+        return dictionary.getTime(getId(position));
+    }
+
+    @Override
+    public String getString(int position) {
+        return dictionary.getString(getId(position));
+    }
+
+    @Override
+    public Decimal getDecimal(int position) {
+        return dictionary.getDecimal(getId(position));
+    }
+
+    @Override
+    public BigInteger getBigInteger(int position) {
+        return dictionary.getBigInteger(getId(position));
+    }
+
+    @Override
+    public boolean getBoolean(int position) {
+        return dictionary.getBoolean(getId(position));
+    }
+
+    @Override
+    public byte[] getByteArray(int position) {
+        return dictionary.getByteArray(getId(position));
+    }
+
+    @Override
+    public Object getObject(int position) {
+        return dictionary.getObject(getId(position));
+    }
+
+    @Override
+    public Object getObjectForCmp(int position) {
+        return dictionary.getObjectForCmp(getId(position));
+    }
+
+    @Override
+    public int hashCode(int position) {
+        return entryHashes()[getId(position)];
+    }
+
+    @Override
+    public int[] hashCodeVector() {
+        final int[] hashes = entryHashes();
+        int[] results = new int[positionCount];
+        for (int position = 0; position < positionCount; position++) {
+            results[position] = hashes[ids[position]];
+        }
+        return results;
+    }
+
+    private int[] entryHashes() {
+        if (entryHashes == null) {
+            int[] hashes = new int[dictionary.getPositionCount()];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = dictionary.hashCode(i);
+            }
+            entryHashes = hashes;
+        }
+        return entryHashes;
+    }
+
+    @Override
+    public boolean equals(int position, Block other, int otherPosition) {
+        final int id = getId(position);
+        if (other instanceof DictionaryBlock) {
+            DictionaryBlock that = (DictionaryBlock) other;
+            int otherId = that.getId(otherPosition);
+            if (that.dictionary == dictionary && otherId == id) {
+                return true;
+            }
+            return dictionary.equals(id, that.dictionary, otherId);
+        }
+        if (other instanceof RunLengthEncodedBlock) {
+            return dictionary.equals(id, ((RunLengthEncodedBlock) other).getValue(), 0);
+        }
+        return dictionary.equals(id, other, otherPosition);
+    }
+
+    @Override
+    public void addToHasher(IStreamingHasher sink, int position) {
+        dictionary.addToHasher(sink, getId(position));
+    }
+
+    @Override
+    public boolean mayHaveNull() {
+        return dictionary.mayHaveNull();
+    }
+
+    @Override
+    public long estimateSize() {
+        return INSTANCE_SIZE + sizeOf(ids) + sizeOf(entryHashes) + dictionary.estimateSize();
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return (long) Integer.BYTES * positionCount + dictionary.getSizeInBytes();
+    }
+
+    @Override
+    public int getPositionCount() {
+        return positionCount;
+    }
+
+    @Override
+    public void writePositionTo(int position, BlockBuilder blockBuilder) {
+        dictionary.writePositionTo(getId(position), blockBuilder);
+    }
+
+    private void checkReadablePosition(int position) {
+        if (position < 0 || position >= positionCount) {
+            throw new IllegalArgumentException("position is not valid");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.chunk;
+
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+
+/**
+ * Writes the ids followed by the dictionary in the encoding of the flat block.
+ */
+public class DictionaryBlockEncoding implements BlockEncoding {
+
+    private final BlockEncoding dictionaryEncoding;
+
+    public DictionaryBlockEncoding(BlockEncoding dictionaryEncoding) {
+        this.dictionaryEncoding = dictionaryEncoding;
+    }
+
+    @Override
+    public String getName() {
+        return dictionaryEncoding.getName();
+    }
+
+    @Override
+    public void writeBlock(SliceOutput sliceOutput, Block block) {
+        DictionaryBlock dictionaryBlock = (DictionaryBlock) block;
+        int positionCount = dictionaryBlock.getPositionCount();
+        int[] ids = dictionaryBlock.getIds();
+        sliceOutput.appendInt(positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            sliceOutput.writeInt(ids[position]);
+        }
+        dictionaryEncoding.writeBlock(sliceOutput, dictionaryBlock.getDictionary());
+    }
+
+    @Override
+    public Block readBlock(SliceInput sliceInput) {
+        int positionCount = sliceInput.readInt();
+        int[] ids = new int[positionCount];
+        for (int position = 0; position < positionCount; position++) {
+            ids[position] = sliceInput.readInt();
+        }
+        Block dictionary = dictionaryEncoding.readBlock(sliceInput);
+        return new DictionaryBlock(dictionary, ids);
+    }
+}
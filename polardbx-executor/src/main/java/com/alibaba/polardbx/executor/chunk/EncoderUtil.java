@@ -150,4 +150,65 @@ public final class EncoderUtil {
 
         return valueIsNull;
     }
+
+    /**
+     * Number of bits needed by the unsigned value.
+     */
+    public static int bitWidth(long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Pack the low bitWidth bits of each value into longs, lowest bits first.
+     */
+    public static void writePackedLongs(SliceOutput sliceOutput, long[] values, int count, int bitWidth) {
+        if (bitWidth == 0) {
+            return;
+        }
+        long buffer = 0;
+        int bits = 0;
+        for (int i = 0; i < count; i++) {
+            long value = values[i];
+            buffer |= value << bits;
+            if (bits + bitWidth >= 64) {
+                sliceOutput.writeLong(buffer);
+                int written = 64 - bits;
+                buffer = written == 64 ? 0 : value >>> written;
+                bits = bits + bitWidth - 64;
+            } else {
+                bits += bitWidth;
+            }
+        }
+        if (bits > 0) {
+            sliceOutput.writeLong(buffer);
+        }
+    }
+
+    /**
+     * Decode the longs created by writePackedLongs.
+     */
+    public static void readPackedLongs(SliceInput sliceInput, long[] values, int count, int bitWidth) {
+        if (bitWidth == 0) {
+            for (int i = 0; i < count; i++) {
+                values[i] = 0;
+            }
+            return;
+        }
+        long mask = bitWidth == 64 ? -1L : (1L << bitWidth) - 1;
+        long buffer = 0;
+        int bits = 0;
+        for (int i = 0; i < count; i++) {
+            if (bits >= bitWidth) {
+                values[i] = buffer & mask;
+                buffer >>>= bitWidth;
+                bits -= bitWidth;
+            } else {
+                long next = sliceInput.readLong();
+                int needed = bitWidth - bits;
+                values[i] = (buffer | (next << bits)) & mask;
+                buffer = needed == 64 ? 0 : next >>> needed;
+                bits = 64 - needed;
+            }
+        }
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.chunk;
+
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.google.common.base.Preconditions;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+
+/**
+ * Serde of one column whose blocks may be flat, dictionary or run-length encoded.
+ * A one byte marker before each block tells the reader which encoding follows.
+ * With lightweight encoding, flat long and slice blocks are also written bit-packed
+ * or dictionary packed, and read back as flat blocks.
+ * <p>
+ * Without multi-format, blocks are flattened and written in the flat format without
+ * marker, which is the format of the nodes not knowing the encoded blocks.
+ */
+public class MultiFormatBlockEncoding implements BlockEncoding {
+
+    private static final String NAME_PREFIX = "MULTI_FORMAT_";
+
+    private static final byte FLAT = 0;
+    private static final byte DICTIONARY = 1;
+    private static final byte RUN_LENGTH = 2;
+    private static final byte PACKED_LONG = 3;
+    private static final byte PACKED_SLICE = 4;
+
+    private static final PackedLongBlockEncoding PACKED_LONG_ENCODING = new PackedLongBlockEncoding();
+    private static final PackedSliceBlockEncoding PACKED_SLICE_ENCODING = new PackedSliceBlockEncoding();
+
+    /**
+     * Shared by all encodings, block builders only read it when flattening blocks for the legacy format
+     */
+    private static final ExecutionContext FLATTEN_CONTEXT = new ExecutionContext();
+
+    private final BlockEncoding flatEncoding;
+    private final DictionaryBlockEncoding dictionaryEncoding;
+    private final RunLengthEncodedBlockEncoding runLengthEncoding;
+    private final boolean multiFormat;
+    private final boolean lightweightEncoding;
+
+    public MultiFormatBlockEncoding(BlockEncoding flatEncoding) {
+        this(flatEncoding, true, false);
+    }
+
+    /**
+     * @param lightweightEncoding only valid with multi-format
+     */
+    public MultiFormatBlockEncoding(BlockEncoding flatEncoding, boolean multiFormat, boolean lightweightEncoding) {
+        Preconditions.checkArgument(multiFormat || !lightweightEncoding,
+            "lightweight encoding requires multi-format blocks");
+        this.flatEncoding = flatEncoding;
+        this.dictionaryEncoding = new DictionaryBlockEncoding(flatEncoding);
+        this.runLengthEncoding = new RunLengthEncodedBlockEncoding(flatEncoding);
+        this.multiFormat = multiFormat;
+        this.lightweightEncoding = lightweightEncoding;
+    }
+
+    @Override
+    public String getName() {
+        return multiFormat ? NAME_PREFIX + flatEncoding.getName() : flatEncoding.getName();
+    }
+
+    public boolean isMultiFormat() {
+        return multiFormat;
+    }
+
+    @Override
+    public void writeBlock(SliceOutput sliceOutput, Block block) {
+        if (!multiFormat) {
+            if (block instanceof DictionaryBlock || block instanceof RunLengthEncodedBlock) {
+                block = BlockUtils.flatten(block, FLATTEN_CONTEXT);
+            }
+            flatEncoding.writeBlock(sliceOutput, block);
+        } else if (block instanceof DictionaryBlock) {
+            sliceOutput.writeByte(DICTIONARY);
+            dictionaryEncoding.writeBlock(sliceOutput, block);
+        } else if (block instanceof RunLengthEncodedBlock) {
+            sliceOutput.writeByte(RUN_LENGTH);
+            runLengthEncoding.writeBlock(sliceOutput, block);
+        } else if (lightweightEncoding && block instanceof LongBlock) {
+            sliceOutput.writeByte(PACKED_LONG);
+            PACKED_LONG_ENCODING.writeBlock(sliceOutput, block);
+        } else if (lightweightEncoding && PACKED_SLICE_ENCODING.tryWriteBlock(sliceOutput, block, PACKED_SLICE)) {
+            // written as dictionary packed slices
+        } else {
+            sliceOutput.writeByte(FLAT);
+            flatEncoding.writeBlock(sliceOutput, block);
+        }
+    }
+
+    @Override
+    public Block readBlock(SliceInput sliceInput) {
+        if (!multiFormat) {
+            return flatEncoding.readBlock(sliceInput);
+        }
+        byte marker = sliceInput.readByte();
+        switch (marker) {
+        case FLAT:
+            return flatEncoding.readBlock(sliceInput);
+        case DICTIONARY:
+            return dictionaryEncoding.readBlock(sliceInput);
+        case RUN_LENGTH:
+            return runLengthEncoding.readBlock(sliceInput);
+        case PACKED_LONG:
+            return PACKED_LONG_ENCODING.readBlock(sliceInput);
+        case PACKED_SLICE:
+            return PACKED_SLICE_ENCODING.readBlock(sliceInput);
+        default:
+            throw new IllegalStateException("unknown block format " + marker);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.chunk;
+
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+
+import static com.alibaba.polardbx.executor.chunk.EncoderUtil.bitWidth;
+import static com.alibaba.polardbx.executor.chunk.EncoderUtil.decodeNullBits;
+import static com.alibaba.polardbx.executor.chunk.EncoderUtil.encodeNullsAsBits;
+import static com.alibaba.polardbx.executor.chunk.EncoderUtil.readPackedLongs;
+import static com.alibaba.polardbx.executor.chunk.EncoderUtil.writePackedLongs;
+
+/**
+ * Bit-packed long block. Non-null values are stored either as offsets from the minimum,
+ * or as deltas between neighbours when that needs fewer bits (e.g. sorted or sequential ids).
+ */
+public class PackedLongBlockEncoding implements BlockEncoding {
+    private static final String NAME = "PACKED_LONG";
+
+    private static final byte FRAME_OF_REFERENCE = 0;
+    private static final byte DELTA = 1;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void writeBlock(SliceOutput sliceOutput, Block block) {
+        int positionCount = block.getPositionCount();
+        sliceOutput.appendInt(positionCount);
+        int nullsCnt = encodeNullsAsBits(sliceOutput, block);
+
+        int count = positionCount - nullsCnt;
+        if (count == 0) {
+            return;
+        }
+        long[] values = new long[count];
+        int index = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (!block.isNull(position)) {
+                values[index++] = block.getLong(position);
+            }
+        }
+
+        long min = values[0];
+        long max = values[0];
+        long minDelta = Long.MAX_VALUE;
+        long maxDelta = Long.MIN_VALUE;
+        for (int i = 1; i < count; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+            long delta = values[i] - values[i - 1];
+            minDelta = Math.min(minDelta, delta);
+            maxDelta = Math.max(maxDelta, delta);
+        }
+
+        int forWidth = bitWidth(max - min);
+        int deltaWidth = count > 1 ? bitWidth(maxDelta - minDelta) : 64;
+        if (deltaWidth < forWidth) {
+            sliceOutput.writeByte(DELTA);
+            sliceOutput.writeLong(values[0]);
+            sliceOutput.writeLong(minDelta);
+            sliceOutput.writeByte(deltaWidth);
+            for (int i = count - 1; i > 0; i--) {
+                values[i] = values[i] - values[i - 1] - minDelta;
+            }
+            // the first value is stored separately
+            System.arraycopy(values, 1, values, 0, count - 1);
+            writePackedLongs(sliceOutput, values, count - 1, deltaWidth);
+        } else {
+            sliceOutput.writeByte(FRAME_OF_REFERENCE);
+            sliceOutput.writeLong(min);
+            sliceOutput.writeByte(forWidth);
+            for (int i = 0; i < count; i++) {
+                values[i] = values[i] - min;
+            }
+            writePackedLongs(sliceOutput, values, count, forWidth);
+        }
+    }
+
+    @Override
+    public Block readBlock(SliceInput sliceInput) {
+        int positionCount = sliceInput.readInt();
+        boolean[] valueIsNull = decodeNullBits(sliceInput, positionCount);
+
+        int count = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (!valueIsNull[position]) {
+                count++;
+            }
+        }
+        long[] values = new long[positionCount];
+        if (count == 0) {
+            return new LongBlock(0, positionCount, valueIsNull, values);
+        }
+
+        long[] packed = new long[count];
+        byte mode = sliceInput.readByte();
+        if (mode == DELTA) {
+            long first = sliceInput.readLong();
+            long minDelta = sliceInput.readLong();
+            int width = sliceInput.readByte();
+            long[] deltas = new long[count - 1];
+            readPackedLongs(sliceInput, deltas, count - 1, width);
+            packed[0] = first;
+            for (int i = 1; i < count; i++) {
+                packed[i] = packed[i - 1] + minDelta + deltas[i - 1];
+            }
+        } else {
+            long min = sliceInput.readLong();
+            int width = sliceInput.readByte();
+            readPackedLongs(sliceInput, packed, count, width);
+            for (int i = 0; i < count; i++) {
+                packed[i] += min;
+            }
+        }
+
+        int index = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (!valueIsNull[position]) {
+                values[position] = packed[index++];
+            }
+        }
+        return new LongBlock(0, positionCount, valueIsNull, values);
+    }
+}
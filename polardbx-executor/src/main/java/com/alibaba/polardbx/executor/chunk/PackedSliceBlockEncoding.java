@@ -0,0 +1,208 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.chunk;
+
+import com.alibaba.polardbx.common.charset.CharsetName;
+import com.alibaba.polardbx.common.charset.CollationName;
+import com.alibaba.polardbx.optimizer.core.datatype.SliceType;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.alibaba.polardbx.executor.chunk.EncoderUtil.bitWidth;
+import static com.alibaba.polardbx.executor.chunk.EncoderUtil.decodeNullBits;
+import static com.alibaba.polardbx.executor.chunk.EncoderUtil.encodeNullsAsBits;
+import static com.alibaba.polardbx.executor.chunk.EncoderUtil.readPackedLongs;
+import static com.alibaba.polardbx.executor.chunk.EncoderUtil.writePackedLongs;
+
+/**
+ * Dictionary encoded slice block on the wire: distinct values once, then bit-packed ids.
+ * It is decoded back into a flat {@link SliceBlock}.
+ */
+public class PackedSliceBlockEncoding implements BlockEncoding {
+    private static final String NAME = "PACKED_SLICE";
+    private static final Charset UTF8 = StandardCharsets.UTF_8;
+
+    /**
+     * Pack only when there are at most this fraction of distinct values
+     */
+    private static final double MAX_DISTINCT_RATIO = 0.5;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Write the block with the marker ahead, or nothing if it has too many distinct values.
+     *
+     * @return whether the block has been written
+     */
+    public boolean tryWriteBlock(SliceOutput sliceOutput, Block block, byte marker) {
+        if (!(block instanceof SliceBlock)) {
+            return false;
+        }
+        SliceBlock sliceBlock = (SliceBlock) block;
+        PackedValues packed =
+            PackedValues.of(sliceBlock, (int) (sliceBlock.getPositionCount() * MAX_DISTINCT_RATIO));
+        if (packed == null) {
+            return false;
+        }
+        sliceOutput.writeByte(marker);
+        write(sliceOutput, sliceBlock, packed);
+        return true;
+    }
+
+    /**
+     * Write the block packed whatever its distinct values are
+     */
+    @Override
+    public void writeBlock(SliceOutput sliceOutput, Block block) {
+        SliceBlock sliceBlock = (SliceBlock) block;
+        write(sliceOutput, sliceBlock, PackedValues.of(sliceBlock, Integer.MAX_VALUE));
+    }
+
+    private static void write(SliceOutput sliceOutput, SliceBlock sliceBlock, PackedValues packed) {
+        SliceType dataType = (SliceType) sliceBlock.getType();
+        byte[] charsetBytes = dataType.getCharsetName().name().getBytes(UTF8);
+        byte[] collationBytes = dataType.getCollationName().name().getBytes(UTF8);
+        sliceOutput.writeInt(charsetBytes.length);
+        sliceOutput.writeBytes(charsetBytes);
+        sliceOutput.writeInt(collationBytes.length);
+        sliceOutput.writeBytes(collationBytes);
+        sliceOutput.writeBoolean(sliceBlock.isCompatible());
+
+        sliceOutput.appendInt(sliceBlock.getPositionCount());
+        encodeNullsAsBits(sliceOutput, sliceBlock);
+        sliceOutput.writeInt(packed.entries.size());
+        for (Slice entry : packed.entries) {
+            sliceOutput.writeInt(entry.length());
+            sliceOutput.writeBytes(entry);
+        }
+        int width = bitWidth(Math.max(packed.entries.size() - 1, 0));
+        sliceOutput.writeByte(width);
+        writePackedLongs(sliceOutput, packed.ids, packed.count, width);
+    }
+
+    /**
+     * Distinct values and the ids of non-null positions
+     */
+    private static class PackedValues {
+        final List<Slice> entries;
+        final long[] ids;
+        final int count;
+
+        private PackedValues(List<Slice> entries, long[] ids, int count) {
+            this.entries = entries;
+            this.ids = ids;
+            this.count = count;
+        }
+
+        /**
+         * @return null if there are more than maxDistinct distinct values
+         */
+        static PackedValues of(SliceBlock sliceBlock, int maxDistinct) {
+            int positionCount = sliceBlock.getPositionCount();
+            Object2IntOpenHashMap<Slice> dictionary = new Object2IntOpenHashMap<>();
+            dictionary.defaultReturnValue(-1);
+            List<Slice> entries = new ArrayList<>();
+            long[] ids = new long[positionCount];
+            int count = 0;
+            for (int position = 0; position < positionCount; position++) {
+                if (sliceBlock.isNull(position)) {
+                    continue;
+                }
+                Slice value = sliceBlock.getRegion(position);
+                int id = dictionary.getInt(value);
+                if (id < 0) {
+                    if (entries.size() >= maxDistinct) {
+                        return null;
+                    }
+                    id = entries.size();
+                    dictionary.put(value, id);
+                    entries.add(value);
+                }
+                ids[count++] = id;
+            }
+            return new PackedValues(entries, ids, count);
+        }
+    }
+
+    @Override
+    public Block readBlock(SliceInput sliceInput) {
+        CharsetName charsetName = CharsetName.of(readString(sliceInput));
+        CollationName collationName = CollationName.of(readString(sliceInput));
+        if (charsetName == null) {
+            charsetName = CharsetName.defaultCharset();
+        }
+        if (collationName == null) {
+            collationName = CollationName.defaultCollation();
+        }
+        SliceType dataType = new SliceType(charsetName, collationName);
+        boolean isCompatible = sliceInput.readBoolean();
+
+        int positionCount = sliceInput.readInt();
+        boolean[] valueIsNull = decodeNullBits(sliceInput, positionCount);
+        int entryCount = sliceInput.readInt();
+        Slice[] entries = new Slice[entryCount];
+        for (int i = 0; i < entryCount; i++) {
+            entries[i] = sliceInput.readSlice(sliceInput.readInt());
+        }
+        int width = sliceInput.readByte();
+
+        int count = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (!valueIsNull[position]) {
+                count++;
+            }
+        }
+        long[] ids = new long[count];
+        readPackedLongs(sliceInput, ids, count, width);
+
+        int dataSize = 0;
+        for (int i = 0; i < count; i++) {
+            dataSize += entries[(int) ids[i]].length();
+        }
+        Slice data = dataSize == 0 ? Slices.EMPTY_SLICE : Slices.allocate(dataSize);
+        int[] offsets = new int[positionCount];
+        int offset = 0;
+        int index = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (!valueIsNull[position]) {
+                Slice entry = entries[(int) ids[index++]];
+                data.setBytes(offset, entry);
+                offset += entry.length();
+            }
+            offsets[position] = offset;
+        }
+        return new SliceBlock(dataType, 0, positionCount, valueIsNull, offsets, data, isCompatible);
+    }
+
+    private static String readString(SliceInput sliceInput) {
+        byte[] bytes = new byte[sliceInput.readInt()];
+        sliceInput.readBytes(bytes);
+        return new String(bytes, UTF8);
+    }
+}
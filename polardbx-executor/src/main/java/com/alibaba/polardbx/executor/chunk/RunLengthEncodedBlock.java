@@ -0,0 +1,237 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.chunk;
+
+import com.alibaba.polardbx.common.datatype.Decimal;
+import com.alibaba.polardbx.common.utils.hash.IStreamingHasher;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.google.common.base.Preconditions;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+/**
+ * Block repeating a single value, e.g. a constant column
+ */
+public class RunLengthEncodedBlock implements Block {
+
+    private static final long INSTANCE_SIZE = ClassLayout.parseClass(RunLengthEncodedBlock.class).instanceSize();
+
+    /**
+     * Block with exactly one position
+     */
+    private final Block value;
+
+    private final int positionCount;
+
+    public RunLengthEncodedBlock(Block value, int positionCount) {
+        Preconditions.checkArgument(value.getPositionCount() == 1, "value block must have exactly one position");
+        Preconditions.checkArgument(positionCount >= 0, "negative position count");
+        this.value = value;
+        this.positionCount = positionCount;
+    }
+
+    public Block getValue() {
+        return value;
+    }
+
+    public DataType getType() {
+        return ((RandomAccessBlock) value).getType();
+    }
+
+    /**
+     * Materialize the rows into a flat block of the value type
+     */
+    public Block flatten(ExecutionContext context) {
+        BlockBuilder blockBuilder = BlockBuilders.create(getType(), context, positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            value.writePositionTo(0, blockBuilder);
+        }
+        return blockBuilder.build();
+    }
+
+    @Override
+    public boolean isNull(int position) {
+        checkReadablePosition(position);
+        return value.isNull(0);
+    }
+
+    @Override
+    public byte getByte(int position) {
+        checkReadablePosition(position);
+        return value.getByte(0);
+    }
+
+    @Override
+    public short getShort(int position) {
+        checkReadablePosition(position);
+        return value.getShort(0);
+    }
+
+    @Override
+    public int getInt(int position) {
+        checkReadablePosition(position);
+        return value.getInt(0);
+    }
+
+    @Override
+    public long getLong(int position) {
+        checkReadablePosition(position);
+        return value.getLong(0);
+    }
+
+    @Override
+    public double getDouble(int position) {
+        checkReadablePosition(position);
+        return value.getDouble(0);
+    }
+
+    @Override
+    public float getFloat(int position) {
+        checkReadablePosition(position);
+        return value.getFloat(0);
+    }
+
+    @Override
+    public Timestamp getTimestamp(int position) {
+        checkReadablePosition(position);
+        return value.getTimestamp(0);
+    }
+
+    @Override
+    public Date getDate(int position) {
+        checkReadablePosition(position);
+        return value.getDate(0);
+    }
+
+    @Override
+    public Time getTime(int position) {
+        checkReadablePosition(position);
+        return value.getTime(0);
+    }
+
+    @Override
+    public String getString(int position) {
+        checkReadablePosition(position);
+        return value.getString(0);
+    }
+
+    @Override
+    public Decimal getDecimal(int position) {
+        checkReadablePosition(position);
+        return value.getDecimal(0);
+    }
+
+    @Override
+    public BigInteger getBigInteger(int position) {
+        checkReadablePosition(position);
+        return value.getBigInteger(0);
+    }
+
+    @Override
+    public boolean getBoolean(int position) {
+        checkReadablePosition(position);
+        return value.getBoolean(0);
+    }
+
+    @Override
+    public byte[] getByteArray(int position) {
+        checkReadablePosition(position);
+        return value.getByteArray(0);
+    }
+
+    @Override
+    public Object getObject(int position) {
+        checkReadablePosition(position);
+        return value.getObject(0);
+    }
+
+    @Override
+    public Object getObjectForCmp(int position) {
+        checkReadablePosition(position);
+        return value.getObjectForCmp(0);
+    }
+
+    @Override
+    public int hashCode(int position) {
+        checkReadablePosition(position);
+        return value.hashCode(0);
+    }
+
+    @Override
+    public int[] hashCodeVector() {
+        int[] results = new int[positionCount];
+        Arrays.fill(results, value.hashCode(0));
+        return results;
+    }
+
+    @Override
+    public boolean equals(int position, Block other, int otherPosition) {
+        checkReadablePosition(position);
+        if (other instanceof RunLengthEncodedBlock) {
+            return value.equals(0, ((RunLengthEncodedBlock) other).value, 0);
+        }
+        if (other instanceof DictionaryBlock) {
+            return other.equals(otherPosition, this, position);
+        }
+        return value.equals(0, other, otherPosition);
+    }
+
+    @Override
+    public void addToHasher(IStreamingHasher sink, int position) {
+        checkReadablePosition(position);
+        value.addToHasher(sink, 0);
+    }
+
+    @Override
+    public boolean mayHaveNull() {
+        return value.mayHaveNull();
+    }
+
+    @Override
+    public long estimateSize() {
+        return INSTANCE_SIZE + value.estimateSize();
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return value.getSizeInBytes();
+    }
+
+    @Override
+    public int getPositionCount() {
+        return positionCount;
+    }
+
+    @Override
+    public void writePositionTo(int position, BlockBuilder blockBuilder) {
+        checkReadablePosition(position);
+        value.writePositionTo(0, blockBuilder);
+    }
+
+    private void checkReadablePosition(int position) {
+        if (position < 0 || position >= positionCount) {
+            throw new IllegalArgumentException("position is not valid");
+        }
+    }
+}
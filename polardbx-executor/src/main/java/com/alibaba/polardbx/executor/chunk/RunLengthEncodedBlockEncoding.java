@@ -0,0 +1,52 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.chunk;
+
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+
+/**
+ * Writes the position count followed by the single value in the encoding of the flat block.
+ */
+public class RunLengthEncodedBlockEncoding implements BlockEncoding {
+
+    private final BlockEncoding valueEncoding;
+
+    public RunLengthEncodedBlockEncoding(BlockEncoding valueEncoding) {
+        this.valueEncoding = valueEncoding;
+    }
+
+    @Override
+    public String getName() {
+        return valueEncoding.getName();
+    }
+
+    @Override
+    public void writeBlock(SliceOutput sliceOutput, Block block) {
+        RunLengthEncodedBlock rleBlock = (RunLengthEncodedBlock) block;
+        sliceOutput.appendInt(rleBlock.getPositionCount());
+        valueEncoding.writeBlock(sliceOutput, rleBlock.getValue());
+    }
+
+    @Override
+    public Block readBlock(SliceInput sliceInput) {
+        int positionCount = sliceInput.readInt();
+        Block value = valueEncoding.readBlock(sliceInput);
+        return new RunLengthEncodedBlock(value, positionCount);
+    }
+}
@@ -239,6 +239,8 @@ public class SliceBlock extends AbstractCommonBlock {
             return equals(position, (SliceBlock) other, otherPosition);
         } else if (other instanceof SliceBlockBuilder) {
             return equals(position, (SliceBlockBuilder) other, otherPosition);
+        } else if (other instanceof DictionaryBlock || other instanceof RunLengthEncodedBlock) {
+            return other.equals(otherPosition, this, position);
         } else {
             throw new AssertionError();
         }
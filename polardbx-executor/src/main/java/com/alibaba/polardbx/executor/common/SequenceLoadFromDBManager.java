@@ -70,6 +70,7 @@ import java.util.concurrent.TimeUnit;
 import static com.alibaba.polardbx.common.constants.SequenceAttribute.CACHE_ENABLED;
 import static com.alibaba.polardbx.common.constants.SequenceAttribute.DEFAULT_GROUP_TABLE_NAME;
 import static com.alibaba.polardbx.common.constants.SequenceAttribute.DEFAULT_INNER_STEP;
+import static com.alibaba.polardbx.common.constants.SequenceAttribute.DEFAULT_PREFETCH_WATERMARK;
 import static com.alibaba.polardbx.common.constants.SequenceAttribute.DEFAULT_TABLE_NAME;
 import static com.alibaba.polardbx.common.constants.SequenceAttribute.DEFAULT_UNIT_COUNT;
 import static com.alibaba.polardbx.common.constants.SequenceAttribute.DEFAULT_UNIT_INDEX;
@@ -132,6 +133,10 @@ public class SequenceLoadFromDBManager extends AbstractSequenceManager {
 
     private boolean groupSeqCatcherEnabled = false;
 
+    private boolean groupSeqPrefetchEnabled = false;
+
+    private int groupSeqPrefetchWatermark = DEFAULT_PREFETCH_WATERMARK;
+
     public SequenceLoadFromDBManager(String appName, String schemaName, String unitName, TddlRuleManager rule,
                                      Map<String, Object> connectionProperties) {
         this.appName = appName;
@@ -145,6 +150,11 @@ public class SequenceLoadFromDBManager extends AbstractSequenceManager {
             this.step = DEFAULT_INNER_STEP;
         }
 
+        this.groupSeqPrefetchEnabled = GeneralUtil
+            .getPropertyBoolean(connectionProperties, ConnectionProperties.ENABLE_GROUP_SEQ_PREFETCH, false);
+        this.groupSeqPrefetchWatermark = (int) GeneralUtil.getPropertyLong(connectionProperties,
+            ConnectionProperties.GROUP_SEQ_PREFETCH_WATERMARK, DEFAULT_PREFETCH_WATERMARK);
+
         // Enable various sequences when it is enabled globally in DRDS mode.
         if (ConfigDataMode.isMasterMode()) {
             checkInterval = GeneralUtil.getPropertyLong(connectionProperties,
@@ -575,6 +585,8 @@ public class SequenceLoadFromDBManager extends AbstractSequenceManager {
         try {
             seq.setName(name);
             seq.setSequenceDao(groupSeqDao);
+            seq.setPrefetchEnabled(groupSeqPrefetchEnabled);
+            seq.setPrefetchWatermark(groupSeqPrefetchWatermark);
             if (ConfigDataMode.isSlaveMode()) {
                 // DO NOT initialize to avoid write operations
                 // in Read-Only instance.
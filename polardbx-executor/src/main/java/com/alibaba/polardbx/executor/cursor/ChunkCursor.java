@@ -0,0 +1,43 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.cursor;
+
+import com.alibaba.polardbx.executor.chunk.Chunk;
+
+/**
+ * 可以按Chunk批量读取结果的Cursor，供结果集直接编码为MySQL协议包使用，
+ * 避免逐行构造Row对象
+ */
+public interface ChunkCursor {
+
+    /**
+     * 当前是否可以按Chunk读取，例如异步模式下结果可能尚未就绪，不支持
+     */
+    boolean isChunkOutputSupported();
+
+    /**
+     * 返回下一批尚未被next()消费的数据，返回后这些数据视为已消费；没有更多数据时返回null。
+     * 返回的Chunk中有效数据从{@link #getChunkOffset()}开始
+     */
+    Chunk nextResultChunk();
+
+    /**
+     * 上一次nextResultChunk返回的Chunk中第一条有效数据的位置
+     */
+    int getChunkOffset();
+}
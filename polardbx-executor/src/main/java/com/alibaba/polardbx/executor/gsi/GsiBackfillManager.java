@@ -250,6 +250,18 @@ public class GsiBackfillManager {
 
     public Integer updateBackfillObject(List<BackfillObjectBean> backfillObject, List<ParameterContext> lastPk,
                                         long successCount, BackfillStatus status, Map<Long, Long> primaryKeysIdMap) {
+        return updateBackfillObject(backfillObject, lastPk, successCount, status, primaryKeysIdMap, null);
+    }
+
+    /**
+     * Update position mark of a physical table
+     *
+     * @param extra new value of EXTRA, keep the loaded one if null
+     * @return progress of the physical table computed from lastPk
+     */
+    public Integer updateBackfillObject(List<BackfillObjectBean> backfillObject, List<ParameterContext> lastPk,
+                                        long successCount, BackfillStatus status, Map<Long, Long> primaryKeysIdMap,
+                                        String extra) {
         final AtomicBoolean first = new AtomicBoolean(true);
         final AtomicInteger partitionProgress = new AtomicInteger(0);
         final AtomicInteger pkIndex = new AtomicInteger(0);
@@ -283,7 +295,7 @@ public class GsiBackfillManager {
                     successCount,
                     bfo.startTime,
                     new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(Calendar.getInstance().getTime()),
-                    bfo.extra);
+                    null == extra ? bfo.extra : extra);
             })
             .collect(Collectors.toList());
 
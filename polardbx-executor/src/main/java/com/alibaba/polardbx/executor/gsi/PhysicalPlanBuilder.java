@@ -742,6 +742,56 @@ public class PhysicalPlanBuilder extends PhyOperationBuilderCommon {
         return buildPhyTableOperation(select, rowType, LockMode.UNDEF, ec);
     }
 
+    /**
+     * <pre>
+     *  SELECT +sample_percentage(?) pk0, ... , pkn
+     *  FROM ?
+     *  ORDER BY pk0, ... , pkn LIMIT {limit}
+     * </pre>
+     *
+     * @param tableMeta Table meta
+     * @param primaryKeys Primary keys
+     * @param samplePercentage Sample percentage pushed down to DN
+     * @param limit Max count of sampled rows
+     * @return Query plan
+     */
+    public PhyTableOperation buildSelectPkSampleForBackfill(TableMeta tableMeta, List<String> primaryKeys,
+                                                            float samplePercentage, long limit) {
+        // build select list
+        SqlNodeList selectList = new SqlNodeList(SqlParserPos.ZERO);
+        RelDataType rowType = buildRowTypeForSelect(primaryKeys, tableMeta, selectList);
+
+        // build target table
+        buildTargetTable();
+
+        // order by primary keys, keep split points in the same order as backfill
+        SqlNodeList orderBy = new SqlNodeList(
+            primaryKeys.stream()
+                .map(key -> new SqlIdentifier(key, SqlParserPos.ZERO))
+                .collect(Collectors.toList()),
+            SqlParserPos.ZERO);
+
+        SqlNode fetch = SqlLiteral.createExactNumeric(String.valueOf(limit), SqlParserPos.ZERO);
+
+        SqlSelect select = new SqlSelect(SqlParserPos.ZERO,
+            null,
+            selectList,
+            targetTableNode,
+            null,
+            null,
+            null,
+            null,
+            orderBy,
+            null,
+            fetch);
+        if (samplePercentage < 100) {
+            select.getOptimizerHint().addHint("+sample_percentage(" + samplePercentage + ")");
+        }
+
+        // create PhyTableOperation
+        return buildPhyTableOperation(select, rowType, LockMode.UNDEF, ec);
+    }
+
     public PhyTableOperation buildSelectForBackfill(TableMeta tableMeta, List<String> selectKeys,
                                                     List<String> primaryKeys, boolean withLowerBound,
                                                     boolean withUpperBound, LockMode lockMode) {
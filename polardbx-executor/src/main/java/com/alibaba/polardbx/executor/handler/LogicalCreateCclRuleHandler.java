@@ -135,6 +135,7 @@ public class LogicalCreateCclRuleHandler extends HandlerCommon {
             cclRuleRecord.fastMatch = CclRuleRecord.DEFAULT_FAST_MATCH;
             cclRuleRecord.triggerPriority = CclRuleRecord.DEFAULT_TRIGGER_PRIORITY;
             cclRuleRecord.lightWait = CclRuleRecord.DEFAULT_LIGHT_WAIT;
+            cclRuleRecord.adaptive = CclRuleRecord.DEFAULT_ADAPTIVE;
 
             //convert keywords to json string
             SqlNodeList keywords = sqlNode.getKeywords();
@@ -170,6 +171,9 @@ public class LogicalCreateCclRuleHandler extends HandlerCommon {
                 case "LIGHT_WAIT":
                     cclRuleRecord.lightWait = value;
                     break;
+                case "ADAPTIVE":
+                    cclRuleRecord.adaptive = value;
+                    break;
                 default:
                     throw new TddlNestableRuntimeException("Invalid WITH option of " + variableName);
                 }
@@ -178,7 +182,7 @@ public class LogicalCreateCclRuleHandler extends HandlerCommon {
                 throw new TddlNestableRuntimeException("with MAX_CONCURRENCY option must be provided.");
             }
             if (cclRuleRecord.queueSize < 0 || cclRuleRecord.parallelism < 0 || cclRuleRecord.waitTimeout < 0
-                || cclRuleRecord.fastMatch < 0 || cclRuleRecord.lightWait < 0) {
+                || cclRuleRecord.fastMatch < 0 || cclRuleRecord.lightWait < 0 || cclRuleRecord.adaptive < 0) {
                 throw new TddlNestableRuntimeException("Invalid number of WAIT_QUEUE_SIZE or parallelism or ");
             }
 
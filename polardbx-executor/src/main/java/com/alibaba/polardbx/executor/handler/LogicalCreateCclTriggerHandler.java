@@ -70,6 +70,7 @@ public class LogicalCreateCclTriggerHandler extends HandlerCommon {
         WITH_KEYS.add("WAIT_TIMEOUT");
         WITH_KEYS.add("FAST_MATCH");
         WITH_KEYS.add("LIGHT_WAIT");
+        WITH_KEYS.add("ADAPTIVE");
     }
 
     private static final Set<String> LIMIT_KEYS = Sets.newHashSet();
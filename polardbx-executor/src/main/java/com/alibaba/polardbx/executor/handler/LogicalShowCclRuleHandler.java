@@ -108,6 +108,10 @@ public class LogicalShowCclRuleHandler extends HandlerCommon {
         result.addColumn("TEMPLATE_ID", DataTypes.StringType);
         result.addColumn("QUERY", DataTypes.StringType);
         result.addColumn("CREATED_TIME", DataTypes.DatetimeType);
+        result.addColumn("ADAPTIVE", DataTypes.IntegerType);
+        result.addColumn("CURRENT_LIMIT", DataTypes.LongType);
+        result.addColumn("RTT_US", DataTypes.LongType);
+        result.addColumn("NO_LOAD_RTT_US", DataTypes.LongType);
         result.initMeta();
 
         List<List<Map<String, Object>>> syncResult = SyncManagerHelper.sync(new ShowCclStatsSyncAction(),
@@ -126,6 +130,9 @@ public class LogicalShowCclRuleHandler extends HandlerCommon {
                     Long killed = (Long) innere.get(ShowCclStatsSyncAction.KILLED);
                     Long matchHitCache = (Long) innere.get(ShowCclStatsSyncAction.MATCH_HIT_CACHE);
                     Long totalMatchCount = (Long) innere.get(ShowCclStatsSyncAction.TOTAL_MATCH);
+                    Long currentLimit = (Long) innere.get(ShowCclStatsSyncAction.CURRENT_LIMIT);
+                    Long rtt = (Long) innere.get(ShowCclStatsSyncAction.RTT_US);
+                    Long noLoadRtt = (Long) innere.get(ShowCclStatsSyncAction.NO_LOAD_RTT_US);
                     Map<String, Long> ruleRecord = aggSynResult.get(ruleName);
                     if (ruleRecord == null) {
                         ruleRecord = Maps.newHashMapWithExpectedSize(3);
@@ -135,6 +142,9 @@ public class LogicalShowCclRuleHandler extends HandlerCommon {
                         ruleRecord.put(ShowCclStatsSyncAction.KILLED, 0L);
                         ruleRecord.put(ShowCclStatsSyncAction.MATCH_HIT_CACHE, 0L);
                         ruleRecord.put(ShowCclStatsSyncAction.TOTAL_MATCH, 0L);
+                        ruleRecord.put(ShowCclStatsSyncAction.CURRENT_LIMIT, 0L);
+                        ruleRecord.put(ShowCclStatsSyncAction.RTT_US, 0L);
+                        ruleRecord.put(ShowCclStatsSyncAction.NO_LOAD_RTT_US, 0L);
                     }
                     ruleRecord.put(ShowCclStatsSyncAction.RUNNING,
                         ruleRecord.get(ShowCclStatsSyncAction.RUNNING) + Long.valueOf(running));
@@ -146,6 +156,19 @@ public class LogicalShowCclRuleHandler extends HandlerCommon {
                         ruleRecord.get(ShowCclStatsSyncAction.MATCH_HIT_CACHE) + Long.valueOf(matchHitCache));
                     ruleRecord.put(ShowCclStatsSyncAction.TOTAL_MATCH,
                         ruleRecord.get(ShowCclStatsSyncAction.TOTAL_MATCH) + Long.valueOf(totalMatchCount));
+                    //the limit is summed up like running, the latency shows the slowest node
+                    if (currentLimit != null) {
+                        ruleRecord.put(ShowCclStatsSyncAction.CURRENT_LIMIT,
+                            ruleRecord.get(ShowCclStatsSyncAction.CURRENT_LIMIT) + currentLimit);
+                    }
+                    if (rtt != null) {
+                        ruleRecord.put(ShowCclStatsSyncAction.RTT_US,
+                            Math.max(ruleRecord.get(ShowCclStatsSyncAction.RTT_US), rtt));
+                    }
+                    if (noLoadRtt != null) {
+                        ruleRecord.put(ShowCclStatsSyncAction.NO_LOAD_RTT_US,
+                            Math.max(ruleRecord.get(ShowCclStatsSyncAction.NO_LOAD_RTT_US), noLoadRtt));
+                    }
                 }
             );
         });
@@ -158,12 +181,18 @@ public class LogicalShowCclRuleHandler extends HandlerCommon {
             long killed = 0;
             long matchHitCache = 0;
             long totalMatchCount = 0;
+            long currentLimit = 0;
+            long rtt = 0;
+            long noLoadRtt = 0;
             if (syncRecord != null) {
                 running = syncRecord.get(ShowCclStatsSyncAction.RUNNING);
                 waiting = syncRecord.get(ShowCclStatsSyncAction.WAITING);
                 killed = syncRecord.get(ShowCclStatsSyncAction.KILLED);
                 matchHitCache = syncRecord.get(ShowCclStatsSyncAction.MATCH_HIT_CACHE);
                 totalMatchCount = syncRecord.get(ShowCclStatsSyncAction.TOTAL_MATCH);
+                currentLimit = syncRecord.get(ShowCclStatsSyncAction.CURRENT_LIMIT);
+                rtt = syncRecord.get(ShowCclStatsSyncAction.RTT_US);
+                noLoadRtt = syncRecord.get(ShowCclStatsSyncAction.NO_LOAD_RTT_US);
             }
             result.addRow(new Object[] {
                 num++,
@@ -185,7 +214,11 @@ public class LogicalShowCclRuleHandler extends HandlerCommon {
                 record.keywords,
                 record.templateId,
                 record.query,
-                record.gmtCreated
+                record.gmtCreated,
+                record.adaptive,
+                currentLimit,
+                rtt,
+                noLoadRtt
             });
         }
         return result;
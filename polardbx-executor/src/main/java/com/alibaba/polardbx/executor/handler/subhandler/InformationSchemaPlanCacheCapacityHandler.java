@@ -33,7 +33,7 @@ import java.util.Map;
 import java.util.Set;
 
 /**
- * 获取每个schema下plan cache的entry数量与总容量
+ * 获取每个schema下plan cache的entry数量、总容量以及命中、淘汰、失效统计
  */
 public class InformationSchemaPlanCacheCapacityHandler extends BaseVirtualViewSubClassHandler {
 
@@ -70,12 +70,32 @@ public class InformationSchemaPlanCacheCapacityHandler extends BaseVirtualViewSu
                     final String host = DataTypes.StringType.convertFrom(row.get("COMPUTE_NODE"));
                     final String cacheKeyCount = DataTypes.StringType.convertFrom(row.get("CACHE_KEY_CNT"));
                     final Long capacity = DataTypes.LongType.convertFrom(row.get("CAPACITY"));
+                    final Long hitCount = DataTypes.LongType.convertFrom(row.get("HIT_COUNT"));
+                    final Long missCount = DataTypes.LongType.convertFrom(row.get("MISS_COUNT"));
+                    final Double hitRatio = DataTypes.DoubleType.convertFrom(row.get("HIT_RATIO"));
+                    final Long evictSize = DataTypes.LongType.convertFrom(row.get("EVICT_SIZE"));
+                    final Long evictExpire = DataTypes.LongType.convertFrom(row.get("EVICT_EXPIRE"));
+                    final Long evictGc = DataTypes.LongType.convertFrom(row.get("EVICT_GC"));
+                    final Long evictExplicit = DataTypes.LongType.convertFrom(row.get("EVICT_EXPLICIT"));
+                    final Long invalidateCount = DataTypes.LongType.convertFrom(row.get("INVALIDATE_COUNT"));
+                    final Long invalidateKeys = DataTypes.LongType.convertFrom(row.get("INVALIDATE_KEYS"));
+                    final Long invalidateTimeUs = DataTypes.LongType.convertFrom(row.get("INVALIDATE_TIME_US"));
 
                     cursor.addRow(new Object[] {
                         host,
                         schemaName,
                         cacheKeyCount,
-                        capacity
+                        capacity,
+                        hitCount,
+                        missCount,
+                        hitRatio,
+                        evictSize,
+                        evictExpire,
+                        evictGc,
+                        evictExplicit,
+                        invalidateCount,
+                        invalidateKeys,
+                        invalidateTimeUs
                     });
                 }
             }
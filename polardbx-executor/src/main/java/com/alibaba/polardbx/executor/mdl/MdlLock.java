@@ -49,6 +49,14 @@ public abstract class MdlLock {
 
     public abstract boolean isLocked();
 
+    /**
+     * Mark an unused lock as retired before it is removed from lock map. Acquiring a
+     * retired lock returns 0, the caller should look up lock map again.
+     *
+     * @return true if the lock is not held by anyone and retired
+     */
+    public abstract boolean tryRetire();
+
     public synchronized void latchRead() {
         rStamp = latch.readLock();
     }
@@ -18,55 +18,184 @@ package com.alibaba.polardbx.executor.mdl.lock;
 
 import com.alibaba.polardbx.common.exception.TddlRuntimeException;
 import com.alibaba.polardbx.common.exception.code.ErrorCode;
+import com.alibaba.polardbx.common.properties.DynamicConfig;
 import com.alibaba.polardbx.executor.mdl.MdlKey;
 import com.alibaba.polardbx.executor.mdl.MdlLock;
 
 import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.StampedLock;
 
 /**
+ * Shared locks are counted on per-core striped counters while there is no
+ * exclusive request, so that readers on a hot table do not bounce the same
+ * lock word. An exclusive request revokes the fast path and waits for the
+ * stripes to drain before it is granted.
+ *
  * @author chenmo.cm
  */
 public class MdlLockStamped extends MdlLock {
 
+    private static final int STRIPE_COUNT = stripeCount();
+
+    /**
+     * Each stripe takes 128 bytes to avoid false sharing
+     */
+    private static final int STRIPE_PADDING = 16;
+
+    private static final long MAX_DRAIN_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
     protected final StampedLock stampedLock;
 
+    private final AtomicLongArray readerStripes;
+
+    /**
+     * Exclusive requests waiting or holding this lock, shared requests go through
+     * the slow path as long as it is not zero
+     */
+    private final AtomicInteger revokeCount = new AtomicInteger();
+
+    private volatile boolean retired = false;
+
     public MdlLockStamped(@NotNull MdlKey key) {
         super(key);
         stampedLock = new StampedLock();
+        readerStripes = new AtomicLongArray(STRIPE_COUNT * STRIPE_PADDING);
     }
 
     @Override
     public long writeLock() {
-        return stampedLock.writeLock();
+        revokeCount.incrementAndGet();
+        final long stamp = stampedLock.writeLock();
+        if (retired) {
+            stampedLock.unlockWrite(stamp);
+            revokeCount.decrementAndGet();
+            return 0;
+        }
+
+        waitForFastReaders();
+        return stamp;
     }
 
     @Override
     public long readLock() {
+        if (DynamicConfig.getInstance().isEnableMdlFastPath()) {
+            final int stripe = stripeIndex();
+            readerStripes.incrementAndGet(stripe * STRIPE_PADDING);
+            if (revokeCount.get() == 0) {
+                return toFastStamp(stripe);
+            }
+            readerStripes.decrementAndGet(stripe * STRIPE_PADDING);
+        }
+
+        final long stamp;
         try {
-            return stampedLock.readLockInterruptibly();
+            stamp = stampedLock.readLockInterruptibly();
         } catch (InterruptedException e) {
             throw new TddlRuntimeException(ErrorCode.ERR_EXECUTOR, "mdl readlock interrupted", e);
         }
+
+        if (retired) {
+            stampedLock.unlockRead(stamp);
+            return 0;
+        }
+        return stamp;
     }
 
     @Override
     public void unlockWrite(long stamp) {
         stampedLock.unlockWrite(stamp);
+        revokeCount.decrementAndGet();
     }
 
     @Override
     public void unlockRead(long stamp) {
-        stampedLock.unlockRead(stamp);
+        if (isFastStamp(stamp)) {
+            readerStripes.decrementAndGet(fromFastStamp(stamp) * STRIPE_PADDING);
+        } else {
+            stampedLock.unlockRead(stamp);
+        }
     }
 
     @Override
     public boolean isLocked() {
-        return stampedLock.isReadLocked() || stampedLock.isWriteLocked();
+        return stampedLock.isReadLocked() || stampedLock.isWriteLocked() || fastReaderCount() > 0;
+    }
+
+    @Override
+    public boolean tryRetire() {
+        if (retired) {
+            return true;
+        }
+
+        revokeCount.incrementAndGet();
+        final long stamp = stampedLock.tryWriteLock();
+        if (0 != stamp) {
+            try {
+                if (fastReaderCount() == 0) {
+                    // Keep the fast path revoked, all later requests must look up the lock map again
+                    retired = true;
+                    return true;
+                }
+            } finally {
+                stampedLock.unlockWrite(stamp);
+            }
+        }
+        revokeCount.decrementAndGet();
+        return false;
+    }
+
+    public long fastReaderCount() {
+        long count = 0;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            count += readerStripes.get(i * STRIPE_PADDING);
+        }
+        return count;
+    }
+
+    private void waitForFastReaders() {
+        int spins = 0;
+        long parkNanos = 1000;
+        while (fastReaderCount() > 0) {
+            if (++spins < 64) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, parkNanos);
+                parkNanos = Math.min(parkNanos << 1, MAX_DRAIN_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Stamps of StampedLock are always positive, negative ones are used for the fast path
+     */
+    private static long toFastStamp(int stripe) {
+        return -1L - stripe;
+    }
+
+    private static boolean isFastStamp(long stamp) {
+        return stamp < 0;
+    }
+
+    private static int fromFastStamp(long stamp) {
+        return (int) (-1L - stamp);
+    }
+
+    private static int stripeIndex() {
+        final long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (STRIPE_COUNT - 1);
+    }
+
+    private static int stripeCount() {
+        final int cpus = Math.min(Runtime.getRuntime().availableProcessors(), 64);
+        return Integer.highestOneBit(Math.max(cpus, 1) * 2 - 1);
     }
 
     @Override
     public String toString() {
-        return "MdlLockStamped{" + "stampedLock=" + stampedLock + '}';
+        return "MdlLockStamped{" + "stampedLock=" + stampedLock + ", fastReaders=" + fastReaderCount() + '}';
     }
 }
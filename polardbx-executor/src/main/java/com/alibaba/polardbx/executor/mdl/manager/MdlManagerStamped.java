@@ -77,18 +77,8 @@ public class MdlManagerStamped extends MdlManager {
             try {
                 final Set<MdlKey> mdlKeys = new HashSet<>(mdlMap.keySet());
 
-                mdlKeys.forEach(k -> mdlMap.computeIfPresent(k, (key, lock) -> {
-                    if (lock.latchWrite()) {
-                        try {
-                            // remove unused lock
-                            return null;
-                        } finally {
-                            lock.unlatchWrite();
-                        }
-                    }
-
-                    return lock;
-                }));
+                // remove unused lock
+                mdlKeys.forEach(k -> mdlMap.computeIfPresent(k, (key, lock) -> lock.tryRetire() ? null : lock));
 
             } catch (Exception e) {
                 logger.error(e);
@@ -160,12 +150,17 @@ public class MdlManagerStamped extends MdlManager {
         final Map<MdlKey, MdlTicket> keyTickets = tickets.computeIfAbsent(context.getConnId(),
             cid -> new ConcurrentHashMap<>());
 
-        final MdlLock mdlLock = getAndLatchMdlLock(request.getKey());
-        try {
-            return keyTickets.compute(request.getKey(), (k, t) -> {
+        for (; ; ) {
+            final MdlLock mdlLock = getMdlLock(request.getKey());
+            final MdlTicket ticket = keyTickets.compute(request.getKey(), (k, t) -> {
 
                 if (null == t) {
-                    t = new MdlTicket(request, mdlLock, context, mdlLock.readLock());
+                    final long stamp = mdlLock.readLock();
+                    if (0 == stamp) {
+                        // 锁对象已被清理
+                        return null;
+                    }
+                    t = new MdlTicket(request, mdlLock, context, stamp);
                 }
                 // 仅支持事务级别的MDL，事务中的所有语句顺序加锁，且 DDL 不可能出现在事务当中
                 // 因此 ticket 存在代表当前事务已经从锁对象获取到了读锁，无需再次加锁
@@ -176,8 +171,11 @@ public class MdlManagerStamped extends MdlManager {
 
                 return t;
             });
-        } finally {
-            mdlLock.unlatchRead();
+
+            if (null != ticket) {
+                return ticket;
+            }
+            mdlMap.remove(request.getKey(), mdlLock);
         }
     }
 
@@ -207,12 +205,17 @@ public class MdlManagerStamped extends MdlManager {
         final Map<MdlKey, MdlTicket> keyTickets = tickets.computeIfAbsent(context.getConnId(),
             cid -> new ConcurrentHashMap<>());
 
-        final MdlLock mdlLock = getAndLatchMdlLock(request.getKey());
-        try {
-            return keyTickets.compute(request.getKey(), (k, t) -> {
+        for (; ; ) {
+            final MdlLock mdlLock = getMdlLock(request.getKey());
+            final MdlTicket ticket = keyTickets.compute(request.getKey(), (k, t) -> {
 
                 if (null == t) {
-                    t = new MdlTicket(request, mdlLock, context, mdlLock.writeLock());
+                    final long stamp = mdlLock.writeLock();
+                    if (0 == stamp) {
+                        // 锁对象已被清理
+                        return null;
+                    }
+                    t = new MdlTicket(request, mdlLock, context, stamp);
                 } else {
                     // 由于只有 DDL 语句加写锁，如果 ticket 已经存在，代表当前连接上已经有一个DDL在执行了
                     // MySQL 未支持这种用法，需要退出临界区，否则 unlockWrite 会被阻塞，导致死锁
@@ -222,8 +225,11 @@ public class MdlManagerStamped extends MdlManager {
                 request.setTicket(t);
                 return t;
             });
-        } finally {
-            mdlLock.unlatchRead();
+
+            if (null != ticket) {
+                return ticket;
+            }
+            mdlMap.remove(request.getKey(), mdlLock);
         }
     }
 
@@ -248,15 +254,14 @@ public class MdlManagerStamped extends MdlManager {
         });
     }
 
-    private MdlLock getAndLatchMdlLock(@NotNull MdlKey key) {
-        return mdlMap.compute(key, (k, l) -> {
-            if (null == l) {
-                l = new MdlLockStamped(k);
-            }
-
-            // 防止锁取出后被清理
-            l.latchRead();
-            return l;
-        });
+    /**
+     * 锁对象被清理前会被标记为 retired，加锁失败后重新获取，因此这里无需对 mdlMap 加锁
+     */
+    private MdlLock getMdlLock(@NotNull MdlKey key) {
+        final MdlLock lock = mdlMap.get(key);
+        if (null != lock) {
+            return lock;
+        }
+        return mdlMap.computeIfAbsent(key, MdlLockStamped::new);
     }
 }
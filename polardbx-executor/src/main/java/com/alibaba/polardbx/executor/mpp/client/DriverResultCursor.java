@@ -21,6 +21,7 @@ import com.alibaba.polardbx.common.exception.TddlRuntimeException;
 import com.alibaba.polardbx.common.utils.GeneralUtil;
 import com.alibaba.polardbx.executor.chunk.Chunk;
 import com.alibaba.polardbx.executor.cursor.AbstractCursor;
+import com.alibaba.polardbx.executor.cursor.ChunkCursor;
 import com.alibaba.polardbx.executor.mpp.deploy.ServiceProvider;
 import com.alibaba.polardbx.executor.mpp.execution.QueryExecution;
 import com.alibaba.polardbx.executor.mpp.execution.QueryManager;
@@ -41,7 +42,7 @@ import java.util.List;
 import static com.alibaba.polardbx.common.exception.code.ErrorCode.ERR_DATA_OUTPUT;
 import static com.alibaba.polardbx.executor.operator.ConsumerExecutor.NOT_BLOCKED;
 
-public class DriverResultCursor extends AbstractCursor {
+public class DriverResultCursor extends AbstractCursor implements ChunkCursor {
 
     private Driver driver;
     private DriverContext driverContext;
@@ -50,6 +51,7 @@ public class DriverResultCursor extends AbstractCursor {
     protected Row currentValue;
     protected Chunk currentChunk;
     protected int nextPos;
+    protected int chunkOffset;
 
     private boolean syncMode;
     private ListenableFuture<?> blocked = NOT_BLOCKED;
@@ -168,6 +170,31 @@ public class DriverResultCursor extends AbstractCursor {
         return currentValue;
     }
 
+    @Override
+    public boolean isChunkOutputSupported() {
+        return syncMode;
+    }
+
+    @Override
+    public Chunk nextResultChunk() {
+        if (currentChunk == null || currentChunk.getPositionCount() == nextPos) {
+            if (doNext() == null) {
+                return null;
+            }
+            // doNext已经消费了一行，退回到该行
+            nextPos--;
+        }
+        Chunk chunk = currentChunk;
+        chunkOffset = nextPos;
+        nextPos = chunk.getPositionCount();
+        return chunk;
+    }
+
+    @Override
+    public int getChunkOffset() {
+        return chunkOffset;
+    }
+
     @Override
     public boolean isFinished() {
         boolean finish = driverExec.isFinished();
@@ -21,6 +21,7 @@ import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.executor.chunk.Chunk;
 import com.alibaba.polardbx.executor.cursor.AbstractCursor;
+import com.alibaba.polardbx.executor.cursor.ChunkCursor;
 import com.alibaba.polardbx.executor.mpp.execution.QueryInfo;
 import com.alibaba.polardbx.executor.mpp.operator.OperatorStats;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
@@ -35,7 +36,7 @@ import java.util.concurrent.Future;
 
 import static com.alibaba.polardbx.executor.mpp.server.StatementResource.Query.toQueryError;
 
-public class MppResultCursor extends AbstractCursor {
+public class MppResultCursor extends AbstractCursor implements ChunkCursor {
 
     private static final Logger log = LoggerFactory.getLogger(MppResultCursor.class);
     private final LocalStatementClient client;
@@ -44,6 +45,7 @@ public class MppResultCursor extends AbstractCursor {
     private Iterator<Object> currentChunks;
     private Chunk currentChunk;
     private int nextPos;
+    private int chunkOffset;
     private boolean bWaitQueryInfo;
     private CursorMeta cursorMeta;
 
@@ -92,6 +94,31 @@ public class MppResultCursor extends AbstractCursor {
         return currentValue;
     }
 
+    @Override
+    public boolean isChunkOutputSupported() {
+        return true;
+    }
+
+    @Override
+    public Chunk nextResultChunk() {
+        if (currentChunk == null || currentChunk.getPositionCount() == nextPos) {
+            if (doNext() == null) {
+                return null;
+            }
+            // doNext已经消费了一行，退回到该行
+            nextPos--;
+        }
+        Chunk chunk = currentChunk;
+        chunkOffset = nextPos;
+        nextPos = chunk.getPositionCount();
+        return chunk;
+    }
+
+    @Override
+    public int getChunkOffset() {
+        return chunkOffset;
+    }
+
     @Override
     public List<Throwable> doClose(List<Throwable> exceptions) {
         if (exceptions == null || exceptions.size() == 0) {
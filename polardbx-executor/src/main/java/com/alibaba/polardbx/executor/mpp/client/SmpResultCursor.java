@@ -22,6 +22,7 @@ import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.executor.chunk.Chunk;
 import com.alibaba.polardbx.executor.cursor.AbstractCursor;
+import com.alibaba.polardbx.executor.cursor.ChunkCursor;
 import com.alibaba.polardbx.executor.mpp.deploy.ServiceProvider;
 import com.alibaba.polardbx.executor.mpp.execution.QueryExecution;
 import com.alibaba.polardbx.executor.mpp.execution.QueryManager;
@@ -37,13 +38,14 @@ import com.alibaba.polardbx.optimizer.core.row.Row;
 import java.util.ArrayList;
 import java.util.List;
 
-public class SmpResultCursor extends AbstractCursor {
+public class SmpResultCursor extends AbstractCursor implements ChunkCursor {
 
     private static final Logger log = LoggerFactory.getLogger(SmpResultCursor.class);
     protected final LocalBufferExec bufferExec;
     protected Row currentValue;
     protected Chunk currentChunk;
     protected int nextPos;
+    protected int chunkOffset;
     protected QueryExecution queryExecution;
 
     private boolean syncMode;
@@ -124,6 +126,31 @@ public class SmpResultCursor extends AbstractCursor {
         return currentValue;
     }
 
+    @Override
+    public boolean isChunkOutputSupported() {
+        return syncMode;
+    }
+
+    @Override
+    public Chunk nextResultChunk() {
+        if (currentChunk == null || currentChunk.getPositionCount() == nextPos) {
+            if (doNext() == null) {
+                return null;
+            }
+            // doNext已经消费了一行，退回到该行
+            nextPos--;
+        }
+        Chunk chunk = currentChunk;
+        chunkOffset = nextPos;
+        nextPos = chunk.getPositionCount();
+        return chunk;
+    }
+
+    @Override
+    public int getChunkOffset() {
+        return chunkOffset;
+    }
+
     @Override
     public boolean isFinished() {
         if (!isFinished && parent != null) {
@@ -0,0 +1,257 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.mpp.execution;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Multilevel feedback queue of splits.
+ * <p>
+ * The level of a split is decided by the accumulated scheduled time of its task, so that
+ * long running tasks sink to lower levels. Each level is guaranteed a share of the scheduled
+ * time, and level i gets {@link #LEVEL_TIME_MULTIPLIER} times the share of level i + 1.
+ * Within a level, queries are served round robin and up to {@link #QUERY_BATCH_SPLITS}
+ * splits of the same query are taken in a row for cache locality.
+ */
+@ThreadSafe
+public class MultilevelSplitQueue<T> {
+
+    static final long[] LEVEL_THRESHOLD_SECONDS = {0, 1, 10, 60, 300};
+
+    static final int LEVEL_TIME_MULTIPLIER = 2;
+
+    static final int QUERY_BATCH_SPLITS = 4;
+
+    private final Level<T>[] levels;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    @GuardedBy("lock")
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public MultilevelSplitQueue() {
+        this.levels = new Level[LEVEL_THRESHOLD_SECONDS.length];
+        long weight = 1;
+        for (int i = levels.length - 1; i >= 0; i--) {
+            // the top level has the largest weight
+            levels[i] = new Level<>(weight);
+            weight *= LEVEL_TIME_MULTIPLIER;
+        }
+    }
+
+    public static int levelOf(long taskScheduledNanos) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(taskScheduledNanos);
+        for (int level = LEVEL_THRESHOLD_SECONDS.length - 1; level > 0; level--) {
+            if (seconds >= LEVEL_THRESHOLD_SECONDS[level]) {
+                return level;
+            }
+        }
+        return 0;
+    }
+
+    public void offer(T split, String queryId, long taskScheduledNanos) {
+        checkArgument(split != null, "split is null");
+        final Level<T> level = levels[levelOf(taskScheduledNanos)];
+        lock.lock();
+        try {
+            if (level.size == 0) {
+                // a level becoming active should not take over the executor with its stale scheduled time
+                long minNormalized = Long.MAX_VALUE;
+                for (Level<T> other : levels) {
+                    if (other != level && other.size > 0) {
+                        minNormalized = Math.min(minNormalized, other.scheduledNanos.get() / other.weight);
+                    }
+                }
+                if (minNormalized != Long.MAX_VALUE) {
+                    long expected = minNormalized * level.weight;
+                    if (level.scheduledNanos.get() < expected) {
+                        level.scheduledNanos.set(expected);
+                    }
+                }
+            }
+            level.offer(new Entry<>(split, queryId == null ? "" : queryId, System.nanoTime()));
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public T take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            Level<T> selected = null;
+            double minShare = Double.MAX_VALUE;
+            for (Level<T> level : levels) {
+                if (level.size > 0) {
+                    double share = (double) level.scheduledNanos.get() / level.weight;
+                    if (share < minShare) {
+                        minShare = share;
+                        selected = level;
+                    }
+                }
+            }
+            size--;
+            return selected.poll(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Charge the scheduled time to the level the task was in before running
+     */
+    public void recordScheduledTime(long taskScheduledNanos, long scheduledNanos) {
+        levels[levelOf(taskScheduledNanos)].scheduledNanos.addAndGet(scheduledNanos);
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int[] getLevelPendingSplits() {
+        lock.lock();
+        try {
+            int[] result = new int[levels.length];
+            for (int i = 0; i < levels.length; i++) {
+                result[i] = levels[i].size;
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Average time splits waited in each level before being taken
+     */
+    public long[] getLevelAverageWaitMillis() {
+        lock.lock();
+        try {
+            long[] result = new long[levels.length];
+            for (int i = 0; i < levels.length; i++) {
+                Level<T> level = levels[i];
+                result[i] = level.waitCount == 0 ? 0 :
+                    TimeUnit.NANOSECONDS.toMillis(level.totalWaitNanos / level.waitCount);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long[] getLevelScheduledMillis() {
+        long[] result = new long[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            result[i] = TimeUnit.NANOSECONDS.toMillis(levels[i].scheduledNanos.get());
+        }
+        return result;
+    }
+
+    private static class Entry<T> {
+        private final T split;
+        private final String queryId;
+        private final long enqueueNanos;
+
+        private Entry(T split, String queryId, long enqueueNanos) {
+            this.split = split;
+            this.queryId = queryId;
+            this.enqueueNanos = enqueueNanos;
+        }
+    }
+
+    /**
+     * All fields except scheduledNanos are guarded by the queue lock
+     */
+    private static class Level<T> {
+        private final long weight;
+        private final AtomicLong scheduledNanos = new AtomicLong();
+
+        /**
+         * Queries with pending splits except the current one, in round robin order
+         */
+        private final ArrayDeque<String> queries = new ArrayDeque<>();
+        private final Map<String, ArrayDeque<Entry<T>>> splitsByQuery = new HashMap<>();
+        private String currentQuery;
+        private int currentBatch;
+
+        private int size;
+        private long totalWaitNanos;
+        private long waitCount;
+
+        private Level(long weight) {
+            this.weight = weight;
+        }
+
+        private void offer(Entry<T> entry) {
+            ArrayDeque<Entry<T>> splits = splitsByQuery.get(entry.queryId);
+            if (splits == null) {
+                splits = new ArrayDeque<>();
+                splitsByQuery.put(entry.queryId, splits);
+                if (!entry.queryId.equals(currentQuery)) {
+                    queries.addLast(entry.queryId);
+                }
+            }
+            splits.addLast(entry);
+            size++;
+        }
+
+        private T poll(long now) {
+            if (currentQuery == null || currentBatch >= QUERY_BATCH_SPLITS
+                || !splitsByQuery.containsKey(currentQuery)) {
+                if (currentQuery != null && splitsByQuery.containsKey(currentQuery)) {
+                    queries.addLast(currentQuery);
+                }
+                currentQuery = queries.pollFirst();
+                currentBatch = 0;
+            }
+
+            ArrayDeque<Entry<T>> splits = splitsByQuery.get(currentQuery);
+            Entry<T> entry = splits.pollFirst();
+            if (splits.isEmpty()) {
+                splitsByQuery.remove(currentQuery);
+            }
+            currentBatch++;
+            size--;
+            totalWaitNanos += now - entry.enqueueNanos;
+            waitCount++;
+            return entry.split;
+        }
+    }
+}
@@ -44,9 +44,28 @@ public class PriorityExecutorInfo {
      * number of blocked splits
      */
     private int blockedSplitSize;
+    /**
+     * number of pending splits of each level in multilevel split queue, null if not leveled
+     */
+    private int[] levelPendingSplits;
+    /**
+     * average wait time in milliseconds of each level
+     */
+    private long[] levelWaitMillis;
+    /**
+     * accumulated scheduled time in milliseconds of each level
+     */
+    private long[] levelScheduledMillis;
 
     public PriorityExecutorInfo(String name, int poolSize, int activeCount, long runnerProcessCount,
                                 long completedTaskCount, int pendingSplitsSize, int blockedSplitSize) {
+        this(name, poolSize, activeCount, runnerProcessCount, completedTaskCount, pendingSplitsSize,
+            blockedSplitSize, null, null, null);
+    }
+
+    public PriorityExecutorInfo(String name, int poolSize, int activeCount, long runnerProcessCount,
+                                long completedTaskCount, int pendingSplitsSize, int blockedSplitSize,
+                                int[] levelPendingSplits, long[] levelWaitMillis, long[] levelScheduledMillis) {
         this.name = name;
         this.poolSize = poolSize;
         this.activeCount = activeCount;
@@ -54,6 +73,9 @@ public class PriorityExecutorInfo {
         this.completedTaskCount = completedTaskCount;
         this.pendingSplitsSize = pendingSplitsSize;
         this.blockedSplitSize = blockedSplitSize;
+        this.levelPendingSplits = levelPendingSplits;
+        this.levelWaitMillis = levelWaitMillis;
+        this.levelScheduledMillis = levelScheduledMillis;
     }
 
     public String getName() {
@@ -84,6 +106,18 @@ public class PriorityExecutorInfo {
         return blockedSplitSize;
     }
 
+    public int[] getLevelPendingSplits() {
+        return levelPendingSplits;
+    }
+
+    public long[] getLevelWaitMillis() {
+        return levelWaitMillis;
+    }
+
+    public long[] getLevelScheduledMillis() {
+        return levelScheduledMillis;
+    }
+
     public long getTotalTask() {
         return pendingSplitsSize + activeCount + blockedSplitSize + completedTaskCount;
     }
@@ -29,6 +29,7 @@ import com.alibaba.polardbx.executor.common.ExecutorContext;
 import com.alibaba.polardbx.executor.mpp.OutputBuffers;
 import com.alibaba.polardbx.executor.mpp.Session;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.BufferResult;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.ChunkSerdeStats;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.LazyOutputBuffer;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.OutputBuffer;
 import com.alibaba.polardbx.executor.mpp.metadata.TaskLocation;
@@ -731,11 +732,15 @@ public class SqlTask {
                     for (Integer operatorId : driverContext.getDriverInputs()) {
                         RuntimeStatisticsSketch ret = idToStatisticsSketch.get(operatorId);
                         if (ret != null && !finishedStatics.contains(operatorId)) {
+                            ChunkSerdeStats serdeStats = context.getSerdeStats().get(operatorId);
                             OperatorStats operatorStats =
                                 new OperatorStats(Optional.empty(), driverContext.getPipelineContext().getPipelineId(),
                                     Optional.of(idToName.get(operatorId)), operatorId, ret.getRowCount(),
                                     ret.getOutputBytes(), ret.getStartupDuration(), ret.getDuration(),
-                                    ret.getMemory(), ret.getInstances(), ret.getSpillCnt());
+                                    ret.getMemory(), ret.getInstances(), ret.getSpillCnt(),
+                                    serdeStats != null ? serdeStats.getRawBytes() : 0,
+                                    serdeStats != null ? serdeStats.getSerializedBytes() : 0,
+                                    serdeStats != null ? serdeStats.getCodecNanos() : 0);
                             operatorStatsList.add(operatorStats);
                             finishedStatics.add(operatorId);
                         }
@@ -71,6 +71,7 @@ public class SqlTaskExecutionFactory {
             taskNotificationExecutor,
             taskContext.isSpillable() ? spillerFactory : null,
             httpClient, uri, true);
+        taskContext.setSerdeStats(planner.getPagesSerdeFactory().getOperatorStats());
 
         return SqlTaskExecution.createSqlTaskExecution(
             taskStateMachine,
@@ -273,7 +273,9 @@ public class StageStateMachine {
                                 operator.getOperatorType(),
                                 operator.getOperatorId(), operator.getOutputRowCount(), operator.getOutputBytes(),
                                 operator.getStartupDuration(), operator.getDuration(), operator.getMemory(),
-                                operator.getInstances(), operator.getSpillCnt()));
+                                operator.getInstances(), operator.getSpillCnt(),
+                                operator.getSerdeRawBytes(), operator.getSerdeSerializedBytes(),
+                                operator.getSerdeCodecNanos()));
                         }
                     } else {
                         if (taskStats.getOperatorStats() != null) {
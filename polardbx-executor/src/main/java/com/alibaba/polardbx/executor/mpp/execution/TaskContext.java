@@ -19,6 +19,7 @@ package com.alibaba.polardbx.executor.mpp.execution;
 import com.alibaba.polardbx.common.properties.ConnectionParams;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.ChunkSerdeStats;
 import com.alibaba.polardbx.executor.mpp.operator.PipelineDepTree;
 import com.alibaba.polardbx.executor.utils.ExecUtils;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
@@ -82,6 +83,8 @@ public class TaskContext {
 
     private volatile PipelineDepTree pipelineDepTree;
 
+    private volatile Map<Integer, ChunkSerdeStats> serdeStats = new HashMap<>();
+
     private final boolean isSpill;
 
     private final TaskId taskId;
@@ -170,6 +173,17 @@ public class TaskContext {
         return pipelineDepTree;
     }
 
+    public void setSerdeStats(Map<Integer, ChunkSerdeStats> serdeStats) {
+        this.serdeStats = serdeStats;
+    }
+
+    /**
+     * @return exchange serde stats of this task by operator id
+     */
+    public Map<Integer, ChunkSerdeStats> getSerdeStats() {
+        return serdeStats;
+    }
+
     public void pipelineFinished(PipelineContext pipelineContext) {
         this.pipelineDepTree.pipelineFinish(pipelineContext.getPipelineId());
     }
@@ -39,6 +39,7 @@ import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -82,9 +83,9 @@ public class TaskExecutor {
     protected final BlockingQueue<PrioritizedSplitRunner> highPendingSplits;
 
     /**
-     * Splits waiting for ap runner thread.
+     * Splits waiting for ap runner thread, leveled by the scheduled time of their tasks.
      */
-    protected final BlockingQueue<PrioritizedSplitRunner> lowPendingSplits;
+    protected final MultilevelSplitQueue<PrioritizedSplitRunner> lowPendingSplits;
 
     /**
      * Splits blocked by the driver (typically output buffer is full or input buffer is empty).
@@ -127,7 +128,7 @@ public class TaskExecutor {
             new NamedThreadFactory("blockedSplits-processor", true));
 
         this.highPendingSplits = new LinkedBlockingQueue<>();
-        this.lowPendingSplits = new LinkedBlockingQueue<>();
+        this.lowPendingSplits = new MultilevelSplitQueue<>();
     }
 
     @PostConstruct
@@ -218,19 +219,25 @@ public class TaskExecutor {
             if (highPriority) {
                 highPendingSplits.put(split);
             } else {
-                lowPendingSplits.put(split);
+                offerLowSplit(split);
             }
         } catch (Exception e) {
             log.error("error", e);
         }
     }
 
+    private void offerLowSplit(PrioritizedSplitRunner split) {
+        TaskHandle taskHandle = split.getTaskHandle();
+        lowPendingSplits.offer(split, taskHandle.getTaskId().getQueryId(), taskHandle.getScheduledNanos());
+    }
+
     public PriorityExecutorInfo getLowPriorityInfo() {
         ThreadPoolExecutor lowPriorityExecutor = getLowExecutor();
         PriorityExecutorInfo info =
             new PriorityExecutorInfo("LowTaskExecutor", lowPriorityExecutor.getPoolSize(),
                 runningLowSplits.get(), runnerLowProcessCount, lowCompletedSplitNum.get(),
-                lowPendingSplits.size(), lowBlockedSplitNum.get());
+                lowPendingSplits.size(), lowBlockedSplitNum.get(), lowPendingSplits.getLevelPendingSplits(),
+                lowPendingSplits.getLevelAverageWaitMillis(), lowPendingSplits.getLevelScheduledMillis());
         return info;
     }
 
@@ -286,6 +293,11 @@ public class TaskExecutor {
 
         private final AtomicInteger nextSplitId = new AtomicInteger();
 
+        /**
+         * Accumulated time spent in running splits of this task, decides the level in split queue
+         */
+        private final AtomicLong scheduledNanos = new AtomicLong();
+
         private TaskHandle(TaskId taskId) {
             this.taskId = taskId;
         }
@@ -307,6 +319,14 @@ public class TaskExecutor {
             return nextSplitId.getAndIncrement();
         }
 
+        public long getScheduledNanos() {
+            return scheduledNanos.get();
+        }
+
+        private void addScheduledNanos(long nanos) {
+            scheduledNanos.addAndGet(nanos);
+        }
+
         @Override
         public String toString() {
             return toStringHelper(this).add("taskId", taskId).toString();
@@ -460,6 +480,10 @@ public class TaskExecutor {
                     + " last time runner process count: " + lastRunnerProcessCount
                     + " this time runner process count: " + priorityExecutorInfo.getRunnerProcessCount()
                     + " runner process rate: " + runnerProcessRate
+                    + (priorityExecutorInfo.getLevelPendingSplits() == null ? "" :
+                    " level pending splits: " + Arrays.toString(priorityExecutorInfo.getLevelPendingSplits())
+                        + " level wait ms: " + Arrays.toString(priorityExecutorInfo.getLevelWaitMillis())
+                        + " level scheduled ms: " + Arrays.toString(priorityExecutorInfo.getLevelScheduledMillis()))
             );
         }
 
@@ -543,7 +567,12 @@ public class TaskExecutor {
                             if (log.isDebugEnabled()) {
                                 log.debug(String.format("%s is started", split.getInfo()));
                             }
+                            final long taskScheduledNanos = split.getTaskHandle().getScheduledNanos();
+                            final long startNanos = System.nanoTime();
                             blocked = split.process(start);
+                            final long scheduledNanos = System.nanoTime() - startNanos;
+                            lowPendingSplits.recordScheduledTime(taskScheduledNanos, scheduledNanos);
+                            split.getTaskHandle().addScheduledNanos(scheduledNanos);
                             long cost = System.currentTimeMillis() - start;
                             try {
                                 split.spiltCostAdd(cost);
@@ -561,7 +590,7 @@ public class TaskExecutor {
                                 splitFinished(split);
                             } else {
                                 if (blocked.isDone()) {
-                                    lowPendingSplits.put(split);
+                                    offerLowSplit(split);
                                 } else {
                                     if (log.isDebugEnabled()) {
                                         log.debug(String.format("%s is bloked", split.getInfo()));
@@ -577,7 +606,7 @@ public class TaskExecutor {
                                         lowBlockedSplitNum.getAndDecrement();
                                         blockedSplits.remove(split);
                                         try {
-                                            lowPendingSplits.put(split);
+                                            offerLowSplit(split);
                                         } catch (Exception e) {
                                             log.error("error", e);
                                         }
@@ -659,7 +688,9 @@ public class TaskExecutor {
                             if (log.isDebugEnabled()) {
                                 log.debug(String.format("%s is started", split.getInfo()));
                             }
+                            final long startNanos = System.nanoTime();
                             ListenableFuture<?> blocked = split.process(start);
+                            split.getTaskHandle().addScheduledNanos(System.nanoTime() - startNanos);
                             long cost = System.currentTimeMillis() - start;
                             split.spiltCostAdd(cost);
                             final boolean moveToLowQueue = split.moveToLowQueue(cost);
@@ -675,7 +706,7 @@ public class TaskExecutor {
                             } else {
                                 if (blocked.isDone()) {
                                     if (moveToLowQueue) {
-                                        lowPendingSplits.put(split);
+                                        offerLowSplit(split);
                                     } else {
                                         highPendingSplits.put(split);
                                     }
@@ -695,7 +726,7 @@ public class TaskExecutor {
                                         blockedSplits.remove(split);
                                         try {
                                             if (moveToLowQueue) {
-                                                lowPendingSplits.put(split);
+                                                offerLowSplit(split);
                                             } else {
                                                 highPendingSplits.put(split);
                                             }
@@ -18,11 +18,22 @@ package com.alibaba.polardbx.executor.mpp.execution.buffer;
 
 import com.alibaba.polardbx.common.exception.TddlRuntimeException;
 import com.alibaba.polardbx.common.exception.code.ErrorCode;
+import io.airlift.compress.Compressor;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
 
+/**
+ * Codec of a serialized chunk, written as a one byte marker before the chunk data.
+ * Readers pick the decompressor by marker, so writers can choose the codec freely.
+ */
 public enum ChunkCompression {
 
     UNCOMPRESSED((byte) 0),
-    COMPRESSED((byte) 1);
+    LZ4((byte) 1),
+    ZSTD((byte) 2);
 
     private final byte marker;
 
@@ -34,10 +45,55 @@ public enum ChunkCompression {
         return marker;
     }
 
+    public boolean isCompressed() {
+        return this != UNCOMPRESSED;
+    }
+
+    public Compressor createCompressor() {
+        switch (this) {
+        case LZ4:
+            return new Lz4Compressor();
+        case ZSTD:
+            return new ZstdCompressor();
+        default:
+            return null;
+        }
+    }
+
+    public Decompressor createDecompressor() {
+        switch (this) {
+        case LZ4:
+            return new Lz4Decompressor();
+        case ZSTD:
+            return new ZstdDecompressor();
+        default:
+            return null;
+        }
+    }
+
     public static ChunkCompression lookupCodecFromMarker(byte marker) {
-        if (marker != UNCOMPRESSED.getMarker() && marker != COMPRESSED.getMarker()) {
-            throw new TddlRuntimeException(ErrorCode.ERR_CORRUPT_PAGE, "Page marker did not contain expected value");
+        for (ChunkCompression compression : values()) {
+            if (compression.marker == marker) {
+                return compression;
+            }
+        }
+        throw new TddlRuntimeException(ErrorCode.ERR_CORRUPT_PAGE, "Page marker did not contain expected value");
+    }
+
+    /**
+     * @param name NONE, LZ4 or ZSTD, case insensitive. Unknown names mean no compression.
+     */
+    public static ChunkCompression lookupCodecFromName(String name) {
+        if (name == null) {
+            return UNCOMPRESSED;
+        }
+        switch (name.trim().toUpperCase()) {
+        case "LZ4":
+            return LZ4;
+        case "ZSTD":
+            return ZSTD;
+        default:
+            return UNCOMPRESSED;
         }
-        return UNCOMPRESSED.getMarker() == marker ? UNCOMPRESSED : COMPRESSED;
     }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.mpp.execution.buffer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serialized size and codec cpu time of the chunks serialized or deserialized for one operator
+ */
+public class ChunkSerdeStats {
+
+    private final AtomicLong rawBytes = new AtomicLong();
+    private final AtomicLong serializedBytes = new AtomicLong();
+    private final AtomicLong codecNanos = new AtomicLong();
+
+    public void record(long rawBytes, long serializedBytes, long codecNanos) {
+        this.rawBytes.addAndGet(rawBytes);
+        this.serializedBytes.addAndGet(serializedBytes);
+        this.codecNanos.addAndGet(codecNanos);
+    }
+
+    /**
+     * Size after block encoding, before compression
+     */
+    public long getRawBytes() {
+        return rawBytes.get();
+    }
+
+    /**
+     * Size on the wire or in the spill file
+     */
+    public long getSerializedBytes() {
+        return serializedBytes.get();
+    }
+
+    public long getCodecNanos() {
+        return codecNanos.get();
+    }
+}
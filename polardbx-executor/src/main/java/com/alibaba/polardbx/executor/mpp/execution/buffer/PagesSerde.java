@@ -23,35 +23,80 @@ import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import io.airlift.compress.Compressor;
 import io.airlift.compress.Decompressor;
 import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
 import io.airlift.slice.SliceOutput;
 import io.airlift.slice.Slices;
 
 import javax.annotation.concurrent.NotThreadSafe;
 import java.util.List;
-import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
-import static io.airlift.compress.lz4.Lz4RawCompressor.maxCompressedLength;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
+import static sun.misc.Unsafe.ARRAY_BYTE_BASE_OFFSET;
 
 @NotThreadSafe
 public class PagesSerde {
     private static final double MINIMUM_COMPRESSION_RATIO = 0.8;
 
-    private final Optional<Compressor> compressor;
-    private final Optional<Decompressor> decompressor;
+    /**
+     * Max chunks sent uncompressed without trying after poorly compressed ones
+     */
+    private static final int MAX_COMPRESSION_SKIP = 64;
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Scratch buffers larger than this are not kept by the thread
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * Scratch buffers shared by the serdes running in the same thread. Their content never
+     * outlives a serialize or deserialize call, since block encodings copy what they read.
+     */
+    private static final ThreadLocal<DynamicSliceOutput> SERIALIZATION_BUFFER =
+        ThreadLocal.withInitial(() -> new DynamicSliceOutput(INITIAL_BUFFER_SIZE));
+    private static final ThreadLocal<byte[]> COMPRESSION_BUFFER = new ThreadLocal<>();
+    private static final ThreadLocal<byte[]> DECOMPRESSION_BUFFER = new ThreadLocal<>();
+
+    private final ChunkCompression compression;
+    private final Compressor compressor;
+    private final Decompressor[] decompressors = new Decompressor[ChunkCompression.values().length];
+    private final boolean multiFormat;
+    private final List<DataType> types;
     private final List<BlockEncoding> blockEncodings;
+    /**
+     * Encodings of the other format, created when a chunk of that format is read
+     */
+    private List<BlockEncoding> otherBlockEncodings;
+    private final ChunkSerdeStats stats;
+
+    private int compressionSkip = 0;
+    private int skippedChunks = 0;
+
+    /**
+     * @param multiFormat write dictionary and run-length encoded blocks as they are, chunks written so
+     * can not be read by the nodes not supporting them
+     * @param lightweightEncoding pack long and string columns, requires multi-format
+     */
+    public PagesSerde(ChunkCompression compression, boolean multiFormat, boolean lightweightEncoding,
+                      List<DataType> types, ChunkSerdeStats stats) {
+        this.compression = requireNonNull(compression, "compression is null");
+        this.compressor = compression.createCompressor();
+        this.multiFormat = multiFormat;
+        this.types = types;
+        this.blockEncodings = BlockEncodingBuilders.create(types, multiFormat, lightweightEncoding);
+        this.stats = stats;
+    }
+
+    public PagesSerde(ChunkCompression compression, List<DataType> types) {
+        this(compression, false, false, types, null);
+    }
 
-    public PagesSerde(Optional<Compressor> compressor,
-                      Optional<Decompressor> decompressor,
-                      List<DataType> types) {
-        this.compressor = requireNonNull(compressor, "compressor is null");
-        this.decompressor = requireNonNull(decompressor, "decompressor is null");
-        this.blockEncodings = BlockEncodingBuilders.create(types);
-        checkArgument(compressor.isPresent() == decompressor.isPresent(),
-            "compressor and decompressor must both be present or both be absent");
+    public ChunkCompression getCompression() {
+        return compression;
     }
 
     public SerializedChunk serialize(boolean localChunk, Chunk page) {
@@ -63,32 +108,63 @@ public class PagesSerde {
     }
 
     private SerializedChunk serializeForce(Chunk page) {
-        SliceOutput serializationBuffer =
-            new DynamicSliceOutput(toIntExact((page.getSizeInBytes() + Integer.BYTES))); // block
-        // length is an int
-        PagesSerdeUtil.writeRawPage(page, serializationBuffer, blockEncodings);
-
-        if (!compressor.isPresent()) {
+        if (compressor == null || skipCompression()) {
+            SliceOutput serializationBuffer =
+                new DynamicSliceOutput(toIntExact((page.getSizeInBytes() + Integer.BYTES))); // block
+            // length is an int
+            PagesSerdeUtil.writeRawPage(page, serializationBuffer, blockEncodings);
+            recordStats(serializationBuffer.size(), serializationBuffer.size(), 0);
             return new SerializedChunk(serializationBuffer.slice(), ChunkCompression.UNCOMPRESSED,
-                page.getPositionCount(), serializationBuffer.size());
+                page.getPositionCount(), serializationBuffer.size(), multiFormat);
         }
 
-        int maxCompressedLength = maxCompressedLength(serializationBuffer.size());
-        byte[] compressionBuffer = new byte[maxCompressedLength];
-        int actualCompressedLength = compressor.get()
-            .compress(serializationBuffer.slice().getBytes(), 0, serializationBuffer.size(), compressionBuffer, 0,
-                maxCompressedLength);
-
-        if (((1.0 * actualCompressedLength) / serializationBuffer.size()) > MINIMUM_COMPRESSION_RATIO) {
-            return new SerializedChunk(serializationBuffer.slice(), ChunkCompression.UNCOMPRESSED,
-                page.getPositionCount(), serializationBuffer.size());
+        DynamicSliceOutput serializationBuffer = SERIALIZATION_BUFFER.get();
+        serializationBuffer.reset();
+        PagesSerdeUtil.writeRawPage(page, serializationBuffer, blockEncodings);
+        int uncompressedSize = serializationBuffer.size();
+        byte[] uncompressed = (byte[]) serializationBuffer.getUnderlyingSlice().getBase();
+
+        long startNanos = System.nanoTime();
+        int maxCompressedLength = compressor.maxCompressedLength(uncompressedSize);
+        byte[] compressionBuffer = scratch(COMPRESSION_BUFFER, maxCompressedLength);
+        int actualCompressedLength = compressor
+            .compress(uncompressed, 0, uncompressedSize, compressionBuffer, 0, maxCompressedLength);
+        long codecNanos = System.nanoTime() - startNanos;
+
+        if (((1.0 * actualCompressedLength) / uncompressedSize) > MINIMUM_COMPRESSION_RATIO) {
+            // back off exponentially while the data does not compress
+            compressionSkip = compressionSkip == 0 ? 1 : Math.min(compressionSkip * 2, MAX_COMPRESSION_SKIP);
+            skippedChunks = 0;
+            recordStats(uncompressedSize, uncompressedSize, codecNanos);
+            Slice uncompressedSlice = Slices.copyOf(serializationBuffer.slice());
+            if (serializationBuffer.getUnderlyingSlice().length() > MAX_RETAINED_BUFFER_SIZE) {
+                SERIALIZATION_BUFFER.remove();
+            }
+            return new SerializedChunk(uncompressedSlice, ChunkCompression.UNCOMPRESSED,
+                page.getPositionCount(), uncompressedSize, multiFormat);
         }
 
-        return new SerializedChunk(
+        compressionSkip = 0;
+        recordStats(uncompressedSize, actualCompressedLength, codecNanos);
+        SerializedChunk serializedChunk = new SerializedChunk(
             Slices.copyOf(Slices.wrappedBuffer(compressionBuffer, 0, actualCompressedLength)),
-            ChunkCompression.COMPRESSED,
+            compression,
             page.getPositionCount(),
-            serializationBuffer.size());
+            uncompressedSize,
+            multiFormat);
+        if (serializationBuffer.getUnderlyingSlice().length() > MAX_RETAINED_BUFFER_SIZE) {
+            SERIALIZATION_BUFFER.remove();
+        }
+        return serializedChunk;
+    }
+
+    private boolean skipCompression() {
+        if (skippedChunks < compressionSkip) {
+            skippedChunks++;
+            return true;
+        }
+        skippedChunks = 0;
+        return false;
     }
 
     public Chunk deserialize(SerializedChunk serializedChunk) {
@@ -98,19 +174,70 @@ public class PagesSerde {
             return serializedChunk.getPage();
         }
 
-        if (!decompressor.isPresent() || serializedChunk.getCompression() == ChunkCompression.UNCOMPRESSED) {
+        final List<BlockEncoding> encodings = blockEncodingsOf(serializedChunk);
+        if (!serializedChunk.getCompression().isCompressed()) {
             return PagesSerdeUtil.readRawPage(serializedChunk.getPositionCount(), serializedChunk.getSlice().getInput(),
-                blockEncodings);
+                encodings);
         }
 
+        long startNanos = System.nanoTime();
+        Slice compressed = serializedChunk.getSlice();
+        byte[] input;
+        int inputOffset;
+        if (compressed.getBase() instanceof byte[]) {
+            input = (byte[]) compressed.getBase();
+            inputOffset = toIntExact(compressed.getAddress() - ARRAY_BYTE_BASE_OFFSET);
+        } else {
+            input = compressed.getBytes();
+            inputOffset = 0;
+        }
         int uncompressedSize = serializedChunk.getUncompressedSizeInBytes();
-        byte[] decompressed = new byte[uncompressedSize];
-        int actualUncompressedSize = decompressor.get()
-            .decompress(serializedChunk.getSlice().getBytes(), 0, serializedChunk.getSlice().length(), decompressed, 0,
-                uncompressedSize);
+        byte[] decompressed = scratch(DECOMPRESSION_BUFFER, uncompressedSize);
+        int actualUncompressedSize = decompressor(serializedChunk.getCompression())
+            .decompress(input, inputOffset, compressed.length(), decompressed, 0, uncompressedSize);
         checkState(uncompressedSize == actualUncompressedSize);
+        recordStats(uncompressedSize, compressed.length(), System.nanoTime() - startNanos);
 
         return PagesSerdeUtil.readRawPage(serializedChunk.getPositionCount(), Slices
-            .wrappedBuffer(decompressed, 0, uncompressedSize).getInput(), blockEncodings);
+            .wrappedBuffer(decompressed, 0, uncompressedSize).getInput(), encodings);
+    }
+
+    /**
+     * Chunks are read by the format they are written in, which may differ from this serde
+     */
+    private List<BlockEncoding> blockEncodingsOf(SerializedChunk serializedChunk) {
+        if (serializedChunk.isMultiFormat() == multiFormat) {
+            return blockEncodings;
+        }
+        if (otherBlockEncodings == null) {
+            otherBlockEncodings = BlockEncodingBuilders.create(types, !multiFormat, false);
+        }
+        return otherBlockEncodings;
+    }
+
+    private Decompressor decompressor(ChunkCompression chunkCompression) {
+        Decompressor decompressor = decompressors[chunkCompression.ordinal()];
+        if (decompressor == null) {
+            decompressor = chunkCompression.createDecompressor();
+            decompressors[chunkCompression.ordinal()] = decompressor;
+        }
+        return decompressor;
+    }
+
+    private void recordStats(long rawBytes, long serializedBytes, long codecNanos) {
+        if (stats != null) {
+            stats.record(rawBytes, serializedBytes, codecNanos);
+        }
+    }
+
+    private static byte[] scratch(ThreadLocal<byte[]> holder, int minSize) {
+        byte[] buffer = holder.get();
+        if (buffer == null || buffer.length < minSize) {
+            buffer = new byte[Math.max(minSize, INITIAL_BUFFER_SIZE)];
+            if (buffer.length <= MAX_RETAINED_BUFFER_SIZE) {
+                holder.set(buffer);
+            }
+        }
+        return buffer;
     }
 }
@@ -17,25 +17,56 @@
 package com.alibaba.polardbx.executor.mpp.execution.buffer;
 
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
-import io.airlift.compress.lz4.Lz4Compressor;
-import io.airlift.compress.lz4.Lz4Decompressor;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PagesSerdeFactory {
 
-    private final boolean compressionEnabled;
+    private final ChunkCompression compression;
+    private final boolean multiFormat;
+    private final boolean lightweightEncoding;
+    private final Map<Integer, ChunkSerdeStats> operatorStats;
+    private final Integer operatorId;
 
     public PagesSerdeFactory(boolean compressionEnabled) {
-        this.compressionEnabled = compressionEnabled;
+        this(compressionEnabled ? ChunkCompression.LZ4 : ChunkCompression.UNCOMPRESSED, false, false);
+    }
+
+    /**
+     * @param multiFormat keep dictionary and run-length encoded blocks, not readable by older nodes
+     * @param lightweightEncoding encode long and string columns compactly before compression, requires multi-format
+     */
+    public PagesSerdeFactory(ChunkCompression compression, boolean multiFormat, boolean lightweightEncoding) {
+        this(compression, multiFormat, lightweightEncoding, new ConcurrentHashMap<>(), null);
+    }
+
+    private PagesSerdeFactory(ChunkCompression compression, boolean multiFormat, boolean lightweightEncoding,
+                              Map<Integer, ChunkSerdeStats> operatorStats, Integer operatorId) {
+        this.compression = compression;
+        this.multiFormat = multiFormat;
+        this.lightweightEncoding = lightweightEncoding;
+        this.operatorStats = operatorStats;
+        this.operatorId = operatorId;
+    }
+
+    /**
+     * @return a factory whose serdes record their sizes and codec time under the operator
+     */
+    public PagesSerdeFactory forOperator(int operatorId) {
+        return new PagesSerdeFactory(compression, multiFormat, lightweightEncoding, operatorStats, operatorId);
     }
 
     public PagesSerde createPagesSerde(List<DataType> types) {
-        if (compressionEnabled) {
-            return new PagesSerde(Optional.of(new Lz4Compressor()), Optional.of(new Lz4Decompressor()), types);
-        } else {
-            return new PagesSerde(Optional.empty(), Optional.empty(), types);
+        ChunkSerdeStats stats = null;
+        if (operatorId != null) {
+            stats = operatorStats.computeIfAbsent(operatorId, id -> new ChunkSerdeStats());
         }
+        return new PagesSerde(compression, multiFormat, lightweightEncoding, types, stats);
+    }
+
+    public Map<Integer, ChunkSerdeStats> getOperatorStats() {
+        return operatorStats;
     }
 }
@@ -33,6 +33,12 @@ import static java.util.Objects.requireNonNull;
 
 public class PagesSerdeUtil {
 
+    /**
+     * Set in the codec marker of chunks written by multi-format block encodings. Nodes not
+     * knowing the flag reject such chunks as corrupted instead of decoding them wrongly.
+     */
+    private static final int MULTI_FORMAT_FLAG = 0x10;
+
     public static void writeRawPage(Chunk page, SliceOutput output, List<BlockEncoding> blockEncodings) {
         output.writeInt(page.getBlockCount());
         for (int i = 0; i < page.getBlockCount(); i++) {
@@ -51,7 +57,7 @@ public class PagesSerdeUtil {
 
     public static long writeSerializedChunk(SliceOutput output, SerializedChunk page) {
         output.writeInt(page.getPositionCount());
-        output.writeByte(page.getCompression().getMarker());
+        output.writeByte(page.getCompression().getMarker() | (page.isMultiFormat() ? MULTI_FORMAT_FLAG : 0));
         output.writeInt(page.getUncompressedSizeInBytes());
         output.writeInt(page.getSizeInBytes());
         output.writeBytes(page.getSlice());
@@ -64,7 +70,8 @@ public class PagesSerdeUtil {
         int uncompressedSizeInBytes = sliceInput.readInt();
         int sizeInBytes = sliceInput.readInt();
         Slice slice = sliceInput.readSlice(toIntExact((sizeInBytes)));
-        return new SerializedChunk(slice, lookupCodecFromMarker(codecMarker), positionCount, uncompressedSizeInBytes);
+        return new SerializedChunk(slice, lookupCodecFromMarker((byte) (codecMarker & ~MULTI_FORMAT_FLAG)),
+            positionCount, uncompressedSizeInBytes, (codecMarker & MULTI_FORMAT_FLAG) != 0);
     }
 
     public static long writeSerializedChunks(SliceOutput sliceOutput, Iterable<SerializedChunk> pages) {
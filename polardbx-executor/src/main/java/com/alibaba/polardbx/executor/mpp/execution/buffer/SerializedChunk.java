@@ -35,19 +35,29 @@ public class SerializedChunk {
     private final int uncompressedSizeInBytes;
     private final Chunk page;
     private final int length;
+    /**
+     * Whether the blocks are written by multi-format encodings
+     */
+    private final boolean multiFormat;
 
     public SerializedChunk(Slice slice, ChunkCompression compression, int positionCount, int uncompressedSizeInBytes) {
+        this(slice, compression, positionCount, uncompressedSizeInBytes, false);
+    }
+
+    public SerializedChunk(Slice slice, ChunkCompression compression, int positionCount, int uncompressedSizeInBytes,
+                           boolean multiFormat) {
         this.slice = requireNonNull(slice, "slice is null");
         this.compression = requireNonNull(compression, "compression is null");
         this.positionCount = positionCount;
         checkArgument(uncompressedSizeInBytes >= 0, "uncompressedSizeInBytes is negative");
         checkArgument(compression == ChunkCompression.UNCOMPRESSED || uncompressedSizeInBytes > slice.length(),
             "compressed size must be smaller than uncompressed size when compressed");
-        checkArgument(compression == ChunkCompression.COMPRESSED || uncompressedSizeInBytes == slice.length(),
+        checkArgument(compression.isCompressed() || uncompressedSizeInBytes == slice.length(),
             "uncompressed size must be equal to slice length when uncompressed");
         this.uncompressedSizeInBytes = uncompressedSizeInBytes;
         this.page = null;
         this.length = 0;
+        this.multiFormat = multiFormat;
     }
 
     public SerializedChunk(Chunk page, int length, ChunkCompression compression, int positionCount) {
@@ -57,6 +67,7 @@ public class SerializedChunk {
         this.uncompressedSizeInBytes = length;
         this.page = page;
         this.length = length;
+        this.multiFormat = false;
     }
 
     public int getSizeInBytes() {
@@ -93,11 +104,16 @@ public class SerializedChunk {
         return compression;
     }
 
+    public boolean isMultiFormat() {
+        return multiFormat;
+    }
+
     @Override
     public String toString() {
         return toStringHelper(this)
             .add("positionCount", positionCount)
             .add("compression", compression)
+            .add("multiFormat", multiFormat)
             .add("page", page != null)
             .add("sizeInBytes", getSizeInBytes())
             .add("uncompressedSizeInBytes", uncompressedSizeInBytes)
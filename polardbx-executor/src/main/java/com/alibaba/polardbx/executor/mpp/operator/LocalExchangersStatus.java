@@ -20,10 +20,19 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class LocalExchangersStatus {
 
-    private final List<AtomicBoolean> consumings = new ArrayList<>();
+    /**
+     * Serialize producers feeding the same consumer. Waiting producers park instead of spinning.
+     */
+    private final List<ReentrantLock> consumeLocks = new ArrayList<>();
+    /**
+     * Rows routed to each consumer, used to report partition skew
+     */
+    private final AtomicLongArray partitionRows;
     private AtomicInteger buildCount = new AtomicInteger(0);
     private AtomicInteger currentParallelism = new AtomicInteger(0);
     private int consumerParallelism;
@@ -34,8 +43,9 @@ public class LocalExchangersStatus {
 
     public LocalExchangersStatus(int consumerParallelism) {
         for (int i = 0; i < consumerParallelism; i++) {
-            consumings.add(new AtomicBoolean(false));
+            consumeLocks.add(new ReentrantLock());
         }
+        this.partitionRows = new AtomicLongArray(consumerParallelism);
         this.consumerParallelism = consumerParallelism;
     }
 
@@ -51,8 +61,41 @@ public class LocalExchangersStatus {
         return consumerParallelism;
     }
 
-    public List<AtomicBoolean> getConsumings() {
-        return consumings;
+    public List<ReentrantLock> getConsumeLocks() {
+        return consumeLocks;
+    }
+
+    public void recordPartitionRows(int partition, int rows) {
+        partitionRows.addAndGet(partition, rows);
+    }
+
+    public long getPartitionRows(int partition) {
+        return partitionRows.get(partition);
+    }
+
+    public long[] getPartitionRows() {
+        long[] rows = new long[partitionRows.length()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = partitionRows.get(i);
+        }
+        return rows;
+    }
+
+    /**
+     * Ratio of the largest partition to the average one, 1.0 means perfectly balanced
+     */
+    public double getPartitionSkew() {
+        long max = 0;
+        long total = 0;
+        for (int i = 0; i < partitionRows.length(); i++) {
+            long rows = partitionRows.get(i);
+            max = Math.max(max, rows);
+            total += rows;
+        }
+        if (total == 0) {
+            return 1.0;
+        }
+        return (double) max * partitionRows.length() / total;
     }
 
     public int getBuildCount() {
@@ -31,6 +31,7 @@ import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.executor.mpp.Session;
 import com.alibaba.polardbx.executor.mpp.execution.EmptyMemSystemListener;
 import com.alibaba.polardbx.executor.mpp.execution.RecordMemSystemListener;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.ChunkCompression;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.OutputBuffer;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.OutputBufferMemoryManager;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerdeFactory;
@@ -234,7 +235,13 @@ public class LocalExecutionPlanner {
                                  URI runtimeFilterUpdateUri,
                                  boolean enableRuntimeFilter) {
         this.exchangeClientSupplier = exchangeClientSupplier;
-        this.pagesSerdeFactory = new PagesSerdeFactory(false);
+        ChunkCompression compression = ChunkCompression.lookupCodecFromName(
+            context.getParamManager().getString(ConnectionParams.MPP_EXCHANGE_COMPRESSION_CODEC));
+        // 编码块只在开启时传输, 保持与旧版本节点的格式兼容
+        final boolean multiFormat = compression.isCompressed()
+            || context.getParamManager().getBoolean(ConnectionParams.ENABLE_OSS_DICTIONARY_BLOCK)
+            || context.getParamManager().getBoolean(ConnectionParams.ENABLE_RLE_CONSTANT_BLOCK);
+        this.pagesSerdeFactory = new PagesSerdeFactory(compression, multiFormat, compression.isCompressed());
         this.context = context;
         this.defaultParallelism = defaultParallelism;
         this.bkaJoinParallelism = bkaJoinParallelism;
@@ -265,6 +272,10 @@ public class LocalExecutionPlanner {
             bufferSize, new RecordMemSystemListener(memoryPool.getMemoryAllocatorCtx()), notificationExecutor);
     }
 
+    public PagesSerdeFactory getPagesSerdeFactory() {
+        return pagesSerdeFactory;
+    }
+
     public Map<Integer, BloomFilterExpression> getBloomFilterExpressionMap() {
         return bloomFilterExpressionMap;
     }
@@ -38,6 +38,19 @@ public class OperatorStats {
     private final long memory;
     private final int instances;
     private final int spillCnt;
+    /**
+     * chunk bytes before and after exchange serde, and the time spent on the codec
+     */
+    private final long serdeRawBytes;
+    private final long serdeSerializedBytes;
+    private final long serdeCodecNanos;
+
+    public OperatorStats(Optional<StageId> stageId, int pipelineId, Optional<String> operatorType, int operatorId,
+                         long outputRowCount, long outputBytes, double startupDuration, double duration,
+                         long memory, int instances, int spillCnt) {
+        this(stageId, pipelineId, operatorType, operatorId, outputRowCount, outputBytes, startupDuration, duration,
+            memory, instances, spillCnt, 0, 0, 0);
+    }
 
     @JsonCreator
     public OperatorStats(
@@ -62,7 +75,13 @@ public class OperatorStats {
         @JsonProperty("instances")
             int instances,
         @JsonProperty("spillCnt")
-            int spillCnt) {
+            int spillCnt,
+        @JsonProperty("serdeRawBytes")
+            long serdeRawBytes,
+        @JsonProperty("serdeSerializedBytes")
+            long serdeSerializedBytes,
+        @JsonProperty("serdeCodecNanos")
+            long serdeCodecNanos) {
         this.operatorType = operatorType;
         this.stageId = stageId;
         this.pipelineId = pipelineId;
@@ -74,6 +93,9 @@ public class OperatorStats {
         this.memory = memory;
         this.instances = instances;
         this.spillCnt = spillCnt;
+        this.serdeRawBytes = serdeRawBytes;
+        this.serdeSerializedBytes = serdeSerializedBytes;
+        this.serdeCodecNanos = serdeCodecNanos;
     }
 
     @JsonProperty
@@ -121,6 +143,21 @@ public class OperatorStats {
         return spillCnt;
     }
 
+    @JsonProperty
+    public long getSerdeRawBytes() {
+        return serdeRawBytes;
+    }
+
+    @JsonProperty
+    public long getSerdeSerializedBytes() {
+        return serdeSerializedBytes;
+    }
+
+    @JsonProperty
+    public long getSerdeCodecNanos() {
+        return serdeCodecNanos;
+    }
+
     @JsonProperty
     public Optional<StageId> getStageId() {
         return stageId;
@@ -143,6 +180,9 @@ public class OperatorStats {
         long memory = this.memory;
         int instances = this.instances;
         int spillCnt = 0;
+        long serdeRawBytes = this.serdeRawBytes;
+        long serdeSerializedBytes = this.serdeSerializedBytes;
+        long serdeCodecNanos = this.serdeCodecNanos;
         for (OperatorStats operator : operators) {
             outputRowCount += operator.outputRowCount;
             outputBytes += operator.outputBytes;
@@ -151,9 +191,13 @@ public class OperatorStats {
             memory += operator.memory;
             instances += operator.instances;
             spillCnt += operator.spillCnt;
+            serdeRawBytes += operator.serdeRawBytes;
+            serdeSerializedBytes += operator.serdeSerializedBytes;
+            serdeCodecNanos += operator.serdeCodecNanos;
         }
         return new OperatorStats(stageId, pipelineId, operatorType, operatorId, outputRowCount, outputBytes,
-            startupDuration, duration, memory, instances, spillCnt);
+            startupDuration, duration, memory, instances, spillCnt, serdeRawBytes, serdeSerializedBytes,
+            serdeCodecNanos);
     }
 
     public RuntimeStatisticsSketch toSketch() {
@@ -299,6 +299,16 @@ public class PartitionedOutputCollector extends OutputCollector {
             checkState(partition >= 0 && partition < partitionCount);
             return partition;
         }
+
+        /**
+         * Compute partitions of the whole chunk in one pass, same result as getPartition on each position
+         */
+        public void getPartitions(Chunk page, int[] partitions) {
+            int[] hashes = page.hashCodeVector();
+            for (int position = 0; position < hashes.length; position++) {
+                partitions[position] = ExecUtils.partition(hashes[position], partitionCount, isPowerOfTwo);
+            }
+        }
     }
 
     private static class SingleBucketFunction implements PartitionFunction {
@@ -32,12 +32,12 @@ import it.unimi.dsi.fastutil.ints.IntList;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class PartitioningBucketExchanger extends LocalExchanger {
     private final HashBucketFunction bucketGenerator;
     private final List<Integer> partitionChannels;
-    private final List<AtomicBoolean> consumings;
+    private final List<ReentrantLock> consumeLocks;
     private final ChunkConverter keyConverter;
     private final int totalBucketNum;
     private final ExecutionContext context;
@@ -59,7 +59,7 @@ public class PartitioningBucketExchanger extends LocalExchanger {
                                        int chunkLimit, ExecutionContext context) {
         super(bufferMemoryManager, executors, status, asyncConsume);
         this.partitionChannels = partitionChannels;
-        this.consumings = status.getConsumings();
+        this.consumeLocks = status.getConsumeLocks();
         if (keyTypes.isEmpty()) {
             this.keyConverter = null;
         } else {
@@ -166,19 +166,16 @@ public class PartitioningBucketExchanger extends LocalExchanger {
 
     private void sendChunk(int bucketIndex, Chunk chunk) {
         int partition = bucketIndex % executors.size();
+        status.recordPartitionRows(partition, chunk.getPositionCount());
         if (asyncConsume) {
             executors.get(partition).consumeChunk(chunk);
         } else {
-            AtomicBoolean consuming = consumings.get(partition);
-            while (true) {
-                if (consuming.compareAndSet(false, true)) {
-                    try {
-                        executors.get(partition).consumeChunk(chunk);
-                    } finally {
-                        consuming.set(false);
-                    }
-                    break;
-                }
+            ReentrantLock lock = consumeLocks.get(partition);
+            lock.lock();
+            try {
+                executors.get(partition).consumeChunk(chunk);
+            } finally {
+                lock.unlock();
             }
         }
     }
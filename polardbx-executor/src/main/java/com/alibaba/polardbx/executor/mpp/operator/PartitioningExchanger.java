@@ -27,21 +27,30 @@ import com.alibaba.polardbx.executor.mpp.operator.PartitionedOutputCollector.Has
 import com.alibaba.polardbx.executor.operator.ConsumerExecutor;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
-import it.unimi.dsi.fastutil.ints.IntArrayList;
-import it.unimi.dsi.fastutil.ints.IntList;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class PartitioningExchanger extends LocalExchanger {
     private final HashBucketFunction partitionGenerator;
     private final List<Integer> partitionChannels;
     private List<DataType> types;
-    private final List<AtomicBoolean> consumings;
+    private final List<ReentrantLock> consumeLocks;
     private ChunkConverter keyConverter;
     private ExecutionContext context;
+    private final int chunkLimit;
+    private final boolean enableDelay;
+
+    /**
+     * Rows of each partition are accumulated until a full chunk is ready
+     */
+    private ChunkBuilder[] pageBuilders;
+
+    // reused scratch of the partition pass
+    private int[] partitions = new int[0];
+    private int[] sortedPositions = new int[0];
+    private final int[] partitionStarts;
 
     public PartitioningExchanger(OutputBufferMemoryManager bufferMemoryManager, List<ConsumerExecutor> executors,
                                  LocalExchangersStatus status,
@@ -49,13 +58,18 @@ public class PartitioningExchanger extends LocalExchanger {
                                  List<DataType> types,
                                  List<Integer> partitionChannels,
                                  List<DataType> keyTargetTypes,
+                                 int chunkLimit,
                                  ExecutionContext context) {
         super(bufferMemoryManager, executors, status, asyncConsume);
         this.types = types;
         this.context = context;
+        this.chunkLimit = chunkLimit;
         this.partitionGenerator = new HashBucketFunction(executors.size());
         this.partitionChannels = partitionChannels;
-        this.consumings = status.getConsumings();
+        this.consumeLocks = status.getConsumeLocks();
+        this.partitionStarts = new int[executors.size() + 1];
+        this.enableDelay =
+            context.getParamManager().getBoolean(ConnectionParams.ENABLE_OSS_DELAY_MATERIALIZATION_ON_EXCHANGE);
         if (keyTargetTypes.isEmpty()) {
             this.keyConverter = null;
         } else {
@@ -69,9 +83,9 @@ public class PartitioningExchanger extends LocalExchanger {
 
     @Override
     public void consumeChunk(Chunk chunk) {
-        IntList[] partitionAssignments = new IntList[executors.size()];
-        for (int i = 0; i < partitionAssignments.length; i++) {
-            partitionAssignments[i] = new IntArrayList();
+        final int positionCount = chunk.getPositionCount();
+        if (positionCount == 0) {
+            return;
         }
         // assign each row to a partition
         Chunk keyChunk;
@@ -80,55 +94,94 @@ public class PartitioningExchanger extends LocalExchanger {
         } else {
             keyChunk = keyConverter.apply(chunk);
         }
+        if (partitions.length < positionCount) {
+            partitions = new int[positionCount];
+            sortedPositions = new int[positionCount];
+        }
+        partitionGenerator.getPartitions(keyChunk, partitions);
 
-        for (int position = 0; position < keyChunk.getPositionCount(); position++) {
-            int partition = partitionGenerator.getPartition(keyChunk, position);
-            partitionAssignments[partition].add(position);
+        // counting sort positions by partition
+        final int partitionCount = executors.size();
+        Arrays.fill(partitionStarts, 0);
+        for (int position = 0; position < positionCount; position++) {
+            partitionStarts[partitions[position] + 1]++;
+        }
+        for (int partition = 0; partition < partitionCount; partition++) {
+            partitionStarts[partition + 1] += partitionStarts[partition];
+        }
+        for (int position = 0; position < positionCount; position++) {
+            sortedPositions[partitionStarts[partitions[position]]++] = position;
+        }
+        // partitionStarts[i] now points to the end of partition i
+        for (int partition = partitionCount; partition > 0; partition--) {
+            partitionStarts[partition] = partitionStarts[partition - 1];
         }
+        partitionStarts[0] = 0;
 
-        final boolean enableDelay =
-            context.getParamManager().getBoolean(ConnectionParams.ENABLE_OSS_DELAY_MATERIALIZATION_ON_EXCHANGE);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            int offset = partitionStarts[partition];
+            int length = partitionStarts[partition + 1] - offset;
+            if (length == 0) {
+                continue;
+            }
+            status.recordPartitionRows(partition, length);
+            if (enableDelay) {
+                // delay materialization references positions as selection, so it can not be accumulated
+                ChunkBuilder builder = new ChunkBuilder(types, length, context);
+                int[] positions = Arrays.copyOfRange(sortedPositions, offset, offset + length);
+                sendChunk(partition, builder.fromPartition(positions, chunk));
+            } else {
+                appendToPartition(partition, chunk, offset, length);
+            }
+        }
+    }
 
-        // build a page for each partition
-        Map<Integer, Chunk> partitionChunks = new HashMap<>();
-        for (int partition = 0; partition < executors.size(); partition++) {
-            List<Integer> positions = partitionAssignments[partition];
-            if (!positions.isEmpty()) {
-                ChunkBuilder builder = new ChunkBuilder(types, positions.size(), context);
-                Chunk partitionedChunk;
-                if (enableDelay) {
-                    partitionedChunk = builder.fromPartition(positions, chunk);
-                } else {
-                    for (Integer pos : positions) {
-                        builder.declarePosition();
-                        for (int i = 0; i < chunk.getBlockCount(); i++) {
-                            builder.appendTo(chunk.getBlock(i), i, pos);
-                        }
-                    }
-                    partitionedChunk = builder.build();
-                }
-                partitionChunks.put(partition, partitionedChunk);
+    private void appendToPartition(int partition, Chunk chunk, int offset, int length) {
+        if (pageBuilders == null) {
+            pageBuilders = new ChunkBuilder[executors.size()];
+        }
+        ChunkBuilder builder = pageBuilders[partition];
+        if (builder == null) {
+            builder = new ChunkBuilder(types, chunkLimit, context);
+            pageBuilders[partition] = builder;
+        }
+        while (length > 0) {
+            int batch = Math.min(length, Math.max(1, builder.remainingCapacity()));
+            builder.appendPositions(chunk, sortedPositions, offset, batch);
+            offset += batch;
+            length -= batch;
+            if (builder.isFull()) {
+                Chunk partitionedChunk = builder.build();
+                builder.reset();
+                sendChunk(partition, partitionedChunk);
             }
         }
-        if (asyncConsume) {
-            for (Map.Entry<Integer, Chunk> entry : partitionChunks.entrySet()) {
-                int partition = entry.getKey();
-                executors.get(partition).consumeChunk(entry.getValue());
+    }
+
+    private void flush() {
+        if (pageBuilders == null) {
+            return;
+        }
+        for (int partition = 0; partition < pageBuilders.length; partition++) {
+            ChunkBuilder builder = pageBuilders[partition];
+            if (builder != null && !builder.isEmpty()) {
+                Chunk partitionedChunk = builder.build();
+                builder.reset();
+                sendChunk(partition, partitionedChunk);
             }
+        }
+    }
+
+    private void sendChunk(int partition, Chunk chunk) {
+        if (asyncConsume) {
+            executors.get(partition).consumeChunk(chunk);
         } else {
-            for (Map.Entry<Integer, Chunk> entry : partitionChunks.entrySet()) {
-                int partition = entry.getKey();
-                AtomicBoolean consuming = consumings.get(partition);
-                while (true) {
-                    if (consuming.compareAndSet(false, true)) {
-                        try {
-                            executors.get(partition).consumeChunk(entry.getValue());
-                        } finally {
-                            consuming.set(false);
-                        }
-                        break;
-                    }
-                }
+            ReentrantLock lock = consumeLocks.get(partition);
+            lock.lock();
+            try {
+                executors.get(partition).consumeChunk(chunk);
+            } finally {
+                lock.unlock();
             }
         }
     }
@@ -140,4 +193,10 @@ public class PartitioningExchanger extends LocalExchanger {
         }
         return new Chunk(page.getPositionCount(), blocks);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void buildConsume() {
+        flush();
+        super.buildConsume();
+    }
+}
@@ -22,16 +22,16 @@ import com.alibaba.polardbx.executor.operator.ConsumerExecutor;
 
 import java.util.List;
 import java.util.Random;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class RandomExchanger extends LocalExchanger {
-    private final List<AtomicBoolean> consumings;
+    private final List<ReentrantLock> consumeLocks;
     private final Random random;
 
     public RandomExchanger(OutputBufferMemoryManager bufferMemoryManager, List<ConsumerExecutor> executors,
                            LocalExchangersStatus status, boolean asyncConsume) {
         super(bufferMemoryManager, executors, status, asyncConsume);
-        this.consumings = status.getConsumings();
+        this.consumeLocks = status.getConsumeLocks();
         this.random = new Random(executors.size());
     }
 
@@ -41,13 +41,14 @@ public class RandomExchanger extends LocalExchanger {
         if (asyncConsume) {
             executors.get(randomIndex).consumeChunk(chunk);
         } else {
-            while (true) {
-                AtomicBoolean consuming = consumings.get(randomIndex);
-                if (consuming.compareAndSet(false, true)) {
+            // try every consumer once, then park on the chosen one instead of spinning
+            for (int i = 0; i < executors.size(); i++) {
+                ReentrantLock lock = consumeLocks.get(randomIndex);
+                if (lock.tryLock()) {
                     try {
                         executors.get(randomIndex).consumeChunk(chunk);
                     } finally {
-                        consuming.set(false);
+                        lock.unlock();
                     }
                     return;
                 }
@@ -56,6 +57,13 @@ public class RandomExchanger extends LocalExchanger {
                     randomIndex = 0;
                 }
             }
+            ReentrantLock lock = consumeLocks.get(randomIndex);
+            lock.lock();
+            try {
+                executors.get(randomIndex).consumeChunk(chunk);
+            } finally {
+                lock.unlock();
+            }
         }
     }
 }
@@ -21,15 +21,15 @@ import com.alibaba.polardbx.executor.mpp.execution.buffer.OutputBufferMemoryMana
 import com.alibaba.polardbx.executor.operator.ConsumerExecutor;
 
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class SingleExchanger extends LocalExchanger {
-    private final AtomicBoolean consuming;
+    private final ReentrantLock consumeLock;
 
     public SingleExchanger(OutputBufferMemoryManager bufferMemoryManager, List<ConsumerExecutor> executors,
                            LocalExchangersStatus status, boolean asyncConsume) {
         super(bufferMemoryManager, executors, status, asyncConsume);
-        this.consuming = status.getConsumings().get(0);
+        this.consumeLock = status.getConsumeLocks().get(0);
     }
 
     @Override
@@ -37,15 +37,11 @@ public class SingleExchanger extends LocalExchanger {
         if (asyncConsume) {
             executors.get(0).consumeChunk(chunk);
         } else {
-            while (true) {
-                if (consuming.compareAndSet(false, true)) {
-                    try {
-                        executors.get(0).consumeChunk(chunk);
-                    } finally {
-                        consuming.set(false);
-                    }
-                    return;
-                }
+            consumeLock.lock();
+            try {
+                executors.get(0).consumeChunk(chunk);
+            } finally {
+                consumeLock.unlock();
             }
         }
     }
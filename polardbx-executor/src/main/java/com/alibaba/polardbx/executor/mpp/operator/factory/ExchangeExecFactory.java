@@ -54,7 +54,7 @@ public class ExchangeExecFactory extends ExecutorFactory {
     public ExchangeExecFactory(
         PagesSerdeFactory pagesSerdeFactory,
         RemoteSourceNode sourceNode, ExchangeClientSupplier supplier, boolean mergeSort) {
-        this.pagesSerdeFactory = pagesSerdeFactory;
+        this.pagesSerdeFactory = pagesSerdeFactory.forOperator(sourceNode.getRelatedId());
         this.sourceNode = sourceNode;
         this.supplier = supplier;
         this.mergeSort = mergeSort;
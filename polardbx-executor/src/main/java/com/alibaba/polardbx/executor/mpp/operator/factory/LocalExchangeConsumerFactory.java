@@ -87,12 +87,13 @@ public class LocalExchangeConsumerFactory implements ConsumeExecutorFactory {
                     localExchange.getKeyTypes(), localExchange.getBucketNum(),
                     chunkLimit, context);
             } else {
+                int chunkLimit = context.getParamManager().getInt(ConnectionParams.CHUNK_SIZE);
                 localExchanger = new PartitioningExchanger(outputBufferMemoryManager, consumerExecutors,
                     this.status,
                     localExchange.isAsyncConsume(), localExchange.getTypes(),
                     localExchange
                         .getPartitionChannels(),
-                    localExchange.getKeyTypes(), context);
+                    localExchange.getKeyTypes(), chunkLimit, context);
             }
             break;
         case DIRECT:
@@ -42,6 +42,7 @@ import com.alibaba.polardbx.executor.operator.lookup.LookupConditionBuilder;
 import com.alibaba.polardbx.executor.operator.spill.SpillerFactory;
 import com.alibaba.polardbx.executor.operator.util.bloomfilter.BloomFilterConsume;
 import com.alibaba.polardbx.executor.operator.util.bloomfilter.BloomFilterExpression;
+import com.alibaba.polardbx.executor.operator.util.bloomfilter.RuntimeFilterPartitionPruner;
 import com.alibaba.polardbx.executor.utils.ExecUtils;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.CursorMeta;
@@ -81,6 +82,8 @@ public class LogicalViewExecutorFactory extends ExecutorFactory {
     private long skip;
 
     private BloomFilterExpression filterExpression;
+    private RuntimeFilterPartitionPruner partitionPruner;
+    private boolean partitionPrunerInited = false;
 
     private boolean enablePassiveResume;
 
@@ -176,6 +179,7 @@ public class LogicalViewExecutorFactory extends ExecutorFactory {
             }
 
             if (filterExpression != null) {
+                scanClient.setPartitionPruner(getPartitionPruner(context));
                 scanClient.initWaitFuture(filterExpression.getWaitBloomFuture());
             }
 
@@ -188,6 +192,14 @@ public class LogicalViewExecutorFactory extends ExecutorFactory {
         return scanExec;
     }
 
+    private synchronized RuntimeFilterPartitionPruner getPartitionPruner(ExecutionContext context) {
+        if (!partitionPrunerInited) {
+            this.partitionPruner = RuntimeFilterPartitionPruner.create(logicalView, context);
+            this.partitionPrunerInited = true;
+        }
+        return partitionPruner;
+    }
+
     private Executor buildOSSTableScanExec(ExecutionContext context) {
         OSSTableScan ossTableScan = (OSSTableScan) logicalView;
         AbstractOSSTableScanExec exec = AbstractOSSTableScanExec.create(ossTableScan, context, dataTypeList);
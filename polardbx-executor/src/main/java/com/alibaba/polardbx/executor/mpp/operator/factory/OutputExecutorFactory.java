@@ -40,7 +40,8 @@ public class OutputExecutorFactory implements ConsumeExecutorFactory {
     ) {
         this.fragment = fragment;
         this.outputBuffer = outputBuffer;
-        this.pagesSerdeFactory = pagesSerdeFactory;
+        this.pagesSerdeFactory = fragment.getRootId() != null ?
+            pagesSerdeFactory.forOperator(fragment.getRootId()) : pagesSerdeFactory;
     }
 
     @Override
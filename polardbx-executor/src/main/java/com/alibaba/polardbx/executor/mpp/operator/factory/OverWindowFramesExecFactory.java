@@ -28,12 +28,14 @@ import com.alibaba.polardbx.executor.operator.frame.RangeUnboundedPrecedingOverF
 import com.alibaba.polardbx.executor.operator.frame.RowSlidingOverFrame;
 import com.alibaba.polardbx.executor.operator.frame.RowUnboundedFollowingOverFrame;
 import com.alibaba.polardbx.executor.operator.frame.RowUnboundedPrecedingOverFrame;
+import com.alibaba.polardbx.executor.operator.frame.SlidingExtremum;
 import com.alibaba.polardbx.executor.operator.frame.UnboundedOverFrame;
 import com.alibaba.polardbx.executor.operator.util.AggregateUtils;
 import com.alibaba.polardbx.executor.utils.OrderByOption;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
+import com.alibaba.polardbx.executor.calc.AbstractAggregator;
 import com.alibaba.polardbx.executor.calc.Aggregator;
 import com.alibaba.polardbx.optimizer.core.rel.SortWindow;
 import com.alibaba.polardbx.optimizer.memory.MemoryAllocatorCtx;
@@ -46,6 +48,7 @@ import org.apache.calcite.rex.RexInputRef;
 import org.apache.calcite.rex.RexLiteral;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.rex.RexWindowBound;
+import org.apache.calcite.sql.SqlKind;
 import org.apache.calcite.sql.SqlOperator;
 import org.apache.calcite.sql.fun.SqlStdOperatorTable;
 import org.apache.calcite.util.ImmutableBitSet;
@@ -100,18 +103,19 @@ public class OverWindowFramesExecFactory extends ExecutorFactory {
         for (int i = 0; i < overWindow.groups.size(); i++) {
             Window.Group group = overWindow.groups.get(i);
             List<AggregateCall> aggregateCalls = group.getAggregateCalls(overWindow);
+            List<DataType> aggOutputTypes =
+                outputDataTypes.subList(aggColumnIndex, aggColumnIndex + aggregateCalls.size());
             List<Aggregator> aggregators = AggregateUtils
-                .convertAggregators(input.getDataTypes(),
-                    outputDataTypes.subList(aggColumnIndex, aggColumnIndex + aggregateCalls.size()), aggregateCalls,
-                    context, memoryAllocator);
+                .convertAggregators(input.getDataTypes(), aggOutputTypes, aggregateCalls, context, memoryAllocator);
+            SlidingExtremum[] extremums = createExtremums(aggregateCalls, aggregators, aggOutputTypes);
             if (group.aggCalls.stream().anyMatch(t -> isUnboundedFrameWindowFunction(t.getOperator()))) {
                 overWindowFrames[i] = new UnboundedOverFrame(aggregators.toArray(new Aggregator[0]));
             } else if (group.lowerBound.isUnbounded() && group.upperBound.isUnbounded()) {
                 overWindowFrames[i] = new UnboundedOverFrame(aggregators.toArray(new Aggregator[0]));
             } else if (group.isRows) {
-                overWindowFrames[i] = createRowFrame(overWindow, group, aggregators);
+                overWindowFrames[i] = createRowFrame(overWindow, group, aggregators, extremums);
             } else {
-                overWindowFrames[i] = createRangeFrame(overWindow, group, aggregators);
+                overWindowFrames[i] = createRangeFrame(overWindow, group, aggregators, extremums);
             }
             aggColumnIndex += aggregateCalls.size();
         }
@@ -163,8 +167,26 @@ public class OverWindowFramesExecFactory extends ExecutorFactory {
             Arrays.stream(groups).boxed().collect(Collectors.toList()), peer, dataTypes);
     }
 
+    /**
+     * MIN/MAX of sliding frames are kept by monotonic deques instead of being recomputed for each row
+     */
+    private SlidingExtremum[] createExtremums(List<AggregateCall> aggregateCalls, List<Aggregator> aggregators,
+                                              List<DataType> outputTypes) {
+        SlidingExtremum[] extremums = new SlidingExtremum[aggregators.size()];
+        for (int i = 0; i < aggregateCalls.size(); i++) {
+            AggregateCall call = aggregateCalls.get(i);
+            SqlKind kind = call.getAggregation().getKind();
+            if ((kind == SqlKind.MAX || kind == SqlKind.MIN) && call.getArgList().size() == 1
+                && aggregators.get(i) instanceof AbstractAggregator) {
+                int columnIndex = ((AbstractAggregator) aggregators.get(i)).getAggIndexInChunk()[0];
+                extremums[i] = new SlidingExtremum(columnIndex, outputTypes.get(i), kind == SqlKind.MAX);
+            }
+        }
+        return extremums;
+    }
+
     private OverWindowFrame createRowFrame(SortWindow overWindow, SortWindow.Group group,
-                                           List<Aggregator> aggregators) {
+                                           List<Aggregator> aggregators, SlidingExtremum[] extremums) {
         if (group.lowerBound.isUnbounded()) {
             RexWindowBound upperBound = group.upperBound;
             int offset =
@@ -182,7 +204,7 @@ public class OverWindowFramesExecFactory extends ExecutorFactory {
                 getConstant(lowerBound, overWindow.constants, overWindow.getInput().getRowType().getFieldCount());
             int upperOffset =
                 getConstant(upperBound, overWindow.constants, overWindow.getInput().getRowType().getFieldCount());
-            return new RowSlidingOverFrame(aggregators, lowerOffset, upperOffset);
+            return new RowSlidingOverFrame(aggregators, lowerOffset, upperOffset, extremums);
         }
     }
 
@@ -207,7 +229,7 @@ public class OverWindowFramesExecFactory extends ExecutorFactory {
     }
 
     private OverWindowFrame createRangeFrame(SortWindow overWindow, SortWindow.Group group,
-                                             List<Aggregator> aggregators) {
+                                             List<Aggregator> aggregators, SlidingExtremum[] extremums) {
         List<RelFieldCollation> sortList = group.orderKeys.getFieldCollations();
         List<OrderByOption> orderBys = new ArrayList<>(sortList.size());
         if (sortList != null) {
@@ -244,7 +266,7 @@ public class OverWindowFramesExecFactory extends ExecutorFactory {
             int upperOffset =
                 getConstant(upperBound, overWindow.constants, overWindow.getInput().getRowType().getFieldCount());
             return new RangeSlidingOverFrame(aggregators, lowerOffset, upperOffset, index, orderByOption.isAsc(),
-                dataType);
+                dataType, extremums);
         }
     }
 
@@ -82,7 +82,8 @@ public class ParallelHashJoinExecutorFactory extends ExecutorFactory {
             }
             ParallelHashJoinExec.Synchronizer synchronizer =
                 new ParallelHashJoinExec.Synchronizer(numPartitions, alreadyUseRuntimeFilter, context.getParamManager().getBoolean(
-                    ConnectionParams.ENABLE_HASH_TABLE_BLOOM_FILTER));
+                    ConnectionParams.ENABLE_HASH_TABLE_BLOOM_FILTER),
+                    context.getParamManager().getInt(ConnectionParams.PARALLEL_HASH_JOIN_RADIX_BITS));
             for (int i = 0; i < probeParallelism; i++) {
                 Executor inner;
                 Executor outerInput;
@@ -99,8 +99,12 @@ public class RuntimeFilterBuilderExecFactory extends ExecutorFactory {
                 bloomFilters.add(bloomFilter);
                 minMaxFilters.add(minMaxFilterList);
             }
+            int maxKeySetSize = 0;
+            if (context.getParamManager().getBoolean(ConnectionParams.ENABLE_RUNTIME_FILTER_PARTITION_PRUNING)) {
+                maxKeySetSize = (int) context.getParamManager().getLong(ConnectionParams.RUNTIME_FILTER_PRUNING_MAX_KEYS);
+            }
             bloomFilterProduce = BloomFilterProduce.create(
-                bloomfilterId, keyHash, bloomFilters, minMaxFilters, client, uri, context.getTraceId());
+                bloomfilterId, keyHash, bloomFilters, minMaxFilters, client, uri, context.getTraceId(), maxKeySetSize);
         }
         bloomFilterProduce.addCounter();
         Executor input = getInputs().get(0).createExecutor(context, idx);
@@ -508,6 +508,7 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
     }
 
     private boolean tryUnspillNext(int bucketIndex) {
+        bucketAreas[bucketIndex].tryRebuildInMemory();
         boolean success = bucketAreas[bucketIndex].spillHandler.tryOpenUnspill();
         // TODO: need add retry count?
         if (!success) {
@@ -525,13 +526,24 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
         return true;
     }
 
+    /**
+     * Pick the spilled bucket with the smallest build side first, so that it is more likely to be
+     * rebuilt in memory, and prefer the one with more spilled probe rows among equal ones
+     */
     private int getNextUnspillBucket() {
+        int retBucket = -1;
         for (int bucket = 0; bucket < bucketCount; bucket++) {
-            if (bucketAreas[bucket].state == BucketState.INPUT_SPILLED) {
-                return bucket;
+            BucketArea bucketArea = bucketAreas[bucket];
+            if (bucketArea.state != BucketState.INPUT_SPILLED) {
+                continue;
+            }
+            if (retBucket < 0 || bucketArea.needAllocateMemory < bucketAreas[retBucket].needAllocateMemory
+                || (bucketArea.needAllocateMemory == bucketAreas[retBucket].needAllocateMemory
+                && bucketArea.spilledProbeRows > bucketAreas[retBucket].spilledProbeRows)) {
+                retBucket = bucket;
             }
         }
-        return -1;
+        return retBucket;
     }
 
     private int getNextConsumingBucket() {
@@ -566,7 +578,7 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
             return build ? getNextBuiltBucket() : getNextConsumingBucket();
         }
         if (unspilledBucketIndex.isPresent()) {
-            if (finished || !useRecursion) {
+            if (finished || !useRecursion || !bucketAreas[unspilledBucketIndex.get()].spillHandler.revocable()) {
                 return -1;
             }
             return unspilledBucketIndex.get();
@@ -628,6 +640,7 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
 
         private long needAllocateMemory = 0;
         private long inMemoryAllocateMemory = 0;
+        private long spilledProbeRows = 0;
 
         private SpillHandler spillHandler;
 
@@ -703,6 +716,7 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
                             if (this.bloomFilter.mightContain(hashCode)) {
                                 this.spillHandler.getProbeSpillerExec()
                                     .addRowToSpill(saveProbeChunk, saveProbePosition);
+                                spilledProbeRows++;
                             } else {
                                 if (outerJoin) {
                                     if (joinType != JoinRelType.RIGHT) {
@@ -725,6 +739,7 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
                     } else {
                         //BloomFilter 还未生成，所以只能将收到的probe数据全量spill
                         this.spillHandler.getProbeSpillerExec().spillChunk(saveProbeChunk);
+                        spilledProbeRows += positionCount;
                         // saveProbePosition的目的是告诉当前saveProbeChunk已经消费完成
                         saveProbePosition = positionCount;
                     }
@@ -988,6 +1003,21 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
             return spillHandler.produceIsFinished();
         }
 
+        /**
+         * Switch to rebuild in memory instead of recursive repartitioning if the build side fits the memory budget
+         */
+        void tryRebuildInMemory() {
+            if (!(spillHandler instanceof SubJoinSpillHandler)) {
+                return;
+            }
+            RebuildSpillHandler rebuildHandler = new RebuildSpillHandler(spillHandler);
+            if (rebuildHandler.tryAllocateUnspillMemory()) {
+                logger.info(String.format(bucketNamePrefix + "rebuild the bucket-%d in memory with %d memory",
+                    bucketIndex, needAllocateMemory));
+                spillHandler = rebuildHandler;
+            }
+        }
+
         private abstract class SpillHandler {
             protected SpillerExec buildSpillerExec;
             protected SpillerExec probeSpillerExec;
@@ -1022,6 +1052,12 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
                 }
             }
 
+            // take over the spilled files of another handler
+            SpillHandler(SpillHandler spilled) {
+                this.buildSpillerExec = spilled.buildSpillerExec;
+                this.probeSpillerExec = spilled.probeSpillerExec;
+            }
+
             void close() {
                 if (logger.isDebugEnabled()) {
                     logger.debug(
@@ -1049,6 +1085,10 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
             abstract boolean produceIsFinished();
 
             abstract public ListenableFuture<?> startMemoryRevoke();
+
+            boolean revocable() {
+                return true;
+            }
         }
 
         private class SubJoinSpillHandler extends SpillHandler {
@@ -1165,13 +1205,25 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
 
         private class RebuildSpillHandler extends SpillHandler {
             boolean finished = false;
+            boolean memoryAllocated = false;
+
+            RebuildSpillHandler() {
+                super();
+            }
+
+            RebuildSpillHandler(SpillHandler spilled) {
+                super(spilled);
+            }
 
             boolean tryAllocateUnspillMemory() {
-                boolean ret = memoryContext.tryAllocateReservedMemory(needAllocateMemory);
-                if (ret) {
+                if (memoryAllocated) {
+                    return true;
+                }
+                memoryAllocated = memoryContext.tryAllocateReservedMemory(needAllocateMemory);
+                if (memoryAllocated) {
                     inMemoryAllocateMemory = needAllocateMemory;
                 }
-                return ret;
+                return memoryAllocated;
             }
 
             @Override
@@ -1180,7 +1232,9 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
                 if (!success) {
                     return false;
                 }
-                super.tryOpenUnspill();
+                // the whole build side fits in memory, so read it back at once on the spill IO threads
+                buildSpillerExec.buildUnspillAsync();
+                probeSpillerExec.buildUnspill();
                 return true;
             }
 
@@ -1188,7 +1242,10 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
             void tryBuild() {
                 Chunk buildChunk = buildSpillerExec.nextChunk();
                 if (buildChunk == null) {
-                    checkState(buildSpillerExec.produceIsFinished());
+                    if (!buildSpillerExec.produceIsFinished()) {
+                        produceBlocked = buildSpillerExec.produceIsBlocked();
+                        return;
+                    }
                     buildOver();
                     return;
                 }
@@ -1226,6 +1283,11 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
             public ListenableFuture<?> startMemoryRevoke() {
                 throw new UnsupportedOperationException(getClass().getName() + ".startMemoryRevoke");
             }
+
+            @Override
+            boolean revocable() {
+                return false;
+            }
         }
 
     }
@@ -39,6 +39,7 @@ import com.alibaba.polardbx.optimizer.core.planner.rule.util.CBOUtil;
 import com.alibaba.polardbx.optimizer.core.rel.OSSTableScan;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import org.apache.calcite.rel.RelCollation;
 import org.apache.calcite.rex.RexBuilder;
 import org.apache.calcite.rex.RexCall;
 import org.apache.calcite.rex.RexNode;
@@ -93,6 +94,11 @@ public class OSSTableScanExec extends AbstractOSSTableScanExec {
 
     private SessionProperties sessionProperties;
 
+    /**
+     * Files of a physical table may be read in any order if the scan has no order requirement
+     */
+    private final boolean cacheFirst;
+
     public OSSTableScanExec(OSSTableScan ossTableScan, ExecutionContext context, List<DataType> dataTypeList) {
         super(context);
         this.splits = new ArrayList<>();
@@ -104,6 +110,8 @@ public class OSSTableScanExec extends AbstractOSSTableScanExec {
         this.physicalTableReadResults = new ArrayList<>();
         this.inProjectDataTypeList = ossTableScan.getOrcNode().getInProjectsDataType();
         this.sessionProperties = SessionProperties.fromExecutionContext(context);
+        RelCollation collation = ossTableScan.getTraitSet().simplify().getCollation();
+        this.cacheFirst = collation == null || collation.getFieldCollations().isEmpty();
         if (ossTableScan.getOrcNode().getFilters().isEmpty()) {
             buildSearchArgumentAndColumns(null);
         } else {
@@ -201,7 +209,7 @@ public class OSSTableScanExec extends AbstractOSSTableScanExec {
             allOptions.forEach(
                 option -> {
                     OSSTableReader ossTableReader = new OSSTableReader(option, context,
-                        ossTableScan.getAgg(), ossTableScan.getAggColumns());
+                        ossTableScan.getAgg(), ossTableScan.getAggColumns(), cacheFirst);
                     this.ossTableReaders.add(ossTableReader);
                 }
             );
@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.executor.operator;
 
+import com.alibaba.polardbx.common.properties.ConnectionParams;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.alibaba.polardbx.common.utils.memory.SizeOf;
@@ -23,6 +24,9 @@ import com.alibaba.polardbx.executor.chunk.Chunk;
 import com.alibaba.polardbx.executor.chunk.ChunkConverter;
 import com.alibaba.polardbx.executor.operator.util.ChunksIndex;
 import com.alibaba.polardbx.executor.operator.util.ConcurrentRawHashTable;
+import com.alibaba.polardbx.executor.operator.util.LongKeyJoinTable;
+import com.alibaba.polardbx.executor.operator.util.RadixPartitionedHashTable;
+import com.alibaba.polardbx.executor.operator.util.RadixPartitionedHashTable.PartitionedChunk;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.expression.calc.IExpression;
 import com.alibaba.polardbx.optimizer.core.join.EquiJoinKey;
@@ -33,10 +37,13 @@ import com.alibaba.polardbx.optimizer.memory.MemoryPoolUtils;
 import com.alibaba.polardbx.common.utils.bloomfilter.FastIntBloomFilter;
 import org.apache.calcite.rel.core.JoinRelType;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -61,6 +68,14 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
 
     private boolean probeInputIsFinish = false;
 
+    private RadixPartitionedHashTable radixHashTable;
+    private LongKeyJoinTable longKeyTable;
+    private final boolean enablePrimitiveKey;
+    // batched bucket heads of the current probe chunk
+    private int[] probeHashCodes;
+    private int[] probeBucketHeads;
+    private long[] probeKeys;
+
     public ParallelHashJoinExec(Synchronizer synchronizer,
                                 Executor outerInput,
                                 Executor innerInput,
@@ -79,11 +94,21 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
 
         this.buildOuterInput = buildOuterInput;
         this.operatorIndex = operatorIndex;
+        // null-safe equal keeps the generic path, and so do keys not BIGINT/INT on both sides
+        this.enablePrimitiveKey = joinKeys != null && joinKeys.size() == 1 && !joinKeys.get(0).isNullSafeEqual()
+            && isPrimitiveKey(joinKeys.get(0), outerInput, innerInput)
+            && context.getParamManager().getBoolean(ConnectionParams.ENABLE_PRIMITIVE_KEY_HASH_JOIN);
         if (buildOuterInput) {
             this.shared.recordOperatorIds(operatorIndex);
         }
     }
 
+    private static boolean isPrimitiveKey(EquiJoinKey joinKey, Executor outerInput, Executor innerInput) {
+        return LongKeyJoinTable.isSupportedType(joinKey.getUnifiedType())
+            && LongKeyJoinTable.isSupportedType(outerInput.getDataTypes().get(joinKey.getOuterIndex()))
+            && LongKeyJoinTable.isSupportedType(innerInput.getDataTypes().get(joinKey.getInnerIndex()));
+    }
+
     @Override
     public void openConsume() {
         Preconditions.checkArgument(shared != null, "reopen not supported yet");
@@ -108,12 +133,14 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
         if (memoryPool != null) {
             int partition = shared.buildCount.getAndIncrement();
             if (partition < shared.numPartitions) {
-                shared.buildHashTable(partition, memoryAllocator);
+                shared.buildHashTable(partition, memoryAllocator, enablePrimitiveKey);
             }
             // Copy the built hash-table from shared states into this executor
             this.buildChunks = shared.builderChunks;
             this.buildKeyChunks = shared.builderKeyChunks;
             this.hashTable = shared.hashTable;
+            this.radixHashTable = shared.radixHashTable;
+            this.longKeyTable = shared.longKeyTable;
             this.positionLinks = shared.positionLinks;
             this.bloomFilter = shared.bloomFilter;
             if (buildChunks.isEmpty() && joinType == JoinRelType.INNER) {
@@ -155,6 +182,21 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
 
     @Override
     public void consumeChunk(Chunk inputChunk) {
+        if (shared.radixBits > 0) {
+            // hash and radix-partition the rows outside the lock
+            Chunk keyChunk = getBuildKeyChunkGetter().apply(inputChunk);
+            PartitionedChunk partitionedChunk = PartitionedChunk.create(keyChunk, shared.radixBits);
+            synchronized (shared) {
+                shared.builderChunks.addChunk(inputChunk);
+                shared.builderKeyChunks.addChunk(keyChunk);
+                shared.partitionedChunks.add(partitionedChunk);
+                shared.partitionedChunkBytes.merge(memoryAllocator, partitionedChunk.estimateSize(), Long::sum);
+
+                memoryAllocator.allocateReservedMemory(
+                    inputChunk.estimateSize() + keyChunk.estimateSize() + partitionedChunk.estimateSize());
+            }
+            return;
+        }
         synchronized (shared) {
             shared.builderChunks.addChunk(inputChunk);
 
@@ -165,6 +207,53 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
         }
     }
 
+    @Override
+    int matchInit(Chunk keyChunk, int[] hashCodes, int position) {
+        if (longKeyTable != null) {
+            if (hashCodes != probeHashCodes) {
+                // read keys and look up the whole probe chunk at once
+                final int positionCount = keyChunk.getPositionCount();
+                if (probeBucketHeads == null || probeBucketHeads.length < positionCount) {
+                    probeBucketHeads = new int[positionCount];
+                    probeKeys = new long[positionCount];
+                }
+                longKeyTable.probeChunk(keyChunk, probeKeys, probeBucketHeads);
+                probeHashCodes = hashCodes;
+            }
+            return longKeyTable.findMatch(probeBucketHeads[position], probeKeys[position], positionLinks);
+        }
+        if (radixHashTable == null) {
+            return super.matchInit(keyChunk, hashCodes, position);
+        }
+        if (hashCodes != probeHashCodes) {
+            // look up the whole probe chunk at once
+            if (probeBucketHeads == null || probeBucketHeads.length < hashCodes.length) {
+                probeBucketHeads = new int[hashCodes.length];
+            }
+            radixHashTable.getBatch(hashCodes, hashCodes.length, probeBucketHeads);
+            probeHashCodes = hashCodes;
+        }
+        if (bloomFilter != null && !bloomFilter.mightContain(hashCodes[position])) {
+            return LIST_END;
+        }
+        int matchedPosition = probeBucketHeads[position];
+        while (matchedPosition != LIST_END) {
+            if (buildKeyChunks.equals(matchedPosition, keyChunk, position)) {
+                break;
+            }
+            matchedPosition = positionLinks[matchedPosition];
+        }
+        return matchedPosition;
+    }
+
+    @Override
+    int matchNext(int current, Chunk keyChunk, int position) {
+        if (longKeyTable != null) {
+            return longKeyTable.findMatch(positionLinks[current], probeKeys[position], positionLinks);
+        }
+        return super.matchNext(current, keyChunk, position);
+    }
+
     @Override
     public boolean nextJoinNullRows() {
         synchronized (shared) {
@@ -277,6 +366,11 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
             this.shared.consumeInputIsFinish(operatorIndex);
             this.shared = null;
         }
+        this.radixHashTable = null;
+        this.longKeyTable = null;
+        this.probeHashCodes = null;
+        this.probeBucketHeads = null;
+        this.probeKeys = null;
         super.doClose();
     }
 
@@ -364,6 +458,20 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
         private final ChunksIndex builderKeyChunks = new ChunksIndex();
 
         private ConcurrentRawHashTable hashTable;
+
+        // Radix-partitioned build, enabled when radixBits > 0
+        private final int radixBits;
+        private final List<PartitionedChunk> partitionedChunks = new ArrayList<>();
+        /**
+         * Memory of partitioned chunks reserved by each builder, released once they are cleared
+         */
+        private final Map<MemoryAllocatorCtx, Long> partitionedChunkBytes = new IdentityHashMap<>();
+        private final AtomicInteger nextRadixPartition = new AtomicInteger();
+        private final AtomicInteger builtRadixPartitions = new AtomicInteger();
+        private RadixPartitionedHashTable radixHashTable;
+
+        // Join table keyed by raw BIGINT/INT values
+        private LongKeyJoinTable longKeyTable;
         private int[] positionLinks;
         private FastIntBloomFilter bloomFilter;
         private boolean alreadyUseRuntimeFilter;
@@ -375,36 +483,61 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
 
         private final Set<Integer> operatorIds = new HashSet<>();
 
-        public Synchronizer(int numPartitions, boolean alreadyUseRuntimeFilter, boolean useBloomFilter) {
+        public Synchronizer(int numPartitions, boolean alreadyUseRuntimeFilter, boolean useBloomFilter,
+                            int radixBits) {
             this.numPartitions = numPartitions;
             this.alreadyUseRuntimeFilter = alreadyUseRuntimeFilter;
             this.useBloomFilter = useBloomFilter;
+            this.radixBits = radixBits;
+        }
+
+        public Synchronizer(int numPartitions, boolean alreadyUseRuntimeFilter, boolean useBloomFilter) {
+            this(numPartitions, alreadyUseRuntimeFilter, useBloomFilter, 0);
         }
 
         public Synchronizer(int numPartitions, boolean alreadyUseRuntimeFilter) {
             this(numPartitions, alreadyUseRuntimeFilter, true);
         }
 
-        private synchronized void initHashTable(MemoryAllocatorCtx ctx) {
-            if (hashTable == null) {
+        private synchronized void initHashTable(MemoryAllocatorCtx ctx, boolean primitiveKey) {
+            if (hashTable == null && radixHashTable == null && longKeyTable == null) {
                 final int size = builderKeyChunks.getPositionCount();
-                hashTable = new ConcurrentRawHashTable(size);
+                if (radixBits > 0) {
+                    long[] partitionSizes = new long[1 << radixBits];
+                    for (PartitionedChunk partitionedChunk : partitionedChunks) {
+                        for (int i = 0; i < partitionSizes.length; i++) {
+                            partitionSizes[i] += partitionedChunk.getPartitionSize(i);
+                        }
+                    }
+                    radixHashTable = new RadixPartitionedHashTable(radixBits, partitionSizes);
+                    ctx.allocateReservedMemory(radixHashTable.estimateSize());
+                } else if (primitiveKey && (longKeyTable = LongKeyJoinTable.create(builderKeyChunks)) != null) {
+                    ctx.allocateReservedMemory(longKeyTable.estimateSize());
+                } else {
+                    hashTable = new ConcurrentRawHashTable(size);
+                    ctx.allocateReservedMemory(hashTable.estimateSize());
+                }
 
                 positionLinks = new int[size];
                 Arrays.fill(positionLinks, LIST_END);
 
-                ctx.allocateReservedMemory(hashTable.estimateSize());
                 ctx.allocateReservedMemory(SizeOf.sizeOf(positionLinks));
 
-                if (useBloomFilter && !alreadyUseRuntimeFilter && size <= BLOOM_FILTER_ROWS_LIMIT_FOR_PARALLEL && size > 0) {
+                // primitive keys are compared directly, bloom filter does not help here
+                if (longKeyTable == null && useBloomFilter && !alreadyUseRuntimeFilter
+                    && size <= BLOOM_FILTER_ROWS_LIMIT_FOR_PARALLEL && size > 0) {
                     bloomFilter = FastIntBloomFilter.create(size);
                     ctx.allocateReservedMemory(bloomFilter.sizeInBytes());
                 }
             }
         }
 
-        private void buildHashTable(int partition, MemoryAllocatorCtx ctx) {
-            initHashTable(ctx);
+        private void buildHashTable(int partition, MemoryAllocatorCtx ctx, boolean primitiveKey) {
+            initHashTable(ctx, primitiveKey);
+            if (radixHashTable != null) {
+                buildRadixPartitions();
+                return;
+            }
             final int partitionSize = -Math.floorDiv(-builderKeyChunks.getChunkCount(), numPartitions);
             final int startChunkId = partitionSize * partition;
 
@@ -419,12 +552,39 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
             int position = startPosition;
             for (int chunkId = startChunkId; chunkId < endChunkId; ++chunkId) {
                 final Chunk keyChunk = builderKeyChunks.getChunk(chunkId);
-                buildOneChunk(keyChunk, position, hashTable, positionLinks, bloomFilter);
+                if (longKeyTable != null) {
+                    longKeyTable.putChunk(keyChunk, position, positionLinks);
+                } else {
+                    buildOneChunk(keyChunk, position, hashTable, positionLinks, bloomFilter);
+                }
                 position += keyChunk.getPositionCount();
             }
             assert position == endPosition;
         }
 
+        /**
+         * Claim radix partitions one by one and build each of them without atomics,
+         * so builders never touch the same buckets or position links.
+         */
+        private void buildRadixPartitions() {
+            final int partitionCount = radixHashTable.getPartitionCount();
+            int radixPartition;
+            while ((radixPartition = nextRadixPartition.getAndIncrement()) < partitionCount) {
+                for (int chunkId = 0; chunkId < partitionedChunks.size(); chunkId++) {
+                    partitionedChunks.get(chunkId).buildPartition(radixPartition,
+                        builderKeyChunks.getChunkOffset(chunkId), radixHashTable, positionLinks, bloomFilter);
+                }
+                if (builtRadixPartitions.incrementAndGet() == partitionCount) {
+                    // all partitions are built, the grouped positions are useless now
+                    synchronized (this) {
+                        partitionedChunks.clear();
+                        partitionedChunkBytes.forEach((ctx, bytes) -> ctx.releaseReservedMemory(bytes, true));
+                        partitionedChunkBytes.clear();
+                    }
+                }
+            }
+        }
+
         private synchronized void recordOperatorIds(int operatorId) {
             this.operatorIds.add(operatorId);
         }
@@ -32,6 +32,7 @@ public class SpillerExec implements Executor {
     ChunkBufferFromRow willSpillBuffer;
 
     Iterator<Chunk> unspilledChunks;
+    private ListenableFuture<List<Chunk>> unspillFuture;
     private ListenableFuture<?> spillBlocked = Futures.immediateFuture(null);
     private ListenableFuture<?> produceBlocked = ProducerExecutor.NOT_BLOCKED;
 
@@ -69,6 +70,29 @@ public class SpillerExec implements Executor {
         unspilledChunks = spiller.getSpilledChunks();
     }
 
+    /**
+     * Read back the whole spilled file on the spill IO threads, producer is blocked until all chunks are read
+     */
+    public void buildUnspillAsync() {
+        willSpillBuffer.flushToBuffer(true);
+        unspilledChunks = null;
+        unspillFuture = spiller.getAllSpilledChunks();
+        produceBlocked = unspillFuture;
+    }
+
+    private boolean unspillReady() {
+        if (unspilledChunks != null) {
+            return true;
+        }
+        if (!unspillFuture.isDone()) {
+            return false;
+        }
+        unspilledChunks = Futures.getUnchecked(unspillFuture).iterator();
+        unspillFuture = null;
+        produceBlocked = ProducerExecutor.NOT_BLOCKED;
+        return true;
+    }
+
     @Override
     public void open() {
 
@@ -79,8 +103,10 @@ public class SpillerExec implements Executor {
         if (willSpillBuffer.hasNextChunk()) {
             return willSpillBuffer.nextChunk();
         }
+        if (!unspillReady()) {
+            return null;
+        }
         if (unspilledChunks.hasNext()) {
-            //TODO: async unspill
             return unspilledChunks.next();
         }
         return null;
@@ -93,12 +119,11 @@ public class SpillerExec implements Executor {
 
     @Override
     public boolean produceIsFinished() {
-        return !willSpillBuffer.hasNextChunk() && !unspilledChunks.hasNext();
+        return !willSpillBuffer.hasNextChunk() && unspillReady() && !unspilledChunks.hasNext();
     }
 
     @Override
     public ListenableFuture<?> produceIsBlocked() {
-        //always immediateFuture current implement
         return produceBlocked;
     }
 
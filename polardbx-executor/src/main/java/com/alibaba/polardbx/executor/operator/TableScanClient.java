@@ -46,6 +46,7 @@ import com.alibaba.polardbx.executor.common.ExecutorContext;
 import com.alibaba.polardbx.executor.mpp.deploy.ServiceProvider;
 import com.alibaba.polardbx.executor.mpp.metadata.Split;
 import com.alibaba.polardbx.executor.mpp.split.JdbcSplit;
+import com.alibaba.polardbx.executor.operator.util.bloomfilter.RuntimeFilterPartitionPruner;
 import com.alibaba.polardbx.executor.utils.ExecUtils;
 import com.alibaba.polardbx.group.jdbc.TGroupDataSource;
 import com.alibaba.polardbx.group.jdbc.TGroupDirectConnection;
@@ -155,6 +156,11 @@ public class TableScanClient {
     private volatile ScheduledFuture<?> monitorWaitBloomFilterFuture = null;
     private boolean needWaitBloomFilter;
     private volatile Map<Integer, BloomFilterInfo> bloomFilterInfos = null;
+    private RuntimeFilterPartitionPruner partitionPruner;
+    /**
+     * Physical tables kept by runtime filter partition pruning, null if not pruned
+     */
+    private volatile Set<String> keptPhysicalTables = null;
     private boolean killStreaming;
     private boolean lessMy56Version = false;
 
@@ -220,9 +226,20 @@ public class TableScanClient {
     }
 
     public void addSplit(Split split) {
+        Set<String> keptTables = this.keptPhysicalTables;
+        if (keptTables != null && isPrunedSplit(split, keptTables)) {
+            return;
+        }
         this.splitList.add(split);
     }
 
+    // Must be called before initWaitFuture
+    public synchronized void setPartitionPruner(RuntimeFilterPartitionPruner partitionPruner) {
+        if (this.waitBloomFilterFuture == null) {
+            this.partitionPruner = partitionPruner;
+        }
+    }
+
     private void registerBloomFilter(List<BloomFilterInfo> bloomFilterInfos) {
         try {
             logger.info("Start registering bloom filters.");
@@ -232,11 +249,51 @@ public class TableScanClient {
                 logger.info(String.format("Bloom filter id: %d, first value %x", bloomFilterInfo.getId(),
                     bloomFilterInfo.getData()[0]));
             }
+            pruneSplitsByBloomFilter();
         } catch (Throwable t) {
             throw new TddlNestableRuntimeException(t);
         }
     }
 
+    /**
+     * Drop the splits whose physical tables can not match any build side key.
+     * Only before any split is pushed down, which holds while waiting for the bloom filters.
+     */
+    private void pruneSplitsByBloomFilter() {
+        if (partitionPruner == null || pushdownSplitIndex.get() > 0) {
+            return;
+        }
+        Set<String> keptTables = partitionPruner.keptPhysicalTables(bloomFilterInfos, context);
+        if (keptTables == null) {
+            return;
+        }
+        this.keptPhysicalTables = keptTables;
+        int before = splitList.size();
+        splitList.removeIf(split -> isPrunedSplit(split, keptTables));
+        if (logger.isInfoEnabled()) {
+            logger.info(String.format("Runtime filter pruned %d of %d splits, %d physical tables kept",
+                before - splitList.size(), before, keptTables.size()));
+        }
+    }
+
+    private static boolean isPrunedSplit(Split split, Set<String> keptTables) {
+        if (!(split.getConnectorSplit() instanceof JdbcSplit)) {
+            return false;
+        }
+        JdbcSplit jdbcSplit = (JdbcSplit) split.getConnectorSplit();
+        if (jdbcSplit.getTableNames() == null || jdbcSplit.getTableNames().isEmpty()) {
+            return false;
+        }
+        for (List<String> tables : jdbcSplit.getTableNames()) {
+            for (String table : tables) {
+                if (keptTables.contains(RuntimeFilterPartitionPruner.physicalTableKey(jdbcSplit.getDbIndex(), table))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     public synchronized void executePrefetchThread(boolean force) {
         if (isClosed) {
             return;
@@ -19,6 +19,7 @@ package com.alibaba.polardbx.executor.operator;
 import com.alibaba.polardbx.executor.utils.ConditionUtils;
 import com.alibaba.polardbx.executor.vectorized.BuiltInFunctionVectorizedExpression;
 import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.chunk.BlockUtils;
 import com.alibaba.polardbx.executor.chunk.Chunk;
 import com.alibaba.polardbx.executor.chunk.MutableChunk;
 import com.alibaba.polardbx.executor.chunk.RandomAccessBlock;
@@ -90,7 +91,7 @@ public class VectorizedFilterExec extends AbstractExecutor {
         int blockCount = chunk.getBlockCount();
 
         for (int i = 0; i < blockCount; i++) {
-            preAllocatedChunk.setSlotAt((RandomAccessBlock) chunk.getBlock(i), i);
+            preAllocatedChunk.setSlotAt((RandomAccessBlock) BlockUtils.flatten(chunk.getBlock(i), context), i);
         }
         preAllocatedChunk.reallocate(chunkSize, blockCount);
 
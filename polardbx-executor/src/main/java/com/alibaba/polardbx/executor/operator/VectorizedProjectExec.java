@@ -19,13 +19,18 @@ package com.alibaba.polardbx.executor.operator;
 import com.alibaba.polardbx.common.properties.ConnectionParams;
 import com.alibaba.polardbx.common.utils.Pair;
 import com.alibaba.polardbx.executor.chunk.Block;
+import com.alibaba.polardbx.executor.chunk.BlockBuilder;
+import com.alibaba.polardbx.executor.chunk.BlockBuilders;
+import com.alibaba.polardbx.executor.chunk.BlockUtils;
 import com.alibaba.polardbx.executor.chunk.Chunk;
 import com.alibaba.polardbx.executor.chunk.DecimalBlock;
 import com.alibaba.polardbx.executor.chunk.MutableChunk;
 import com.alibaba.polardbx.executor.chunk.RandomAccessBlock;
 import com.alibaba.polardbx.executor.chunk.ReferenceBlock;
+import com.alibaba.polardbx.executor.chunk.RunLengthEncodedBlock;
 import com.alibaba.polardbx.executor.vectorized.EvaluationContext;
 import com.alibaba.polardbx.executor.vectorized.InputRefVectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.LiteralVectorizedExpression;
 import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
 import com.alibaba.polardbx.executor.vectorized.VectorizedExpressionUtils;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
@@ -34,6 +39,7 @@ import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
 import com.clearspring.analytics.util.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.slice.Slice;
 
 import java.util.List;
 import java.util.Objects;
@@ -65,6 +71,11 @@ public class VectorizedProjectExec extends AbstractExecutor {
      */
     private Pair<Integer, Integer>[] commonSubExpressions;
 
+    /**
+     * Single-row value blocks of constant VARCHAR expressions, output as run-length encoded blocks
+     */
+    private Block[] constantValues;
+
     public VectorizedProjectExec(Executor input, List<VectorizedExpression> expressions,
                                  List<MutableChunk> preAllocatedChunks,
                                  List<DataType> dataTypes,
@@ -130,6 +141,19 @@ public class VectorizedProjectExec extends AbstractExecutor {
         }
 
 
+        this.constantValues = new Block[expressions.size()];
+        if (context.getParamManager().getBoolean(ConnectionParams.ENABLE_RLE_CONSTANT_BLOCK)) {
+            for (int i = 0; i < expressions.size(); i++) {
+                VectorizedExpression e = expressions.get(i);
+                if (e instanceof LiteralVectorizedExpression
+                    && dataTypes.get(i).getDataClass() == Slice.class) {
+                    BlockBuilder blockBuilder = BlockBuilders.create(dataTypes.get(i), context, 1);
+                    blockBuilder.writeObject(((LiteralVectorizedExpression) e).getConvertedValue());
+                    constantValues[i] = blockBuilder.build();
+                }
+            }
+        }
+
         for (int i = 0; i < expressions.size(); i++) {
             VectorizedExpression e = expressions.get(i);
 
@@ -153,7 +177,10 @@ public class VectorizedProjectExec extends AbstractExecutor {
         }
 
         for (int i = 0; i < expressions.size(); i++) {
-            if (mappedColumnIndex[i] == -1) {
+            if (constantValues[i] != null && inputChunk.selection() == null) {
+                // 常量列不必逐行物化
+                outputBlocks[i] = new RunLengthEncodedBlock(constantValues[i], inputChunk.getPositionCount());
+            } else if (mappedColumnIndex[i] == -1) {
                 evaluateExpression(i, inputChunk);
             }
         }
@@ -170,7 +197,7 @@ public class VectorizedProjectExec extends AbstractExecutor {
         int chunkSize = inputChunk.getPositionCount();
         int blockCount = inputChunk.getBlockCount();
         for (int j = 0; j < blockCount; j++) {
-            preAllocatedChunk.setSlotAt((RandomAccessBlock) inputChunk.getBlock(j), j);
+            preAllocatedChunk.setSlotAt((RandomAccessBlock) BlockUtils.flatten(inputChunk.getBlock(j), context), j);
         }
 
         // Build selection array according to input chunk.
@@ -188,7 +215,8 @@ public class VectorizedProjectExec extends AbstractExecutor {
             int expressionIndex = subExpressionInfo.getKey();
             int commonBlockIndex = subExpressionInfo.getValue();
             preAllocatedChunk.reallocate(chunkSize, commonBlockIndex + 1);
-            preAllocatedChunk.setSlotAt((RandomAccessBlock) this.outputBlocks[expressionIndex], commonBlockIndex);
+            preAllocatedChunk.setSlotAt((RandomAccessBlock) BlockUtils.flatten(this.outputBlocks[expressionIndex],
+                context), commonBlockIndex);
         }
 
 
@@ -43,6 +43,10 @@ public class RangeSlidingOverFrame extends SlidingOverFrame {
     private int leftIndex = 0;
     private Object lastProcessedValue;
 
+    // 上一个非null值的frame边界，order by列有序，frame两端只会向后移动
+    private int frameLeft = -1;
+    private int frameRight = -1;
+
     // 给出order by的column，range frame的window必须又order by列，并且order by的列只能有一个
     // 因为需要以该值为基准，进行上下滑动
     private int orderByColIndex;
@@ -68,7 +72,18 @@ public class RangeSlidingOverFrame extends SlidingOverFrame {
         int orderByColIndex,
         boolean isAscOrder,
         DataType dataType) {
-        super(aggregator);
+        this(aggregator, leftBound, rightBound, orderByColIndex, isAscOrder, dataType, null);
+    }
+
+    public RangeSlidingOverFrame(
+        List<Aggregator> aggregator,
+        int leftBound,
+        int rightBound,
+        int orderByColIndex,
+        boolean isAscOrder,
+        DataType dataType,
+        SlidingExtremum[] extremums) {
+        super(aggregator, extremums);
         this.leftBound = leftBound;
         this.rightBound = rightBound;
         this.orderByColIndex = orderByColIndex;
@@ -88,6 +103,8 @@ public class RangeSlidingOverFrame extends SlidingOverFrame {
         prevLeftIndex = -1;
         prevRightIndex = -1;
         lastProcessedValue = null;
+        frameLeft = leftIndex;
+        frameRight = leftIndex;
     }
 
     @Override
@@ -117,24 +134,31 @@ public class RangeSlidingOverFrame extends SlidingOverFrame {
 
     private int[] getBound(int index) {
         Object currentValue = chunksIndex.rowAt(index).getObject(orderByColIndex);
-        int highIndex = index, lowIndex = index;
-        while (highIndex <= rightIndex && highIndex >= leftIndex
-            && chunksIndex.rowAt(highIndex).getObject(orderByColIndex) != null && compare(
-            chunksIndex.rowAt(highIndex).getObject(orderByColIndex), currentValue, rightBound)) {
-            highIndex += isAscOrder;
+        // 满足条件的行在当前行两侧连续，且随当前行后移，两端都只会向后移动
+        while (frameLeft < index && !inFrameLeft(frameLeft, currentValue)) {
+            frameLeft++;
         }
-        highIndex -= isAscOrder;
-        while (lowIndex <= rightIndex && lowIndex >= leftIndex
-            && chunksIndex.rowAt(lowIndex).getObject(orderByColIndex) != null && compare(currentValue,
-            chunksIndex.rowAt(lowIndex).getObject(orderByColIndex), leftBound)) {
-            lowIndex -= isAscOrder;
+        frameRight = Math.max(frameRight, index);
+        while (frameRight < rightIndex && inFrameRight(frameRight + 1, currentValue)) {
+            frameRight++;
         }
-        lowIndex += isAscOrder;
-        if (isAscOrder > 0) {
-            return new int[] {lowIndex, highIndex};
-        } else {
-            return new int[] {highIndex, lowIndex};
+        return new int[] {frameLeft, frameRight};
+    }
+
+    private boolean inFrameLeft(int index, Object currentValue) {
+        Object value = chunksIndex.rowAt(index).getObject(orderByColIndex);
+        if (value == null) {
+            return false;
+        }
+        return isAscOrder > 0 ? compare(currentValue, value, leftBound) : compare(value, currentValue, rightBound);
+    }
+
+    private boolean inFrameRight(int index, Object currentValue) {
+        Object value = chunksIndex.rowAt(index).getObject(orderByColIndex);
+        if (value == null) {
+            return false;
         }
+        return isAscOrder > 0 ? compare(value, currentValue, rightBound) : compare(currentValue, value, leftBound);
     }
 
     boolean compare(Object v, Object currentValue, int range) {
@@ -143,9 +167,9 @@ public class RangeSlidingOverFrame extends SlidingOverFrame {
         } else if (DataTypeUtil.equalsSemantically(dataType, DataTypes.IntegerType)) {
             return ((Integer) v).compareTo(((Integer) currentValue) + (range)) <= 0;
         } else if (DataTypeUtil.equalsSemantically(dataType, DataTypes.ByteType)) {
-            return ((Byte) v).intValue() <= ((Byte) v).intValue() + range;
+            return ((Byte) v).intValue() <= ((Byte) currentValue).intValue() + range;
         } else if (DataTypeUtil.equalsSemantically(dataType, DataTypes.ShortType)) {
-            return ((Short) v).intValue() <= ((Short) v).intValue() + range;
+            return ((Short) v).intValue() <= ((Short) currentValue).intValue() + range;
         } else if (DataTypeUtil.equalsSemantically(dataType, DataTypes.LongType)) {
             return ((Long) v).compareTo(((Long) currentValue) + (range)) <= 0;
         } else if (DataTypeUtil.equalsSemantically(dataType, DataTypes.DoubleType)) {
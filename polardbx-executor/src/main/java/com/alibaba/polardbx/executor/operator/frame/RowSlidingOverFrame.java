@@ -41,7 +41,15 @@ public class RowSlidingOverFrame extends SlidingOverFrame {
         List<Aggregator> aggregator,
         int leftBound,
         int rightBound) {
-        super(aggregator);
+        this(aggregator, leftBound, rightBound, null);
+    }
+
+    public RowSlidingOverFrame(
+        List<Aggregator> aggregator,
+        int leftBound,
+        int rightBound,
+        SlidingExtremum[] extremums) {
+        super(aggregator, extremums);
         this.leftBound = leftBound;
         this.rightBound = rightBound;
     }
@@ -0,0 +1,120 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.frame;
+
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import java.util.Arrays;
+
+/**
+ * MIN or MAX of a sliding frame whose both ends only move forward, kept in a monotonic deque of
+ * row indexes. Each row is added and expired at most once, so a frame costs O(1) amortized.
+ */
+public class SlidingExtremum {
+
+    private final int columnIndex;
+    private final DataType dataType;
+    private final boolean isMax;
+
+    // ring buffer of candidate rows, values are monotonic from head to tail
+    private int[] rows = new int[16];
+    private Object[] values = new Object[16];
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * @param columnIndex input column of the aggregate
+     * @param dataType type used to compare the values, the same as the aggregator
+     * @param isMax MAX or MIN
+     */
+    public SlidingExtremum(int columnIndex, DataType dataType, boolean isMax) {
+        this.columnIndex = columnIndex;
+        this.dataType = dataType;
+        this.isMax = isMax;
+    }
+
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
+    public void reset() {
+        head = 0;
+        size = 0;
+        Arrays.fill(values, null);
+    }
+
+    /**
+     * Append the row entering the frame, null values are ignored like in MIN/MAX
+     */
+    public void add(int row, Object value) {
+        if (value == null) {
+            return;
+        }
+        // rows no better than the new one will never be the result again;
+        // on ties the later row wins, the same as accumulating the whole frame
+        while (size > 0 && !isBetter(values[index(size - 1)], value)) {
+            values[index(size - 1)] = null;
+            size--;
+        }
+        if (size == rows.length) {
+            grow();
+        }
+        int tail = index(size);
+        rows[tail] = row;
+        values[tail] = value;
+        size++;
+    }
+
+    /**
+     * Drop the rows before the left end of the frame
+     */
+    public void expire(int leftIndex) {
+        while (size > 0 && rows[head] < leftIndex) {
+            values[head] = null;
+            head = (head + 1) & (rows.length - 1);
+            size--;
+        }
+    }
+
+    /**
+     * @return row holding the result of the frame, or -1 if all values are null
+     */
+    public int resultRow() {
+        return size == 0 ? -1 : rows[head];
+    }
+
+    private boolean isBetter(Object candidate, Object value) {
+        int cmp = dataType.compare(candidate, value);
+        return isMax ? cmp > 0 : cmp < 0;
+    }
+
+    private int index(int offset) {
+        return (head + offset) & (rows.length - 1);
+    }
+
+    private void grow() {
+        int[] newRows = new int[rows.length * 2];
+        Object[] newValues = new Object[rows.length * 2];
+        for (int i = 0; i < size; i++) {
+            newRows[i] = rows[index(i)];
+            newValues[i] = values[index(i)];
+        }
+        rows = newRows;
+        values = newValues;
+        head = 0;
+    }
+}
@@ -16,13 +16,18 @@
 
 package com.alibaba.polardbx.executor.operator.frame;
 
-import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.alibaba.polardbx.executor.calc.AbstractAggregator;
 import com.alibaba.polardbx.executor.calc.Aggregator;
+import com.alibaba.polardbx.executor.chunk.Chunk;
 
 import java.util.List;
 
 /**
  * The sliding window frame.
+ * <p>
+ * Both ends of the frame only move forward within a partition, so instead of recomputing each
+ * frame, retractable aggregators accumulate the rows entering the frame and retract those leaving
+ * it, and MIN/MAX are kept by {@link SlidingExtremum}. Other aggregators are still recomputed.
  */
 public abstract class SlidingOverFrame extends AbstractOverWindowFrame {
 
@@ -31,23 +36,113 @@ public abstract class SlidingOverFrame extends AbstractOverWindowFrame {
     protected int prevLeftIndex = -1;
     protected int prevRightIndex = -1;
 
+    // MIN/MAX的单调队列，其他聚合函数为null
+    private final SlidingExtremum[] extremums;
+    private final boolean[] retractable;
+    // 可回退的聚合函数在当前frame中输入非null的行数，为0时需重置为初始值
+    private final int[] nonNullCounts;
+
     public SlidingOverFrame(List<Aggregator> aggregators) {
+        this(aggregators, null);
+    }
+
+    /**
+     * @param extremums MIN/MAX evaluators by aggregator, or null
+     */
+    public SlidingOverFrame(List<Aggregator> aggregators, SlidingExtremum[] extremums) {
         super(aggregators);
+        this.extremums = extremums != null ? extremums : new SlidingExtremum[aggregators.size()];
+        this.retractable = new boolean[aggregators.size()];
+        this.nonNullCounts = new int[aggregators.size()];
+        for (int i = 0; i < aggregators.size(); i++) {
+            Aggregator aggregator = aggregators.get(i);
+            retractable[i] = this.extremums[i] == null && aggregator instanceof AbstractAggregator
+                && aggregator.supportsRetract();
+        }
     }
 
     public void process(int leftIndex, int rightIndex) {
         if (leftIndex == prevLeftIndex && rightIndex == prevRightIndex) {
             return;
         }
+        // the frame moved forward and still overlaps the previous one
+        boolean slide = prevLeftIndex >= 0 && leftIndex >= prevLeftIndex && rightIndex >= prevRightIndex
+            && leftIndex <= prevRightIndex;
+        for (int i = 0; i < aggregators.size(); i++) {
+            Aggregator aggregator = aggregators.get(i);
+            if (extremums[i] != null) {
+                processExtremum(aggregator, extremums[i], slide, leftIndex, rightIndex);
+            } else if (retractable[i] && slide) {
+                slide(i, aggregator, leftIndex, rightIndex);
+            } else {
+                recompute(i, aggregator, leftIndex, rightIndex);
+            }
+        }
         prevLeftIndex = leftIndex;
         prevRightIndex = rightIndex;
-        aggregators.forEach(t -> {
-            t.resetToInitValue(0);
-            for (int j = leftIndex; j <= rightIndex; j++) {
-                Chunk.ChunkRow row = chunksIndex.rowAt(j);
-                t.accumulate(0, row.getChunk(), row.getPosition());
+    }
+
+    private void recompute(int i, Aggregator aggregator, int leftIndex, int rightIndex) {
+        aggregator.resetToInitValue(0);
+        int nonNullCount = 0;
+        for (int j = leftIndex; j <= rightIndex; j++) {
+            Chunk.ChunkRow row = chunksIndex.rowAt(j);
+            aggregator.accumulate(0, row.getChunk(), row.getPosition());
+            if (retractable[i] && !hasNullInput(aggregator, row)) {
+                nonNullCount++;
             }
-        });
+        }
+        nonNullCounts[i] = nonNullCount;
     }
 
+    private void slide(int i, Aggregator aggregator, int leftIndex, int rightIndex) {
+        // accumulate before retract, so that a retracted value is always in the group
+        for (int j = prevRightIndex + 1; j <= rightIndex; j++) {
+            Chunk.ChunkRow row = chunksIndex.rowAt(j);
+            aggregator.accumulate(0, row.getChunk(), row.getPosition());
+            if (!hasNullInput(aggregator, row)) {
+                nonNullCounts[i]++;
+            }
+        }
+        for (int j = prevLeftIndex; j < leftIndex; j++) {
+            Chunk.ChunkRow row = chunksIndex.rowAt(j);
+            if (!hasNullInput(aggregator, row)) {
+                nonNullCounts[i]--;
+                aggregator.retract(0, row.getChunk(), row.getPosition());
+            }
+        }
+        if (nonNullCounts[i] == 0) {
+            aggregator.resetToInitValue(0);
+        }
+    }
+
+    private void processExtremum(Aggregator aggregator, SlidingExtremum extremum, boolean slide, int leftIndex,
+                                 int rightIndex) {
+        int from = leftIndex;
+        if (slide) {
+            from = prevRightIndex + 1;
+        } else {
+            extremum.reset();
+        }
+        for (int j = from; j <= rightIndex; j++) {
+            extremum.add(j, chunksIndex.getObject(extremum.getColumnIndex(), j));
+        }
+        extremum.expire(leftIndex);
+
+        aggregator.resetToInitValue(0);
+        int resultRow = extremum.resultRow();
+        if (resultRow >= 0) {
+            Chunk.ChunkRow row = chunksIndex.rowAt(resultRow);
+            aggregator.accumulate(0, row.getChunk(), row.getPosition());
+        }
+    }
+
+    private static boolean hasNullInput(Aggregator aggregator, Chunk.ChunkRow row) {
+        for (int index : ((AbstractAggregator) aggregator).getAggIndexInChunk()) {
+            if (row.getChunk().getBlock(index).isNull(row.getPosition())) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -35,6 +35,7 @@ import com.alibaba.polardbx.common.exception.TddlRuntimeException;
 import com.alibaba.polardbx.common.properties.MppConfig;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.ChunkCompression;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerde;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerdeFactory;
 import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
@@ -129,7 +130,10 @@ public class AsyncFileSingleStreamSpillerFactory implements SingleStreamSpillerF
 
         log.info("load AsyncFileSingleStreamSpillerFactory as SingleStreamSpillerFactory");
         requireNonNull(theSpillerRootPaths, "paths is null");
-        this.serdeFactory = new PagesSerdeFactory(false);
+        ChunkCompression compression =
+            ChunkCompression.lookupCodecFromName(MppConfig.getInstance().getSpillCompressionCodec());
+        // spill files are only read by this node
+        this.serdeFactory = new PagesSerdeFactory(compression, true, compression.isCompressed());
         this.fileCleaner = requireNonNull(fileCleaner, "fileCleaner is null");
         this.maxThreadNum = maxThreadNum;
 
@@ -38,6 +38,7 @@ import com.alibaba.polardbx.common.properties.MppConfig;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.executor.mpp.Threads;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.ChunkCompression;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerdeFactory;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import com.alibaba.polardbx.optimizer.spill.LocalSpillMonitor;
@@ -99,7 +100,10 @@ public class FileSingleStreamSpillerFactory implements SingleStreamSpillerFactor
         List<Path> spillPaths,
         double maxUsedSpaceThreshold) {
         log.info("load FileSingleStreamSpillerFactory as SingleStreamSpillerFactory");
-        this.serdeFactory = new PagesSerdeFactory(false);
+        ChunkCompression compression =
+            ChunkCompression.lookupCodecFromName(MppConfig.getInstance().getSpillCompressionCodec());
+        // spill files are only read by this node
+        this.serdeFactory = new PagesSerdeFactory(compression, true, compression.isCompressed());
         this.executor = requireNonNull(executor, "executor is null");
         this.fileCleaner = requireNonNull(fileCleaner, "fileCleaner is null");
         requireNonNull(spillPaths, "spillPaths is null");
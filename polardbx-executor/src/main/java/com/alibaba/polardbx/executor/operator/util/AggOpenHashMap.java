@@ -23,6 +23,7 @@ import com.alibaba.polardbx.executor.chunk.BlockBuilder;
 import com.alibaba.polardbx.executor.chunk.BlockBuilders;
 import com.alibaba.polardbx.executor.chunk.Chunk;
 import com.alibaba.polardbx.executor.chunk.ChunkBuilder;
+import com.alibaba.polardbx.executor.chunk.DictionaryBlock;
 import com.alibaba.polardbx.executor.chunk.IntegerBlock;
 import com.alibaba.polardbx.executor.mpp.operator.WorkProcessor;
 import com.alibaba.polardbx.executor.utils.ExecUtils;
@@ -36,6 +37,7 @@ import it.unimi.dsi.fastutil.ints.IntComparator;
 import it.unimi.dsi.fastutil.ints.IntIterator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class AggOpenHashMap extends GroupOpenHashMap implements AggHashMap {
@@ -105,18 +107,32 @@ public class AggOpenHashMap extends GroupOpenHashMap implements AggHashMap {
             for (int pos = 0; pos < inputChunk.getPositionCount(); pos++) {
                 groupIds[pos] = 0;
             }
+        } else if (keyChunk.getBlockCount() == 1 && keyChunk.getBlock(0) instanceof DictionaryBlock) {
+            putDictionaryKeys(keyChunk, groupIds);
         } else {
             for (int pos = 0; pos < inputChunk.getPositionCount(); pos++) {
                 groupIds[pos] = innerPut(keyChunk, pos, -1);
             }
         }
         final Block groupIdBlock = IntegerBlock.wrap(groupIds);
+        final int positionCount = inputChunk.getPositionCount();
+        int[] selection = null;
         for (int aggIndex = 0; aggIndex < aggregators.size(); aggIndex++) {
             boolean[] isDistinct = null;
             if (distinctSets[aggIndex] != null) {
                 isDistinct = distinctSets[aggIndex].checkDistinct(groupIdBlock, inputChunk);
             }
-            for (int pos = 0; pos < inputChunk.getPositionCount(); pos++) {
+            if (filterArgs[aggIndex] < 0 && isDistinct == null) {
+                aggregators.get(aggIndex).accumulate(groupIds, inputChunk, null, positionCount);
+                continue;
+            }
+
+            // 按 filter 与 distinct 生成选择向量后整列累加
+            if (selection == null) {
+                selection = new int[positionCount];
+            }
+            int selSize = 0;
+            for (int pos = 0; pos < positionCount; pos++) {
                 boolean noFilter = true;
                 if (filterArgs[aggIndex] > -1) {
                     Object obj = inputChunk.getBlock(filterArgs[aggIndex]).getObject(pos);
@@ -131,10 +147,29 @@ public class AggOpenHashMap extends GroupOpenHashMap implements AggHashMap {
                 }
                 if (noFilter) {
                     if (isDistinct == null || isDistinct[pos]) {
-                        aggregators.get(aggIndex).accumulate(groupIds[pos], inputChunk, pos);
+                        selection[selSize++] = pos;
                     }
                 }
             }
+            aggregators.get(aggIndex).accumulate(groupIds, inputChunk, selection, selSize);
+        }
+    }
+
+    /**
+     * Look up each dictionary entry only once for a single dictionary-encoded group key
+     */
+    private void putDictionaryKeys(Chunk keyChunk, int[] groupIds) {
+        DictionaryBlock block = (DictionaryBlock) keyChunk.getBlock(0);
+        int[] entryGroupIds = new int[block.getDictionary().getPositionCount()];
+        Arrays.fill(entryGroupIds, -1);
+        for (int pos = 0; pos < groupIds.length; pos++) {
+            int id = block.getId(pos);
+            int groupId = entryGroupIds[id];
+            if (groupId == -1) {
+                groupId = innerPut(keyChunk, pos, -1);
+                entryGroupIds[id] = groupId;
+            }
+            groupIds[pos] = groupId;
         }
     }
 
@@ -199,8 +234,7 @@ public class AggOpenHashMap extends GroupOpenHashMap implements AggHashMap {
 
     private IntIterator hashSortedGroupIds() {
         this.groupChunks = groupKeyBuffer.buildChunks();
-        this.keys = null;
-        this.map = null;
+        releaseHashTable();
         IntComparator comparator = new AbstractIntComparator() {
             @Override
             public int compare(int position1, int position2) {
@@ -281,6 +315,7 @@ public class AggOpenHashMap extends GroupOpenHashMap implements AggHashMap {
 
     @Override
     public void close() {
+        releaseHashTable();
     }
 
     @Override
@@ -17,6 +17,7 @@
 package com.alibaba.polardbx.executor.operator.util;
 
 import com.alibaba.polardbx.common.utils.bloomfilter.BitSet;
+import com.alibaba.polardbx.common.utils.bloomfilter.MinMaxFilterInfo;
 import com.alibaba.polardbx.common.utils.hash.IStreamingHasher;
 import com.alibaba.polardbx.executor.operator.util.minmaxfilter.MinMaxFilter;
 import com.google.common.net.HttpHeaders;
@@ -24,6 +25,7 @@ import com.google.common.net.MediaType;
 import com.alibaba.polardbx.common.utils.GeneralUtil;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.executor.chunk.Block;
 import com.alibaba.polardbx.executor.chunk.Chunk;
 import com.alibaba.polardbx.executor.mpp.deploy.ServiceProvider;
 import com.alibaba.polardbx.executor.mpp.execution.QueryManager;
@@ -35,11 +37,14 @@ import io.airlift.http.client.JsonBodyGenerator;
 import io.airlift.http.client.Request;
 import io.airlift.http.client.StatusResponseHandler;
 import io.airlift.json.JsonCodec;
+import io.airlift.slice.Slice;
 
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -57,6 +62,11 @@ public class BloomFilterProduce {
     private List<BloomFilter> bloomFilters;
     private List<List<MinMaxFilter>> minMaxFilters;
 
+    /**
+     * Distinct build keys of each hash column, used to prune partitions on the probe side
+     */
+    private List<List<KeySet>> keySets;
+
     private HttpClient client;
     private URI uri;
     private String query;
@@ -80,10 +90,31 @@ public class BloomFilterProduce {
     public static BloomFilterProduce create(List<List<Integer>> bloomfilterId, List<List<Integer>> hashKeys,
                                             List<BloomFilter> bloomFilters, List<List<MinMaxFilter>> minMaxFilters, HttpClient client, URI uri,
                                             String query) {
+        return create(bloomfilterId, hashKeys, bloomFilters, minMaxFilters, client, uri, query, 0);
+    }
+
+    /**
+     * @param maxKeySetSize max distinct keys collected per hash column, 0 means no collection
+     */
+    public static BloomFilterProduce create(List<List<Integer>> bloomfilterId, List<List<Integer>> hashKeys,
+                                            List<BloomFilter> bloomFilters, List<List<MinMaxFilter>> minMaxFilters, HttpClient client, URI uri,
+                                            String query, int maxKeySetSize) {
         if (bloomFilters.isEmpty()) {
             throw new IllegalArgumentException("Empty BloomFilterList in BloomFilterProduce");
         }
-        return new BloomFilterProduce(bloomfilterId, hashKeys, bloomFilters, minMaxFilters, client, uri, query);
+        BloomFilterProduce produce =
+            new BloomFilterProduce(bloomfilterId, hashKeys, bloomFilters, minMaxFilters, client, uri, query);
+        if (maxKeySetSize > 0) {
+            produce.keySets = new ArrayList<>(hashKeys.size());
+            for (List<Integer> hashColumns : hashKeys) {
+                List<KeySet> columnKeySets = new ArrayList<>(hashColumns.size());
+                for (int i = 0; i < hashColumns.size(); i++) {
+                    columnKeySets.add(new KeySet(maxKeySetSize));
+                }
+                produce.keySets.add(columnKeySets);
+            }
+        }
+        return produce;
     }
 
     /**
@@ -102,6 +133,12 @@ public class BloomFilterProduce {
                     minMaxFilterList.get(i).put(input.getBlock(hashColumns.get(i)), pos);
                 }
             }
+            if (keySets != null) {
+                List<KeySet> columnKeySets = keySets.get(index);
+                for (int i = 0; i < hashColumns.size(); i++) {
+                    columnKeySets.get(i).putAll(input.getBlock(hashColumns.get(i)));
+                }
+            }
         }
     }
 
@@ -123,9 +160,16 @@ public class BloomFilterProduce {
                         .format("Converting bloom filter info, id: %d, bitset usage: %.2f", id,
                             BitSet.getUsage(bloomFilters.get(i).getBitmap())));
                 }
+                List<MinMaxFilterInfo> minMaxFilterInfos =
+                    minMaxFilters.get(i).stream().map(x -> x.toMinMaxFilterInfo()).collect(Collectors.toList());
+                if (keySets != null) {
+                    for (int j = 0; j < minMaxFilterInfos.size(); j++) {
+                        minMaxFilterInfos.get(j).setValueSet(keySets.get(i).get(j).toList());
+                    }
+                }
                 bloomFilterInfos.add(
                     new BloomFilterInfo(id, bloomFilters.get(i).getBitmap(), bloomFilters.get(i).getNumHashFunctions(),
-                        bloomFilters.get(i).getHashMethodInfo(), minMaxFilters.get(i).stream().map(x -> x.toMinMaxFilterInfo()).collect(Collectors.toList())));
+                        bloomFilters.get(i).getHashMethodInfo(), minMaxFilterInfos));
             }
         }
         return bloomFilterInfos;
@@ -166,6 +210,51 @@ public class BloomFilterProduce {
             }
             this.bloomFilters = null;
             this.hasherList = null;
+            this.keySets = null;
+        }
+    }
+
+    /**
+     * Bounded set of distinct keys shared by all build workers.
+     * Gives up once the limit is exceeded or a key type can not be rendered as partition literal.
+     */
+    private static class KeySet {
+        private final int limit;
+        private final Set<String> values = ConcurrentHashMap.newKeySet();
+        private volatile boolean overflow = false;
+
+        KeySet(int limit) {
+            this.limit = limit;
+        }
+
+        void putAll(Block block) {
+            for (int pos = 0; pos < block.getPositionCount() && !overflow; pos++) {
+                if (block.isNull(pos)) {
+                    // null never matches an equi-join key
+                    continue;
+                }
+                String value = toKey(block.getObject(pos));
+                if (value == null || (values.add(value) && values.size() > limit)) {
+                    overflow = true;
+                    values.clear();
+                }
+            }
+        }
+
+        List<String> toList() {
+            return overflow ? null : new ArrayList<>(values);
+        }
+
+        private static String toKey(Object value) {
+            if (value instanceof Slice) {
+                return ((Slice) value).toStringUtf8();
+            } else if (value instanceof String) {
+                return (String) value;
+            } else if (value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte) {
+                return value.toString();
+            }
+            return null;
         }
     }
 }
@@ -29,9 +29,19 @@ public class ChunkWithPosition {
     private final Chunk chunk;
     private final int position;
 
+    /**
+     * Normalized keys of the whole chunk, may be null
+     */
+    private final long[] sortKeys;
+
     public ChunkWithPosition(Chunk chunk, int position) {
+        this(chunk, position, null);
+    }
+
+    public ChunkWithPosition(Chunk chunk, int position, long[] sortKeys) {
         this.chunk = requireNonNull(chunk, "chunk is null");
         this.position = position;
+        this.sortKeys = sortKeys;
     }
 
     public Chunk getChunk() {
@@ -42,6 +52,10 @@ public class ChunkWithPosition {
         return position;
     }
 
+    public long[] getSortKeys() {
+        return sortKeys;
+    }
+
     public Object getObject(int index) {
         return chunk.getBlock(index).getObject(position);
     }
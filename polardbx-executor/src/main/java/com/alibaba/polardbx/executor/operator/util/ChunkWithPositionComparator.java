@@ -29,8 +29,37 @@ public class ChunkWithPositionComparator {
 
     private final Comparator<Row> rowComparator;
 
+    private final NormalizedKeyEncoder keyEncoder;
+
     public ChunkWithPositionComparator(List<OrderByOption> orderBys, List<DataType> columnMetas) {
+        this(orderBys, columnMetas, null);
+    }
+
+    public ChunkWithPositionComparator(List<OrderByOption> orderBys, List<DataType> columnMetas,
+                                       NormalizedKeyEncoder keyEncoder) {
         this.rowComparator = ExecUtils.getComparator(orderBys, columnMetas);
+        this.keyEncoder = keyEncoder;
+    }
+
+    public NormalizedKeyEncoder getKeyEncoder() {
+        return keyEncoder;
+    }
+
+    /**
+     * Compare by normalized keys if both sides carry them, otherwise by rows
+     */
+    public int compareTo(ChunkWithPosition left, ChunkWithPosition right) {
+        final long[] leftKeys = left.getSortKeys();
+        final long[] rightKeys = right.getSortKeys();
+        if (leftKeys != null && rightKeys != null) {
+            final int wordCount = keyEncoder.getWordCount();
+            int n = NormalizedKeyEncoder.compare(leftKeys, left.getPosition() * wordCount,
+                rightKeys, right.getPosition() * wordCount, wordCount);
+            if (n != 0 || keyEncoder.isExact()) {
+                return n;
+            }
+        }
+        return compareTo(left.getChunk(), left.getPosition(), right.getChunk(), right.getPosition());
     }
 
     public int compareTo(Chunk left, int leftPosition, Chunk right, int rightPosition) {
@@ -64,7 +64,7 @@ public class ConcurrentRawHashTable implements Hash {
         this(size, selectLoadFactor(size));
     }
 
-    private static float selectLoadFactor(int size) {
+    static float selectLoadFactor(long size) {
         if (size >= 100_000_000) { // more than 100M records
             return DEFAULT_LOAD_FACTOR;
         } else if (size >= 10_000_000) { // more than 10M records
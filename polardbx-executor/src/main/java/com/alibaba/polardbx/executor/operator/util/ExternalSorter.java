@@ -110,7 +110,7 @@ public class ExternalSorter extends Sorter {
             .add(WorkProcessor.fromIterator(sortedPagesIndex))
             .build();
 
-        ChunkWithPositionComparator comparator = new ChunkWithPositionComparator(orderBys, columnMetas);
+        ChunkWithPositionComparator comparator = new ChunkWithPositionComparator(orderBys, columnMetas, memSortor.getKeyEncoder());
 
         BiPredicate<ChunkBuilder, ChunkWithPosition> chunkBreakPredicate =
             (chunkBuilder, ChunkWithPosition) -> chunkBuilder.isFull();
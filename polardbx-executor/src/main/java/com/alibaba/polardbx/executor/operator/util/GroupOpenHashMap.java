@@ -16,13 +16,22 @@
 
 package com.alibaba.polardbx.executor.operator.util;
 
+import com.alibaba.polardbx.common.charset.CollationName;
 import com.alibaba.polardbx.common.properties.ConnectionParams;
+import com.alibaba.polardbx.executor.chunk.Block;
+import com.alibaba.polardbx.executor.chunk.DictionaryBlock;
+import com.alibaba.polardbx.executor.chunk.IntegerBlock;
+import com.alibaba.polardbx.executor.chunk.LongBlock;
+import com.alibaba.polardbx.executor.chunk.SliceBlock;
+import com.alibaba.polardbx.optimizer.core.datatype.IntegerType;
+import com.alibaba.polardbx.optimizer.core.datatype.LongType;
 import com.alibaba.polardbx.optimizer.core.datatype.SliceType;
 import com.google.common.base.Preconditions;
 import com.alibaba.polardbx.common.utils.memory.ObjectSizeUtils;
 import com.alibaba.polardbx.executor.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import io.airlift.slice.Slice;
 import it.unimi.dsi.fastutil.Hash;
 import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.ints.Int2IntArrayMap;
@@ -35,6 +44,20 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
 
     private static final int NOT_EXISTS = -1;
 
+    /**
+     * Packing modes of group keys for {@link LongGroupHashTable}
+     */
+    private static final int PACK_NONE = 0;
+    private static final int PACK_LONG = 1;
+    private static final int PACK_INT = 2;
+    private static final int PACK_INT_PAIR = 3;
+    private static final int PACK_SHORT_SLICE = 4;
+
+    /**
+     * VARCHAR keys up to this length are packed with their length into one long
+     */
+    private static final int MAX_PACKED_SLICE_LENGTH = 7;
+
     final int expectedSize;
 
     final int chunkSize;
@@ -53,6 +76,10 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
      * The array of keys (buckets)
      */
     protected int[] keys;
+    /**
+     * Hash code of each group, indexed by group id
+     */
+    private int[] groupHashes;
     /**
      * The mask for wrapping a position counter
      */
@@ -76,6 +103,18 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
 
     protected ExecutionContext context;
 
+    private int packMode;
+
+    /**
+     * Table for packable keys. Rows with null or unpackable keys go through the generic table.
+     */
+    private LongGroupHashTable packedTable;
+
+    /**
+     * The last chunk whose blocks have been checked for packing
+     */
+    private Chunk lastPackedChunk;
+
     public GroupOpenHashMap(DataType[] groupKeyType, int expectedSize, int chunkSize, ExecutionContext context) {
         this(groupKeyType, expectedSize, DEFAULT_LOAD_FACTOR, chunkSize, context);
     }
@@ -101,6 +140,7 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
             int[] keys = new int[n];
             Arrays.fill(keys, NOT_EXISTS);
             this.keys = keys;
+            this.groupHashes = new int[Math.max(expectedSize, 16)];
         }
 
         this.groupKeyType = groupKeyType;
@@ -108,12 +148,45 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
         this.chunkSize = chunkSize;
         this.expectedSize = expectedSize;
         this.context = context;
+
+        if (!useMap && context.getParamManager().getBoolean(ConnectionParams.ENABLE_PACKED_GROUP_KEY)) {
+            this.packMode = packModeOf(groupKeyType, context);
+            if (packMode != PACK_NONE) {
+                this.packedTable = new LongGroupHashTable(expectedSize, loadFactor);
+            }
+        }
+    }
+
+    private static int packModeOf(DataType[] groupKeyType, ExecutionContext context) {
+        if (groupKeyType.length == 1) {
+            DataType type = groupKeyType[0];
+            if (type instanceof LongType) {
+                return PACK_LONG;
+            } else if (type instanceof IntegerType) {
+                return PACK_INT;
+            } else if (type instanceof SliceType
+                && (!context.isEnableOssCompatible()
+                || ((SliceType) type).getCollationName() == CollationName.BINARY)) {
+                // 仅在按字节比较时才能打包, 否则需要按 collation 比较
+                return PACK_SHORT_SLICE;
+            }
+        } else if (groupKeyType.length == 2
+            && groupKeyType[0] instanceof IntegerType && groupKeyType[1] instanceof IntegerType) {
+            return PACK_INT_PAIR;
+        }
+        return PACK_NONE;
     }
 
     /**
      * @param groupId if groupId == -1 means need to generate a new groupid
      */
     int innerPut(Chunk chunk, int position, int groupId) {
+        if (packedTable != null && checkPackable(chunk)) {
+            int result = doInnerPutPacked(chunk, position, groupId);
+            if (result != NOT_EXISTS) {
+                return result;
+            }
+        }
         if (useMap) {
             return doInnerPutMap(chunk, position, groupId);
         } else {
@@ -139,25 +212,158 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
         return groupId;
     }
 
+    /**
+     * @return the group id, or NOT_EXISTS if the key of this row can not be packed
+     */
+    private int doInnerPutPacked(Chunk chunk, int position, int groupId) {
+        final long key;
+        switch (packMode) {
+        case PACK_LONG: {
+            Block block = chunk.getBlock(0);
+            if (block.isNull(position)) {
+                return NOT_EXISTS;
+            }
+            key = block.getLong(position);
+            break;
+        }
+        case PACK_INT: {
+            Block block = chunk.getBlock(0);
+            if (block.isNull(position)) {
+                return NOT_EXISTS;
+            }
+            key = block.getInt(position);
+            break;
+        }
+        case PACK_INT_PAIR: {
+            Block block0 = chunk.getBlock(0);
+            Block block1 = chunk.getBlock(1);
+            if (block0.isNull(position) || block1.isNull(position)) {
+                return NOT_EXISTS;
+            }
+            key = ((long) block0.getInt(position) << 32) | (block1.getInt(position) & 0xFFFFFFFFL);
+            break;
+        }
+        case PACK_SHORT_SLICE: {
+            Block block = chunk.getBlock(0);
+            if (block.isNull(position)) {
+                return NOT_EXISTS;
+            }
+            Slice region = block instanceof DictionaryBlock
+                ? ((DictionaryBlock) block).getRegion(position)
+                : ((SliceBlock) block).getRegion(position);
+            int length = region.length();
+            if (length > MAX_PACKED_SLICE_LENGTH) {
+                return NOT_EXISTS;
+            }
+            // 高 8 位存长度, 低 56 位存字节
+            long packed = (long) length << 56;
+            for (int i = 0; i < length; i++) {
+                packed |= (region.getByte(i) & 0xFFL) << (i << 3);
+            }
+            key = packed;
+            break;
+        }
+        default:
+            throw new AssertionError("unknown pack mode " + packMode);
+        }
+
+        final int newGroupId = groupId == -1 ? groupCount : groupId;
+        int existing = packedTable.putIfAbsent(key, newGroupId);
+        if (existing != LongGroupHashTable.NOT_EXISTS) {
+            return existing;
+        }
+        if (groupId == -1) {
+            groupId = appendGroup(chunk, position);
+            assert groupId == newGroupId;
+        }
+        return groupId;
+    }
+
+    /**
+     * Check the block classes once per chunk, and fall back to the generic table for good
+     * when the blocks can not be read as packed keys.
+     */
+    private boolean checkPackable(Chunk chunk) {
+        if (chunk == lastPackedChunk) {
+            return true;
+        }
+        final boolean packable;
+        switch (packMode) {
+        case PACK_LONG:
+            packable = chunk.getBlock(0) instanceof LongBlock;
+            break;
+        case PACK_INT:
+            packable = chunk.getBlock(0) instanceof IntegerBlock;
+            break;
+        case PACK_INT_PAIR:
+            packable = chunk.getBlock(0) instanceof IntegerBlock && chunk.getBlock(1) instanceof IntegerBlock;
+            break;
+        case PACK_SHORT_SLICE: {
+            Block block = chunk.getBlock(0);
+            if (block instanceof DictionaryBlock) {
+                block = ((DictionaryBlock) block).getDictionary();
+            }
+            packable = block instanceof SliceBlock
+                && (!((SliceBlock) block).isCompatible()
+                || ((SliceType) groupKeyType[0]).getCollationName() == CollationName.BINARY);
+            break;
+        }
+        default:
+            packable = false;
+        }
+        if (packable) {
+            lastPackedChunk = chunk;
+        } else {
+            disablePackedKeys();
+        }
+        return packable;
+    }
+
+    /**
+     * Move all groups into the generic table
+     */
+    private void disablePackedKeys() {
+        this.packedTable = null;
+        this.lastPackedChunk = null;
+        this.packMode = PACK_NONE;
+
+        this.n = HashCommon.arraySize(Math.max(expectedSize, groupCount), f);
+        this.mask = n - 1;
+        this.maxFill = HashCommon.maxFill(n, f);
+        this.size = 0;
+        int[] keys = new int[n];
+        Arrays.fill(keys, NOT_EXISTS);
+        this.keys = keys;
+        ensureHashCapacity(groupCount);
+
+        int groupId = 0;
+        for (Chunk chunk : groupKeyBuffer.buildChunks()) {
+            for (int i = 0; i < chunk.getPositionCount(); i++) {
+                int hash = chunk.hashCode(i);
+                groupHashes[groupId] = hash;
+                insertHash(hash, groupId++);
+            }
+        }
+    }
+
     private int doInnerPutArray(Chunk chunk, int position, int groupId) {
-        int h = HashCommon.mix(chunk.hashCode(position)) & mask;
-        int k = keys[h];
+        final int hash = chunk.hashCode(position);
+        int h = HashCommon.mix(hash) & mask;
+        int k;
 
-        if (k != NOT_EXISTS) {
-            if (groupKeyBuffer.equals(k, chunk, position)) {
+        // Open-address probing, compare the cached hash before the keys
+        while ((k = keys[h]) != NOT_EXISTS) {
+            if (groupHashes[k] == hash && groupKeyBuffer.equals(k, chunk, position)) {
                 return k;
             }
-            // Open-address probing
-            while ((k = keys[h = (h + 1) & mask]) != NOT_EXISTS) {
-                if (groupKeyBuffer.equals(k, chunk, position)) {
-                    return k;
-                }
-            }
+            h = (h + 1) & mask;
         }
 
         if (groupId == -1) {
             groupId = appendGroup(chunk, position);
         }
+        ensureHashCapacity(groupId);
+        groupHashes[groupId] = hash;
 
         // otherwise, insert this position
         keys[h] = groupId;
@@ -168,24 +374,47 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
         return groupId;
     }
 
+    private void ensureHashCapacity(int groupId) {
+        if (groupId >= groupHashes.length) {
+            groupHashes = Arrays.copyOf(groupHashes, Math.max(groupId + 1, groupHashes.length * 2));
+        }
+    }
+
+    /**
+     * Rehash with the cached hash codes, without rebuilding group chunks
+     */
     private void rehash() {
+        final int[] oldKeys = this.keys;
+
         this.n *= 2;
         this.mask = n - 1;
         this.maxFill = HashCommon.maxFill(n, this.f);
-        this.size = 0;
         int[] keys = new int[n];
         Arrays.fill(keys, NOT_EXISTS);
         this.keys = keys;
 
-        List<Chunk> groupChunks = groupKeyBuffer.buildChunks();
-        int groupId = 0;
-        for (Chunk chunk : groupChunks) {
-            for (int i = 0; i < chunk.getPositionCount(); i++) {
-                innerPut(chunk, i, groupId++);
+        for (int k : oldKeys) {
+            if (k != NOT_EXISTS) {
+                int h = HashCommon.mix(groupHashes[k]) & mask;
+                while (keys[h] != NOT_EXISTS) {
+                    h = (h + 1) & mask;
+                }
+                keys[h] = k;
             }
         }
     }
 
+    private void insertHash(int hash, int groupId) {
+        int h = HashCommon.mix(hash) & mask;
+        while (keys[h] != NOT_EXISTS) {
+            h = (h + 1) & mask;
+        }
+        keys[h] = groupId;
+        if (size++ >= maxFill) {
+            rehash();
+        }
+    }
+
     int appendGroup(Chunk chunk, int position) {
         groupKeyBuffer.appendRow(chunk, position);
         return groupCount++;
@@ -194,14 +423,24 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
     List<Chunk> buildGroupChunks() {
         List<Chunk> chunks = groupKeyBuffer.buildChunks();
 
-        // set null to deallocate memory
-        this.keys = null;
-        this.map = null;
+        releaseHashTable();
         this.groupKeyBuffer = null;
 
         return chunks;
     }
 
+    /**
+     * Release the hash table once no more rows will be added, group keys in the buffer are kept
+     */
+    void releaseHashTable() {
+        // set null to deallocate memory
+        this.keys = null;
+        this.groupHashes = null;
+        this.packedTable = null;
+        this.lastPackedChunk = null;
+        this.map = null;
+    }
+
     boolean noGroupBy() {
         return groupKeyType.length == 0;
     }
@@ -214,6 +453,12 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
         } else if (!useMap && keys != null) {
             size += keys.length * ObjectSizeUtils.SIZE_INTEGER;
         }
+        if (groupHashes != null) {
+            size += (long) groupHashes.length * Integer.BYTES;
+        }
+        if (packedTable != null) {
+            size += packedTable.estimateSize();
+        }
         if (groupKeyBuffer != null) {
             size += groupKeyBuffer.estimateSize();
         }
@@ -0,0 +1,112 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing group table keyed by a primitive long, with keys and group ids
+ * held in two parallel arrays.
+ * <p>
+ * Used by {@link GroupOpenHashMap} for single BIGINT/INT keys, two INT keys packed
+ * into one long and short VARCHAR keys packed with their length.
+ */
+final class LongGroupHashTable {
+
+    static final int NOT_EXISTS = -1;
+
+    private long[] keys;
+
+    private int[] groupIds;
+
+    private int mask;
+
+    private int n;
+
+    private int size;
+
+    private final float f;
+
+    private int maxFill;
+
+    LongGroupHashTable(int expectedSize, float loadFactor) {
+        this.f = loadFactor;
+        this.n = HashCommon.arraySize(expectedSize, loadFactor);
+        this.mask = n - 1;
+        this.maxFill = HashCommon.maxFill(n, loadFactor);
+        this.keys = new long[n];
+        this.groupIds = new int[n];
+        Arrays.fill(groupIds, NOT_EXISTS);
+    }
+
+    /**
+     * @return group id of the existing key, or NOT_EXISTS if the key is absent and
+     * has been inserted with the given group id
+     */
+    int putIfAbsent(long key, int groupId) {
+        int h = (int) HashCommon.mix(key) & mask;
+        int g;
+        while ((g = groupIds[h]) != NOT_EXISTS) {
+            if (keys[h] == key) {
+                return g;
+            }
+            h = (h + 1) & mask;
+        }
+
+        keys[h] = key;
+        groupIds[h] = groupId;
+        if (size++ >= maxFill) {
+            rehash();
+        }
+        return NOT_EXISTS;
+    }
+
+    private void rehash() {
+        final long[] oldKeys = keys;
+        final int[] oldGroupIds = groupIds;
+
+        this.n *= 2;
+        this.mask = n - 1;
+        this.maxFill = HashCommon.maxFill(n, f);
+        this.keys = new long[n];
+        this.groupIds = new int[n];
+        Arrays.fill(groupIds, NOT_EXISTS);
+
+        for (int i = 0; i < oldGroupIds.length; i++) {
+            if (oldGroupIds[i] == NOT_EXISTS) {
+                continue;
+            }
+            int h = (int) HashCommon.mix(oldKeys[i]) & mask;
+            while (groupIds[h] != NOT_EXISTS) {
+                h = (h + 1) & mask;
+            }
+            keys[h] = oldKeys[i];
+            groupIds[h] = oldGroupIds[i];
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long estimateSize() {
+        return (long) n * (Long.BYTES + Integer.BYTES);
+    }
+}
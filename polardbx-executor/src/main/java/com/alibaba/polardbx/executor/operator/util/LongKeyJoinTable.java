@@ -0,0 +1,227 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.common.utils.memory.SizeOf;
+import com.alibaba.polardbx.executor.chunk.Block;
+import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.alibaba.polardbx.executor.chunk.IntegerBlock;
+import com.alibaba.polardbx.executor.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Join table for a single BIGINT/INT equi-join key, which keeps the raw key of each build row
+ * so that candidates are compared by primitive keys instead of block equality.
+ * <p>
+ * If the build keys are dense, i.e. max - min is small enough relative to the row count,
+ * rows are direct-addressed by (key - min) and no comparison is needed at all.
+ * Build rows are chained through the position links as in {@link ConcurrentRawHashTable}.
+ */
+public class LongKeyJoinTable implements Hash {
+
+    private static final long INSTANCE_SIZE = ClassLayout.parseClass(LongKeyJoinTable.class).instanceSize();
+
+    public static final int NOT_EXISTS = ConcurrentRawHashTable.NOT_EXISTS;
+
+    /**
+     * Use direct addressing when key range <= DENSE_RANGE_FACTOR * row count
+     */
+    private static final int DENSE_RANGE_FACTOR = 2;
+
+    private final long[] keys;
+    private final AtomicIntegerArray heads;
+    private final boolean dense;
+    private final long minKey;
+    private final int mask;
+
+    private LongKeyJoinTable(int size, boolean dense, long minKey, int headCount) {
+        this.keys = new long[size];
+        this.dense = dense;
+        this.minKey = minKey;
+        this.mask = headCount - 1;
+        int[] heads = new int[headCount];
+        Arrays.fill(heads, NOT_EXISTS);
+        this.heads = new AtomicIntegerArray(heads);
+    }
+
+    /**
+     * Whether key blocks of the type are LongBlock/IntegerBlock, or encoded blocks of them
+     */
+    public static boolean isSupportedType(DataType type) {
+        if (type == null) {
+            return false;
+        }
+        Class clazz = type.getDataClass();
+        return clazz == Long.class || clazz == Integer.class;
+    }
+
+    /**
+     * Create an empty table for the build keys
+     *
+     * @return null if the build keys are not a single BIGINT/INT column
+     */
+    public static LongKeyJoinTable create(ChunksIndex keyChunks) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int chunkId = 0; chunkId < keyChunks.getChunkCount(); chunkId++) {
+            Chunk keyChunk = keyChunks.getChunk(chunkId);
+            if (keyChunk.getBlockCount() != 1) {
+                return null;
+            }
+            Block block = keyChunk.getBlock(0);
+            final int positionCount = block.getPositionCount();
+            if (block instanceof LongBlock) {
+                LongBlock longBlock = (LongBlock) block;
+                for (int i = 0; i < positionCount; i++) {
+                    if (!longBlock.isNull(i)) {
+                        long key = longBlock.getLong(i);
+                        min = Math.min(min, key);
+                        max = Math.max(max, key);
+                    }
+                }
+            } else if (block instanceof IntegerBlock) {
+                IntegerBlock integerBlock = (IntegerBlock) block;
+                for (int i = 0; i < positionCount; i++) {
+                    if (!integerBlock.isNull(i)) {
+                        int key = integerBlock.getInt(i);
+                        min = Math.min(min, key);
+                        max = Math.max(max, key);
+                    }
+                }
+            } else {
+                return null;
+            }
+        }
+
+        final int size = keyChunks.getPositionCount();
+        final long range = max - min;
+        // range < 0 means no key at all or overflow
+        if (range >= 0 && range < (long) DENSE_RANGE_FACTOR * size && range < Integer.MAX_VALUE - 8) {
+            return new LongKeyJoinTable(size, true, min, (int) range + 1);
+        }
+        return new LongKeyJoinTable(size, false, 0, HashCommon.arraySize(size, FAST_LOAD_FACTOR));
+    }
+
+    public boolean isDense() {
+        return dense;
+    }
+
+    private int bucket(long key) {
+        if (dense) {
+            return (int) (key - minKey);
+        }
+        return (int) HashCommon.mix(key) & mask;
+    }
+
+    private int lookup(long key) {
+        if (dense) {
+            long offset = key - minKey;
+            return offset >= 0 && offset <= mask ? heads.get((int) offset) : NOT_EXISTS;
+        }
+        return heads.get((int) HashCommon.mix(key) & mask);
+    }
+
+    /**
+     * Put all non-null keys of a build key chunk
+     *
+     * @param position position of the first row of this chunk in the whole build side
+     */
+    public void putChunk(Chunk keyChunk, int position, int[] positionLinks) {
+        final Block block = keyChunk.getBlock(0);
+        final int positionCount = block.getPositionCount();
+        final long[] keys = this.keys;
+        if (block instanceof LongBlock) {
+            LongBlock longBlock = (LongBlock) block;
+            for (int i = 0; i < positionCount; i++, position++) {
+                if (!longBlock.isNull(i)) {
+                    long key = longBlock.getLong(i);
+                    keys[position] = key;
+                    positionLinks[position] = heads.getAndSet(bucket(key), position);
+                }
+            }
+        } else {
+            IntegerBlock integerBlock = (IntegerBlock) block;
+            for (int i = 0; i < positionCount; i++, position++) {
+                if (!integerBlock.isNull(i)) {
+                    long key = integerBlock.getInt(i);
+                    keys[position] = key;
+                    positionLinks[position] = heads.getAndSet(bucket(key), position);
+                }
+            }
+        }
+    }
+
+    /**
+     * Look up the chain heads of a whole probe key chunk. Null keys get NOT_EXISTS.
+     * Probe keys must be of a type accepted by {@link #isSupportedType(DataType)}.
+     */
+    public void probeChunk(Chunk keyChunk, long[] probeKeys, int[] results) {
+        final Block block = keyChunk.getBlock(0);
+        final int positionCount = block.getPositionCount();
+        if (block instanceof LongBlock) {
+            LongBlock longBlock = (LongBlock) block;
+            for (int i = 0; i < positionCount; i++) {
+                probeKeys[i] = longBlock.getLong(i);
+            }
+        } else if (block instanceof IntegerBlock) {
+            IntegerBlock integerBlock = (IntegerBlock) block;
+            for (int i = 0; i < positionCount; i++) {
+                probeKeys[i] = integerBlock.getInt(i);
+            }
+        } else {
+            // dictionary or run-length encoded keys, whose values are Long/Integer as checked by isSupportedType
+            for (int i = 0; i < positionCount; i++) {
+                probeKeys[i] = block.isNull(i) ? 0 : ((Number) block.getObject(i)).longValue();
+            }
+        }
+        for (int i = 0; i < positionCount; i++) {
+            results[i] = lookup(probeKeys[i]);
+        }
+        if (block.mayHaveNull()) {
+            for (int i = 0; i < positionCount; i++) {
+                if (block.isNull(i)) {
+                    results[i] = NOT_EXISTS;
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the first row in the chain starting at matchedPosition whose key equals to the given key
+     */
+    public int findMatch(int matchedPosition, long key, int[] positionLinks) {
+        if (dense) {
+            // all rows of a chain have the same key
+            return matchedPosition;
+        }
+        while (matchedPosition != NOT_EXISTS && keys[matchedPosition] != key) {
+            matchedPosition = positionLinks[matchedPosition];
+        }
+        return matchedPosition;
+    }
+
+    public long estimateSize() {
+        return INSTANCE_SIZE + SizeOf.sizeOf(keys) + (long) heads.length() * Integer.BYTES;
+    }
+}
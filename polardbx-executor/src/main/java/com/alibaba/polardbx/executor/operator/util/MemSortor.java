@@ -16,6 +16,8 @@
 
 package com.alibaba.polardbx.executor.operator.util;
 
+import com.alibaba.polardbx.common.properties.ConnectionParams;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.AbstractIterator;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -46,6 +48,16 @@ public class MemSortor extends Sorter {
     private boolean revokeMem;
     private ExecutionContext context;
 
+    /**
+     * Encoder of normalized keys, null if the ORDER BY columns can not be normalized
+     */
+    private final NormalizedKeyEncoder keyEncoder;
+
+    /**
+     * Whether the last sort was done by radix sort
+     */
+    private boolean radixSorted;
+
     public MemSortor(MemoryAllocatorCtx memoryAllocator, List<OrderByOption> orderBys,
                      List<DataType> columnMetas, int chunkLimit, boolean revokeMem, ExecutionContext context) {
         super(memoryAllocator, orderBys, columnMetas, chunkLimit);
@@ -77,6 +89,11 @@ public class MemSortor extends Sorter {
             }
 
         };
+        if (context.getParamManager().getBoolean(ConnectionParams.ENABLE_NORMALIZED_SORT_KEY)) {
+            this.keyEncoder = NormalizedKeyEncoder.create(orderBys, columnMetas);
+        } else {
+            this.keyEncoder = null;
+        }
     }
 
     @Override
@@ -104,10 +121,75 @@ public class MemSortor extends Sorter {
             index[i] = i;
         }
 
+        radixSorted = false;
+        if (keyEncoder != null && sortByNormalizedKeys()) {
+            return;
+        }
+
         // sort
         IntArrays.quickSort(index, comparator);
     }
 
+    /**
+     * Sort the index by normalized keys, falling back to the row comparator on ties
+     * if the keys are not exact.
+     *
+     * @return false if some rows can not be normalized
+     */
+    private boolean sortByNormalizedKeys() {
+        for (int i = 0; i < chunksIndex.getChunkCount(); i++) {
+            if (!keyEncoder.canEncode(chunksIndex.getChunk(i))) {
+                return false;
+            }
+        }
+
+        final int wordCount = keyEncoder.getWordCount();
+        final long keysSize = (long) index.length * wordCount * Long.BYTES;
+        if (revokeMem) {
+            memoryAllocator.allocateRevocableMemory(keysSize);
+        } else {
+            memoryAllocator.allocateReservedMemory(keysSize);
+        }
+        try {
+            final long[] keys = new long[index.length * wordCount];
+            int keyOffset = 0;
+            for (int i = 0; i < chunksIndex.getChunkCount(); i++) {
+                Chunk chunk = chunksIndex.getChunk(i);
+                if (!keyEncoder.encode(chunk, keys, keyOffset)) {
+                    return false;
+                }
+                keyOffset += chunk.getPositionCount() * wordCount;
+            }
+
+            if (keyEncoder.canRadixSort()) {
+                NormalizedKeyEncoder.radixSort(index, keys, wordCount);
+                radixSorted = true;
+                return true;
+            }
+
+            final boolean exact = keyEncoder.isExact();
+            IntArrays.quickSort(index, new AbstractIntComparator() {
+                @Override
+                public int compare(int position1, int position2) {
+                    int n = NormalizedKeyEncoder.compare(
+                        keys, position1 * wordCount, keys, position2 * wordCount, wordCount);
+                    if (n != 0 || exact) {
+                        return n;
+                    }
+                    return comparator.compare(position1, position2);
+                }
+            });
+            return true;
+        } finally {
+            // keys are only needed during sorting
+            if (revokeMem) {
+                memoryAllocator.releaseRevocableMemory(keysSize, true);
+            } else {
+                memoryAllocator.releaseReservedMemory(keysSize, true);
+            }
+        }
+    }
+
     @Override
     public Chunk nextChunk() {
         if (resultPosition < chunksIndex.getPositionCount()) {
@@ -151,6 +233,15 @@ public class MemSortor extends Sorter {
         return new Chunk(blocks);
     }
 
+    @VisibleForTesting
+    boolean isRadixSorted() {
+        return radixSorted;
+    }
+
+    public NormalizedKeyEncoder getKeyEncoder() {
+        return keyEncoder;
+    }
+
     public ChunksIndex getChunksIndex() {
         return chunksIndex;
     }
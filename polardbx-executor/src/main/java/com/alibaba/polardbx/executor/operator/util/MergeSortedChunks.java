@@ -44,21 +44,37 @@ public class MergeSortedChunks {
         requireNonNull(comparator, "comparator is null");
         requireNonNull(chunkBreakPredicate, "chunkBreakPredicate is null");
 
+        final NormalizedKeyEncoder keyEncoder = comparator.getKeyEncoder();
         List<WorkProcessor<ChunkWithPosition>> ChunkWithPositionProducers =
-            chunkProducers.stream().map(pageProducer -> chunkWithPositions(pageProducer)).collect(toImmutableList());
+            chunkProducers.stream().map(pageProducer -> chunkWithPositions(pageProducer, keyEncoder))
+                .collect(toImmutableList());
 
-        Comparator<ChunkWithPosition> chunkWithPositionComparator =
-            (firstPageWithPosition, secondPageWithPosition) -> comparator
-                .compareTo(firstPageWithPosition.getChunk(), firstPageWithPosition.getPosition(),
-                    secondPageWithPosition.getChunk(), secondPageWithPosition.getPosition()
-                );
+        Comparator<ChunkWithPosition> chunkWithPositionComparator;
+        if (keyEncoder != null) {
+            chunkWithPositionComparator = comparator::compareTo;
+        } else {
+            chunkWithPositionComparator =
+                (firstPageWithPosition, secondPageWithPosition) -> comparator
+                    .compareTo(firstPageWithPosition.getChunk(), firstPageWithPosition.getPosition(),
+                        secondPageWithPosition.getChunk(), secondPageWithPosition.getPosition()
+                    );
+        }
 
         return buildPage(mergeSorted(ChunkWithPositionProducers, chunkWithPositionComparator), types, chunkLimit,
             chunkBreakPredicate, yieldSignal, context);
     }
 
     public static WorkProcessor<ChunkWithPosition> chunkWithPositions(WorkProcessor<Chunk> chunks) {
+        return chunkWithPositions(chunks, null);
+    }
+
+    /**
+     * Attach the normalized keys of each chunk to its positions, keys are encoded once per chunk
+     */
+    public static WorkProcessor<ChunkWithPosition> chunkWithPositions(WorkProcessor<Chunk> chunks,
+                                                                      NormalizedKeyEncoder keyEncoder) {
         return chunks.flatMap(chunk -> {
+            final long[] sortKeys = encodeSortKeys(chunk, keyEncoder);
             return WorkProcessor.create(new WorkProcessor.Process<ChunkWithPosition>() {
                 int position;
 
@@ -68,12 +84,20 @@ public class MergeSortedChunks {
                         return WorkProcessor.ProcessState.finished();
                     }
 
-                    return WorkProcessor.ProcessState.ofResult(new ChunkWithPosition(chunk, position++));
+                    return WorkProcessor.ProcessState.ofResult(new ChunkWithPosition(chunk, position++, sortKeys));
                 }
             });
         });
     }
 
+    private static long[] encodeSortKeys(Chunk chunk, NormalizedKeyEncoder keyEncoder) {
+        if (keyEncoder == null || !keyEncoder.canEncode(chunk)) {
+            return null;
+        }
+        long[] sortKeys = new long[chunk.getPositionCount() * keyEncoder.getWordCount()];
+        return keyEncoder.encode(chunk, sortKeys, 0) ? sortKeys : null;
+    }
+
     public static WorkProcessor<Chunk> buildPage(WorkProcessor<ChunkWithPosition> chunkWithPositions,
                                                  List<DataType> types,
                                                  int chunkLimit,
@@ -0,0 +1,404 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.common.charset.SortKey;
+import com.alibaba.polardbx.common.datatype.DecimalConverter;
+import com.alibaba.polardbx.common.datatype.DecimalTypeBase;
+import com.alibaba.polardbx.executor.chunk.Block;
+import com.alibaba.polardbx.executor.chunk.ByteBlock;
+import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.alibaba.polardbx.executor.chunk.IntegerBlock;
+import com.alibaba.polardbx.executor.chunk.LongBlock;
+import com.alibaba.polardbx.executor.chunk.ShortBlock;
+import com.alibaba.polardbx.executor.chunk.SliceBlock;
+import com.alibaba.polardbx.executor.utils.OrderByOption;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.datatype.SliceType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes ORDER BY columns into fixed-width, byte-comparable normalized keys packed
+ * into longs, so that rows are compared by unsigned long comparisons instead of boxed
+ * values and {@link DataType#compare}.
+ * <p>
+ * Null is the smallest value and descending columns are bitwise inverted, the same
+ * ordering as {@link com.alibaba.polardbx.executor.utils.ExecUtils#comp}. Strings are
+ * encoded by a prefix of their collation sort key and no column after a string is
+ * encoded, so equal keys must be compared again by the original comparator unless
+ * the encoder is exact.
+ *
+ * @see MemSortor
+ * @see ChunkWithPositionComparator
+ */
+public class NormalizedKeyEncoder {
+
+    /**
+     * Bytes of sort key kept for string columns
+     */
+    static final int STRING_PREFIX_BYTES = 16;
+
+    /**
+     * Exact keys of at most so many words are sorted by radix sort, e.g. a single BIGINT or
+     * DATETIME column (9 bytes with the null byte) or two INT columns
+     */
+    static final int RADIX_SORT_MAX_WORDS = 2;
+
+    private static final int KIND_INTEGER = 0;
+    private static final int KIND_TEMPORAL = 1;
+    private static final int KIND_DECIMAL = 2;
+    private static final int KIND_STRING = 3;
+
+    private final int[] columns;
+    private final int[] kinds;
+    private final int[] flips;
+    private final int[] offsets;
+    private final int[] widths;
+    private final int[] precisions;
+    private final int[] scales;
+
+    private final int wordCount;
+    private final boolean exact;
+
+    private final byte[] decimalBuffer;
+
+    private NormalizedKeyEncoder(int[] columns, int[] kinds, int[] flips, int[] offsets, int[] widths,
+                                 int[] precisions, int[] scales, int keyBytes, boolean exact) {
+        this.columns = columns;
+        this.kinds = kinds;
+        this.flips = flips;
+        this.offsets = offsets;
+        this.widths = widths;
+        this.precisions = precisions;
+        this.scales = scales;
+        this.wordCount = (keyBytes + Long.BYTES - 1) / Long.BYTES;
+        this.exact = exact;
+        this.decimalBuffer = new byte[DecimalConverter.binarySize(
+            DecimalTypeBase.MAX_DECIMAL_PRECISION, DecimalTypeBase.MAX_DECIMAL_SCALE)];
+    }
+
+    /**
+     * @return the encoder, or null if the first ORDER BY column can not be normalized
+     */
+    public static NormalizedKeyEncoder create(List<OrderByOption> orderBys, List<DataType> columnMetas) {
+        final int count = orderBys.size();
+        int[] columns = new int[count];
+        int[] kinds = new int[count];
+        int[] flips = new int[count];
+        int[] offsets = new int[count];
+        int[] widths = new int[count];
+        int[] precisions = new int[count];
+        int[] scales = new int[count];
+
+        int keyBytes = 0;
+        int encoded = 0;
+        boolean exact = true;
+        for (OrderByOption orderBy : orderBys) {
+            DataType type = columnMetas.get(orderBy.getIndex());
+            int kind = kindOf(type);
+            if (kind < 0) {
+                exact = false;
+                break;
+            }
+
+            int width;
+            if (kind == KIND_DECIMAL) {
+                precisions[encoded] = type.getPrecision();
+                scales[encoded] = type.getScale();
+                width = DecimalConverter.binarySize(type.getPrecision(), type.getScale());
+            } else if (kind == KIND_STRING) {
+                width = STRING_PREFIX_BYTES;
+            } else if (kind == KIND_INTEGER) {
+                width = integerWidth(type);
+            } else {
+                width = Long.BYTES;
+            }
+
+            columns[encoded] = orderBy.getIndex();
+            kinds[encoded] = kind;
+            flips[encoded] = orderBy.isAsc() ? 0 : 0xFF;
+            offsets[encoded] = keyBytes;
+            widths[encoded] = width;
+            // one leading byte for null
+            keyBytes += 1 + width;
+            encoded++;
+
+            if (kind == KIND_STRING) {
+                exact = false;
+                break;
+            }
+        }
+
+        if (encoded == 0) {
+            return null;
+        }
+        return new NormalizedKeyEncoder(truncate(columns, encoded), truncate(kinds, encoded),
+            truncate(flips, encoded), truncate(offsets, encoded), truncate(widths, encoded),
+            truncate(precisions, encoded), truncate(scales, encoded), keyBytes, exact);
+    }
+
+    private static int kindOf(DataType type) {
+        if (DataTypeUtil.isUnderLongType(type)
+            && !DataTypeUtil.equalsSemantically(type, DataTypes.BooleanType)) {
+            return KIND_INTEGER;
+        } else if (DataTypeUtil.anyMatchSemantically(type, DataTypes.DateType, DataTypes.DatetimeType,
+            DataTypes.TimestampType, DataTypes.TimeType)) {
+            return KIND_TEMPORAL;
+        } else if (DataTypeUtil.isDecimalType(type)
+            && type.getPrecision() > 0 && type.getPrecision() <= DecimalTypeBase.MAX_DECIMAL_PRECISION
+            && type.getScale() >= 0 && type.getScale() <= DecimalTypeBase.MAX_DECIMAL_SCALE
+            && type.getScale() <= type.getPrecision()) {
+            return KIND_DECIMAL;
+        } else if (type instanceof SliceType) {
+            return KIND_STRING;
+        }
+        return -1;
+    }
+
+    /**
+     * Bytes of an integer column, by the width of its values
+     */
+    private static int integerWidth(DataType type) {
+        Class clazz = type.getDataClass();
+        if (clazz == Integer.class) {
+            return Integer.BYTES;
+        } else if (clazz == Short.class) {
+            return Short.BYTES;
+        } else if (clazz == Byte.class) {
+            return Byte.BYTES;
+        }
+        return Long.BYTES;
+    }
+
+    private static int[] truncate(int[] array, int length) {
+        if (array.length == length) {
+            return array;
+        }
+        int[] result = new int[length];
+        System.arraycopy(array, 0, result, 0, length);
+        return result;
+    }
+
+    /**
+     * Number of longs per key
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Whether equal keys means equal rows under the ORDER BY
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Whether rows can be sorted by {@link #radixSort} alone
+     */
+    public boolean canRadixSort() {
+        return exact && wordCount <= RADIX_SORT_MAX_WORDS;
+    }
+
+    /**
+     * Whether the columns of the chunk can be normalized at all, checked before any key is
+     * allocated. String blocks not in compatible mode compare by raw slices instead of sort
+     * keys and are never encodable.
+     */
+    public boolean canEncode(Chunk chunk) {
+        for (int c = 0; c < columns.length; c++) {
+            if (kinds[c] != KIND_STRING) {
+                continue;
+            }
+            final Block block = chunk.getBlock(columns[c]);
+            if (block instanceof SliceBlock) {
+                if (!((SliceBlock) block).isCompatible()) {
+                    return false;
+                }
+                continue;
+            }
+            for (int pos = 0; pos < block.getPositionCount(); pos++) {
+                if (!block.isNull(pos)) {
+                    if (!(block.getObjectForCmp(pos) instanceof SortKey)) {
+                        return false;
+                    }
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encode all rows of the chunk into {@code keys} starting from word {@code keyOffset}.
+     * The target words must be zero.
+     *
+     * @return false if some value can not be normalized, e.g. a decimal out of the declared precision
+     */
+    public boolean encode(Chunk chunk, long[] keys, int keyOffset) {
+        final int positionCount = chunk.getPositionCount();
+        for (int c = 0; c < columns.length; c++) {
+            final Block block = chunk.getBlock(columns[c]);
+            final int flip = flips[c];
+            int base = keyOffset;
+            for (int pos = 0; pos < positionCount; pos++, base += wordCount) {
+                if (!encodeValue(block, pos, c, flip, keys, base)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean encodeValue(Block block, int position, int c, int flip, long[] keys, int base) {
+        int offset = offsets[c];
+        if (block.isNull(position)) {
+            // null 最小, 值部分全部为 0
+            int width = widths[c];
+            for (int i = 0; i <= width; i++) {
+                putByte(keys, base, offset + i, flip);
+            }
+            return true;
+        }
+        putByte(keys, base, offset++, 1 ^ flip);
+
+        switch (kinds[c]) {
+        case KIND_INTEGER:
+            putLong(keys, base, offset, integerValue(block, position), widths[c], flip);
+            return true;
+        case KIND_TEMPORAL: {
+            Object packed = block.getObjectForCmp(position);
+            if (!(packed instanceof Long)) {
+                return false;
+            }
+            putLong(keys, base, offset, (Long) packed, Long.BYTES, flip);
+            return true;
+        }
+        case KIND_DECIMAL: {
+            int width = widths[c];
+            int error = DecimalConverter.decimalToBin(block.getDecimal(position).getDecimalStructure(),
+                decimalBuffer, precisions[c], scales[c]);
+            if (error != DecimalTypeBase.E_DEC_OK) {
+                return false;
+            }
+            for (int i = 0; i < width; i++) {
+                putByte(keys, base, offset + i, (decimalBuffer[i] & 0xFF) ^ flip);
+            }
+            return true;
+        }
+        case KIND_STRING: {
+            Object sortKey = block.getObjectForCmp(position);
+            if (!(sortKey instanceof SortKey)) {
+                return false;
+            }
+            byte[] bytes = ((SortKey) sortKey).keys;
+            int length = Math.min(bytes.length, STRING_PREFIX_BYTES);
+            for (int i = 0; i < STRING_PREFIX_BYTES; i++) {
+                putByte(keys, base, offset + i, (i < length ? bytes[i] & 0xFF : 0) ^ flip);
+            }
+            return true;
+        }
+        default:
+            throw new AssertionError();
+        }
+    }
+
+    private static long integerValue(Block block, int position) {
+        if (block instanceof LongBlock) {
+            return block.getLong(position);
+        } else if (block instanceof IntegerBlock) {
+            return block.getInt(position);
+        } else if (block instanceof ShortBlock) {
+            return block.getShort(position);
+        } else if (block instanceof ByteBlock) {
+            return block.getByte(position);
+        }
+        return ((Number) block.getObject(position)).longValue();
+    }
+
+    /**
+     * Put the lowest {@code width} bytes of the value, which must fit in them as a signed number
+     */
+    private static void putLong(long[] keys, int base, int offset, long value, int width, int flip) {
+        // 翻转符号位使有符号数按无符号字节序比较
+        long v = value ^ (1L << ((width << 3) - 1));
+        for (int i = 0; i < width; i++) {
+            putByte(keys, base, offset + i, ((int) (v >>> ((width - 1 - i) << 3)) & 0xFF) ^ flip);
+        }
+    }
+
+    private static void putByte(long[] keys, int base, int byteIndex, int b) {
+        keys[base + (byteIndex >>> 3)] |= (b & 0xFFL) << ((7 - (byteIndex & 7)) << 3);
+    }
+
+    public static int compare(long[] keys1, int offset1, long[] keys2, int offset2, int wordCount) {
+        for (int i = 0; i < wordCount; i++) {
+            int n = Long.compareUnsigned(keys1[offset1 + i], keys2[offset2 + i]);
+            if (n != 0) {
+                return n;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * LSD radix sort of {@code index} by keys of {@code wordCount} words, from the last byte of the
+     * last word to the first byte of the first word, skipping bytes shared by all keys such as
+     * null bytes without nulls and the padding of the last word
+     */
+    public static void radixSort(int[] index, long[] keys, int wordCount) {
+        final int n = index.length;
+        if (n == 0) {
+            return;
+        }
+        int[] src = index;
+        int[] dst = new int[n];
+        int[] counts = new int[256];
+        for (int word = wordCount - 1; word >= 0; word--) {
+            for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+                Arrays.fill(counts, 0);
+                for (int i = 0; i < n; i++) {
+                    counts[(int) (keys[src[i] * wordCount + word] >>> shift) & 0xFF]++;
+                }
+                if (counts[(int) (keys[src[0] * wordCount + word] >>> shift) & 0xFF] == n) {
+                    continue;
+                }
+                int sum = 0;
+                for (int b = 0; b < counts.length; b++) {
+                    int count = counts[b];
+                    counts[b] = sum;
+                    sum += count;
+                }
+                for (int i = 0; i < n; i++) {
+                    int p = src[i];
+                    dst[counts[(int) (keys[p * wordCount + word] >>> shift) & 0xFF]++] = p;
+                }
+                int[] tmp = src;
+                src = dst;
+                dst = tmp;
+            }
+        }
+        if (src != index) {
+            System.arraycopy(src, 0, index, 0, n);
+        }
+    }
+}
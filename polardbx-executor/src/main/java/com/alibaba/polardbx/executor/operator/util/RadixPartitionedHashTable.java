@@ -0,0 +1,212 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.common.utils.bloomfilter.FastIntBloomFilter;
+import com.alibaba.polardbx.common.utils.memory.SizeOf;
+import com.alibaba.polardbx.executor.chunk.Block;
+import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+
+/**
+ * A hash table mapping a hash code to an integer value, split into 2^radixBits partitions
+ * by the high bits of the mixed hash code.
+ * <p>
+ * Each partition occupies its own region of the bucket array, so partitions can be built
+ * by different threads without atomics as long as one partition is owned by one thread.
+ */
+public class RadixPartitionedHashTable implements Hash {
+
+    private static final long INSTANCE_SIZE = ClassLayout.parseClass(RadixPartitionedHashTable.class).instanceSize();
+
+    public static final int NOT_EXISTS = ConcurrentRawHashTable.NOT_EXISTS;
+
+    private final int radixBits;
+    private final int[] keys;
+    private final int[] partitionBase;
+    private final int[] partitionMask;
+
+    /**
+     * @param partitionSizes number of entries to be put into each partition
+     */
+    public RadixPartitionedHashTable(int radixBits, long[] partitionSizes) {
+        Preconditions.checkArgument(radixBits > 0 && radixBits < Integer.SIZE, "Invalid radix bits: " + radixBits);
+        Preconditions.checkArgument(partitionSizes.length == 1 << radixBits);
+        this.radixBits = radixBits;
+        this.partitionBase = new int[partitionSizes.length];
+        this.partitionMask = new int[partitionSizes.length];
+
+        final float loadFactor = ConcurrentRawHashTable.selectLoadFactor(Arrays.stream(partitionSizes).sum());
+        long total = 0;
+        for (int i = 0; i < partitionSizes.length; i++) {
+            int n = HashCommon.arraySize((int) partitionSizes[i], loadFactor);
+            partitionBase[i] = (int) total;
+            partitionMask[i] = n - 1;
+            total += n;
+        }
+        Preconditions.checkArgument(total <= Integer.MAX_VALUE, "Too many entries for hash table");
+        this.keys = new int[(int) total];
+        Arrays.fill(keys, NOT_EXISTS);
+    }
+
+    public int getPartitionCount() {
+        return partitionBase.length;
+    }
+
+    public static int partition(int hash, int radixBits) {
+        return HashCommon.mix(hash) >>> (Integer.SIZE - radixBits);
+    }
+
+    private int bucket(int hash) {
+        final int mixed = HashCommon.mix(hash);
+        final int partition = mixed >>> (Integer.SIZE - radixBits);
+        return partitionBase[partition] + (mixed & partitionMask[partition]);
+    }
+
+    /**
+     * Put a hash code to value. The caller must own the partition of this hash code.
+     *
+     * @return the replaced value, or NOT_EXISTS if this slot was empty
+     */
+    public int put(int value, int hash) {
+        final int h = bucket(hash);
+        final int old = keys[h];
+        keys[h] = value;
+        return old;
+    }
+
+    /**
+     * Get a value by hash code
+     *
+     * @return the mapped value of given hash code, or NOT_EXISTS if not found
+     */
+    public int get(int hash) {
+        return keys[bucket(hash)];
+    }
+
+    /**
+     * Look up a batch of hash codes. Bucket addresses are computed first so that the loads
+     * in the second loop are independent of each other and their cache misses overlap.
+     */
+    public void getBatch(int[] hashes, int count, int[] results) {
+        for (int i = 0; i < count; i++) {
+            results[i] = bucket(hashes[i]);
+        }
+        final int[] keys = this.keys;
+        for (int i = 0; i < count; i++) {
+            results[i] = keys[results[i]];
+        }
+    }
+
+    public long estimateSize() {
+        return INSTANCE_SIZE + SizeOf.sizeOf(keys) + SizeOf.sizeOf(partitionBase) + SizeOf.sizeOf(partitionMask);
+    }
+
+    /**
+     * Hash codes of a build key chunk with its positions grouped by radix partition.
+     * Rows containing null keys are left out since they never match.
+     */
+    public static class PartitionedChunk {
+
+        private final int[] hashes;
+        private final int[] positions;
+        private final int[] partitionStarts;
+
+        private PartitionedChunk(int[] hashes, int[] positions, int[] partitionStarts) {
+            this.hashes = hashes;
+            this.positions = positions;
+            this.partitionStarts = partitionStarts;
+        }
+
+        public static PartitionedChunk create(Chunk keyChunk, int radixBits) {
+            final int positionCount = keyChunk.getPositionCount();
+            final int partitionCount = 1 << radixBits;
+            final int[] hashes = keyChunk.hashCodeVector();
+            final int[] partitions = new int[positionCount];
+            final int[] partitionStarts = new int[partitionCount + 1];
+
+            boolean mayHaveNull = false;
+            for (int i = 0; i < keyChunk.getBlockCount(); i++) {
+                mayHaveNull |= keyChunk.getBlock(i).mayHaveNull();
+            }
+            for (int position = 0; position < positionCount; position++) {
+                if (mayHaveNull && hasNullKey(keyChunk, position)) {
+                    partitions[position] = -1;
+                    continue;
+                }
+                int partition = partition(hashes[position], radixBits);
+                partitions[position] = partition;
+                partitionStarts[partition + 1]++;
+            }
+            for (int i = 0; i < partitionCount; i++) {
+                partitionStarts[i + 1] += partitionStarts[i];
+            }
+
+            final int[] positions = new int[partitionStarts[partitionCount]];
+            final int[] cursors = Arrays.copyOf(partitionStarts, partitionCount);
+            for (int position = 0; position < positionCount; position++) {
+                int partition = partitions[position];
+                if (partition >= 0) {
+                    positions[cursors[partition]++] = position;
+                }
+            }
+            return new PartitionedChunk(hashes, positions, partitionStarts);
+        }
+
+        private static boolean hasNullKey(Chunk keyChunk, int position) {
+            for (int i = 0; i < keyChunk.getBlockCount(); i++) {
+                Block block = keyChunk.getBlock(i);
+                if (block.isNull(position)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int getPartitionSize(int partition) {
+            return partitionStarts[partition + 1] - partitionStarts[partition];
+        }
+
+        /**
+         * Put rows of the given partition into the table
+         *
+         * @param chunkOffset position of the first row of this chunk in the whole build side
+         */
+        public void buildPartition(int partition, int chunkOffset, RadixPartitionedHashTable hashTable,
+                                   int[] positionLinks, FastIntBloomFilter bloomFilter) {
+            for (int i = partitionStarts[partition]; i < partitionStarts[partition + 1]; i++) {
+                final int offset = positions[i];
+                final int hash = hashes[offset];
+                final int position = chunkOffset + offset;
+                positionLinks[position] = hashTable.put(position, hash);
+                if (bloomFilter != null) {
+                    bloomFilter.put(hash);
+                }
+            }
+        }
+
+        public long estimateSize() {
+            return SizeOf.sizeOf(hashes) + SizeOf.sizeOf(positions) + SizeOf.sizeOf(partitionStarts);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.operator.util.bloomfilter;
+
+import com.alibaba.polardbx.common.properties.ConnectionParams;
+import com.alibaba.polardbx.common.utils.bloomfilter.BloomFilterInfo;
+import com.alibaba.polardbx.common.utils.bloomfilter.MinMaxFilterInfo;
+import com.alibaba.polardbx.common.utils.logger.Logger;
+import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.optimizer.config.table.TableMeta;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.TddlOperatorTable;
+import com.alibaba.polardbx.optimizer.core.rel.LogicalView;
+import com.alibaba.polardbx.optimizer.partition.PartitionInfo;
+import com.alibaba.polardbx.optimizer.partition.PartitionInfoManager;
+import com.alibaba.polardbx.optimizer.partition.PartitionTableType;
+import com.alibaba.polardbx.optimizer.partition.pruning.PartPrunedResult;
+import com.alibaba.polardbx.optimizer.partition.pruning.PartitionPruneStep;
+import com.alibaba.polardbx.optimizer.partition.pruning.PartitionPruneStepBuilder;
+import com.alibaba.polardbx.optimizer.partition.pruning.PartitionPruner;
+import com.alibaba.polardbx.optimizer.partition.pruning.PartitionPrunerUtils;
+import com.alibaba.polardbx.optimizer.partition.pruning.PhysicalPartitionInfo;
+import org.apache.calcite.plan.RelOptTable;
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelVisitor;
+import org.apache.calcite.rel.logical.LogicalFilter;
+import org.apache.calcite.rel.metadata.RelColumnOrigin;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rel.type.RelDataTypeField;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.fun.SqlRuntimeFilterFunction;
+import org.apache.calcite.sql.type.SqlTypeUtil;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Prunes the physical tables of a partitioned LogicalView by the runtime filters pushed into it.
+ * The build side keys (or the integer min/max when there are too many keys) are turned into
+ * a partition predicate on the probe columns once the runtime filters arrive.
+ */
+public class RuntimeFilterPartitionPruner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuntimeFilterPartitionPruner.class);
+
+    private final PartitionInfo partInfo;
+    private final RelDataType tableRowType;
+    /**
+     * runtime filter id -> (operand index -> column index of tableRowType)
+     */
+    private final Map<Integer, Map<Integer, Integer>> filterColumns;
+    private final int maxKeys;
+
+    private RuntimeFilterPartitionPruner(PartitionInfo partInfo, RelDataType tableRowType,
+                                         Map<Integer, Map<Integer, Integer>> filterColumns, int maxKeys) {
+        this.partInfo = partInfo;
+        this.tableRowType = tableRowType;
+        this.filterColumns = filterColumns;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * @return null if the runtime filters of this LogicalView can not be used for partition pruning
+     */
+    public static RuntimeFilterPartitionPruner create(LogicalView logicalView, ExecutionContext context) {
+        if (!context.getParamManager().getBoolean(ConnectionParams.ENABLE_RUNTIME_FILTER_PARTITION_PRUNING)) {
+            return null;
+        }
+        if (logicalView.getTableNames().size() != 1 || logicalView.getPushedRelNode() == null) {
+            return null;
+        }
+        try {
+            String tableName = logicalView.getLogicalTableName();
+            PartitionInfoManager partitionInfoManager =
+                context.getSchemaManager(logicalView.getSchemaName()).getTddlRuleManager().getPartitionInfoManager();
+            if (!partitionInfoManager.isNewPartDbTable(tableName)) {
+                return null;
+            }
+            PartitionInfo partInfo = partitionInfoManager.getPartitionInfo(tableName);
+            if (partInfo == null || (partInfo.getTableType() != PartitionTableType.PARTITION_TABLE
+                && partInfo.getTableType() != PartitionTableType.GSI_TABLE)) {
+                return null;
+            }
+            TableMeta tableMeta = context.getSchemaManager(logicalView.getSchemaName()).getTable(tableName);
+            RelDataType tableRowType = tableMeta.getRowType(PartitionPrunerUtils.getTypeFactory());
+
+            Map<Integer, Map<Integer, Integer>> filterColumns =
+                collectFilterColumns(logicalView.getPushedRelNode(), tableName, tableRowType);
+            if (filterColumns.isEmpty()) {
+                return null;
+            }
+            int maxKeys = (int) context.getParamManager().getLong(ConnectionParams.RUNTIME_FILTER_PRUNING_MAX_KEYS);
+            return new RuntimeFilterPartitionPruner(partInfo, tableRowType, filterColumns, maxKeys);
+        } catch (Throwable t) {
+            logger.warn("Failed to build runtime filter partition pruner for " + logicalView.getLogicalTableName(), t);
+            return null;
+        }
+    }
+
+    /**
+     * Map the operands of runtime filter calls to the columns of the scanned table
+     */
+    private static Map<Integer, Map<Integer, Integer>> collectFilterColumns(RelNode pushedRelNode, String tableName,
+                                                                          RelDataType tableRowType) {
+        Map<String, Integer> columnIndex = new HashMap<>();
+        for (RelDataTypeField field : tableRowType.getFieldList()) {
+            columnIndex.put(field.getName().toLowerCase(), field.getIndex());
+        }
+
+        Map<Integer, Map<Integer, Integer>> filterColumns = new HashMap<>();
+        new RelVisitor() {
+            @Override
+            public void visit(RelNode node, int ordinal, RelNode parent) {
+                if (node instanceof LogicalFilter) {
+                    LogicalFilter filter = (LogicalFilter) node;
+                    RelMetadataQuery mq = filter.getCluster().getMetadataQuery();
+                    for (RexNode rexNode : RelOptUtil.conjunctions(filter.getCondition())) {
+                        if (!(rexNode instanceof RexCall)
+                            || !(((RexCall) rexNode).getOperator() instanceof SqlRuntimeFilterFunction)) {
+                            continue;
+                        }
+                        int id = ((SqlRuntimeFilterFunction) ((RexCall) rexNode).getOperator()).getId();
+                        List<RexNode> operands = ((RexCall) rexNode).getOperands();
+                        for (int i = 0; i < operands.size(); i++) {
+                            if (!(operands.get(i) instanceof RexInputRef)) {
+                                continue;
+                            }
+                            RelColumnOrigin origin =
+                                mq.getColumnOrigin(filter.getInput(), ((RexInputRef) operands.get(i)).getIndex());
+                            if (origin == null || origin.isDerived()) {
+                                continue;
+                            }
+                            RelOptTable originTable = origin.getOriginTable();
+                            List<String> qualifiedName = originTable.getQualifiedName();
+                            if (!tableName.equalsIgnoreCase(qualifiedName.get(qualifiedName.size() - 1))) {
+                                continue;
+                            }
+                            String columnName =
+                                originTable.getRowType().getFieldNames().get(origin.getOriginColumnOrdinal());
+                            Integer index = columnIndex.get(columnName.toLowerCase());
+                            if (index != null) {
+                                filterColumns.computeIfAbsent(id, k -> new HashMap<>()).put(i, index);
+                            }
+                        }
+                    }
+                }
+                super.visit(node, ordinal, parent);
+            }
+        }.go(pushedRelNode);
+        return filterColumns;
+    }
+
+    /**
+     * @return lower case 'group.physical_table' of the kept partitions, or null if nothing can be pruned
+     */
+    public Set<String> keptPhysicalTables(Map<Integer, BloomFilterInfo> bloomFilterInfos, ExecutionContext context) {
+        try {
+            RexBuilder rexBuilder = PartitionPrunerUtils.getRexBuilder();
+            List<RexNode> conjuncts = new ArrayList<>();
+            boolean containString = false;
+            for (Map.Entry<Integer, Map<Integer, Integer>> entry : filterColumns.entrySet()) {
+                BloomFilterInfo info = bloomFilterInfos.get(entry.getKey());
+                if (info == null || info.getMinMaxFilterInfoList() == null) {
+                    continue;
+                }
+                List<MinMaxFilterInfo> minMaxInfos = info.getMinMaxFilterInfoList();
+                for (Map.Entry<Integer, Integer> column : entry.getValue().entrySet()) {
+                    if (column.getKey() >= minMaxInfos.size()) {
+                        continue;
+                    }
+                    RelDataTypeField field = tableRowType.getFieldList().get(column.getValue());
+                    RexNode columnRef = rexBuilder.makeInputRef(field.getType(), field.getIndex());
+                    RexNode pred = buildPredicate(rexBuilder, columnRef, minMaxInfos.get(column.getKey()));
+                    if (pred != null) {
+                        conjuncts.add(pred);
+                        containString |= SqlTypeUtil.inCharFamily(field.getType());
+                    }
+                }
+            }
+            if (conjuncts.isEmpty()) {
+                return null;
+            }
+
+            RexNode predicate = conjuncts.size() == 1 ? conjuncts.get(0) :
+                rexBuilder.makeCall(TddlOperatorTable.AND, conjuncts);
+            // Key literals are utf8 strings, same as point select pruning
+            ExecutionContext pruneContext = context;
+            String encoding = context.getEncoding();
+            if (containString && !("utf8".equalsIgnoreCase(encoding) || "utf8mb4".equalsIgnoreCase(encoding))) {
+                pruneContext = context.copy();
+                pruneContext.setEncoding("utf8");
+            }
+            PartitionPruneStep step =
+                PartitionPruneStepBuilder.generatePartitionPruneStepInfo(partInfo, tableRowType, predicate,
+                    pruneContext);
+            PartPrunedResult result = PartitionPruner.doPruningByStepInfo(step, pruneContext);
+
+            Set<String> kept = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            for (PhysicalPartitionInfo partition : result.getPrunedParttions()) {
+                kept.add(physicalTableKey(partition.getGroupKey(), partition.getPhyTable()));
+            }
+            return kept;
+        } catch (Throwable t) {
+            logger.warn("Failed to prune partitions by runtime filter, fallback to full scan", t);
+            return null;
+        }
+    }
+
+    private RexNode buildPredicate(RexBuilder rexBuilder, RexNode columnRef, MinMaxFilterInfo info) {
+        List<String> values = info.getValueSet();
+        if (values != null && !values.isEmpty() && values.size() <= maxKeys) {
+            List<RexNode> equals = new ArrayList<>(values.size());
+            for (String value : values) {
+                equals.add(rexBuilder.makeCall(TddlOperatorTable.EQUALS, columnRef, rexBuilder.makeLiteral(value)));
+            }
+            return equals.size() == 1 ? equals.get(0) : rexBuilder.makeCall(TddlOperatorTable.OR, equals);
+        }
+
+        if ((info.getType() == MinMaxFilterInfo.TYPE.INTEGER || info.getType() == MinMaxFilterInfo.TYPE.LONG)
+            && info.getMinNumber() != null && info.getMaxNumber() != null && isSignedInteger(columnRef.getType())) {
+            RexNode min = rexBuilder.makeExactLiteral(BigDecimal.valueOf(info.getMinNumber()));
+            RexNode max = rexBuilder.makeExactLiteral(BigDecimal.valueOf(info.getMaxNumber()));
+            return rexBuilder.makeCall(TddlOperatorTable.AND,
+                rexBuilder.makeCall(TddlOperatorTable.GREATER_THAN_OR_EQUAL, columnRef, min),
+                rexBuilder.makeCall(TddlOperatorTable.LESS_THAN_OR_EQUAL, columnRef, max));
+        }
+        return null;
+    }
+
+    private static boolean isSignedInteger(RelDataType type) {
+        switch (type.getSqlTypeName()) {
+        case TINYINT:
+        case SMALLINT:
+        case MEDIUMINT:
+        case INTEGER:
+        case BIGINT:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    public static String physicalTableKey(String group, String physicalTable) {
+        return group + "." + physicalTable;
+    }
+}
@@ -18,7 +18,10 @@ package com.alibaba.polardbx.executor.operator.util.minmaxfilter;
 
 import com.alibaba.polardbx.common.utils.bloomfilter.MinMaxFilterInfo;
 import com.alibaba.polardbx.executor.chunk.Block;
+import com.alibaba.polardbx.executor.chunk.DictionaryBlock;
+import com.alibaba.polardbx.executor.chunk.RunLengthEncodedBlock;
 import com.alibaba.polardbx.executor.chunk.SliceBlock;
+import io.airlift.slice.Slice;
 
 /**
  * @author chenzilin
@@ -57,7 +60,7 @@ public class StringMinMaxFilter extends MinMaxFilter {
     @Override
     public void put(Block block, int pos) {
         if (!block.isNull(pos)) {
-            String str = ((SliceBlock) block).getRegion(pos).toStringUtf8();
+            String str = regionOf(block, pos).toStringUtf8();
             if (min == null || str.compareTo(min) < 0) {
                 min = str;
             }
@@ -67,6 +70,15 @@ public class StringMinMaxFilter extends MinMaxFilter {
         }
     }
 
+    private static Slice regionOf(Block block, int pos) {
+        if (block instanceof DictionaryBlock) {
+            return ((DictionaryBlock) block).getRegion(pos);
+        } else if (block instanceof RunLengthEncodedBlock) {
+            return ((SliceBlock) ((RunLengthEncodedBlock) block).getValue()).getRegion(0);
+        }
+        return ((SliceBlock) block).getRegion(pos);
+    }
+
     @Override
     public MinMaxFilterInfo toMinMaxFilterInfo() {
         return new MinMaxFilterInfo(MinMaxFilterInfo.TYPE.STRING, null, null, min, max, null, null, null, null);
@@ -48,18 +48,39 @@ public class FetchPlanCacheCapacitySyncAction implements ISyncAction {
 
     @Override
     public ResultCursor sync() {
-        PlanCache.CapacityInfo capacityInfo =
-            OptimizerContext.getContext(schemaName).getPlanManager().getPlanCache().getCurrentCapacityInfo();
+        PlanCache planCache = OptimizerContext.getContext(schemaName).getPlanManager().getPlanCache();
+        PlanCache.CapacityInfo capacityInfo = planCache.getCurrentCapacityInfo();
+        PlanCache.Stats stats = planCache.getStats();
 
         ArrayResultCursor result = new ArrayResultCursor("PLAN_CACHE");
         result.addColumn("COMPUTE_NODE", DataTypes.StringType);
         result.addColumn("CACHE_KEY_CNT", DataTypes.LongType);
         result.addColumn("CAPACITY", DataTypes.LongType);
+        result.addColumn("HIT_COUNT", DataTypes.LongType);
+        result.addColumn("MISS_COUNT", DataTypes.LongType);
+        result.addColumn("HIT_RATIO", DataTypes.DoubleType);
+        result.addColumn("EVICT_SIZE", DataTypes.LongType);
+        result.addColumn("EVICT_EXPIRE", DataTypes.LongType);
+        result.addColumn("EVICT_GC", DataTypes.LongType);
+        result.addColumn("EVICT_EXPLICIT", DataTypes.LongType);
+        result.addColumn("INVALIDATE_COUNT", DataTypes.LongType);
+        result.addColumn("INVALIDATE_KEYS", DataTypes.LongType);
+        result.addColumn("INVALIDATE_TIME_US", DataTypes.LongType);
 
         result.addRow(new Object[] {
             TddlNode.getHost() + ":" + TddlNode.getPort(),
             capacityInfo.getKeyCount(),
-            capacityInfo.getCapacity()
+            capacityInfo.getCapacity(),
+            stats.getHitCount(),
+            stats.getMissCount(),
+            stats.getHitRatio(),
+            stats.getEvictBySize(),
+            stats.getEvictByExpire(),
+            stats.getEvictByGc(),
+            stats.getEvictExplicit(),
+            stats.getInvalidateCount(),
+            stats.getInvalidatedKeys(),
+            stats.getInvalidateTimeMicros()
         });
 
         return result;
@@ -22,9 +22,13 @@ import com.alibaba.polardbx.executor.cursor.ResultCursor;
 import com.alibaba.polardbx.executor.cursor.impl.ArrayResultCursor;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
 import com.alibaba.polardbx.optimizer.sequence.SequenceManagerProxy;
+import com.alibaba.polardbx.sequence.impl.GroupSequence;
 
 import static com.alibaba.polardbx.common.constants.SequenceAttribute.GROUP_SEQ_NODE;
+import static com.alibaba.polardbx.common.constants.SequenceAttribute.GROUP_SEQ_PREFETCH_LEAD;
+import static com.alibaba.polardbx.common.constants.SequenceAttribute.GROUP_SEQ_PREFETCH_STALLS;
 import static com.alibaba.polardbx.common.constants.SequenceAttribute.GROUP_SEQ_RANGE;
+import static com.alibaba.polardbx.common.constants.SequenceAttribute.STR_NA;
 
 /**
  * Created by chensr on 2017/10/31.
@@ -48,13 +52,23 @@ public class InspectGroupSeqRangeSyncAction implements ISyncAction {
         ArrayResultCursor resultCursor = new ArrayResultCursor("GROUP_SEQ_RANGE");
         resultCursor.addColumn(GROUP_SEQ_NODE, DataTypes.StringType);
         resultCursor.addColumn(GROUP_SEQ_RANGE, DataTypes.StringType);
+        resultCursor.addColumn(GROUP_SEQ_PREFETCH_LEAD, DataTypes.StringType);
+        resultCursor.addColumn(GROUP_SEQ_PREFETCH_STALLS, DataTypes.StringType);
         resultCursor.initMeta();
 
         String serverInfo = TddlNode.getNodeInfo();
 
         String currentRange = SequenceManagerProxy.getInstance().getCurrentSeqRange(schemaName, seqName);
 
-        resultCursor.addRow(new Object[] {serverInfo, currentRange});
+        String prefetchLead = STR_NA;
+        String prefetchStalls = STR_NA;
+        Object seq = SequenceManagerProxy.getInstance().getSequence(schemaName, seqName);
+        if (seq instanceof GroupSequence && ((GroupSequence) seq).isPrefetchEnabled()) {
+            prefetchLead = String.valueOf(((GroupSequence) seq).getAvgPrefetchLeadMillis());
+            prefetchStalls = String.valueOf(((GroupSequence) seq).getStallCount());
+        }
+
+        resultCursor.addRow(new Object[] {serverInfo, currentRange, prefetchLead, prefetchStalls});
 
         return resultCursor;
     }
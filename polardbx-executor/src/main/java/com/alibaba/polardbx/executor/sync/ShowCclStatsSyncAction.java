@@ -19,6 +19,7 @@ package com.alibaba.polardbx.executor.sync;
 import com.alibaba.polardbx.executor.cursor.ResultCursor;
 import com.alibaba.polardbx.executor.cursor.impl.ArrayResultCursor;
 import com.alibaba.polardbx.optimizer.ccl.CclManager;
+import com.alibaba.polardbx.optimizer.ccl.common.CclAdaptiveLimiter;
 import com.alibaba.polardbx.optimizer.ccl.common.CclRuleInfo;
 import com.alibaba.polardbx.optimizer.ccl.service.ICclConfigService;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
@@ -37,6 +38,9 @@ public class ShowCclStatsSyncAction implements ISyncAction {
     public static final String KILLED = "Killed";
     public static final String MATCH_HIT_CACHE = "Match_Hit_Cache";
     public static final String TOTAL_MATCH = "Total_Match";
+    public static final String CURRENT_LIMIT = "Current_Limit";
+    public static final String RTT_US = "Rtt_Us";
+    public static final String NO_LOAD_RTT_US = "No_Load_Rtt_Us";
 
     public ShowCclStatsSyncAction() {
 
@@ -51,15 +55,22 @@ public class ShowCclStatsSyncAction implements ISyncAction {
         result.addColumn(KILLED, DataTypes.LongType);
         result.addColumn(MATCH_HIT_CACHE, DataTypes.LongType);
         result.addColumn(TOTAL_MATCH, DataTypes.LongType);
+        result.addColumn(CURRENT_LIMIT, DataTypes.LongType);
+        result.addColumn(RTT_US, DataTypes.LongType);
+        result.addColumn(NO_LOAD_RTT_US, DataTypes.LongType);
         ICclConfigService cclConfigService = CclManager.getCclConfigService();
         List<CclRuleInfo> cclRuleInfos = cclConfigService.getCclRuleInfos();
         for (CclRuleInfo cclRuleInfo : cclRuleInfos) {
+            CclAdaptiveLimiter limiter = cclRuleInfo.getAdaptiveLimiter();
             result.addRow(new Object[] {
                 cclRuleInfo.getCclRuleRecord().id, cclRuleInfo.getRunningCount().get(),
                 cclRuleInfo.getStayCount().get() - cclRuleInfo.getRunningCount().get(),
                 cclRuleInfo.getCclRuntimeStat().killedCount.get(),
                 cclRuleInfo.getCclRuntimeStat().matchCclRuleHitCount.get(),
-                cclRuleInfo.getCclRuntimeStat().totalMatchCclRuleCount.get()});
+                cclRuleInfo.getCclRuntimeStat().totalMatchCclRuleCount.get(),
+                (long) cclRuleInfo.getConcurrencyLimit(),
+                limiter == null ? 0L : limiter.getRttMicros(),
+                limiter == null ? 0L : limiter.getNoLoadRttMicros()});
         }
         return result;
     }
@@ -16,8 +16,10 @@
 
 package com.alibaba.polardbx.group.config;
 
+import com.alibaba.polardbx.atom.AtomLatencyStats;
 import com.alibaba.polardbx.atom.TAtomDataSource;
 import com.alibaba.polardbx.common.jdbc.MasterSlave;
+import com.alibaba.polardbx.common.properties.DynamicConfig;
 import com.alibaba.polardbx.common.utils.GeneralUtil;
 import com.alibaba.polardbx.common.utils.Pair;
 import com.alibaba.polardbx.gms.node.StorageStatus;
@@ -41,6 +43,12 @@ public class MasterSlaveGroupDataSourceHolder implements GroupDataSourceHolder {
         this.slaveDataSources = slaveDataSources;
         this.slaveStorageIds = slaveStorageIds;
         this.random = new Random(System.currentTimeMillis());
+        for (int i = 0; i < slaveDataSources.size() && i < slaveStorageIds.size(); i++) {
+            AtomLatencyStats stats = slaveDataSources.get(i).getLatencyStats();
+            if (stats != null) {
+                AtomLatencyStats.register(slaveStorageIds.get(i), stats);
+            }
+        }
     }
 
     @Override
@@ -101,6 +109,9 @@ public class MasterSlaveGroupDataSourceHolder implements GroupDataSourceHolder {
 
     private TAtomDataSource selectLowDelaySlaveDataSource(boolean forceMaster) {
         Map<String, StorageStatus> statusMap = StorageStatusManager.getInstance().getAllowReadLearnerStorageMap();
+        if (DynamicConfig.getInstance().isEnableLatencyAwareSlaveRoute()) {
+            return selectLeastLoadedSlaveDataSource(statusMap, forceMaster);
+        }
 
         int startIndex = random.nextInt(slaveDataSources.size());
         List<Pair<String, Integer>> lowDelayIds = new ArrayList<>();
@@ -136,4 +147,56 @@ public class MasterSlaveGroupDataSourceHolder implements GroupDataSourceHolder {
             return slaveDataSources.get(lowDelayIds.get(0).getValue());
         }
     }
+
+    /**
+     * Pick among slaves within the lag limit by power-of-two-choices on EWMA response time and in-flight count.
+     * Busy slaves are only picked when all the low delay slaves are busy.
+     */
+    private TAtomDataSource selectLeastLoadedSlaveDataSource(Map<String, StorageStatus> statusMap,
+                                                             boolean forceMaster) {
+        int maxLagSeconds = DynamicConfig.getInstance().getStorageMaxLagSeconds();
+        List<TAtomDataSource> candidates = new ArrayList<>(slaveStorageIds.size());
+        List<TAtomDataSource> idleCandidates = new ArrayList<>(slaveStorageIds.size());
+        for (int i = 0; i < slaveStorageIds.size(); i++) {
+            StorageStatus storageStatus = statusMap.get(slaveStorageIds.get(i));
+            if (storageStatus == null) {
+                continue;
+            }
+            boolean lowDelay = maxLagSeconds >= 0 ? storageStatus.getDelaySecond() <= maxLagSeconds :
+                !storageStatus.isDelay();
+            if (lowDelay) {
+                candidates.add(slaveDataSources.get(i));
+                if (!storageStatus.isBusy()) {
+                    idleCandidates.add(slaveDataSources.get(i));
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            if (forceMaster) {
+                return masterDataSource;
+            }
+            throw new RuntimeException("all slave is delay, so can't continue use slave connection!");
+        }
+        return pickOfTwo(idleCandidates.isEmpty() ? candidates : idleCandidates, random);
+    }
+
+    static TAtomDataSource pickOfTwo(List<TAtomDataSource> candidates, Random random) {
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        TAtomDataSource a = candidates.get(first);
+        TAtomDataSource b = candidates.get(second);
+        return scoreOf(b) < scoreOf(a) ? b : a;
+    }
+
+    private static double scoreOf(TAtomDataSource dataSource) {
+        AtomLatencyStats stats = dataSource.getLatencyStats();
+        return stats == null ? 0 : stats.score();
+    }
 }
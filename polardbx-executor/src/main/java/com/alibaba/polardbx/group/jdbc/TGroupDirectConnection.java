@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.group.jdbc;
 
+import com.alibaba.polardbx.atom.AtomLatencyStats;
 import com.alibaba.polardbx.atom.TAtomConnectionProxy;
 import com.alibaba.polardbx.atom.TAtomDataSource;
 import com.alibaba.polardbx.atom.utils.EncodingUtils;
@@ -78,6 +79,8 @@ public class TGroupDirectConnection extends ReadViewConn {
     private Statement currentStatement;
     private ConnectionStats connectionStats = new ConnectionStats();
     private String dbKey;
+    private AtomLatencyStats latencyStats;
+    private long latencyStartNanos;
 
     public static class SocketTimeoutExecutor implements Executor {
 
@@ -115,6 +118,8 @@ public class TGroupDirectConnection extends ReadViewConn {
             conn = atomDataSource.getConnection();
         }
         this.dbKey = atomDataSource.getDbKey();
+        this.latencyStats = atomDataSource.getLatencyStats();
+        this.latencyStartNanos = latencyStats.begin();
 
         long cost = System.nanoTime() - start;
         doConnStats(conn, startTs, cost);
@@ -192,7 +197,15 @@ public class TGroupDirectConnection extends ReadViewConn {
 
     @Override
     public void close() throws SQLException {
-        conn.close();
+        try {
+            conn.close();
+        } finally {
+            AtomLatencyStats stats = latencyStats;
+            if (stats != null) {
+                latencyStats = null;
+                stats.end(latencyStartNanos);
+            }
+        }
     }
 
     @Override
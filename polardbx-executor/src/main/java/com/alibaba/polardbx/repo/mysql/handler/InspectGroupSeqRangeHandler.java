@@ -35,6 +35,8 @@ import java.util.List;
 import java.util.Map;
 
 import static com.alibaba.polardbx.common.constants.SequenceAttribute.GROUP_SEQ_NODE;
+import static com.alibaba.polardbx.common.constants.SequenceAttribute.GROUP_SEQ_PREFETCH_LEAD;
+import static com.alibaba.polardbx.common.constants.SequenceAttribute.GROUP_SEQ_PREFETCH_STALLS;
 import static com.alibaba.polardbx.common.constants.SequenceAttribute.GROUP_SEQ_RANGE;
 import static com.alibaba.polardbx.common.constants.SequenceAttribute.Type;
 
@@ -67,6 +69,8 @@ public class InspectGroupSeqRangeHandler extends AbstractDalHandler {
         ArrayResultCursor resultCursor = new ArrayResultCursor("GROUP_SEQ_RANGE");
         resultCursor.addColumn(GROUP_SEQ_NODE, DataTypes.StringType);
         resultCursor.addColumn(GROUP_SEQ_RANGE, DataTypes.StringType);
+        resultCursor.addColumn(GROUP_SEQ_PREFETCH_LEAD, DataTypes.StringType);
+        resultCursor.addColumn(GROUP_SEQ_PREFETCH_STALLS, DataTypes.StringType);
         resultCursor.initMeta();
 
         // Get current ranges from all servers.
@@ -75,7 +79,9 @@ public class InspectGroupSeqRangeHandler extends AbstractDalHandler {
         for (List<Map<String, Object>> resultSet : resultSets) {
             if (resultSet != null) {
                 for (Map<String, Object> row : resultSet) {
-                    resultCursor.addRow(new Object[] {row.get(GROUP_SEQ_NODE), row.get(GROUP_SEQ_RANGE)});
+                    resultCursor.addRow(new Object[] {
+                        row.get(GROUP_SEQ_NODE), row.get(GROUP_SEQ_RANGE), row.get(GROUP_SEQ_PREFETCH_LEAD),
+                        row.get(GROUP_SEQ_PREFETCH_STALLS)});
                 }
             }
         }
@@ -29,7 +29,6 @@ import com.alibaba.polardbx.common.utils.Pair;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.common.utils.logger.MDC;
-import com.alibaba.polardbx.common.utils.memory.SizeOf;
 import com.alibaba.polardbx.executor.common.ExecutorContext;
 import com.alibaba.polardbx.executor.cursor.AbstractCursor;
 import com.alibaba.polardbx.executor.cursor.Cursor;
@@ -58,7 +57,6 @@ import com.alibaba.polardbx.optimizer.sequence.ISequenceManager;
 import com.alibaba.polardbx.optimizer.sequence.SequenceManagerProxy;
 import com.alibaba.polardbx.optimizer.utils.CalciteUtils;
 import com.alibaba.polardbx.optimizer.utils.IDistributedTransaction;
-import com.google.common.base.Splitter;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.calcite.rel.RelNode;
@@ -210,15 +208,14 @@ public class LogicalLoadDataHandler extends LogicalInsertHandler {
             try {
                 int totalAffectRows = 0;
                 while (true) {
-                    List<String> lines = loadDataContext.getParameters().take();
-                    if (lines == END) {
+                    List<List<String>> rows = loadDataContext.getParameters().take();
+                    if (rows == END) {
                         break;
                     }
                     List<Map<Integer, ParameterContext>> batchParams = new ArrayList<>();
-                    for (int i = 0; i < lines.size(); i++) {
-                        String line = lines.get(i);
-                        List<String> fields =
-                            Lists.newArrayList(Splitter.on(loadDataContext.getFieldTerminatedBy()).split(line));
+                    for (int i = 0; i < rows.size(); i++) {
+                        List<String> fields = rows.get(i);
+                        long length = LoadDataContext.sizeOfRow(fields);
                         if (loadDataContext.getAutoFillColumnIndex() != -1) {
                             fields.add(loadDataContext.getAutoFillColumnIndex(),
                                 loadDataContext.isInSingleDb() ? "NULL" :
@@ -228,7 +225,6 @@ public class LogicalLoadDataHandler extends LogicalInsertHandler {
                         Map<Integer, ParameterContext> parameterContexts = Transformer.buildColumnParam(
                             loadDataContext.getMetaList(), fields, loadDataContext.getCharset(), null_mode);
                         batchParams.add(parameterContexts);
-                        long length = SizeOf.sizeOfCharArray(line.length());
                         loadDataContext.getDataCacheManager().releaseMemory(length);
                     }
                     if (batchParams.size() > 0) {
@@ -327,6 +323,7 @@ public class LogicalLoadDataHandler extends LogicalInsertHandler {
                 indexCursors.add(cursor);
             }
         }
+        executionContext.getLoadDataContext().setShardQueues(multiQueus);
         return new Pair<>(shardConsumers, indexCursors);
     }
 
@@ -493,18 +490,16 @@ public class LogicalLoadDataHandler extends LogicalInsertHandler {
                         throw loadDataContext.getThrowable();
                     }
 
-                    List<String> lines = loadDataContext.getParameters().take();
-                    if (lines == END) {
+                    List<List<String>> rows = loadDataContext.getParameters().take();
+                    if (rows == END) {
                         loadDataContext.getParameters().add(END);
                         break;
                     }
                     List<Map<Integer, ParameterContext>> batchParams = new ArrayList<>();
                     long totalMemory = 0L;
-                    for (int i = 0; i < lines.size(); i++) {
-                        String line = lines.get(i);
-                        totalMemory += SizeOf.sizeOfCharArray(line.length());
-                        List<String> fields =
-                            Lists.newArrayList(Splitter.on(loadDataContext.getFieldTerminatedBy()).split(line));
+                    for (int i = 0; i < rows.size(); i++) {
+                        List<String> fields = rows.get(i);
+                        totalMemory += LoadDataContext.sizeOfRow(fields);
                         if (loadDataContext.getAutoFillColumnIndex() != -1) {
                             fields.add(loadDataContext.getAutoFillColumnIndex(),
                                 loadDataContext.isInSingleDb() ? "NULL" :
@@ -526,11 +521,10 @@ public class LogicalLoadDataHandler extends LogicalInsertHandler {
                             long averageSize = totalMemory / allPhyPlan.size();
                             long div = totalMemory % allPhyPlan.size();
                             for (int i = 0; i < allPhyPlan.size(); i++) {
-                                long calcSize = 0;
+                                // 每个物理计划释放平均值，余数由最后一个释放，保证与分配的内存相等
+                                long calcSize = averageSize;
                                 if (i == allPhyPlan.size() - 1) {
-                                    calcSize = div + averageSize;
-                                } else {
-                                    calcSize = div;
+                                    calcSize += div;
                                 }
                                 PhyTableOperation phyTableOperation = (PhyTableOperation) allPhyPlan.get(i);
                                 BlockingQueue<Object> blockingQueue =
@@ -81,20 +81,21 @@ public class CustomUnitGroupSequence extends GroupSequence {
     }
 
     @Override
-    protected void setSequenceRange() {
+    protected SequenceRange fetchRange() {
         CustomUnitGroupSequenceDao groupSequenceDao = (CustomUnitGroupSequenceDao) sequenceDao;
 
         long rangeStart = groupSequenceDao.nextRangeStart(name);
 
-        this.currentRange = new SequenceRange(rangeStart + 1, rangeStart + innerStep);
+        SequenceRange range = new SequenceRange(rangeStart + 1, rangeStart + innerStep);
 
-        String rangeInfo = this.currentRange.toString();
+        String rangeInfo = range.toString();
         String infoMsg = "Got a new range for custom unit group sequence '" + name + "'. Range Info: " + rangeInfo;
         LoggerInit.TDDL_SEQUENCE_LOG.info(infoMsg);
         if (logger.isDebugEnabled()) {
             logger.debug(infoMsg);
         }
 
+        return range;
     }
 
     @Override
@@ -24,11 +24,21 @@ import com.alibaba.polardbx.sequence.SequenceDao;
 import com.alibaba.polardbx.sequence.SequenceRange;
 import com.alibaba.polardbx.sequence.exception.SequenceException;
 
+import com.alibaba.polardbx.common.utils.thread.NamedThreadFactory;
+
 import java.sql.SQLException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static com.alibaba.polardbx.common.constants.SequenceAttribute.DEFAULT_INNER_STEP;
+import static com.alibaba.polardbx.common.constants.SequenceAttribute.DEFAULT_PREFETCH_WATERMARK;
 
 public class GroupSequence extends BaseSequence {
 
@@ -46,6 +56,43 @@ public class GroupSequence extends BaseSequence {
 
     protected static final Logger logger = LoggerFactory.getLogger(GroupSequence.class);
 
+    private static final AtomicReferenceFieldUpdater<GroupSequence, SequenceRange> CURRENT_RANGE_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(GroupSequence.class, SequenceRange.class, "currentRange");
+
+    /**
+     * Shared by all group sequences, since a prefetch is a single short update on the sequence table.
+     */
+    private static final ThreadPoolExecutor PREFETCH_EXECUTOR =
+        new ThreadPoolExecutor(2, 2, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new NamedThreadFactory("Group-Seq-Prefetch", true), new ThreadPoolExecutor.DiscardPolicy());
+
+    static {
+        PREFETCH_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Fetch the next range in background once the current one is used beyond the watermark.
+     */
+    private volatile boolean prefetchEnabled = false;
+
+    /**
+     * Percentage of the current range to be used before prefetching the next one.
+     */
+    private volatile int prefetchWatermark = DEFAULT_PREFETCH_WATERMARK;
+
+    private final AtomicReference<SequenceRange> standbyRange = new AtomicReference<>();
+    private volatile long standbyReadyNanos;
+    private final AtomicBoolean prefetching = new AtomicBoolean(false);
+
+    /**
+     * Bumped whenever cached ranges are invalidated, so that an in-flight prefetch is dropped.
+     */
+    private final AtomicLong rangeEpoch = new AtomicLong(0);
+
+    private final AtomicLong prefetchCount = new AtomicLong(0);
+    private final AtomicLong prefetchLeadNanos = new AtomicLong(0);
+    private final AtomicLong stallCount = new AtomicLong(0);
+
     /**
      * 初始化一下，如果name不存在，则给其初始值<br>
      */
@@ -78,6 +125,9 @@ public class GroupSequence extends BaseSequence {
 
     @Override
     public long nextValue() throws SequenceException {
+        if (prefetchEnabled) {
+            return nextValueWithPrefetch(1);
+        }
 
         checkSequenceRange();
 
@@ -113,6 +163,10 @@ public class GroupSequence extends BaseSequence {
     public long nextValue(int size) throws SequenceException {
         checkBatchSize(size);
 
+        if (prefetchEnabled) {
+            return nextValueWithPrefetch(size);
+        }
+
         checkSequenceRange();
 
         long value = getSequenceRange().getBatch(size);
@@ -144,10 +198,113 @@ public class GroupSequence extends BaseSequence {
         return value;
     }
 
+    /**
+     * Values are taken without the global lock as long as the current range or the
+     * standby range can serve them. The lock is only taken when both are used up,
+     * which is counted as a stall.
+     */
+    private long nextValueWithPrefetch(int size) throws SequenceException {
+        checkSequenceRange();
+
+        long value;
+        for (; ; ) {
+            SequenceRange range = getSequenceRange();
+            value = size == 1 ? range.getAndIncrement() : range.getBatch(size);
+            if (value != -1) {
+                if (isBeyondWatermark(range, value)) {
+                    triggerPrefetch();
+                }
+                break;
+            }
+
+            if (switchToStandby(range)) {
+                continue;
+            }
+
+            lock.lock();
+            try {
+                if (getSequenceRange() == range && !switchToStandby(range)) {
+                    stallCount.incrementAndGet();
+                    setSequenceRange();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        if (value < 0) {
+            throw new SequenceException("Sequence value overflow, value = " + value);
+        }
+
+        return value;
+    }
+
+    private boolean isBeyondWatermark(SequenceRange range, long value) {
+        if (standbyRange.get() != null || prefetching.get()) {
+            return false;
+        }
+        long rangeSize = range.getMax() - range.getMin() + 1;
+        return (value - range.getMin()) * 100 >= rangeSize * prefetchWatermark;
+    }
+
+    private void triggerPrefetch() {
+        if (!prefetching.compareAndSet(false, true)) {
+            return;
+        }
+        final long epoch = rangeEpoch.get();
+        try {
+            PREFETCH_EXECUTOR.execute(() -> {
+                try {
+                    SequenceRange range = fetchRange();
+                    if (range != null && rangeEpoch.get() == epoch) {
+                        standbyReadyNanos = System.nanoTime();
+                        standbyRange.compareAndSet(null, range);
+                        if (rangeEpoch.get() != epoch) {
+                            standbyRange.compareAndSet(range, null);
+                        }
+                    }
+                } catch (Throwable t) {
+                    logger.warn("Failed to prefetch range for group sequence '" + name + "'", t);
+                } finally {
+                    prefetching.set(false);
+                }
+            });
+        } catch (Throwable t) {
+            prefetching.set(false);
+            logger.warn("Failed to submit range prefetch for group sequence '" + name + "'", t);
+        }
+    }
+
+    /**
+     * Replace the exhausted range with the standby one.
+     *
+     * @return false if there is no standby range
+     */
+    private boolean switchToStandby(SequenceRange exhausted) {
+        SequenceRange standby = standbyRange.getAndSet(null);
+        if (standby == null) {
+            return false;
+        }
+        if (CURRENT_RANGE_UPDATER.compareAndSet(this, exhausted, standby)) {
+            prefetchCount.incrementAndGet();
+            prefetchLeadNanos.addAndGet(System.nanoTime() - standbyReadyNanos);
+        } else {
+            // Someone else has switched already, so keep it for the next round.
+            standbyRange.compareAndSet(null, standby);
+        }
+        return true;
+    }
+
+    private void invalidateStandby() {
+        rangeEpoch.incrementAndGet();
+        standbyRange.set(null);
+    }
+
     @Override
     public boolean exhaustValue() throws SequenceException {
         lock.lock();
         try {
+            invalidateStandby();
             SequenceRange range = getSequenceRange();
             if (range != null) {
                 range.setOver(true);
@@ -208,6 +365,7 @@ public class GroupSequence extends BaseSequence {
             // containing the value to catch up with.
             boolean updated = ((GroupSequenceDao) sequenceDao).updateExplicitValue(name, valueToUpdate);
             // Invalidate local range
+            invalidateStandby();
             if (getSequenceRange() != null) {
                 getSequenceRange().setOver(true);
             }
@@ -300,7 +458,11 @@ public class GroupSequence extends BaseSequence {
     }
 
     protected void setSequenceRange() {
-        setSequenceRange(sequenceDao.nextRange(name));
+        setSequenceRange(fetchRange());
+    }
+
+    protected SequenceRange fetchRange() {
+        return sequenceDao.nextRange(name);
     }
 
     protected void checkBatchSize(int size) {
@@ -318,4 +480,41 @@ public class GroupSequence extends BaseSequence {
         this.sequenceDao = sequenceDao;
     }
 
+    public boolean isPrefetchEnabled() {
+        return prefetchEnabled;
+    }
+
+    public void setPrefetchEnabled(boolean prefetchEnabled) {
+        this.prefetchEnabled = prefetchEnabled;
+    }
+
+    public int getPrefetchWatermark() {
+        return prefetchWatermark;
+    }
+
+    public void setPrefetchWatermark(int prefetchWatermark) {
+        if (prefetchWatermark > 0 && prefetchWatermark <= 100) {
+            this.prefetchWatermark = prefetchWatermark;
+        }
+    }
+
+    public long getPrefetchCount() {
+        return prefetchCount.get();
+    }
+
+    /**
+     * Average time a prefetched range stayed ready before it was switched to.
+     */
+    public long getAvgPrefetchLeadMillis() {
+        long count = prefetchCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(prefetchLeadNanos.get() / count);
+    }
+
+    /**
+     * Times that callers had to wait for a range fetched synchronously in prefetch mode.
+     */
+    public long getStallCount() {
+        return stallCount.get();
+    }
+
 }
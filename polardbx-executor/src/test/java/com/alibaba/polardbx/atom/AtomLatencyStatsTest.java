@@ -0,0 +1,55 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.atom;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AtomLatencyStatsTest {
+
+    @Test
+    public void testEwmaAndInFlight() {
+        AtomLatencyStats stats = new AtomLatencyStats();
+        Assert.assertEquals(0D, stats.score(), 0D);
+
+        stats.observe(1_000_000L);
+        Assert.assertEquals(1D, stats.getEwmaMillis(), 1e-9);
+        stats.observe(2_000_000L);
+        Assert.assertEquals(1.3D, stats.getEwmaMillis(), 1e-9);
+
+        long start = stats.begin();
+        stats.begin();
+        Assert.assertEquals(2, stats.getInFlight());
+        Assert.assertEquals(1_300_000D * 3, stats.score(), 1e-3);
+        stats.end(start);
+        Assert.assertEquals(1, stats.getInFlight());
+        Assert.assertEquals(3, stats.getSamples());
+    }
+
+    @Test
+    public void testDescribeStorage() {
+        Assert.assertNull(AtomLatencyStats.describeStorage("no_such_storage"));
+        AtomLatencyStats a = new AtomLatencyStats();
+        AtomLatencyStats b = new AtomLatencyStats();
+        a.observe(2_000_000L);
+        b.observe(4_000_000L);
+        b.begin();
+        AtomLatencyStats.register("dn_test", a);
+        AtomLatencyStats.register("dn_test", b);
+        Assert.assertEquals("rt_ms=3.000,inflight=1,score=6.000", AtomLatencyStats.describeStorage("dn_test"));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.archive.reader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SegmentedLruCacheTest {
+
+    @Test
+    public void testBoundedByWeight() {
+        final List<String> removed = new ArrayList<>();
+        final SegmentedLruCache<String, byte[]> cache =
+            new SegmentedLruCache<>(100, 1024, v -> v.length, (k, v) -> removed.add(k));
+
+        Assert.assertTrue(cache.put("a", new byte[40]));
+        Assert.assertTrue(cache.put("b", new byte[40]));
+        Assert.assertEquals(80, cache.weightedSize());
+
+        // larger than capacity
+        Assert.assertFalse(cache.put("huge", new byte[101]));
+
+        // "c" is accessed more than "a" and "b"
+        for (int i = 0; i < 3; i++) {
+            cache.getIfPresent("c");
+        }
+        Assert.assertTrue(cache.put("c", new byte[40]));
+        Assert.assertTrue(cache.weightedSize() <= 100);
+        Assert.assertEquals(1, removed.size());
+        Assert.assertTrue(cache.containsKey("c"));
+    }
+
+    @Test
+    public void testAdmission() {
+        final SegmentedLruCache<String, byte[]> cache =
+            new SegmentedLruCache<>(100, 1024, v -> v.length, (k, v) -> {
+            });
+        cache.put("hot", new byte[60]);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertNotNull(cache.getIfPresent("hot"));
+        }
+
+        // one-off scan can not flush the hot entry
+        for (int i = 0; i < 10; i++) {
+            final String key = "scan" + i;
+            cache.getIfPresent(key);
+            cache.put(key, new byte[60]);
+        }
+        Assert.assertNotNull(cache.getIfPresent("hot"));
+    }
+
+    @Test
+    public void testShrinkAndInvalidate() {
+        final SegmentedLruCache<String, byte[]> cache =
+            new SegmentedLruCache<>(100, 1024, v -> v.length, (k, v) -> {
+            });
+        for (int i = 0; i < 10; i++) {
+            cache.put("k" + i, new byte[10]);
+        }
+        Assert.assertEquals(10, cache.size());
+
+        cache.setCapacity(50);
+        Assert.assertEquals(50, cache.weightedSize());
+
+        cache.invalidateIf(k -> k.equals("k9"));
+        Assert.assertFalse(cache.containsKey("k9"));
+
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.weightedSize());
+    }
+
+    @Test
+    public void testFrequencySketch() {
+        final FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("a");
+        }
+        sketch.increment("b");
+        Assert.assertEquals(15, sketch.frequency("a"));
+        Assert.assertTrue(sketch.frequency("b") >= 1);
+
+        sketch.reset();
+        Assert.assertEquals(7, sketch.frequency("a"));
+    }
+}
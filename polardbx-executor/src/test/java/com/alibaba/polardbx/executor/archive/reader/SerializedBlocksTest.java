@@ -0,0 +1,105 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.archive.reader;
+
+import com.alibaba.polardbx.executor.chunk.Block;
+import com.alibaba.polardbx.executor.chunk.LongBlockBuilder;
+import com.alibaba.polardbx.executor.chunk.LongBlockEncoding;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SerializedBlocksTest {
+
+    @Test
+    public void testMoveOffHeap() {
+        List<Block> blocks = buildBlocks();
+
+        BufferPoolManager.SerializedBlocks serialized =
+            BufferPoolManager.SerializedBlocks.serialize(new LongBlockEncoding(), blocks);
+        // 未被缓存接纳前不分配堆外内存
+        Assert.assertFalse(serialized.isOffHeap());
+        final long size = serialized.getSizeInBytes();
+        check(blocks, serialized.materialize());
+
+        serialized.moveOffHeap();
+        Assert.assertTrue(serialized.isOffHeap());
+        Assert.assertEquals(size, serialized.getSizeInBytes());
+        check(blocks, serialized.materialize());
+    }
+
+    @Test
+    public void testRelease() {
+        List<Block> blocks = buildBlocks();
+        BufferPoolManager.SerializedBlocks serialized =
+            BufferPoolManager.SerializedBlocks.serialize(new LongBlockEncoding(), blocks);
+        serialized.moveOffHeap();
+
+        // 读者持有引用时, 缓存淘汰不释放堆外内存
+        Assert.assertTrue(serialized.retain());
+        List<Block> materialized = serialized.materialize();
+        serialized.release();
+        Assert.assertFalse(serialized.isReleased());
+
+        // 最后一个引用释放后堆外内存被回收, 之后无法再持有
+        serialized.release();
+        Assert.assertTrue(serialized.isReleased());
+        Assert.assertFalse(serialized.retain());
+
+        // 已物化的块不依赖堆外内存
+        check(blocks, materialized);
+    }
+
+    @Test
+    public void testEvictionReleases() {
+        SegmentedLruCache<String, BufferPoolManager.SerializedBlocks> cache =
+            new SegmentedLruCache<>(1 << 20, 16, BufferPoolManager.SerializedBlocks::getSizeInBytes,
+                (key, value) -> value.release());
+        BufferPoolManager.SerializedBlocks serialized =
+            BufferPoolManager.SerializedBlocks.serialize(new LongBlockEncoding(), buildBlocks());
+        Assert.assertTrue(cache.put("a", serialized));
+        serialized.moveOffHeap();
+
+        cache.invalidate("a");
+        Assert.assertTrue(serialized.isReleased());
+    }
+
+    private static List<Block> buildBlocks() {
+        List<Block> blocks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            LongBlockBuilder builder = new LongBlockBuilder(100);
+            for (int j = 0; j < 100; j++) {
+                builder.writeLong(i * 100 + j);
+            }
+            blocks.add(builder.build());
+        }
+        return blocks;
+    }
+
+    private static void check(List<Block> expected, List<Block> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Block block = actual.get(i);
+            Assert.assertEquals(expected.get(i).getPositionCount(), block.getPositionCount());
+            for (int j = 0; j < block.getPositionCount(); j++) {
+                Assert.assertEquals(expected.get(i).getLong(j), block.getLong(j));
+            }
+        }
+    }
+}
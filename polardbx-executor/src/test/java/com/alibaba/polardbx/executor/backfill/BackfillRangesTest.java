@@ -0,0 +1,66 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.backfill;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class BackfillRangesTest {
+
+    @Test
+    public void testPickSplitPoints() {
+        final List<Integer> samples = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            samples.add(i);
+        }
+        Assert.assertEquals(Arrays.asList(25, 50, 75), BackfillRanges.pickSplitPoints(samples, 4));
+        Assert.assertEquals(Collections.emptyList(), BackfillRanges.pickSplitPoints(samples, 1));
+        Assert.assertEquals(Collections.emptyList(), BackfillRanges.pickSplitPoints(new ArrayList<>(), 4));
+
+        // Less samples than ranges, never pick the same sample twice
+        Assert.assertEquals(Arrays.asList(0, 1, 2), BackfillRanges.pickSplitPoints(Arrays.asList(0, 1, 2), 8));
+    }
+
+    @Test
+    public void testProgress() {
+        final BackfillRanges ranges = new BackfillRanges(1000, new ArrayList<>());
+        final BackfillRanges.Range first = ranges.getRanges().get(0);
+        final BackfillRanges.Range second = new BackfillRanges.Range(1, null, null);
+        ranges.getRanges().add(second);
+
+        Assert.assertEquals(0, ranges.computeProgress());
+
+        first.setSuccessRowCount(300);
+        Assert.assertEquals(30, ranges.computeProgress());
+
+        // Estimation is smaller than actual rows
+        second.setSuccessRowCount(900);
+        Assert.assertEquals(99, ranges.computeProgress());
+        Assert.assertFalse(ranges.allFinished());
+
+        first.setFinished(true);
+        second.setFinished(true);
+        Assert.assertTrue(ranges.allFinished());
+        Assert.assertEquals(100, ranges.computeProgress());
+        Assert.assertEquals(1200, ranges.sumSuccessRowCount());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.calc;
+
+import com.alibaba.polardbx.executor.calc.aggfunctions.Count;
+import com.alibaba.polardbx.executor.calc.aggfunctions.CountRow;
+import com.alibaba.polardbx.executor.calc.aggfunctions.Double2DoubleSum;
+import com.alibaba.polardbx.executor.calc.aggfunctions.Int2IntMax;
+import com.alibaba.polardbx.executor.calc.aggfunctions.Int2IntMin;
+import com.alibaba.polardbx.executor.calc.aggfunctions.Long2LongMax;
+import com.alibaba.polardbx.executor.calc.aggfunctions.Long2LongMin;
+import com.alibaba.polardbx.executor.calc.aggfunctions.Long2LongSum0;
+import com.alibaba.polardbx.executor.chunk.Block;
+import com.alibaba.polardbx.executor.chunk.BlockBuilder;
+import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.alibaba.polardbx.executor.chunk.DoubleBlockBuilder;
+import com.alibaba.polardbx.executor.chunk.IntegerBlockBuilder;
+import com.alibaba.polardbx.executor.chunk.LongBlockBuilder;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+public class AggregatorBatchAccumulateTest {
+
+    private static final int POSITION_COUNT = 1000;
+    private static final int GROUP_COUNT = 7;
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testBatchMatchesPerRow() {
+        Chunk chunk = buildChunk();
+        int[] groupIds = new int[POSITION_COUNT];
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            // 既有连续相同分组也有随机分组
+            groupIds[i] = i < POSITION_COUNT / 2 ? i / 100 % GROUP_COUNT : random.nextInt(GROUP_COUNT);
+        }
+        int[] selection = new int[POSITION_COUNT];
+        int selSize = 0;
+        for (int i = 0; i < POSITION_COUNT; i += 3) {
+            selection[selSize++] = i;
+        }
+
+        check(() -> new Long2LongSum0(0, false, DataTypes.LongType, DataTypes.LongType, -1),
+            LongBlockBuilder::new, chunk, groupIds, selection, selSize);
+        check(() -> new Double2DoubleSum(1, false, DataTypes.DoubleType, DataTypes.DoubleType, -1),
+            DoubleBlockBuilder::new, chunk, groupIds, selection, selSize);
+        check(() -> new Int2IntMax(2, DataTypes.IntegerType, DataTypes.IntegerType, -1),
+            IntegerBlockBuilder::new, chunk, groupIds, selection, selSize);
+        check(() -> new Int2IntMin(2, DataTypes.IntegerType, DataTypes.IntegerType, -1),
+            IntegerBlockBuilder::new, chunk, groupIds, selection, selSize);
+        check(() -> new Long2LongMax(0, DataTypes.LongType, DataTypes.LongType, -1),
+            LongBlockBuilder::new, chunk, groupIds, selection, selSize);
+        check(() -> new Long2LongMin(0, DataTypes.LongType, DataTypes.LongType, -1),
+            LongBlockBuilder::new, chunk, groupIds, selection, selSize);
+        check(() -> new Count(new int[] {0, 2}, false, -1), LongBlockBuilder::new, chunk, groupIds, selection, selSize);
+        check(() -> new CountRow(new int[] {}, false, -1), LongBlockBuilder::new,
+            chunk, groupIds, selection, selSize);
+    }
+
+    private Chunk buildChunk() {
+        LongBlockBuilder longs = new LongBlockBuilder(POSITION_COUNT);
+        DoubleBlockBuilder doubles = new DoubleBlockBuilder(POSITION_COUNT);
+        IntegerBlockBuilder ints = new IntegerBlockBuilder(POSITION_COUNT);
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            appendOrNull(longs, random.nextLong());
+            appendOrNull(doubles, random.nextDouble());
+            appendOrNull(ints, random.nextInt());
+        }
+        return new Chunk(longs.build(), doubles.build(), ints.build());
+    }
+
+    private void appendOrNull(BlockBuilder builder, Object value) {
+        if (random.nextInt(10) == 0) {
+            builder.appendNull();
+        } else {
+            builder.writeObject(value);
+        }
+    }
+
+    private static void check(Supplier<Aggregator> supplier, IntFunction<BlockBuilder> builder, Chunk chunk,
+                              int[] groupIds, int[] selection, int selSize) {
+        // 全部位置
+        Aggregator perRow = open(supplier);
+        Aggregator batch = open(supplier);
+        for (int pos = 0; pos < chunk.getPositionCount(); pos++) {
+            perRow.accumulate(groupIds[pos], chunk, pos);
+        }
+        batch.accumulate(groupIds, chunk, null, chunk.getPositionCount());
+        assertSameResult(perRow, batch, builder);
+
+        // 选择向量
+        perRow = open(supplier);
+        batch = open(supplier);
+        for (int i = 0; i < selSize; i++) {
+            perRow.accumulate(groupIds[selection[i]], chunk, selection[i]);
+        }
+        batch.accumulate(groupIds, chunk, selection, selSize);
+        assertSameResult(perRow, batch, builder);
+    }
+
+    private static Aggregator open(Supplier<Aggregator> supplier) {
+        Aggregator aggregator = supplier.get();
+        aggregator.open(GROUP_COUNT);
+        for (int i = 0; i < GROUP_COUNT; i++) {
+            aggregator.appendInitValue();
+        }
+        return aggregator;
+    }
+
+    private static void assertSameResult(Aggregator expected, Aggregator actual, IntFunction<BlockBuilder> builder) {
+        Block expectedBlock = writeResult(expected, builder.apply(GROUP_COUNT));
+        Block actualBlock = writeResult(actual, builder.apply(GROUP_COUNT));
+        for (int groupId = 0; groupId < GROUP_COUNT; groupId++) {
+            Assert.assertEquals(expectedBlock.getObject(groupId), actualBlock.getObject(groupId));
+        }
+    }
+
+    private static Block writeResult(Aggregator aggregator, BlockBuilder builder) {
+        for (int groupId = 0; groupId < GROUP_COUNT; groupId++) {
+            aggregator.writeResultTo(groupId, builder);
+        }
+        return builder.build();
+    }
+}
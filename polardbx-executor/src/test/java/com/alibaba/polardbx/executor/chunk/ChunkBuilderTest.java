@@ -0,0 +1,85 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.chunk;
+
+import com.alibaba.polardbx.executor.mpp.operator.PartitionedOutputCollector.HashBucketFunction;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ChunkBuilderTest extends BaseBlockTest {
+
+    private static final List<DataType> TYPES = ImmutableList.of(DataTypes.LongType, DataTypes.IntegerType);
+
+    private static Chunk sourceChunk() {
+        LongBlockBuilder longBuilder = new LongBlockBuilder(CHUNK_SIZE);
+        IntegerBlockBuilder intBuilder = new IntegerBlockBuilder(CHUNK_SIZE);
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            longBuilder.writeLong(i * 13L);
+            if (i % 9 == 4) {
+                intBuilder.appendNull();
+            } else {
+                intBuilder.writeInt(i);
+            }
+        }
+        return new Chunk(longBuilder.build(), intBuilder.build());
+    }
+
+    @Test
+    public void testPartitionsMatchRowWise() {
+        Chunk chunk = sourceChunk();
+        for (int partitionCount : new int[] {1, 3, 4, 7, 16}) {
+            HashBucketFunction function = new HashBucketFunction(partitionCount);
+            int[] partitions = new int[chunk.getPositionCount()];
+            function.getPartitions(chunk, partitions);
+            for (int position = 0; position < chunk.getPositionCount(); position++) {
+                Assert.assertEquals(function.getPartition(chunk, position), partitions[position]);
+            }
+        }
+    }
+
+    @Test
+    public void testAppendPositions() {
+        Chunk chunk = sourceChunk();
+        int[] positions = new int[chunk.getPositionCount() / 2];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i * 2 + 1;
+        }
+        ChunkBuilder builder = new ChunkBuilder(TYPES, positions.length, new ExecutionContext());
+        builder.appendPositions(chunk, positions, 0, 3);
+        Assert.assertEquals(positions.length - 3, builder.remainingCapacity());
+        builder.appendPositions(chunk, positions, 3, positions.length - 3);
+        Assert.assertTrue(builder.isFull());
+
+        Chunk result = builder.build();
+        Assert.assertEquals(positions.length, result.getPositionCount());
+        for (int i = 0; i < positions.length; i++) {
+            for (int channel = 0; channel < TYPES.size(); channel++) {
+                Block expected = chunk.getBlock(channel);
+                Block actual = result.getBlock(channel);
+                Assert.assertEquals(expected.isNull(positions[i]), actual.isNull(i));
+                Assert.assertTrue(expected.equals(positions[i], actual, i));
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.chunk;
+
+import com.alibaba.polardbx.common.charset.CharsetName;
+import com.alibaba.polardbx.common.charset.CollationName;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.VarcharType;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DictionaryBlockTest extends BaseBlockTest {
+
+    private static final DataType TYPE = new VarcharType(CharsetName.UTF8MB4, CollationName.UTF8MB4_GENERAL_CI);
+
+    private static Block dictionary() {
+        SliceBlockBuilder builder = new SliceBlockBuilder(TYPE, 4, new ExecutionContext(), false);
+        builder.writeObject(Slices.utf8Slice("a"));
+        builder.writeObject(Slices.utf8Slice("bb"));
+        builder.writeObject(null);
+        return builder.build();
+    }
+
+    @Test
+    public void testDictionaryBlock() {
+        Block dictionary = dictionary();
+        int[] ids = new int[CHUNK_SIZE];
+        SliceBlockBuilder flatBuilder = new SliceBlockBuilder(TYPE, CHUNK_SIZE, new ExecutionContext(), false);
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            ids[i] = i % 3;
+            dictionary.writePositionTo(ids[i], flatBuilder);
+        }
+        DictionaryBlock block = new DictionaryBlock(dictionary, ids);
+        Block flat = flatBuilder.build();
+
+        int[] hashes = block.hashCodeVector();
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            Assert.assertEquals(flat.isNull(i), block.isNull(i));
+            Assert.assertEquals(flat.getObject(i), block.getObject(i));
+            Assert.assertEquals(flat.hashCode(i), hashes[i]);
+            Assert.assertTrue(block.equals(i, flat, i));
+            Assert.assertTrue(flat.equals(i, block, i));
+        }
+        Assert.assertFalse(block.equals(0, block, 1));
+        Assert.assertTrue(block.equals(0, block, 3));
+
+        // round trip through the column encoding
+        BlockEncoding encoding = BlockEncodingBuilders.create(ImmutableList.of(TYPE)).get(0);
+        SliceOutput sliceOutput = new DynamicSliceOutput(CHUNK_SIZE);
+        encoding.writeBlock(sliceOutput, block);
+        encoding.writeBlock(sliceOutput, flat);
+        SliceInput input = sliceOutput.slice().getInput();
+        Block decoded = encoding.readBlock(input);
+        Block decodedFlat = encoding.readBlock(input);
+
+        Assert.assertTrue(decoded instanceof DictionaryBlock);
+        Assert.assertTrue(decodedFlat instanceof SliceBlock);
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            Assert.assertTrue(decoded.equals(i, flat, i));
+            Assert.assertTrue(decodedFlat.equals(i, flat, i));
+        }
+    }
+
+    @Test
+    public void testRunLengthEncodedBlock() {
+        SliceBlockBuilder valueBuilder = new SliceBlockBuilder(TYPE, 1, new ExecutionContext(), false);
+        valueBuilder.writeObject(Slices.utf8Slice("const"));
+        RunLengthEncodedBlock block = new RunLengthEncodedBlock(valueBuilder.build(), CHUNK_SIZE);
+
+        Block flat = block.flatten(new ExecutionContext());
+        Assert.assertEquals(CHUNK_SIZE, flat.getPositionCount());
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            Assert.assertEquals(Slices.utf8Slice("const"), block.getObject(i));
+            Assert.assertTrue(flat.equals(i, block, i));
+        }
+
+        BlockEncoding encoding = BlockEncodingBuilders.create(ImmutableList.of(TYPE)).get(0);
+        SliceOutput sliceOutput = new DynamicSliceOutput(64);
+        encoding.writeBlock(sliceOutput, block);
+        Block decoded = encoding.readBlock(sliceOutput.slice().getInput());
+        Assert.assertTrue(decoded instanceof RunLengthEncodedBlock);
+        Assert.assertEquals(CHUNK_SIZE, decoded.getPositionCount());
+        Assert.assertEquals(block.hashCode(0), decoded.hashCode(CHUNK_SIZE - 1));
+    }
+
+    @Test
+    public void testLegacyFormat() {
+        Block dictionary = dictionary();
+        int[] ids = new int[CHUNK_SIZE];
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            ids[i] = i % 3;
+        }
+        DictionaryBlock block = new DictionaryBlock(dictionary, ids);
+        Block flat = block.flatten(new ExecutionContext());
+
+        // without multi-format, blocks are flattened and written without marker
+        BlockEncoding encoding = BlockEncodingBuilders.create(ImmutableList.of(TYPE), false, false).get(0);
+        SliceOutput legacyOutput = new DynamicSliceOutput(CHUNK_SIZE);
+        encoding.writeBlock(legacyOutput, block);
+        SliceOutput flatOutput = new DynamicSliceOutput(CHUNK_SIZE);
+        new SliceBlockEncoding(TYPE).writeBlock(flatOutput, flat);
+        Assert.assertEquals(flatOutput.slice(), legacyOutput.slice());
+
+        Block decoded = encoding.readBlock(legacyOutput.slice().getInput());
+        Assert.assertTrue(decoded instanceof SliceBlock);
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            Assert.assertTrue(decoded.equals(i, flat, i));
+        }
+        Assert.assertNotEquals(encoding.getName(),
+            BlockEncodingBuilders.create(ImmutableList.of(TYPE)).get(0).getName());
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.chunk;
+
+import com.alibaba.polardbx.common.charset.CharsetName;
+import com.alibaba.polardbx.common.charset.CollationName;
+import com.alibaba.polardbx.common.exception.TddlRuntimeException;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.ChunkCompression;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerde;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerdeUtil;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.SerializedChunk;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.datatype.VarcharType;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+
+public class PackedBlockEncodingTest extends BaseBlockTest {
+
+    private static final DataType VARCHAR = new VarcharType(CharsetName.UTF8MB4, CollationName.UTF8MB4_GENERAL_CI);
+
+    private static Block longBlock(long start, long step) {
+        LongBlockBuilder builder = new LongBlockBuilder(CHUNK_SIZE);
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            if (i % 7 == 3) {
+                builder.appendNull();
+            } else {
+                builder.writeLong(start + step * i);
+            }
+        }
+        return builder.build();
+    }
+
+    private static Block sliceBlock(int distinct) {
+        SliceBlockBuilder builder = new SliceBlockBuilder(VARCHAR, CHUNK_SIZE, new ExecutionContext(), false);
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            if (i % 5 == 2) {
+                builder.appendNull();
+            } else {
+                builder.writeObject(Slices.utf8Slice("value_" + (i % distinct)));
+            }
+        }
+        return builder.build();
+    }
+
+    private static Block roundTrip(DataType type, Block block) {
+        BlockEncoding encoding = BlockEncodingBuilders.create(ImmutableList.of(type), true, true).get(0);
+        SliceOutput sliceOutput = new DynamicSliceOutput(CHUNK_SIZE);
+        encoding.writeBlock(sliceOutput, block);
+        SliceInput input = sliceOutput.slice().getInput();
+        Block decoded = encoding.readBlock(input);
+        Assert.assertFalse(input.isReadable());
+        return decoded;
+    }
+
+    private static void assertBlockEquals(Block expected, Block actual) {
+        Assert.assertEquals(expected.getPositionCount(), actual.getPositionCount());
+        for (int i = 0; i < expected.getPositionCount(); i++) {
+            Assert.assertEquals(expected.isNull(i), actual.isNull(i));
+            Assert.assertTrue(expected.equals(i, actual, i));
+        }
+    }
+
+    @Test
+    public void testPackedLong() {
+        // sequential, frame of reference and full width values
+        Block[] blocks = new Block[] {
+            longBlock(1000000L, 1), longBlock(-50L, 13), longBlock(Long.MIN_VALUE, Long.MAX_VALUE / 100)};
+        for (Block block : blocks) {
+            Block decoded = roundTrip(DataTypes.LongType, block);
+            Assert.assertTrue(decoded instanceof LongBlock);
+            assertBlockEquals(block, decoded);
+        }
+
+        LongBlockBuilder allNull = new LongBlockBuilder(4);
+        allNull.appendNull();
+        allNull.appendNull();
+        Block allNullBlock = allNull.build();
+        assertBlockEquals(allNullBlock, roundTrip(DataTypes.LongType, allNullBlock));
+    }
+
+    @Test
+    public void testPackedSlice() {
+        Block lowCardinality = sliceBlock(3);
+        Block decoded = roundTrip(VARCHAR, lowCardinality);
+        Assert.assertTrue(decoded instanceof SliceBlock);
+        assertBlockEquals(lowCardinality, decoded);
+
+        // too many distinct values falls back to flat
+        Block highCardinality = sliceBlock(CHUNK_SIZE);
+        assertBlockEquals(highCardinality, roundTrip(VARCHAR, highCardinality));
+
+        // used alone, the encoding packs whatever the distinct values are
+        PackedSliceBlockEncoding encoding = new PackedSliceBlockEncoding();
+        SliceOutput sliceOutput = new DynamicSliceOutput(CHUNK_SIZE);
+        encoding.writeBlock(sliceOutput, highCardinality);
+        SliceInput input = sliceOutput.slice().getInput();
+        assertBlockEquals(highCardinality, encoding.readBlock(input));
+        Assert.assertFalse(input.isReadable());
+    }
+
+    @Test
+    public void testCompressedChunk() {
+        List<DataType> types = ImmutableList.of(DataTypes.LongType, VARCHAR);
+        Chunk chunk = new Chunk(longBlock(0L, 1), sliceBlock(4));
+        for (ChunkCompression compression : ChunkCompression.values()) {
+            PagesSerde serde = new PagesSerde(compression, true, compression.isCompressed(), types, null);
+            SerializedChunk serialized = serde.serialize(false, chunk);
+            Chunk decoded = serde.deserialize(serialized);
+            Assert.assertEquals(chunk.getBlockCount(), decoded.getBlockCount());
+            for (int i = 0; i < chunk.getBlockCount(); i++) {
+                assertBlockEquals(chunk.getBlock(i), decoded.getBlock(i));
+            }
+        }
+    }
+
+    @Test
+    public void testMultiFormatFlag() {
+        List<DataType> types = ImmutableList.of(DataTypes.LongType, VARCHAR);
+        Chunk chunk = new Chunk(longBlock(0L, 1), sliceBlock(4));
+        PagesSerde writer = new PagesSerde(ChunkCompression.LZ4, true, true, types, null);
+        SliceOutput output = new DynamicSliceOutput(CHUNK_SIZE);
+        PagesSerdeUtil.writeChunk(writer, output, chunk);
+
+        // nodes not knowing multi-format blocks reject the chunk by its codec marker
+        byte marker = output.slice().getByte(Integer.BYTES);
+        try {
+            ChunkCompression.lookupCodecFromMarker(marker);
+            Assert.fail();
+        } catch (TddlRuntimeException e) {
+            // expected
+        }
+
+        // a serde writing the old format still reads it by the flag
+        PagesSerde reader = new PagesSerde(ChunkCompression.LZ4, types);
+        Iterator<Chunk> chunks = PagesSerdeUtil.readPages(reader, output.slice().getInput());
+        Chunk decoded = chunks.next();
+        Assert.assertFalse(chunks.hasNext());
+        for (int i = 0; i < chunk.getBlockCount(); i++) {
+            assertBlockEquals(chunk.getBlock(i), decoded.getBlock(i));
+        }
+    }
+}
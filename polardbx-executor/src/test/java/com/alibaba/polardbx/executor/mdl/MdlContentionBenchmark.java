@@ -0,0 +1,121 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.mdl;
+
+import com.alibaba.polardbx.common.properties.ConnectionProperties;
+import com.alibaba.polardbx.common.properties.DynamicConfig;
+import com.alibaba.polardbx.executor.mdl.manager.MdlManagerStamped;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared MDL acquire/release throughput on a single hot table, with and without
+ * the striped fast path. Optionally runs a DDL thread taking exclusive MDL periodically.
+ */
+public class MdlContentionBenchmark {
+
+    private static final String SCHEMA = "MDL_BENCH_APP";
+    private static final String TABLE = "mdl_bench_table";
+
+    public static int threads = Runtime.getRuntime().availableProcessors();
+    public static int durationMillis = 5000;
+    public static int ddlIntervalMillis = 0;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) {
+            threads = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            ddlIntervalMillis = Integer.parseInt(args[1]);
+        }
+
+        for (boolean fastPath : new boolean[] {false, true, false, true}) {
+            DynamicConfig.getInstance()
+                .loadValue(null, ConnectionProperties.ENABLE_MDL_FAST_PATH, String.valueOf(fastPath));
+            final long ops = run();
+            System.out.println(String.format("fast path: %s, threads: %d, ddl interval: %dms, %.0f ops/s",
+                fastPath, threads, ddlIntervalMillis, ops * 1000.0 / durationMillis));
+        }
+    }
+
+    private static long run() throws Exception {
+        final MdlManager mdlManager = MdlManagerStamped.getInstance(SCHEMA);
+        final MdlKey key = MdlKey.getTableKeyWithLowerTableName(SCHEMA, TABLE);
+        final AtomicBoolean stop = new AtomicBoolean(false);
+        final AtomicLong ops = new AtomicLong();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            final long connId = 1000L + i;
+            workers.add(new Thread(() -> {
+                final MdlContext context = MdlManager.addContext(connId);
+                long trxId = connId << 32;
+                long count = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (!stop.get()) {
+                    trxId++;
+                    final MdlTicket ticket = context.acquireLock(
+                        new MdlRequest(trxId, key, MdlType.MDL_SHARED_WRITE, MdlDuration.MDL_TRANSACTION));
+                    context.releaseLock(trxId, ticket);
+                    count++;
+                }
+                ops.addAndGet(count);
+                MdlManager.removeContext(context);
+            }));
+        }
+
+        if (ddlIntervalMillis > 0) {
+            workers.add(new Thread(() -> {
+                final MdlContext context = MdlManager.addContext(SCHEMA, false);
+                long trxId = Long.MAX_VALUE / 2;
+                while (!stop.get()) {
+                    trxId++;
+                    final MdlTicket ticket = context.acquireLock(
+                        new MdlRequest(trxId, key, MdlType.MDL_EXCLUSIVE, MdlDuration.MDL_TRANSACTION));
+                    context.releaseLock(trxId, ticket);
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(ddlIntervalMillis);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+                MdlManager.removeContext(context);
+            }));
+        }
+
+        workers.forEach(Thread::start);
+        start.countDown();
+        TimeUnit.MILLISECONDS.sleep(durationMillis);
+        stop.set(true);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        MdlManager.removeInstance(SCHEMA);
+        return ops.get();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.mdl;
+
+import com.alibaba.polardbx.executor.mdl.lock.MdlLockStamped;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class MdlLockStampedTest {
+
+    private final MdlKey key = MdlKey.getTableKeyWithLowerTableName("mdl_test_app", "mdl_table_name");
+
+    @Test
+    public void testFastPathRead() {
+        final MdlLockStamped lock = new MdlLockStamped(key);
+
+        final long stamp = lock.readLock();
+        Assert.assertTrue(stamp < 0);
+        Assert.assertTrue(lock.isLocked());
+        Assert.assertEquals(1, lock.fastReaderCount());
+
+        lock.unlockRead(stamp);
+        Assert.assertFalse(lock.isLocked());
+    }
+
+    @Test
+    public void testExclusiveWaitsForFastReaders() throws Exception {
+        final MdlLockStamped lock = new MdlLockStamped(key);
+
+        final long readStamp = lock.readLock();
+        final CompletableFuture<Long> writer = CompletableFuture.supplyAsync(lock::writeLock);
+        try {
+            writer.get(100, TimeUnit.MILLISECONDS);
+            Assert.fail("exclusive lock granted while shared lock is held");
+        } catch (TimeoutException e) {
+            // expected
+        }
+
+        lock.unlockRead(readStamp);
+        final long writeStamp = writer.get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(writeStamp > 0);
+
+        // Fast path is revoked while exclusive lock is held
+        final CompletableFuture<Long> reader = CompletableFuture.supplyAsync(lock::readLock);
+        try {
+            reader.get(100, TimeUnit.MILLISECONDS);
+            Assert.fail("shared lock granted while exclusive lock is held");
+        } catch (TimeoutException e) {
+            // expected
+        }
+
+        lock.unlockWrite(writeStamp);
+        final long slowStamp = reader.get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(slowStamp > 0);
+        lock.unlockRead(slowStamp);
+
+        // Fast path is restored after exclusive lock released
+        final long fastStamp = lock.readLock();
+        Assert.assertTrue(fastStamp < 0);
+        lock.unlockRead(fastStamp);
+        Assert.assertFalse(lock.isLocked());
+    }
+
+    @Test
+    public void testRetire() {
+        final MdlLockStamped lock = new MdlLockStamped(key);
+
+        final long stamp = lock.readLock();
+        Assert.assertFalse(lock.tryRetire());
+        lock.unlockRead(stamp);
+
+        Assert.assertTrue(lock.tryRetire());
+        Assert.assertEquals(0, lock.readLock());
+        Assert.assertEquals(0, lock.writeLock());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.mpp.execution;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class MultilevelSplitQueueTest {
+
+    @Test
+    public void testLevelOf() {
+        Assert.assertEquals(0, MultilevelSplitQueue.levelOf(0));
+        Assert.assertEquals(0, MultilevelSplitQueue.levelOf(TimeUnit.MILLISECONDS.toNanos(999)));
+        Assert.assertEquals(1, MultilevelSplitQueue.levelOf(TimeUnit.SECONDS.toNanos(1)));
+        Assert.assertEquals(2, MultilevelSplitQueue.levelOf(TimeUnit.SECONDS.toNanos(30)));
+        Assert.assertEquals(4, MultilevelSplitQueue.levelOf(TimeUnit.HOURS.toNanos(1)));
+    }
+
+    @Test
+    public void testQueriesServedRoundRobinInBatches() throws InterruptedException {
+        MultilevelSplitQueue<String> queue = new MultilevelSplitQueue<>();
+        for (int i = 0; i < 6; i++) {
+            queue.offer("a" + i, "a", 0);
+        }
+        for (int i = 0; i < 2; i++) {
+            queue.offer("b" + i, "b", 0);
+        }
+
+        String[] expected = {"a0", "a1", "a2", "a3", "b0", "b1", "a4", "a5"};
+        for (String split : expected) {
+            Assert.assertEquals(split, queue.take());
+        }
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testLevelShare() throws InterruptedException {
+        MultilevelSplitQueue<String> queue = new MultilevelSplitQueue<>();
+        final long heavyTaskNanos = TimeUnit.MINUTES.toNanos(10);
+        queue.offer("heavy", "q1", heavyTaskNanos);
+        queue.offer("light", "q2", 0);
+
+        // 高层级尚未被调度, 优先获得执行
+        Assert.assertEquals("light", queue.take());
+        queue.recordScheduledTime(0, TimeUnit.SECONDS.toNanos(1));
+        queue.offer("light", "q2", 0);
+
+        // 顶层累计时间超过其份额后, 低层级也能得到调度
+        Assert.assertEquals("heavy", queue.take());
+        Assert.assertArrayEquals(new int[] {1, 0, 0, 0, 0}, queue.getLevelPendingSplits());
+    }
+}
@@ -16,7 +16,14 @@
 
 package com.alibaba.polardbx.executor.operator;
 
+import com.alibaba.polardbx.executor.calc.aggfunctions.Count;
+import com.alibaba.polardbx.executor.calc.aggfunctions.Double2DoubleSum;
+import com.alibaba.polardbx.executor.calc.aggfunctions.Int2IntMax;
 import com.alibaba.polardbx.executor.calc.aggfunctions.Long2DecimalSum;
+import com.alibaba.polardbx.executor.calc.aggfunctions.Long2LongSum0;
+import com.alibaba.polardbx.executor.chunk.DoubleBlock;
+import com.alibaba.polardbx.executor.chunk.IntegerBlock;
+import com.alibaba.polardbx.executor.chunk.LongBlock;
 import com.alibaba.polardbx.executor.calc.aggfunctions.Sum;
 import com.alibaba.polardbx.executor.calc.aggfunctions.Sum0;
 import com.google.common.collect.ImmutableList;
@@ -34,6 +41,8 @@ import com.alibaba.polardbx.optimizer.memory.MemoryType;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
 
 public class AggregateBenchmark {
 
@@ -118,6 +127,73 @@ public class AggregateBenchmark {
         runAggrWithMultiKey(4);
         benchSum();
         benchSum();
+        benchBatchAccumulate(false);
+        benchBatchAccumulate(true);
+    }
+
+    /**
+     * 逐行 accumulate 与整列 accumulate 的对比
+     */
+    private void benchBatchAccumulate(boolean clustered) {
+        final int chunkSize = 1024;
+        final int groupCount = 4096;
+        final int chunkCount = totalNumber / chunkSize;
+        final Random random = new Random(0);
+
+        final Chunk[] chunks = new Chunk[chunkCount];
+        final int[][] groupIds = new int[chunkCount][chunkSize];
+        for (int c = 0; c < chunkCount; c++) {
+            long[] longs = new long[chunkSize];
+            double[] doubles = new double[chunkSize];
+            int[] ints = new int[chunkSize];
+            for (int i = 0; i < chunkSize; i++) {
+                longs[i] = random.nextInt();
+                doubles[i] = random.nextDouble();
+                ints[i] = random.nextInt();
+                // clustered: 相邻行落在同一分组，模拟有序输入或无 group by
+                groupIds[c][i] = clustered ? (c * chunkSize + i) / 256 % groupCount : random.nextInt(groupCount);
+            }
+            chunks[c] = new Chunk(new LongBlock(0, chunkSize, null, longs),
+                new DoubleBlock(0, chunkSize, null, doubles),
+                IntegerBlock.wrap(ints));
+        }
+
+        String suffix = clustered ? " clustered" : " random";
+        benchAccumulate("sum0(long)" + suffix, chunks, groupIds, groupCount,
+            () -> new Long2LongSum0(0, false, DataTypes.LongType, DataTypes.LongType, -1));
+        benchAccumulate("sum(double)" + suffix, chunks, groupIds, groupCount,
+            () -> new Double2DoubleSum(1, false, DataTypes.DoubleType, DataTypes.DoubleType, -1));
+        benchAccumulate("max(int)" + suffix, chunks, groupIds, groupCount,
+            () -> new Int2IntMax(2, DataTypes.IntegerType, DataTypes.IntegerType, -1));
+        benchAccumulate("count(long)" + suffix, chunks, groupIds, groupCount,
+            () -> new Count(new int[] {0}, false, -1));
+    }
+
+    private void benchAccumulate(String name, Chunk[] chunks, int[][] groupIds, int groupCount,
+                                 Supplier<Aggregator> supplier) {
+        runBenchmark(name + " per row", 5, () -> {
+            Aggregator aggregator = openAggregator(supplier, groupCount);
+            for (int c = 0; c < chunks.length; c++) {
+                for (int pos = 0; pos < chunks[c].getPositionCount(); pos++) {
+                    aggregator.accumulate(groupIds[c][pos], chunks[c], pos);
+                }
+            }
+        });
+        runBenchmark(name + " batch", 5, () -> {
+            Aggregator aggregator = openAggregator(supplier, groupCount);
+            for (int c = 0; c < chunks.length; c++) {
+                aggregator.accumulate(groupIds[c], chunks[c], null, chunks[c].getPositionCount());
+            }
+        });
+    }
+
+    private static Aggregator openAggregator(Supplier<Aggregator> supplier, int groupCount) {
+        Aggregator aggregator = supplier.get();
+        aggregator.open(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            aggregator.appendInitValue();
+        }
+        return aggregator;
     }
 
     private void benchSum() {
@@ -225,11 +225,20 @@ public interface Benchmark {
 
         private List<int[]> values = new ArrayList<>();
         private int maxValue;
+        private int step = 1;
 
         public MockMultiKeysExec(int start, int end, int columnNum) {
             this(start, end, columnNum, 65535);
         }
 
+        /**
+         * @param step multiplier of generated values, larger step makes sparser keys
+         */
+        public MockMultiKeysExec(int start, int end, int columnNum, int maxValue, int step) {
+            this(start, end, columnNum, maxValue);
+            this.step = step;
+        }
+
         public MockMultiKeysExec(int start, int end, int columnNum, int maxValue) {
             this.start = start;
             this.end = end;
@@ -261,7 +270,7 @@ public interface Benchmark {
             }
 
             for (int i = 0; i < chunkSize; i++) {
-                int value = start & maxValue;
+                int value = (start & maxValue) * step;
                 for (int j = 0; j < values.size(); j++) {
                     values.get(j)[i] = value;
                 }
@@ -49,6 +49,7 @@ import java.util.Map;
 import java.util.UUID;
 
 import static com.alibaba.polardbx.executor.operator.util.RowChunksBuilder.rowChunksBuilder;
+import static com.google.common.truth.Truth.assertWithMessage;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
 
 @RunWith(value = Parameterized.class)
@@ -577,6 +578,43 @@ public class HybridHashJoinTest extends BaseExecTest {
         }
     }
 
+    @Test
+    public void testSpillAndRebuildSameAsInMemory() {
+        RowChunksBuilder innerInputBuilder = rowChunksBuilder(DataTypes.StringType, DataTypes.LongType)
+            .addSequenceChunk(200, 0, 0)
+            .addSequenceChunk(200, 0, 1000)
+            .addSequenceChunk(100, 150, 2000)
+            .row("20", 3000L)
+            .row("20", 3001L);
+
+        RowChunksBuilder outerInputBuilder = rowChunksBuilder(DataTypes.StringType, DataTypes.LongType)
+            .row("20", 123_000L)
+            .row("20", 123_001L)
+            .chunkBreak()
+            .addSequenceChunk(300, 100, 5000)
+            .addSequenceChunk(50, 0, 6000);
+
+        List<EquiJoinKey> joinKeys = ImmutableList.of(new EquiJoinKey(0, 0, DataTypes.StringType, false, false));
+
+        // expected results of a join which never spills
+        ParallelHashJoinExec parallelHashJoinExec = new ParallelHashJoinExec(
+            new ParallelHashJoinExec.Synchronizer(1, false),
+            outerInputBuilder.buildExec(), innerInputBuilder.buildExec(), JoinRelType.INNER, false,
+            joinKeys, null, null, false, context, 0);
+        List<Chunk> expects = execForJoinMppMode(parallelHashJoinExec, innerInputBuilder.buildExec());
+
+        // spilled buckets are read back and rebuilt in memory with the spill files of the first level, and
+        // revoking during probe must skip them instead of spilling them again
+        MockExec innerInput = innerInputBuilder.buildBucketExec(bucketNum, partitionChannels);
+        MockExec outerInput = outerInputBuilder.buildBucketExec(bucketNum, partitionChannels);
+        HybridHashJoinExec joinExec = new HybridHashJoinExec(outerInput, innerInput, JoinRelType.INNER, false,
+            joinKeys, null, null, context, partititionNum, 0, bucketNum, spillerFactory);
+        List<Chunk> actuals = execForHybridJoinMppMode(joinExec, innerInput, 2, true, 1);
+
+        assertWithMessage("join should spill").that(joinExec.getStatistics().getSpillCnt()).isGreaterThan(0);
+        assertExecResultByRow(actuals, expects, false);
+    }
+
     private List<Chunk> execForHybridJoinMppMode(
         HybridHashJoinExec join, Executor producer, int revokeNumInBuild, boolean revokeAfterBuild,
         int revokeNumInProbe) {
@@ -16,6 +16,8 @@
 
 package com.alibaba.polardbx.executor.operator;
 
+import com.alibaba.polardbx.common.properties.ConnectionParams;
+import com.alibaba.polardbx.common.properties.ParamManager;
 import com.alibaba.polardbx.executor.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
@@ -27,7 +29,9 @@ import com.alibaba.polardbx.optimizer.memory.MemoryType;
 import org.apache.calcite.rel.core.JoinRelType;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class JoinBenchmark {
 
@@ -111,7 +115,45 @@ public class JoinBenchmark {
         });
     }
 
+    /**
+     * Single INT key join, compare the generic hash table with the primitive key table.
+     * step = 1 builds dense keys which are direct-addressed, while a large step builds sparse keys.
+     */
+    private void runJoinWithSingleKey(boolean enablePrimitiveKey, int step) {
+        Map<String, String> props = new HashMap<>();
+        props.put(ConnectionParams.ENABLE_PRIMITIVE_KEY_HASH_JOIN.getName(), String.valueOf(enablePrimitiveKey));
+        final ParamManager oldParamManager = context.getParamManager();
+        context.setParamManager(new ParamManager(props));
+        try {
+            runSingleKeyJoin(enablePrimitiveKey, step);
+        } finally {
+            // the context is shared by the other benchmarks
+            context.setParamManager(oldParamManager);
+        }
+    }
+
+    private void runSingleKeyJoin(boolean enablePrimitiveKey, int step) {
+        runBenchmark("single key, primitive " + enablePrimitiveKey + ", step " + step, iter, () -> {
+            // maxValue = -1 keeps the generated values as is
+            Executor innerInput = new Benchmark.MockMultiKeysExec(1, buildNumber, 1, -1, step);
+            Executor outerInput = new Benchmark.MockMultiKeysExec(1, totalNumber, 1, -1, step);
+
+            List<EquiJoinKey> joinKeys = new ArrayList<>();
+            joinKeys.add(new EquiJoinKey(0, 0, DataTypes.IntegerType, false, false));
+            ParallelHashJoinExec.Synchronizer synchronizer =
+                new ParallelHashJoinExec.Synchronizer(1, false);
+            ParallelHashJoinExec hashJoinExec =
+                new ParallelHashJoinExec(synchronizer, outerInput, innerInput, JoinRelType.INNER, false, joinKeys,
+                    null, null, false, context, 0);
+            execForMppBenchmark(hashJoinExec, -1, false);
+        });
+    }
+
     public void runBenchmarkSuite() {
+        runJoinWithSingleKey(false, 1);
+        runJoinWithSingleKey(true, 1);
+        runJoinWithSingleKey(false, 7919);
+        runJoinWithSingleKey(true, 7919);
         runJoinWithMultiKey(1);
 //        runJoinWithMultiKey(2);
 //        runJoinWithMultiKey(4);
@@ -0,0 +1,169 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.frame;
+
+import com.alibaba.polardbx.common.datatype.Decimal;
+import com.alibaba.polardbx.executor.calc.Aggregator;
+import com.alibaba.polardbx.executor.calc.aggfunctions.Count;
+import com.alibaba.polardbx.executor.calc.aggfunctions.Long2DecimalSum;
+import com.alibaba.polardbx.executor.calc.aggfunctions.Long2LongMax;
+import com.alibaba.polardbx.executor.calc.aggfunctions.Long2LongMin;
+import com.alibaba.polardbx.executor.chunk.BlockBuilder;
+import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.alibaba.polardbx.executor.chunk.DecimalBlockBuilder;
+import com.alibaba.polardbx.executor.chunk.LongBlockBuilder;
+import com.alibaba.polardbx.executor.operator.util.ChunksIndex;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class SlidingOverFrameTest {
+
+    private static final int ROW_COUNT = 500;
+
+    private static List<Aggregator> aggregators() {
+        List<Aggregator> aggregators = ImmutableList.of(
+            new Long2DecimalSum(0, false, DataTypes.LongType, DataTypes.DecimalType, -1),
+            new Count(new int[] {0}, false, -1),
+            new Long2LongMax(0, DataTypes.LongType, DataTypes.LongType, -1),
+            new Long2LongMin(0, DataTypes.LongType, DataTypes.LongType, -1));
+        for (Aggregator aggregator : aggregators) {
+            aggregator.open(1);
+            aggregator.appendInitValue();
+        }
+        return aggregators;
+    }
+
+    private static SlidingExtremum[] extremums() {
+        return new SlidingExtremum[] {
+            null, null, new SlidingExtremum(0, DataTypes.LongType, true),
+            new SlidingExtremum(0, DataTypes.LongType, false)};
+    }
+
+    private static ChunksIndex chunksIndex(Long[] values) {
+        ChunksIndex chunksIndex = new ChunksIndex();
+        for (int start = 0; start < values.length; start += 128) {
+            LongBlockBuilder builder = new LongBlockBuilder(128);
+            for (int i = start; i < Math.min(start + 128, values.length); i++) {
+                if (values[i] == null) {
+                    builder.appendNull();
+                } else {
+                    builder.writeLong(values[i]);
+                }
+            }
+            chunksIndex.addChunk(new Chunk(builder.build()));
+        }
+        return chunksIndex;
+    }
+
+    /**
+     * Check the frame results against recomputing the rows [from, to]
+     */
+    private static void assertFrame(List<Aggregator> aggregators, Long[] values, int from, int to) {
+        Decimal sum = null;
+        long count = 0;
+        Long max = null;
+        Long min = null;
+        for (int i = from; i <= to; i++) {
+            Long value = values[i];
+            if (value == null) {
+                continue;
+            }
+            sum = sum == null ? Decimal.fromLong(value) : sum.add(Decimal.fromLong(value));
+            count++;
+            max = max == null ? value : Math.max(max, value);
+            min = min == null ? value : Math.min(min, value);
+        }
+
+        BlockBuilder sumBuilder = new DecimalBlockBuilder(1);
+        aggregators.get(0).writeResultTo(0, sumBuilder);
+        if (sum == null) {
+            Assert.assertTrue(sumBuilder.isNull(0));
+        } else {
+            Assert.assertEquals(0, sum.compareTo(sumBuilder.getDecimal(0)));
+        }
+        Object[] expects = new Object[] {count, max, min};
+        for (int i = 1; i < aggregators.size(); i++) {
+            BlockBuilder builder = new LongBlockBuilder(1);
+            aggregators.get(i).writeResultTo(0, builder);
+            Assert.assertEquals("frame [" + from + ", " + to + "]", expects[i - 1], builder.getObject(0));
+        }
+    }
+
+    @Test
+    public void testRowSliding() {
+        Random random = new Random(7);
+        Long[] values = new Long[ROW_COUNT];
+        for (int i = 0; i < ROW_COUNT; i++) {
+            // long runs of nulls make frames without any non-null input
+            values[i] = (i / 20) % 3 == 1 || random.nextInt(5) == 0 ? null : (long) random.nextInt(1000) - 500;
+        }
+        values[10] = Long.MAX_VALUE;
+        values[11] = Long.MAX_VALUE;
+        values[12] = Long.MIN_VALUE;
+
+        List<Aggregator> aggregators = aggregators();
+        RowSlidingOverFrame frame = new RowSlidingOverFrame(aggregators, 7, 2, extremums());
+        frame.resetChunks(chunksIndex(values));
+        // two partitions
+        int[][] partitions = new int[][] {{0, 300}, {300, ROW_COUNT}};
+        for (int[] partition : partitions) {
+            frame.updateIndex(partition[0], partition[1]);
+            for (int i = partition[0]; i < partition[1]; i++) {
+                frame.processData(i);
+                assertFrame(aggregators, values, Math.max(partition[0], i - 7), Math.min(partition[1] - 1, i + 2));
+            }
+        }
+    }
+
+    @Test
+    public void testRangeSliding() {
+        Random random = new Random(11);
+        Long[] values = new Long[ROW_COUNT];
+        for (int i = 0; i < ROW_COUNT; i++) {
+            values[i] = i < 30 ? null : (long) random.nextInt(2000);
+        }
+        Arrays.sort(values, 30, ROW_COUNT);
+
+        List<Aggregator> aggregators = aggregators();
+        RangeSlidingOverFrame frame =
+            new RangeSlidingOverFrame(aggregators, 20, 5, 0, true, DataTypes.LongType, extremums());
+        frame.resetChunks(chunksIndex(values));
+        frame.updateIndex(0, ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            frame.processData(i);
+            if (values[i] == null) {
+                assertFrame(aggregators, values, 0, 29);
+                continue;
+            }
+            int from = 30;
+            while (values[from] < values[i] - 20) {
+                from++;
+            }
+            int to = ROW_COUNT - 1;
+            while (values[to] > values[i] + 5) {
+                to--;
+            }
+            assertFrame(aggregators, values, from, to);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.common.properties.ConnectionParams;
+import com.alibaba.polardbx.common.properties.ParamManager;
+import com.alibaba.polardbx.executor.chunk.Block;
+import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.alibaba.polardbx.executor.chunk.IntegerBlockBuilder;
+import com.alibaba.polardbx.executor.chunk.LongBlockBuilder;
+import com.alibaba.polardbx.executor.chunk.SliceBlockBuilder;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class GroupOpenHashMapTest {
+
+    private static final int CHUNK_COUNT = 20;
+    private static final int CHUNK_SIZE = 100;
+
+    private final Random random = new Random(7);
+
+    @Test
+    public void testLongKey() {
+        List<Chunk> chunks = new ArrayList<>();
+        for (int c = 0; c < CHUNK_COUNT; c++) {
+            LongBlockBuilder builder = new LongBlockBuilder(CHUNK_SIZE);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                if (random.nextInt(20) == 0) {
+                    builder.appendNull();
+                } else {
+                    builder.writeLong(random.nextInt(500) - 250L + (random.nextBoolean() ? Long.MIN_VALUE : 0));
+                }
+            }
+            chunks.add(new Chunk(builder.build()));
+        }
+        check(new DataType[] {DataTypes.LongType}, chunks);
+    }
+
+    @Test
+    public void testIntPairKey() {
+        List<Chunk> chunks = new ArrayList<>();
+        for (int c = 0; c < CHUNK_COUNT; c++) {
+            IntegerBlockBuilder builder0 = new IntegerBlockBuilder(CHUNK_SIZE);
+            IntegerBlockBuilder builder1 = new IntegerBlockBuilder(CHUNK_SIZE);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                builder0.writeInt(random.nextInt(30) - 15);
+                if (random.nextInt(20) == 0) {
+                    builder1.appendNull();
+                } else {
+                    builder1.writeInt(random.nextInt(30) - 15);
+                }
+            }
+            chunks.add(new Chunk(builder0.build(), builder1.build()));
+        }
+        check(new DataType[] {DataTypes.IntegerType, DataTypes.IntegerType}, chunks);
+    }
+
+    @Test
+    public void testShortSliceKey() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConnectionParams.ENABLE_OSS_COMPATIBLE.getName(), "false");
+        ExecutionContext context = new ExecutionContext();
+        context.setParamManager(new ParamManager(props));
+
+        List<Chunk> chunks = new ArrayList<>();
+        for (int c = 0; c < CHUNK_COUNT; c++) {
+            SliceBlockBuilder builder = new SliceBlockBuilder(DataTypes.VarcharType, CHUNK_SIZE, context, false);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                if (random.nextInt(20) == 0) {
+                    builder.appendNull();
+                } else {
+                    // 长度 0 到 11, 覆盖可打包与不可打包的键
+                    char[] chars = new char[random.nextInt(12)];
+                    Arrays.fill(chars, (char) ('a' + random.nextInt(3)));
+                    builder.writeString(new String(chars));
+                }
+            }
+            chunks.add(new Chunk(builder.build()));
+        }
+        check(new DataType[] {DataTypes.VarcharType}, chunks, context);
+    }
+
+    private void check(DataType[] types, List<Chunk> chunks) {
+        check(types, chunks, new ExecutionContext());
+    }
+
+    private void check(DataType[] types, List<Chunk> chunks, ExecutionContext context) {
+        GroupOpenHashMap map = new GroupOpenHashMap(types, 4, 16, context);
+
+        Map<List<Object>, Integer> expected = new HashMap<>();
+        for (Chunk chunk : chunks) {
+            for (int pos = 0; pos < chunk.getPositionCount(); pos++) {
+                List<Object> key = new ArrayList<>();
+                for (int i = 0; i < chunk.getBlockCount(); i++) {
+                    Block block = chunk.getBlock(i);
+                    key.add(block.getObject(pos));
+                }
+                int expectedGroupId = expected.computeIfAbsent(key, k -> expected.size());
+                Assert.assertEquals(expectedGroupId, map.innerPut(chunk, pos, -1));
+            }
+        }
+        Assert.assertEquals(expected.size(), map.getGroupCount());
+    }
+}
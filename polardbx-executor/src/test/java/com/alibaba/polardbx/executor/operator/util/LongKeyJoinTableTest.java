@@ -0,0 +1,145 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.alibaba.polardbx.executor.chunk.LongBlockBuilder;
+import com.alibaba.polardbx.executor.chunk.RunLengthEncodedBlock;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongKeyJoinTableTest {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int CHUNK_COUNT = 4;
+
+    private static Chunk keyChunk(int start, long step) {
+        LongBlockBuilder builder = new LongBlockBuilder(CHUNK_SIZE);
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            if (i % 13 == 7) {
+                builder.appendNull();
+            } else {
+                // every key appears twice over the whole build side
+                builder.writeLong(((start + i) % (CHUNK_SIZE * CHUNK_COUNT / 2)) * step);
+            }
+        }
+        return new Chunk(builder.build());
+    }
+
+    private static void checkJoin(long step, boolean expectDense) {
+        ChunksIndex keyChunks = new ChunksIndex();
+        for (int c = 0; c < CHUNK_COUNT; c++) {
+            keyChunks.addChunk(keyChunk(c * CHUNK_SIZE, step));
+        }
+        LongKeyJoinTable table = LongKeyJoinTable.create(keyChunks);
+        assertEquals(expectDense, table.isDense());
+
+        int[] positionLinks = new int[keyChunks.getPositionCount()];
+        Arrays.fill(positionLinks, LongKeyJoinTable.NOT_EXISTS);
+        for (int c = 0; c < CHUNK_COUNT; c++) {
+            table.putChunk(keyChunks.getChunk(c), keyChunks.getChunkOffset(c), positionLinks);
+        }
+
+        Chunk probe = keyChunk(0, step);
+        long[] probeKeys = new long[CHUNK_SIZE];
+        int[] heads = new int[CHUNK_SIZE];
+        table.probeChunk(probe, probeKeys, heads);
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            int matches = 0;
+            for (int pos = table.findMatch(heads[i], probeKeys[i], positionLinks);
+                 pos != LongKeyJoinTable.NOT_EXISTS;
+                 pos = table.findMatch(positionLinks[pos], probeKeys[i], positionLinks)) {
+                assertTrue(keyChunks.equals(pos, probe, i));
+                matches++;
+            }
+            if (probe.getBlock(0).isNull(i)) {
+                assertEquals(0, matches);
+            } else {
+                assertTrue(matches > 0);
+            }
+        }
+    }
+
+    @Test
+    public void testDenseKeys() {
+        checkJoin(1, true);
+    }
+
+    @Test
+    public void testSparseKeys() {
+        checkJoin(1_000_003L, false);
+    }
+
+    @Test
+    public void testMissingKey() {
+        ChunksIndex keyChunks = new ChunksIndex();
+        keyChunks.addChunk(keyChunk(0, 1));
+        LongKeyJoinTable table = LongKeyJoinTable.create(keyChunks);
+        int[] positionLinks = new int[CHUNK_SIZE];
+        Arrays.fill(positionLinks, LongKeyJoinTable.NOT_EXISTS);
+        table.putChunk(keyChunks.getChunk(0), 0, positionLinks);
+
+        LongBlockBuilder builder = new LongBlockBuilder(2);
+        builder.writeLong(-5);
+        builder.writeLong(Long.MAX_VALUE);
+        long[] probeKeys = new long[2];
+        int[] heads = new int[2];
+        table.probeChunk(new Chunk(builder.build()), probeKeys, heads);
+        assertEquals(LongKeyJoinTable.NOT_EXISTS, heads[0]);
+        assertEquals(LongKeyJoinTable.NOT_EXISTS, heads[1]);
+    }
+
+    @Test
+    public void testSupportedTypes() {
+        assertTrue(LongKeyJoinTable.isSupportedType(DataTypes.LongType));
+        assertTrue(LongKeyJoinTable.isSupportedType(DataTypes.IntegerType));
+        assertFalse(LongKeyJoinTable.isSupportedType(DataTypes.ULongType));
+        assertFalse(LongKeyJoinTable.isSupportedType(DataTypes.DecimalType));
+        assertFalse(LongKeyJoinTable.isSupportedType(DataTypes.StringType));
+        assertFalse(LongKeyJoinTable.isSupportedType(null));
+    }
+
+    @Test
+    public void testRunLengthProbeKeys() {
+        ChunksIndex keyChunks = new ChunksIndex();
+        keyChunks.addChunk(keyChunk(0, 1));
+        LongKeyJoinTable table = LongKeyJoinTable.create(keyChunks);
+        int[] positionLinks = new int[CHUNK_SIZE];
+        Arrays.fill(positionLinks, LongKeyJoinTable.NOT_EXISTS);
+        table.putChunk(keyChunks.getChunk(0), 0, positionLinks);
+
+        LongBlockBuilder builder = new LongBlockBuilder(1);
+        builder.writeLong(3);
+        Chunk probe = new Chunk(new RunLengthEncodedBlock(builder.build(), 4));
+        long[] probeKeys = new long[4];
+        int[] heads = new int[4];
+        table.probeChunk(probe, probeKeys, heads);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(3L, probeKeys[i]);
+            int pos = table.findMatch(heads[i], probeKeys[i], positionLinks);
+            assertTrue(pos != LongKeyJoinTable.NOT_EXISTS);
+            assertEquals(3L, keyChunks.getChunk(0).getBlock(0).getLong(pos));
+        }
+    }
+}
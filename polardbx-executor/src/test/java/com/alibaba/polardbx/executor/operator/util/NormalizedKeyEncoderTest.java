@@ -0,0 +1,257 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.common.datatype.Decimal;
+import com.alibaba.polardbx.common.properties.ConnectionParams;
+import com.alibaba.polardbx.common.properties.ParamManager;
+import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.alibaba.polardbx.executor.chunk.DecimalBlockBuilder;
+import com.alibaba.polardbx.executor.chunk.IntegerBlockBuilder;
+import com.alibaba.polardbx.executor.chunk.LongBlockBuilder;
+import com.alibaba.polardbx.executor.chunk.SliceBlockBuilder;
+import com.alibaba.polardbx.executor.chunk.TimestampBlockBuilder;
+import com.alibaba.polardbx.executor.utils.ExecUtils;
+import com.alibaba.polardbx.executor.utils.OrderByOption;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.datatype.DecimalType;
+import com.alibaba.polardbx.optimizer.core.row.Row;
+import com.alibaba.polardbx.optimizer.memory.MemoryAllocatorCtx;
+import com.alibaba.polardbx.optimizer.memory.MemoryManager;
+import com.alibaba.polardbx.optimizer.memory.MemorySetting;
+import com.alibaba.polardbx.optimizer.memory.MemoryType;
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class NormalizedKeyEncoderTest {
+
+    private static final int POSITION_COUNT = 500;
+
+    private final Random random = new Random(11);
+
+    private final List<DataType> types =
+        ImmutableList.of(DataTypes.LongType, DataTypes.IntegerType, new DecimalType(10, 2));
+
+    @Test
+    public void testKeysMatchRowComparator() {
+        Chunk chunk = buildChunk();
+        check(chunk, ImmutableList.of(new OrderByOption(0, true, false)));
+        check(chunk, ImmutableList.of(new OrderByOption(1, false, false), new OrderByOption(0, true, false)));
+        check(chunk, ImmutableList.of(new OrderByOption(2, true, false), new OrderByOption(1, true, false)));
+        check(chunk, ImmutableList.of(new OrderByOption(2, false, false)));
+    }
+
+    @Test
+    public void testRadixSort() {
+        Chunk chunk = buildChunk();
+        List<OrderByOption> orderBys = ImmutableList.of(new OrderByOption(1, false, false));
+        NormalizedKeyEncoder encoder = NormalizedKeyEncoder.create(orderBys, types);
+        // INT 只占 4 字节, 加上 null 字节一个 long 即可
+        Assert.assertEquals(1, encoder.getWordCount());
+        Assert.assertTrue(encoder.canRadixSort());
+
+        long[] keys = new long[POSITION_COUNT];
+        Assert.assertTrue(encoder.encode(chunk, keys, 0));
+        int[] index = new int[POSITION_COUNT];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = i;
+        }
+        NormalizedKeyEncoder.radixSort(index, keys, 1);
+
+        Comparator<Row> rowComparator = ExecUtils.getComparator(orderBys, types);
+        for (int i = 1; i < index.length; i++) {
+            Assert.assertTrue(rowComparator.compare(chunk.rowAt(index[i - 1]), chunk.rowAt(index[i])) <= 0);
+        }
+    }
+
+    @Test
+    public void testMultiWordRadixSort() {
+        Chunk chunk = buildChunk();
+        List<OrderByOption> orderBys = ImmutableList.of(new OrderByOption(0, false, false));
+        NormalizedKeyEncoder encoder = NormalizedKeyEncoder.create(orderBys, types);
+        // BIGINT 8 字节加 null 字节, 占两个 long
+        Assert.assertEquals(2, encoder.getWordCount());
+        Assert.assertTrue(encoder.canRadixSort());
+
+        long[] keys = new long[POSITION_COUNT * 2];
+        Assert.assertTrue(encoder.encode(chunk, keys, 0));
+        int[] index = new int[POSITION_COUNT];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = i;
+        }
+        NormalizedKeyEncoder.radixSort(index, keys, 2);
+
+        Comparator<Row> rowComparator = ExecUtils.getComparator(orderBys, types);
+        for (int i = 1; i < index.length; i++) {
+            Assert.assertTrue(rowComparator.compare(chunk.rowAt(index[i - 1]), chunk.rowAt(index[i])) <= 0);
+        }
+    }
+
+    @Test
+    public void testMemSortorRadixSortMatchesComparator() {
+        List<Chunk> bigints = new ArrayList<>();
+        List<Chunk> datetimes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            bigints.add(new Chunk(buildChunk().getBlock(0)));
+            datetimes.add(buildDatetimeChunk());
+        }
+        for (boolean asc : new boolean[] {true, false}) {
+            List<OrderByOption> orderBys = ImmutableList.of(new OrderByOption(0, asc, false));
+            checkMemSortor(bigints, orderBys, ImmutableList.of(DataTypes.LongType));
+            checkMemSortor(datetimes, orderBys, ImmutableList.of(DataTypes.DatetimeType));
+        }
+    }
+
+    private void checkMemSortor(List<Chunk> chunks, List<OrderByOption> orderBys, List<DataType> columnTypes) {
+        MemSortor radixSortor = sortChunks(chunks, orderBys, columnTypes, true);
+        Assert.assertTrue(radixSortor.getKeyEncoder().canRadixSort());
+        Assert.assertTrue(radixSortor.isRadixSorted());
+        MemSortor comparatorSortor = sortChunks(chunks, orderBys, columnTypes, false);
+        Assert.assertNull(comparatorSortor.getKeyEncoder());
+
+        List<Object> expected = sortedValues(comparatorSortor);
+        List<Object> actual = sortedValues(radixSortor);
+        Assert.assertEquals(POSITION_COUNT * chunks.size(), actual.size());
+        Assert.assertEquals(expected, actual);
+    }
+
+    private MemSortor sortChunks(List<Chunk> chunks, List<OrderByOption> orderBys, List<DataType> columnTypes,
+                                 boolean normalizedKey) {
+        Map<String, Object> params = new HashMap<>();
+        params.put(ConnectionParams.ENABLE_NORMALIZED_SORT_KEY.getName(), String.valueOf(normalizedKey));
+        ExecutionContext context = new ExecutionContext();
+        context.setParamManager(new ParamManager(params));
+        MemoryAllocatorCtx allocator = MemoryManager.getInstance().getGlobalMemoryPool()
+            .getOrCreatePool("NormalizedKeyEncoderTest", MemorySetting.UNLIMITED_SIZE, MemoryType.QUERY)
+            .getMemoryAllocatorCtx();
+        MemSortor sortor = new MemSortor(allocator, orderBys, columnTypes, POSITION_COUNT, false, context);
+        for (Chunk chunk : chunks) {
+            sortor.addChunk(chunk);
+        }
+        sortor.sort();
+        return sortor;
+    }
+
+    private static List<Object> sortedValues(MemSortor sortor) {
+        List<Object> values = new ArrayList<>();
+        Chunk chunk;
+        while ((chunk = sortor.nextChunk()) != null) {
+            for (int i = 0; i < chunk.getPositionCount(); i++) {
+                values.add(chunk.getBlock(0).getObjectForCmp(i));
+            }
+        }
+        return values;
+    }
+
+    private Chunk buildDatetimeChunk() {
+        TimestampBlockBuilder datetimes =
+            new TimestampBlockBuilder(POSITION_COUNT, DataTypes.DatetimeType, new ExecutionContext());
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            if (random.nextInt(10) == 0) {
+                datetimes.appendNull();
+            } else {
+                datetimes.writeString(String.format("%04d-%02d-%02d %02d:%02d:%02d", 1900 + random.nextInt(200),
+                    1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60),
+                    random.nextInt(60)));
+            }
+        }
+        return new Chunk(datetimes.build());
+    }
+
+    @Test
+    public void testStringKeyIsNotExact() {
+        NormalizedKeyEncoder encoder = NormalizedKeyEncoder.create(
+            ImmutableList.of(new OrderByOption(0, true, false), new OrderByOption(1, true, false)),
+            ImmutableList.of(DataTypes.VarcharType, DataTypes.LongType));
+        Assert.assertFalse(encoder.isExact());
+        // 字符串之后的列不参与编码
+        Assert.assertEquals(3, encoder.getWordCount());
+    }
+
+    @Test
+    public void testCanEncodeOnlyCompatibleStrings() {
+        NormalizedKeyEncoder encoder = NormalizedKeyEncoder.create(
+            ImmutableList.of(new OrderByOption(1, true, false), new OrderByOption(0, true, false)),
+            ImmutableList.of(DataTypes.VarcharType, DataTypes.LongType));
+        Assert.assertTrue(encoder.canEncode(buildStringChunk(true)));
+        // 非兼容模式下字符串按原始 Slice 比较, 无法编码
+        Assert.assertFalse(encoder.canEncode(buildStringChunk(false)));
+    }
+
+    private Chunk buildStringChunk(boolean compatible) {
+        SliceBlockBuilder strings =
+            new SliceBlockBuilder(DataTypes.VarcharType, POSITION_COUNT, new ExecutionContext(), compatible);
+        LongBlockBuilder longs = new LongBlockBuilder(POSITION_COUNT);
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            strings.writeString(String.valueOf(random.nextInt(100)));
+            longs.writeLong(random.nextInt(100));
+        }
+        return new Chunk(strings.build(), longs.build());
+    }
+
+    private void check(Chunk chunk, List<OrderByOption> orderBys) {
+        NormalizedKeyEncoder encoder = NormalizedKeyEncoder.create(orderBys, types);
+        Assert.assertTrue(encoder.isExact());
+        final int wordCount = encoder.getWordCount();
+        long[] keys = new long[POSITION_COUNT * wordCount];
+        Assert.assertTrue(encoder.encode(chunk, keys, 0));
+
+        Comparator<Row> rowComparator = ExecUtils.getComparator(orderBys, types);
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            int j = random.nextInt(POSITION_COUNT);
+            int expected = Integer.signum(rowComparator.compare(chunk.rowAt(i), chunk.rowAt(j)));
+            int actual = Integer.signum(NormalizedKeyEncoder.compare(keys, i * wordCount, keys, j * wordCount,
+                wordCount));
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    private Chunk buildChunk() {
+        LongBlockBuilder longs = new LongBlockBuilder(POSITION_COUNT);
+        IntegerBlockBuilder ints = new IntegerBlockBuilder(POSITION_COUNT);
+        DecimalBlockBuilder decimals = new DecimalBlockBuilder(POSITION_COUNT);
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            if (random.nextInt(10) == 0) {
+                longs.appendNull();
+            } else {
+                longs.writeLong(random.nextBoolean() ? random.nextLong() : random.nextInt(20) - 10);
+            }
+            if (random.nextInt(10) == 0) {
+                ints.appendNull();
+            } else {
+                ints.writeInt(random.nextInt(40) - 20);
+            }
+            if (random.nextInt(10) == 0) {
+                decimals.appendNull();
+            } else {
+                decimals.writeDecimal(new Decimal(random.nextInt(200000) - 100000, 2));
+            }
+        }
+        return new Chunk(longs.build(), ints.build(), decimals.build());
+    }
+}
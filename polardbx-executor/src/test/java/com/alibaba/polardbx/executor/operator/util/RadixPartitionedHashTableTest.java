@@ -0,0 +1,101 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.alibaba.polardbx.executor.chunk.LongBlockBuilder;
+import com.alibaba.polardbx.executor.operator.util.RadixPartitionedHashTable.PartitionedChunk;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RadixPartitionedHashTableTest {
+
+    private static final int RADIX_BITS = 4;
+    private static final int CHUNK_SIZE = 1000;
+    private static final int CHUNK_COUNT = 8;
+
+    @Test
+    public void testBuildAndProbe() {
+        Random random = new Random(1);
+        List<Chunk> keyChunks = new ArrayList<>();
+        List<PartitionedChunk> partitionedChunks = new ArrayList<>();
+        long[] partitionSizes = new long[1 << RADIX_BITS];
+        for (int c = 0; c < CHUNK_COUNT; c++) {
+            LongBlockBuilder builder = new LongBlockBuilder(CHUNK_SIZE);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                if (i % 17 == 5) {
+                    builder.appendNull();
+                } else {
+                    builder.writeLong(random.nextInt(3000));
+                }
+            }
+            Chunk keyChunk = new Chunk(builder.build());
+            PartitionedChunk partitionedChunk = PartitionedChunk.create(keyChunk, RADIX_BITS);
+            for (int p = 0; p < partitionSizes.length; p++) {
+                partitionSizes[p] += partitionedChunk.getPartitionSize(p);
+            }
+            keyChunks.add(keyChunk);
+            partitionedChunks.add(partitionedChunk);
+        }
+
+        RadixPartitionedHashTable hashTable = new RadixPartitionedHashTable(RADIX_BITS, partitionSizes);
+        int[] positionLinks = new int[CHUNK_SIZE * CHUNK_COUNT];
+        Arrays.fill(positionLinks, RadixPartitionedHashTable.NOT_EXISTS);
+        // build partitions in reverse order as different threads would do in any order
+        for (int p = partitionSizes.length - 1; p >= 0; p--) {
+            for (int c = 0; c < CHUNK_COUNT; c++) {
+                partitionedChunks.get(c).buildPartition(p, c * CHUNK_SIZE, hashTable, positionLinks, null);
+            }
+        }
+
+        for (int c = 0; c < CHUNK_COUNT; c++) {
+            Chunk keyChunk = keyChunks.get(c);
+            int[] hashes = keyChunk.hashCodeVector();
+            int[] heads = new int[hashes.length];
+            hashTable.getBatch(hashes, hashes.length, heads);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                assertEquals(hashTable.get(hashes[i]), heads[i]);
+                boolean found = false;
+                for (int pos = heads[i]; pos != RadixPartitionedHashTable.NOT_EXISTS; pos = positionLinks[pos]) {
+                    if (pos == c * CHUNK_SIZE + i) {
+                        found = true;
+                        break;
+                    }
+                }
+                // null keys are never put into the hash table
+                assertEquals(!keyChunk.getBlock(0).isNull(i), found);
+            }
+        }
+    }
+
+    @Test
+    public void testPartitionOfHash() {
+        Random random = new Random(2);
+        for (int i = 0; i < 10000; i++) {
+            int partition = RadixPartitionedHashTable.partition(random.nextInt(), RADIX_BITS);
+            assertTrue(partition >= 0 && partition < (1 << RADIX_BITS));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.sequence.impl;
+
+import com.alibaba.polardbx.sequence.SequenceDao;
+import com.alibaba.polardbx.sequence.SequenceRange;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GroupSequencePrefetchTest {
+
+    private static final int STEP = 100;
+
+    private static class MemorySequenceDao implements SequenceDao {
+
+        private final AtomicLong next = new AtomicLong(0);
+
+        @Override
+        public SequenceRange nextRange(String name) {
+            long start = next.getAndAdd(STEP);
+            return new SequenceRange(start + 1, start + STEP);
+        }
+
+        @Override
+        public int getStep() {
+            return STEP;
+        }
+
+        @Override
+        public int getRetryTimes() {
+            return 1;
+        }
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public boolean isInited() {
+            return true;
+        }
+    }
+
+    private static GroupSequence newSequence() {
+        GroupSequence seq = new GroupSequence();
+        seq.setName("test_seq");
+        seq.setSequenceDao(new MemorySequenceDao());
+        seq.setPrefetchEnabled(true);
+        seq.setPrefetchWatermark(50);
+        return seq;
+    }
+
+    @Test
+    public void testPrefetchSwitchesToStandby() throws Exception {
+        GroupSequence seq = newSequence();
+
+        for (int i = 0; i < STEP / 2 + 1; i++) {
+            seq.nextValue();
+        }
+        // Wait for the background prefetch to fill the standby range.
+        for (int i = 0; i < 100 && seq.getPrefetchCount() == 0; i++) {
+            Thread.sleep(10);
+            if (i % 10 == 0) {
+                seq.nextValue();
+            }
+        }
+        Thread.sleep(50);
+
+        long last = 0;
+        for (int i = 0; i < STEP; i++) {
+            long value = seq.nextValue();
+            Assert.assertTrue(value > last);
+            last = value;
+        }
+        Assert.assertTrue(seq.getPrefetchCount() > 0);
+    }
+
+    @Test
+    public void testConcurrentValuesAreUnique() throws Exception {
+        final GroupSequence seq = newSequence();
+        final Set<Long> values = ConcurrentHashMap.newKeySet();
+        final int perThread = 2000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int batch = t % 2 == 0 ? 1 : 5;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    long value = batch == 1 ? seq.nextValue() : seq.nextValue(batch);
+                    for (int j = 0; j < batch; j++) {
+                        Assert.assertTrue(values.add(value - j));
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(2 * perThread + 2 * perThread * 5, values.size());
+    }
+
+    @Test
+    public void testExhaustDropsStandby() {
+        GroupSequence seq = newSequence();
+        seq.setPrefetchWatermark(1);
+        seq.nextValue();
+        seq.nextValue();
+
+        seq.exhaustValue();
+        long value = seq.nextValue();
+        // Values of the exhausted and standby ranges should not be handed out again.
+        Assert.assertTrue(value > STEP);
+    }
+}
@@ -46,8 +46,8 @@ public class CclRuleAccessor extends AbstractAccessor {
 
     private static final String INSERT_SQL_FILTER_RULES = "insert %s into "
         + CONCURRENCY_CONTROL_RULE_TABLE
-        + "( `id`,`sql_type`, `db_name`, `table_name`, `user_name`, `client_ip`, `parallelism`, `keywords`, `template_id`, `query`, `params`, `query_template_id`, `queue_size`, `wait_timeout`, `fast_match`, `light_wait`, `trigger_priority`, `inst_id`)"
-        + " values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        + "( `id`,`sql_type`, `db_name`, `table_name`, `user_name`, `client_ip`, `parallelism`, `keywords`, `template_id`, `query`, `params`, `query_template_id`, `queue_size`, `wait_timeout`, `fast_match`, `light_wait`, `adaptive`, `trigger_priority`, `inst_id`)"
+        + " values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
     private static final String DELETE_BY_TRIGGER_PRIORITY_IN =
         "delete from " + CONCURRENCY_CONTROL_RULE_TABLE + " where trigger_priority in (%s)";
@@ -67,7 +67,7 @@ public class CclRuleAccessor extends AbstractAccessor {
     private static final String DELETE_ALL = "delete from " + CONCURRENCY_CONTROL_RULE_TABLE;
 
     private static final String UPDATE_SQL_FILTER_RULE = "update " + CONCURRENCY_CONTROL_RULE_TABLE
-        + " set `id`=?, `sql_type`=?, `db_name`=?, `table_name`=?, `user_name`=?, `client_ip`=?, `parallelism`=?, `keywords`=?, `template_id`=?, `query`=?, `params`=?, `query_template_id`=?, `queue_size`=?, `wait_timeout`=?, `fast_match`=?, `light_wait`=?, `trigger_priority`=?, `inst_id` = ?, `gmt_updated` = now() where `priority`=?";
+        + " set `id`=?, `sql_type`=?, `db_name`=?, `table_name`=?, `user_name`=?, `client_ip`=?, `parallelism`=?, `keywords`=?, `template_id`=?, `query`=?, `params`=?, `query_template_id`=?, `queue_size`=?, `wait_timeout`=?, `fast_match`=?, `light_wait`=?, `adaptive`=?, `trigger_priority`=?, `inst_id` = ?, `gmt_updated` = now() where `priority`=?";
 
     private static final String DELETE_BY_TRIGGER_PRIORITY =
         "delete from " + CONCURRENCY_CONTROL_RULE_TABLE + " where trigger_priority = ?";
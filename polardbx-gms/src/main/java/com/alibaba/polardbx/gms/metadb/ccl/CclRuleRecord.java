@@ -41,6 +41,7 @@ public class CclRuleRecord implements SystemTableRecord {
     public static final int DEFAULT_FAST_MATCH = 1;
     public static final int DEFAULT_TRIGGER_PRIORITY = -1;
     public static final int DEFAULT_LIGHT_WAIT = 1;
+    public static final int DEFAULT_ADAPTIVE = 0;
 
     public static final int THREAD_WAIT = 0;
     public static final int NO_THREAD_WAIT = 1;
@@ -62,6 +63,10 @@ public class CclRuleRecord implements SystemTableRecord {
     public int waitTimeout;
     public int fastMatch;
     public int lightWait;
+    /**
+     * >0: adjust the running limit by latency feedback, MAX_CONCURRENCY is the upper bound
+     */
+    public int adaptive;
 
     public int triggerPriority;
 
@@ -87,6 +92,7 @@ public class CclRuleRecord implements SystemTableRecord {
         this.waitTimeout = rs.getInt("wait_timeout");
         this.fastMatch = rs.getInt("fast_match");
         this.lightWait = rs.getInt("light_wait");
+        this.adaptive = rs.getInt("adaptive");
         this.triggerPriority = rs.getInt("trigger_priority");
         this.priority = rs.getInt("priority");
         this.gmtCreated = rs.getTimestamp("gmt_created");
@@ -95,7 +101,7 @@ public class CclRuleRecord implements SystemTableRecord {
     }
 
     public Map<Integer, ParameterContext> buildParams() {
-        Map<Integer, ParameterContext> params = new HashMap<>(18);
+        Map<Integer, ParameterContext> params = new HashMap<>(19);
         int index = 0;
         MetaDbUtil.setParameter(++index, params, ParameterMethod.setString, this.id);
         MetaDbUtil.setParameter(++index, params, ParameterMethod.setString, this.sqlType);
@@ -113,6 +119,7 @@ public class CclRuleRecord implements SystemTableRecord {
         MetaDbUtil.setParameter(++index, params, ParameterMethod.setInt, this.waitTimeout);
         MetaDbUtil.setParameter(++index, params, ParameterMethod.setInt, this.fastMatch);
         MetaDbUtil.setParameter(++index, params, ParameterMethod.setInt, this.lightWait);
+        MetaDbUtil.setParameter(++index, params, ParameterMethod.setInt, this.adaptive);
         MetaDbUtil.setParameter(++index, params, ParameterMethod.setInt, this.triggerPriority);
         MetaDbUtil.setParameter(++index, params, ParameterMethod.setString, InstIdUtil.getInstId());
         return params;
@@ -137,6 +144,7 @@ public class CclRuleRecord implements SystemTableRecord {
         cclRuleRecord.waitTimeout = this.waitTimeout;
         cclRuleRecord.fastMatch = this.fastMatch;
         cclRuleRecord.lightWait = this.lightWait;
+        cclRuleRecord.adaptive = this.adaptive;
         cclRuleRecord.triggerPriority = this.triggerPriority;
         cclRuleRecord.gmtCreated = this.gmtCreated;
         cclRuleRecord.gmtUpdated = this.gmtUpdated;
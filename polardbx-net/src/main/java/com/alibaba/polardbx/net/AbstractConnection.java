@@ -46,6 +46,7 @@ public abstract class AbstractConnection implements NIOConnection {
 
     private static final int OP_NOT_READ = ~SelectionKey.OP_READ;
     private static final int OP_NOT_WRITE = ~SelectionKey.OP_WRITE;
+    private static final int MAX_GATHERING_BUFFERS = 16;
 
     protected final SocketChannel channel;
     protected NIOProcessor processor;
@@ -78,6 +79,13 @@ public abstract class AbstractConnection implements NIOConnection {
     protected AtomicBoolean checkSsl = new AtomicBoolean(true);
     protected boolean sslEnable = false;                  // 标记当前链接是否处于ssl交互中
 
+    // gathering write中尚未写完的缓存，仅在writeLock内访问
+    private ByteBufferHolder[] gatheringHolders;
+    private ByteBuffer[] gatheringBuffers;
+    private int gatheringOffset;
+    private int gatheringCount;
+    private boolean closeAfterGathering;
+
     public AbstractConnection(SocketChannel channel) {
         this.channel = channel;
         this.keyLock = new ReentrantLock();
@@ -220,7 +228,7 @@ public abstract class AbstractConnection implements NIOConnection {
 
             int length = sslReadBuffer.remaining() > peek.readable() ? peek.readable() : sslReadBuffer.remaining();
 
-            sslReadBuffer.put(peek.array(), peek.readerIndex(), length);
+            sslReadBuffer.put(peek, peek.readerIndex(), length);
             peek.skipBytes(length);
             doRead(sslReadBuffer);
             if (!peek.isReadable()) {
@@ -512,6 +520,10 @@ public abstract class AbstractConnection implements NIOConnection {
         final ReentrantLock lock = this.writeLock;
         lock.lock();
         try {
+            // 等锁期间连接可能已关闭，发送缓存已被回收
+            if (isClosed.get()) {
+                return;
+            }
             // 满足以下两个条件时，切换到基于事件的写操作。
             // 1.当前key对写事件不该兴趣。
             // 2.write0()返回false。
@@ -531,6 +543,9 @@ public abstract class AbstractConnection implements NIOConnection {
         final ReentrantLock lock = this.writeLock;
         lock.lock();
         try {
+            if (isClosed.get()) {
+                return;
+            }
             // 满足以下两个条件时，切换到基于队列的写操作。
             // 1.write0()返回true。
             // 2.发送队列的buffer为空。
@@ -661,9 +676,21 @@ public abstract class AbstractConnection implements NIOConnection {
             this.sslReadBuffer = null;
             recycle(buffer);
         }
-        // 回收发送缓存
-        while ((buffer = writeQueue.poll()) != null) {
-            recycle(buffer);
+        // 回收发送缓存，需与写线程中正在进行的写操作互斥
+        final ReentrantLock lock = this.writeLock;
+        lock.lock();
+        try {
+            while ((buffer = writeQueue.poll()) != null) {
+                recycle(buffer);
+            }
+            buffer = writeQueue.attachment();
+            if (buffer != null) {
+                writeQueue.attach(null);
+                recycle(buffer);
+            }
+            recycleGathering();
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -701,10 +728,10 @@ public abstract class AbstractConnection implements NIOConnection {
             }
             int size = buffer.capacity() << 1;
             size = (size > maxPacketSize + packetHeaderSize) ? maxPacketSize + packetHeaderSize : size;
-            ByteBuffer newBuffer = ByteBuffer.allocate(size);
+            // 扩容的缓存按尺寸等级从缓存池分配，池不支持该尺寸时新建
+            ByteBufferHolder newBufferHolder = processor.getBufferPool().allocate(size);
             buffer.position(offset);
-            newBuffer.put(buffer.getBuffer());
-            ByteBufferHolder newBufferHolder = new ByteBufferHolder(newBuffer);
+            newBufferHolder.getBuffer().put(buffer.getBuffer());
             newBufferHolder.setIndex(buffer.readerIndex(), buffer.writerIndex());
             // 回收扩容前的缓存块
             recycle(buffer);
@@ -731,6 +758,9 @@ public abstract class AbstractConnection implements NIOConnection {
     }
 
     private boolean write0() throws IOException {
+        if (processor.isInlineWrite()) {
+            return gatheringWrite0();
+        }
         // 检查是否有遗留数据未写出
         ByteBufferHolder buffer = writeQueue.attachment();
         if (buffer != null) {
@@ -774,6 +804,77 @@ public abstract class AbstractConnection implements NIOConnection {
         return true;
     }
 
+    /**
+     * 将发送队列中的多个缓存合并为一次系统调用写出，返回false表示socket写满，需要等待写事件
+     */
+    private boolean gatheringWrite0() throws IOException {
+        if (gatheringHolders == null) {
+            gatheringHolders = new ByteBufferHolder[MAX_GATHERING_BUFFERS];
+            gatheringBuffers = new ByteBuffer[MAX_GATHERING_BUFFERS];
+        }
+        for (; ; ) {
+            if (gatheringOffset == gatheringCount) {
+                gatheringOffset = 0;
+                gatheringCount = 0;
+                if (closeAfterGathering) {
+                    closeAfterGathering = false;
+                    close();
+                    return true;
+                }
+                ByteBufferHolder buffer;
+                while (gatheringCount < MAX_GATHERING_BUFFERS && (buffer = writeQueue.poll()) != null) {
+                    // 如果是一块未使用过的buffer，则在写完之前的数据后关闭连接。
+                    if (buffer.position() == 0) {
+                        recycle(buffer);
+                        closeAfterGathering = true;
+                        break;
+                    }
+                    buffer.flip();
+                    gatheringHolders[gatheringCount] = buffer;
+                    gatheringBuffers[gatheringCount] = buffer.getBuffer();
+                    gatheringCount++;
+                }
+                if (gatheringCount == 0) {
+                    if (closeAfterGathering) {
+                        continue;
+                    }
+                    return true;
+                }
+            }
+
+            long written = channel.write(gatheringBuffers, gatheringOffset, gatheringCount - gatheringOffset);
+            if (written > 0) {
+                netOutBytes += written;
+                addNetOutBytes(written);
+            }
+            lastWriteTime = TimeUtil.currentTimeMillis();
+            while (gatheringOffset < gatheringCount && !gatheringBuffers[gatheringOffset].hasRemaining()) {
+                recycle(gatheringHolders[gatheringOffset]);
+                gatheringHolders[gatheringOffset] = null;
+                gatheringBuffers[gatheringOffset] = null;
+                gatheringOffset++;
+            }
+            if (gatheringOffset < gatheringCount) {
+                writeAttempts++;
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 回收gathering write中尚未写完的缓存，调用方需持有writeLock
+     */
+    private void recycleGathering() {
+        for (int i = gatheringOffset; i < gatheringCount; i++) {
+            recycle(gatheringHolders[i]);
+            gatheringHolders[i] = null;
+            gatheringBuffers[i] = null;
+        }
+        gatheringOffset = 0;
+        gatheringCount = 0;
+        closeAfterGathering = false;
+    }
+
     /**
      * 打开写事件
      */
@@ -17,6 +17,7 @@
 package com.alibaba.polardbx.net;
 
 import com.alibaba.polardbx.net.buffer.BufferPool;
+import com.alibaba.polardbx.net.buffer.IBufferPool;
 import com.alibaba.polardbx.net.handler.CommandCount;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
@@ -36,13 +37,13 @@ import java.util.concurrent.LinkedBlockingQueue;
 public final class NIOProcessor {
 
     private static final Logger logger = LoggerFactory.getLogger(NIOProcessor.class);
-    private static final int DEFAULT_BUFFER_SIZE = 1024 * 1024 * 16;
-    private static final int DEFAULT_BUFFER_CHUNK_SIZE = 4096;
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024 * 16;
+    public static final int DEFAULT_BUFFER_CHUNK_SIZE = 4096;
 
     private int index;
     private final String name;
     private final NIOReactor reactor;
-    private final BufferPool bufferPool;
+    private final IBufferPool bufferPool;
     private final ServerThreadPool handler;
     private final ConcurrentMap<Long, FrontendConnection> frontends;
     private final CommandCount commands;
@@ -70,10 +71,23 @@ public final class NIOProcessor {
     }
 
     public NIOProcessor(int index, String name, ServerThreadPool handler) throws IOException {
+        this(index, name, handler, new BufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_CHUNK_SIZE));
+    }
+
+    public NIOProcessor(int index, String name, ServerThreadPool handler, IBufferPool bufferPool)
+        throws IOException {
+        this(index, name, handler, bufferPool, false);
+    }
+
+    /**
+     * @param inlineWrite 为true时不启动独立写线程，由提交数据的线程直接以gathering write写出
+     */
+    public NIOProcessor(int index, String name, ServerThreadPool handler, IBufferPool bufferPool,
+                        boolean inlineWrite) throws IOException {
         this.index = index;
         this.name = name;
-        this.reactor = new NIOReactor(name);
-        this.bufferPool = new BufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_CHUNK_SIZE);
+        this.reactor = new NIOReactor(name, inlineWrite);
+        this.bufferPool = bufferPool;
         this.handler = handler;
         this.frontends = new ConcurrentHashMap<Long, FrontendConnection>();
         this.commands = new CommandCount();
@@ -83,7 +97,7 @@ public final class NIOProcessor {
         return name;
     }
 
-    public BufferPool getBufferPool() {
+    public IBufferPool getBufferPool() {
         return bufferPool;
     }
 
@@ -95,6 +109,10 @@ public final class NIOProcessor {
         return reactor.getWriteQueue().size();
     }
 
+    public boolean isInlineWrite() {
+        return reactor.isInlineWrite();
+    }
+
     public ServerThreadPool getHandler() {
         return handler;
     }
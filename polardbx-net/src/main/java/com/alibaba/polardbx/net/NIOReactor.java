@@ -29,6 +29,9 @@ import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * 网络事件反应器
+ * <p>
+ * 默认模式下由独立的W线程消费写队列；inlineWrite模式下不启动W线程，由提交数据的线程直接写出
+ * (连接会将队列中的多个缓存合并为一次gathering write)，只有部分写出时才注册OP_WRITE交给R线程继续写。
  *
  * @author xianmao.hexm
  */
@@ -36,18 +39,30 @@ public final class NIOReactor {
 
     private static final Logger logger = LoggerFactory.getLogger(NIOReactor.class);
     private final String name;
+    private final boolean inlineWrite;
     private final R reactorR;
     private final W reactorW;
 
     public NIOReactor(String name) throws IOException {
+        this(name, false);
+    }
+
+    public NIOReactor(String name, boolean inlineWrite) throws IOException {
         this.name = name;
+        this.inlineWrite = inlineWrite;
         this.reactorR = new R();
         this.reactorW = new W();
     }
 
     final void startup() {
         new Thread(reactorR, name + "-R").start();
-        new Thread(reactorW, name + "-W").start();
+        if (!inlineWrite) {
+            new Thread(reactorW, name + "-W").start();
+        }
+    }
+
+    final boolean isInlineWrite() {
+        return inlineWrite;
     }
 
     final void postRegister(NIOConnection c) {
@@ -64,7 +79,11 @@ public final class NIOReactor {
     }
 
     final void postWrite(NIOConnection c) {
-        reactorW.writeQueue.offer(c);
+        if (inlineWrite) {
+            reactorW.write(c);
+        } else {
+            reactorW.writeQueue.offer(c);
+        }
     }
 
     final BlockingQueue<NIOConnection> getWriteQueue() {
@@ -98,6 +117,9 @@ public final class NIOReactor {
                                 int readyOps = key.readyOps();
                                 if ((readyOps & SelectionKey.OP_READ) != 0) {
                                     read((NIOConnection) att);
+                                    if (inlineWrite && key.isValid() && (readyOps & SelectionKey.OP_WRITE) != 0) {
+                                        write((NIOConnection) att);
+                                    }
                                 } else if ((readyOps & SelectionKey.OP_WRITE) != 0) {
                                     write((NIOConnection) att);
                                 } else {
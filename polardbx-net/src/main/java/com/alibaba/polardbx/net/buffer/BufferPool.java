@@ -20,9 +20,11 @@ import java.nio.ByteBuffer;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * 基于单锁环形队列的堆内缓存池
+ *
  * @author xianmao.hexm
  */
-public final class BufferPool {
+public final class BufferPool implements IBufferPool {
 
     private final int chunkSize;
     private final ByteBuffer[] items;
@@ -31,6 +33,8 @@ public final class BufferPool {
     private int takeIndex;
     private int count;
     private volatile int newCount;
+    private volatile long hitCount;
+    private volatile long overflowCount;
 
     public BufferPool(int bufferSize, int chunkSize) {
         this.chunkSize = chunkSize;
@@ -43,24 +47,51 @@ public final class BufferPool {
         }
     }
 
+    @Override
     public int capacity() {
         return items.length;
     }
 
+    @Override
     public int size() {
         return count;
     }
 
+    @Override
     public int getNewCount() {
         return newCount;
     }
 
+    @Override
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    @Override
+    public long getMissCount() {
+        return newCount;
+    }
+
+    @Override
+    public long getOverflowCount() {
+        return overflowCount;
+    }
+
+    @Override
+    public boolean isDirect() {
+        return false;
+    }
+
+    @Override
     public ByteBufferHolder allocate() {
         ByteBuffer node = null;
         final ReentrantLock lock = this.lock;
         lock.lock();
         try {
             node = (count == 0) ? null : extract();
+            if (node != null) {
+                ++hitCount;
+            }
         } finally {
             lock.unlock();
         }
@@ -71,6 +102,16 @@ public final class BufferPool {
         return new ByteBufferHolder(node);
     }
 
+    @Override
+    public ByteBufferHolder allocate(int size) {
+        if (size <= chunkSize) {
+            return allocate();
+        }
+        // 大于chunkSize的缓存不入池，回收时会被丢弃
+        return new ByteBufferHolder(create(size));
+    }
+
+    @Override
     public void recycle(ByteBufferHolder bufferHolder) {
         // 拒绝回收null和容量大于chunkSize的缓存
         if (bufferHolder == null || bufferHolder.getBuffer() == null
@@ -85,6 +126,8 @@ public final class BufferPool {
                 if (count != items.length) {
                     buffer.clear();
                     insert(buffer);
+                } else {
+                    ++overflowCount;
                 }
                 bufferHolder.setBuffer(null);
             }
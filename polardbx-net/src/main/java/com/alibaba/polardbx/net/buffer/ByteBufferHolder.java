@@ -89,11 +89,45 @@ public class ByteBufferHolder {
     }
 
     public ByteBufferHolder put(ByteBufferHolder src) {
-        buffer.put(src.array(), src.readerIndex, src.writerIndex);
+        if (src.hasArray()) {
+            buffer.put(src.array(), src.readerIndex, src.writerIndex);
+        } else {
+            ByteBuffer dup = src.buffer.duplicate();
+            dup.limit(src.readerIndex + src.writerIndex).position(src.readerIndex);
+            buffer.put(dup);
+        }
         this.writerIndex += src.readable();
         return this;
     }
 
+    /**
+     * 将另一个缓存从index开始的length个字节写入当前缓存，兼容堆外缓存
+     */
+    public ByteBufferHolder put(ByteBufferHolder src, int index, int length) {
+        if (src.hasArray()) {
+            return put(src.array(), index, length);
+        }
+        ByteBuffer dup = src.buffer.duplicate();
+        dup.limit(index + length).position(index);
+        buffer.put(dup);
+        this.writerIndex += length;
+        return this;
+    }
+
+    /**
+     * 按绝对位置读取，不改变position，兼容堆外缓存
+     */
+    public ByteBufferHolder getBytes(int index, byte[] dst, int dstIndex, int length) {
+        if (buffer.hasArray()) {
+            System.arraycopy(buffer.array(), buffer.arrayOffset() + index, dst, dstIndex, length);
+        } else {
+            ByteBuffer dup = buffer.duplicate();
+            dup.limit(index + length).position(index);
+            dup.get(dst, dstIndex, length);
+        }
+        return this;
+    }
+
     public byte get(int index) {
         return buffer.get(index);
     }
@@ -116,6 +150,10 @@ public class ByteBufferHolder {
         return buffer.array();
     }
 
+    public final boolean hasArray() {
+        return buffer.hasArray();
+    }
+
     public ByteBufferHolder put(byte b) {
         buffer.put(b);
         writerIndex += 1;
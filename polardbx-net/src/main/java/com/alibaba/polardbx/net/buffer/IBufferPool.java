@@ -0,0 +1,67 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.net.buffer;
+
+/**
+ * 前端网络缓存池
+ */
+public interface IBufferPool {
+
+    /**
+     * 分配一个默认大小(chunkSize)的缓存块
+     */
+    ByteBufferHolder allocate();
+
+    /**
+     * 分配一个容量不小于size的缓存块，用于大包读取时的扩容
+     */
+    ByteBufferHolder allocate(int size);
+
+    /**
+     * 回收缓存块，不属于本池的缓存会被直接丢弃
+     */
+    void recycle(ByteBufferHolder bufferHolder);
+
+    /**
+     * 池中可容纳的默认大小缓存块数量
+     */
+    int capacity();
+
+    /**
+     * 池中当前空闲的缓存块数量(近似值)
+     */
+    int size();
+
+    int getNewCount();
+
+    /**
+     * 直接从池中取得缓存的次数
+     */
+    long getHitCount();
+
+    /**
+     * 池中没有可用缓存而新建缓存的次数
+     */
+    long getMissCount();
+
+    /**
+     * 池已满导致回收的缓存被丢弃的次数
+     */
+    long getOverflowCount();
+
+    boolean isDirect();
+}
@@ -0,0 +1,442 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.net.buffer;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 线程本地缓存 + 无锁全局仓库的缓存池
+ * <p>
+ * 每个线程(reactor或handler线程)为每个尺寸等级持有一个弹夹(magazine)，分配和回收优先在弹夹内完成，
+ * 只持有线程私有的无竞争锁；弹夹空或满时才与全局仓库(depot)交换整个弹夹，仓库为无锁队列。
+ * 尺寸等级为 chunkSize, chunkSize * 2, ... chunkSize * 2^(sizeClasses-1)，用于大包读取时的扩容，
+ * 超过最大等级的请求直接新建且不回收。
+ * <p>
+ * 每个线程本地缓存的总字节数不超过maxLocalBytes，超出时弹夹归还仓库；
+ * 已退出或空闲超过idleTimeout的线程，其缓存在其他线程分配未命中时被归还仓库。
+ */
+public final class ThreadLocalBufferPool implements IBufferPool {
+
+    public static final int DEFAULT_SIZE_CLASSES = 5;
+    public static final int DEFAULT_MAGAZINE_SIZE = 64;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 10_000L;
+    private static final long RECLAIM_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int chunkSize;
+    private final int capacity;
+    private final boolean direct;
+    private final SizeClass[] sizeClasses;
+    private final long maxLocalBytes;
+    private final long idleTimeoutNanos;
+    private final ThreadLocal<LocalCache> localCaches;
+    private final ConcurrentLinkedQueue<LocalCache> allLocalCaches = new ConcurrentLinkedQueue<>();
+    private final AtomicLong lastReclaimNanos = new AtomicLong(System.nanoTime());
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder overflowCount = new LongAdder();
+
+    public ThreadLocalBufferPool(int bufferSize, int chunkSize, boolean direct) {
+        this(bufferSize, chunkSize, direct, DEFAULT_SIZE_CLASSES, DEFAULT_MAGAZINE_SIZE);
+    }
+
+    public ThreadLocalBufferPool(int bufferSize, int chunkSize, boolean direct, int sizeClassCount,
+                                 int magazineSize) {
+        this(bufferSize, chunkSize, direct, sizeClassCount, magazineSize, (long) chunkSize * magazineSize,
+            DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param maxLocalBytes 单个线程本地缓存的最大字节数，不小于一个默认等级弹夹的大小
+     * @param idleTimeoutMillis 线程空闲超过该时间后其本地缓存可被归还仓库
+     */
+    public ThreadLocalBufferPool(int bufferSize, int chunkSize, boolean direct, int sizeClassCount,
+                                 int magazineSize, long maxLocalBytes, long idleTimeoutMillis) {
+        if (chunkSize <= 0 || sizeClassCount <= 0 || magazineSize <= 0) {
+            throw new IllegalArgumentException("chunkSize, sizeClassCount and magazineSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+        this.direct = direct;
+        this.maxLocalBytes = Math.max(maxLocalBytes, (long) chunkSize * magazineSize);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        int capacity = bufferSize / chunkSize;
+        this.capacity = (bufferSize % chunkSize == 0) ? capacity : capacity + 1;
+
+        this.sizeClasses = new SizeClass[sizeClassCount];
+        for (int i = 0; i < sizeClassCount; i++) {
+            int size = chunkSize << i;
+            // 每个等级在仓库中占用的总字节数与默认等级相同，大等级的弹夹相应变小
+            int classMagazineSize = Math.max(1, magazineSize >> i);
+            int maxBuffers = Math.max(classMagazineSize, this.capacity >> i);
+            int maxMagazines = (maxBuffers + classMagazineSize - 1) / classMagazineSize;
+            sizeClasses[i] = new SizeClass(i, size, classMagazineSize, maxMagazines);
+        }
+        this.localCaches = ThreadLocal.withInitial(this::newLocalCache);
+
+        // 预分配默认等级的缓存
+        SizeClass first = sizeClasses[0];
+        int remain = this.capacity;
+        while (remain > 0) {
+            Magazine magazine = new Magazine(first.magazineSize);
+            while (remain > 0 && !magazine.isFull()) {
+                magazine.push(create(first.size));
+                remain--;
+            }
+            first.offerFull(magazine);
+        }
+    }
+
+    @Override
+    public ByteBufferHolder allocate() {
+        return allocate(sizeClasses[0]);
+    }
+
+    @Override
+    public ByteBufferHolder allocate(int size) {
+        SizeClass sizeClass = sizeClassOf(size);
+        if (sizeClass == null) {
+            missCount.increment();
+            return new ByteBufferHolder(create(size));
+        }
+        return allocate(sizeClass);
+    }
+
+    private ByteBufferHolder allocate(SizeClass sizeClass) {
+        LocalCache cache = localCaches.get();
+        ByteBuffer buffer;
+        synchronized (cache) {
+            cache.touch();
+            Magazine[] magazines = cache.magazines;
+            Magazine magazine = magazines[sizeClass.index];
+            buffer = magazine.pop();
+            if (buffer == null) {
+                Magazine full = sizeClass.pollFull();
+                if (full != null) {
+                    // 空弹夹直接丢弃，回收时会新建
+                    magazines[sizeClass.index] = full;
+                    buffer = full.pop();
+                    cache.bytes += (long) full.count * sizeClass.size;
+                }
+            } else {
+                cache.bytes -= sizeClass.size;
+            }
+        }
+        if (buffer == null) {
+            missCount.increment();
+            tryReclaim();
+            buffer = create(sizeClass.size);
+        } else {
+            hitCount.increment();
+        }
+        return new ByteBufferHolder(buffer);
+    }
+
+    @Override
+    public void recycle(ByteBufferHolder bufferHolder) {
+        if (bufferHolder == null) {
+            return;
+        }
+        ByteBuffer buffer = bufferHolder.getBuffer();
+        if (buffer == null) {
+            return;
+        }
+        bufferHolder.setBuffer(null);
+        // 拒绝回收类型不符或尺寸不在等级内的缓存(如ensureWritable扩容出来的缓存)
+        if (buffer.isDirect() != direct) {
+            return;
+        }
+        SizeClass sizeClass = exactSizeClassOf(buffer.capacity());
+        if (sizeClass == null) {
+            return;
+        }
+        buffer.clear();
+
+        LocalCache cache = localCaches.get();
+        synchronized (cache) {
+            cache.touch();
+            Magazine magazine = cache.magazines[sizeClass.index];
+            if (magazine.isFull() || cache.bytes + sizeClass.size > maxLocalBytes) {
+                // 弹夹满或超出线程本地上限时归还本等级的弹夹，仓库已满则丢弃回收的缓存
+                if (magazine.count > 0 && !offer(cache, sizeClass)) {
+                    overflowCount.increment();
+                    return;
+                }
+                if (cache.bytes + sizeClass.size > maxLocalBytes) {
+                    // 本地缓存被其他等级占用
+                    flushAll(cache);
+                }
+                magazine = cache.magazines[sizeClass.index];
+            }
+            magazine.push(buffer);
+            cache.bytes += sizeClass.size;
+        }
+    }
+
+    /**
+     * 将当前线程的本地缓存全部归还仓库，供线程进入空闲前调用
+     */
+    public void releaseLocal() {
+        LocalCache cache = localCaches.get();
+        synchronized (cache) {
+            flushAll(cache);
+        }
+    }
+
+    /**
+     * 将已退出或空闲超时线程的本地缓存归还仓库
+     */
+    public void reclaim() {
+        long now = System.nanoTime();
+        Iterator<LocalCache> iterator = allLocalCaches.iterator();
+        while (iterator.hasNext()) {
+            LocalCache cache = iterator.next();
+            Thread owner = cache.owner.get();
+            boolean exited = owner == null || !owner.isAlive();
+            synchronized (cache) {
+                if (exited) {
+                    flushAll(cache);
+                    iterator.remove();
+                } else if (cache.bytes > 0 && now - cache.lastAccessNanos > idleTimeoutNanos) {
+                    flushAll(cache);
+                }
+            }
+        }
+    }
+
+    /**
+     * 所有线程本地缓存当前持有的总字节数，仅用于统计
+     */
+    public long getLocalBytes() {
+        long bytes = 0;
+        for (LocalCache cache : allLocalCaches) {
+            synchronized (cache) {
+                bytes += cache.bytes;
+            }
+        }
+        return bytes;
+    }
+
+    private void tryReclaim() {
+        long last = lastReclaimNanos.get();
+        long now = System.nanoTime();
+        if (now - last >= RECLAIM_INTERVAL_NANOS && lastReclaimNanos.compareAndSet(last, now)) {
+            reclaim();
+        }
+    }
+
+    /**
+     * 将本等级的弹夹归还仓库，仓库已满时保留在本地
+     */
+    private boolean offer(LocalCache cache, SizeClass sizeClass) {
+        Magazine magazine = cache.magazines[sizeClass.index];
+        if (!sizeClass.offerFull(magazine)) {
+            return false;
+        }
+        cache.bytes -= (long) magazine.count * sizeClass.size;
+        cache.magazines[sizeClass.index] = new Magazine(sizeClass.magazineSize);
+        return true;
+    }
+
+    /**
+     * 将所有非空的弹夹归还仓库，仓库已满时丢弃其中的缓存
+     */
+    private void flushAll(LocalCache cache) {
+        for (SizeClass sizeClass : sizeClasses) {
+            Magazine magazine = cache.magazines[sizeClass.index];
+            if (magazine.count == 0 || offer(cache, sizeClass)) {
+                continue;
+            }
+            overflowCount.add(magazine.count);
+            cache.bytes -= (long) magazine.count * sizeClass.size;
+            cache.magazines[sizeClass.index] = new Magazine(sizeClass.magazineSize);
+        }
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 仅统计全局仓库中默认等级的空闲缓存，线程本地弹夹中的缓存不计入
+     */
+    @Override
+    public int size() {
+        return sizeClasses[0].depotBuffers.get();
+    }
+
+    @Override
+    public int getNewCount() {
+        return (int) missCount.sum();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public long getOverflowCount() {
+        return overflowCount.sum();
+    }
+
+    @Override
+    public boolean isDirect() {
+        return direct;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getMaxPooledSize() {
+        return sizeClasses[sizeClasses.length - 1].size;
+    }
+
+    private SizeClass sizeClassOf(int size) {
+        for (SizeClass sizeClass : sizeClasses) {
+            if (size <= sizeClass.size) {
+                return sizeClass;
+            }
+        }
+        return null;
+    }
+
+    private SizeClass exactSizeClassOf(int size) {
+        for (SizeClass sizeClass : sizeClasses) {
+            if (size == sizeClass.size) {
+                return sizeClass;
+            }
+        }
+        return null;
+    }
+
+    private LocalCache newLocalCache() {
+        Magazine[] magazines = new Magazine[sizeClasses.length];
+        for (int i = 0; i < sizeClasses.length; i++) {
+            magazines[i] = new Magazine(sizeClasses[i].magazineSize);
+        }
+        LocalCache cache = new LocalCache(Thread.currentThread(), magazines);
+        allLocalCaches.offer(cache);
+        return cache;
+    }
+
+    private ByteBuffer create(int size) {
+        return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+
+    private static final class SizeClass {
+
+        final int index;
+        final int size;
+        final int magazineSize;
+        final int maxMagazines;
+        final ConcurrentLinkedQueue<Magazine> depot = new ConcurrentLinkedQueue<>();
+        final AtomicInteger depotMagazines = new AtomicInteger();
+        final AtomicInteger depotBuffers = new AtomicInteger();
+
+        SizeClass(int index, int size, int magazineSize, int maxMagazines) {
+            this.index = index;
+            this.size = size;
+            this.magazineSize = magazineSize;
+            this.maxMagazines = maxMagazines;
+        }
+
+        Magazine pollFull() {
+            Magazine magazine = depot.poll();
+            if (magazine != null) {
+                depotMagazines.decrementAndGet();
+                depotBuffers.addAndGet(-magazine.count);
+            }
+            return magazine;
+        }
+
+        boolean offerFull(Magazine magazine) {
+            if (depotMagazines.incrementAndGet() > maxMagazines) {
+                depotMagazines.decrementAndGet();
+                return false;
+            }
+            depotBuffers.addAndGet(magazine.count);
+            depot.offer(magazine);
+            return true;
+        }
+    }
+
+    /**
+     * 线程本地缓存，只有归还仓库时才会被其他线程访问，由自身的锁保护
+     */
+    private static final class LocalCache {
+
+        final WeakReference<Thread> owner;
+        final Magazine[] magazines;
+        long bytes;
+        long lastAccessNanos;
+
+        LocalCache(Thread owner, Magazine[] magazines) {
+            this.owner = new WeakReference<>(owner);
+            this.magazines = magazines;
+            this.lastAccessNanos = System.nanoTime();
+        }
+
+        void touch() {
+            lastAccessNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * 线程私有的缓存栈，由所属LocalCache的锁保护
+     */
+    private static final class Magazine {
+
+        final ByteBuffer[] buffers;
+        int count;
+
+        Magazine(int size) {
+            this.buffers = new ByteBuffer[size];
+        }
+
+        boolean isFull() {
+            return count == buffers.length;
+        }
+
+        void push(ByteBuffer buffer) {
+            buffers[count++] = buffer;
+        }
+
+        ByteBuffer pop() {
+            if (count == 0) {
+                return null;
+            }
+            ByteBuffer buffer = buffers[--count];
+            buffers[count] = null;
+            return buffer;
+        }
+    }
+}
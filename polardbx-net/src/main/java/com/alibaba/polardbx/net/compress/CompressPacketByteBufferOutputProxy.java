@@ -157,13 +157,13 @@ public class CompressPacketByteBufferOutputProxy extends PacketByteBufferOutputP
         /* 临时原始拼接区 */
         ByteArrayOutputStream origOut = new ByteArrayOutputStream();
         for (ByteBufferHolder byteBuffer : waitForCompressQueue) {
-            origOut.write(byteBuffer.array(), 0, byteBuffer.position());
+            writeTo(origOut, byteBuffer);
             byteBuffer.clear();
         }
         waitForCompressQueue.clear();
         waitForCompressContentLen = 0;
 
-        origOut.write(currentBuffer.array(), 0, currentBuffer.position());
+        writeTo(origOut, currentBuffer);
         currentBuffer.clear();
 
         if (origOut.size() <= MIN_COMPRESS_LENGTH) {
@@ -216,4 +216,14 @@ public class CompressPacketByteBufferOutputProxy extends PacketByteBufferOutputP
         c.write(outputBuffer);
     }
 
+    private static void writeTo(ByteArrayOutputStream out, ByteBufferHolder buffer) {
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), 0, buffer.position());
+        } else {
+            byte[] bytes = new byte[buffer.position()];
+            buffer.getBytes(0, bytes, 0, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+
 }
@@ -0,0 +1,273 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.net;
+
+import com.alibaba.polardbx.net.buffer.BufferQueue;
+import com.alibaba.polardbx.net.buffer.ByteBufferHolder;
+import com.alibaba.polardbx.net.buffer.IBufferPool;
+import com.alibaba.polardbx.net.buffer.ThreadLocalBufferPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AbstractConnectionTest {
+
+    private static final int CHUNK_SIZE = 4096;
+    private static final int BUFFER_COUNT = 1024;
+
+    private ServerSocketChannel server;
+    private SocketChannel peer;
+    private Selector selector;
+    private CountingBufferPool pool;
+    private TestConnection conn;
+
+    @Before
+    public void setUp() throws IOException {
+        server = ServerSocketChannel.open();
+        server.socket().setReceiveBufferSize(8192);
+        server.socket().bind(new InetSocketAddress("127.0.0.1", 0));
+        SocketChannel client = SocketChannel.open();
+        client.socket().setSendBufferSize(8192);
+        client.connect(server.socket().getLocalSocketAddress());
+        peer = server.accept();
+        peer.configureBlocking(false);
+        client.configureBlocking(false);
+
+        pool = new CountingBufferPool(new ThreadLocalBufferPool(BUFFER_COUNT * CHUNK_SIZE, CHUNK_SIZE, false));
+        conn = new TestConnection(client);
+        conn.processor = new NIOProcessor(0, "test", null, pool, true);
+        conn.setWriteQueue(new BufferQueue(BUFFER_COUNT * 2));
+        selector = Selector.open();
+        conn.register(selector);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        conn.close();
+        peer.close();
+        server.close();
+        selector.close();
+    }
+
+    @Test
+    public void testGatheringPartialWrite() throws IOException {
+        writeAll();
+        // 对端未读取，socket写满后剩余数据留在gathering缓存中
+        Assert.assertTrue(conn.getWriteAttempts() > 0);
+
+        long total = (long) BUFFER_COUNT * CHUNK_SIZE;
+        long received = 0;
+        ByteBuffer readBuffer = ByteBuffer.allocate(64 * 1024);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < total) {
+            Assert.assertTrue("timeout", System.nanoTime() < deadline);
+            readBuffer.clear();
+            int got = peer.read(readBuffer);
+            for (int i = 0; i < got; i++) {
+                Assert.assertEquals(expected(received + i), readBuffer.get(i));
+            }
+            received += Math.max(got, 0);
+            conn.writeByEvent();
+        }
+        conn.writeByEvent();
+        Assert.assertEquals(total, conn.getNetOutBytes());
+        Assert.assertEquals(0, pool.outstanding());
+        Assert.assertEquals(0, pool.doubleRecycled.get());
+    }
+
+    @Test
+    public void testCloseWithPendingWrite() throws IOException {
+        writeAll();
+        Assert.assertTrue(conn.getWriteAttempts() > 0);
+        Assert.assertTrue(pool.outstanding() > 0);
+
+        conn.close();
+        Assert.assertEquals(0, pool.outstanding());
+        Assert.assertEquals(0, pool.doubleRecycled.get());
+
+        // 关闭后的写操作不再访问已回收的缓存
+        conn.writeByEvent();
+        conn.write(fill(conn.allocate(), 0));
+        Assert.assertEquals(0, pool.outstanding());
+        Assert.assertEquals(0, pool.doubleRecycled.get());
+    }
+
+    @Test
+    public void testCloseDuringWrite() throws Exception {
+        writeAll();
+        final AtomicBoolean stop = new AtomicBoolean(false);
+        Thread writer = new Thread(() -> {
+            ByteBuffer readBuffer = ByteBuffer.allocate(64 * 1024);
+            while (!stop.get()) {
+                try {
+                    readBuffer.clear();
+                    peer.read(readBuffer);
+                    conn.writeByEvent();
+                } catch (IOException ignore) {
+                    // 连接已关闭
+                }
+            }
+        });
+        writer.start();
+        Thread.sleep(5);
+        conn.close();
+        stop.set(true);
+        writer.join();
+
+        Assert.assertEquals(0, pool.outstanding());
+        Assert.assertEquals(0, pool.doubleRecycled.get());
+    }
+
+    private void writeAll() {
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            conn.write(fill(conn.allocate(), (long) i * CHUNK_SIZE));
+        }
+    }
+
+    private static ByteBufferHolder fill(ByteBufferHolder buffer, long offset) {
+        byte[] data = new byte[CHUNK_SIZE];
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            data[i] = expected(offset + i);
+        }
+        buffer.put(data, 0, CHUNK_SIZE);
+        return buffer;
+    }
+
+    private static byte expected(long offset) {
+        return (byte) (offset % 251);
+    }
+
+    private static final class TestConnection extends AbstractConnection {
+
+        TestConnection(SocketChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected void idleCheck() {
+        }
+
+        @Override
+        public void handleData(byte[] data) {
+        }
+
+        @Override
+        public void handleError(int errCode, Throwable t) {
+        }
+
+        @Override
+        public boolean close() {
+            // 与FrontendConnection相同，关闭后立即清理缓存
+            if (super.close()) {
+                cleanup();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 记录尚未回收的缓存以及重复回收次数
+     */
+    private static final class CountingBufferPool implements IBufferPool {
+
+        final IBufferPool delegate;
+        final Set<ByteBufferHolder> allocated = Collections.newSetFromMap(new IdentityHashMap<>());
+        final AtomicInteger doubleRecycled = new AtomicInteger();
+
+        CountingBufferPool(IBufferPool delegate) {
+            this.delegate = delegate;
+        }
+
+        synchronized int outstanding() {
+            return allocated.size();
+        }
+
+        @Override
+        public synchronized ByteBufferHolder allocate() {
+            ByteBufferHolder holder = delegate.allocate();
+            allocated.add(holder);
+            return holder;
+        }
+
+        @Override
+        public synchronized ByteBufferHolder allocate(int size) {
+            ByteBufferHolder holder = delegate.allocate(size);
+            allocated.add(holder);
+            return holder;
+        }
+
+        @Override
+        public synchronized void recycle(ByteBufferHolder bufferHolder) {
+            if (!allocated.remove(bufferHolder) || bufferHolder.getBuffer() == null) {
+                doubleRecycled.incrementAndGet();
+                return;
+            }
+            delegate.recycle(bufferHolder);
+        }
+
+        @Override
+        public int capacity() {
+            return delegate.capacity();
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public int getNewCount() {
+            return delegate.getNewCount();
+        }
+
+        @Override
+        public long getHitCount() {
+            return delegate.getHitCount();
+        }
+
+        @Override
+        public long getMissCount() {
+            return delegate.getMissCount();
+        }
+
+        @Override
+        public long getOverflowCount() {
+            return delegate.getOverflowCount();
+        }
+
+        @Override
+        public boolean isDirect() {
+            return delegate.isDirect();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.net.buffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ThreadLocalBufferPoolTest {
+
+    @Test
+    public void testAllocateAndRecycle() {
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool(64 * 1024, 4096, false, 3, 4);
+        Assert.assertEquals(16, pool.capacity());
+        Assert.assertEquals(16, pool.size());
+
+        List<ByteBufferHolder> holders = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            ByteBufferHolder holder = pool.allocate();
+            Assert.assertEquals(4096, holder.capacity());
+            holders.add(holder);
+        }
+        Assert.assertEquals(16, pool.getHitCount());
+        Assert.assertEquals(0, pool.getMissCount());
+
+        // 池已耗尽
+        holders.add(pool.allocate());
+        Assert.assertEquals(1, pool.getMissCount());
+
+        for (ByteBufferHolder holder : holders) {
+            pool.recycle(holder);
+            Assert.assertNull(holder.getBuffer());
+        }
+        // 4个满弹夹回到仓库，多出的一个留在线程本地弹夹
+        Assert.assertEquals(16, pool.size());
+        Assert.assertEquals(0, pool.getOverflowCount());
+
+        // 本地弹夹再次填满后，仓库已满，多出的缓存被丢弃
+        for (int i = 0; i < 4; i++) {
+            pool.recycle(new ByteBufferHolder(ByteBuffer.allocate(4096)));
+        }
+        Assert.assertEquals(1, pool.getOverflowCount());
+
+        // 堆外缓存不回收到堆内池
+        pool.recycle(new ByteBufferHolder(ByteBuffer.allocateDirect(4096)));
+        Assert.assertEquals(1, pool.getOverflowCount());
+    }
+
+    @Test
+    public void testSizeClass() {
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool(64 * 1024, 4096, true, 3, 4);
+        Assert.assertEquals(16384, pool.getMaxPooledSize());
+
+        ByteBufferHolder holder = pool.allocate(5000);
+        Assert.assertEquals(8192, holder.capacity());
+        Assert.assertTrue(holder.getBuffer().isDirect());
+        pool.recycle(holder);
+
+        ByteBufferHolder again = pool.allocate(8192);
+        Assert.assertEquals(8192, again.capacity());
+        Assert.assertEquals(1, pool.getHitCount());
+
+        // 超过最大等级的缓存不入池
+        ByteBufferHolder large = pool.allocate(20000);
+        Assert.assertEquals(20000, large.capacity());
+        pool.recycle(large);
+        Assert.assertEquals(20000, pool.allocate(20000).capacity());
+        Assert.assertEquals(3, pool.getMissCount());
+    }
+
+    @Test
+    public void testDirectCopy() {
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool(16 * 1024, 4096, true);
+        ByteBufferHolder src = pool.allocate();
+        byte[] data = new byte[] {1, 2, 3, 4, 5};
+        src.put(data, 0, data.length);
+
+        ByteBufferHolder dst = pool.allocate();
+        dst.put(src, 1, 3);
+        byte[] out = new byte[3];
+        dst.getBytes(0, out, 0, 3);
+        Assert.assertArrayEquals(new byte[] {2, 3, 4}, out);
+        Assert.assertEquals(3, dst.writerIndex());
+    }
+
+    @Test
+    public void testCrossThreadRecycle() throws Exception {
+        final ThreadLocalBufferPool pool = new ThreadLocalBufferPool(256 * 1024, 4096, false, 2, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        final CountDownLatch latch = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                try {
+                    for (int i = 0; i < 10000; i++) {
+                        ByteBufferHolder holder = pool.allocate();
+                        holder.put((byte) i);
+                        pool.recycle(holder);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertEquals(40000, pool.getHitCount() + pool.getMissCount());
+    }
+
+    @Test
+    public void testLocalBytesLimit() {
+        // 单线程本地最多持有一个默认等级弹夹的大小
+        ThreadLocalBufferPool pool = new ThreadLocalBufferPool(64 * 1024, 4096, false, 3, 4, 8192, 10_000L);
+        List<ByteBufferHolder> holders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            holders.add(pool.allocate(16384));
+        }
+        for (ByteBufferHolder holder : holders) {
+            pool.recycle(holder);
+            Assert.assertTrue(pool.getLocalBytes() <= 16384);
+        }
+        pool.recycle(new ByteBufferHolder(ByteBuffer.allocate(4096)));
+        pool.recycle(new ByteBufferHolder(ByteBuffer.allocate(4096)));
+        pool.recycle(new ByteBufferHolder(ByteBuffer.allocate(4096)));
+        Assert.assertTrue(pool.getLocalBytes() <= 16384);
+
+        pool.releaseLocal();
+        Assert.assertEquals(0, pool.getLocalBytes());
+    }
+
+    @Test
+    public void testReclaimExitedThread() throws Exception {
+        final ThreadLocalBufferPool pool = new ThreadLocalBufferPool(64 * 1024, 4096, false, 3, 4);
+        Thread thread = new Thread(() -> {
+            List<ByteBufferHolder> holders = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                holders.add(pool.allocate());
+            }
+            for (ByteBufferHolder holder : holders) {
+                pool.recycle(holder);
+            }
+        });
+        thread.start();
+        thread.join();
+        Assert.assertEquals(12, pool.size());
+        Assert.assertEquals(4 * 4096, pool.getLocalBytes());
+
+        // 已退出线程的缓存回到仓库
+        pool.reclaim();
+        Assert.assertEquals(0, pool.getLocalBytes());
+        Assert.assertEquals(16, pool.size());
+    }
+
+    @Test
+    public void testReclaimIdleThread() throws Exception {
+        final ThreadLocalBufferPool pool = new ThreadLocalBufferPool(64 * 1024, 4096, false, 3, 4, 16384, 0L);
+        final CountDownLatch recycled = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            pool.recycle(pool.allocate());
+            recycled.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException ignore) {
+            }
+        });
+        thread.start();
+        Assert.assertTrue(recycled.await(30, TimeUnit.SECONDS));
+        Thread.sleep(1);
+        pool.reclaim();
+        Assert.assertEquals(0, pool.getLocalBytes());
+        done.countDown();
+        thread.join();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.ccl.common;
+
+/**
+ * Gradient concurrency limiter of an adaptive ccl rule.
+ * <p>
+ * A short-term EWMA of the running time is compared with a long-term EWMA which
+ * tracks the no-load latency. The limit shrinks as the short-term latency inflates
+ * and grows by sqrt(limit) while the latency stays near the baseline.
+ */
+public class CclAdaptiveLimiter {
+
+    public static final int INITIAL_LIMIT = 20;
+    public static final int MIN_LIMIT = 1;
+
+    private static final double SHORT_ALPHA = 0.1;
+    private static final double LONG_ALPHA = 0.01;
+    /**
+     * tolerated inflation of the short-term latency before the limit shrinks
+     */
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    private volatile double limit;
+    private volatile double shortRttNanos;
+    private volatile double longRttNanos;
+    private long samples;
+
+    public CclAdaptiveLimiter(int maxLimit) {
+        this.limit = Math.max(MIN_LIMIT, Math.min(INITIAL_LIMIT, maxLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @param rttNanos running time of a finished query
+     * @param inFlight running count of the rule when the query finishes
+     * @param maxLimit upper bound of the limit, the MAX_CONCURRENCY of the rule
+     */
+    public synchronized void onSample(long rttNanos, int inFlight, int maxLimit) {
+        double rtt = Math.max(1, rttNanos);
+        if (samples++ == 0) {
+            shortRttNanos = rtt;
+            longRttNanos = rtt;
+            return;
+        }
+        shortRttNanos += SHORT_ALPHA * (rtt - shortRttNanos);
+        longRttNanos += LONG_ALPHA * (rtt - longRttNanos);
+        // 负载长时间偏高会抬高基线，此时让基线向短期值回落
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        double currentLimit = limit;
+        // 并发远未用满时延迟不能反映容量，不调整
+        if (inFlight < currentLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        double newLimit = currentLimit * gradient + Math.sqrt(currentLimit);
+        newLimit = currentLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(MIN_LIMIT, Math.min(maxLimit, newLimit));
+    }
+
+    public long getRttMicros() {
+        return (long) (shortRttNanos / 1000);
+    }
+
+    public long getNoLoadRttMicros() {
+        return (long) (longRttNanos / 1000);
+    }
+}
@@ -40,6 +40,11 @@ public class CclContext {
 
     private CclMetric metric;
 
+    /**
+     * the start of running, unit: ns
+     */
+    private volatile long runningStartNanos;
+
     public CclContext(CclRuleInfo cclRule, Thread thread) {
         this.cclRule = cclRule;
         this.thread = thread;
@@ -58,7 +63,11 @@ public class CclContext {
     }
 
     public boolean setReady() {
-        return this.ready.compareAndSet(INITIAL_STATE, READY_STATE);
+        if (this.ready.compareAndSet(INITIAL_STATE, READY_STATE)) {
+            this.runningStartNanos = System.nanoTime();
+            return true;
+        }
+        return false;
     }
 
     public boolean setFinish() {
@@ -94,6 +94,11 @@ public class CclRuleInfo<T> {
 
     private final boolean queryMatch;
 
+    /**
+     * not null if the rule is adaptive
+     */
+    private volatile CclAdaptiveLimiter adaptiveLimiter;
+
     public CclRuleInfo(CclRuleRecord cclRuleRecord, Host host, int maxStayCount, boolean needMatchDb,
                        boolean needMatchTable, boolean needMatchUser, boolean needMatchHost, boolean normalHost,
                        List<String> keywords, String templateId, Set<Integer> templateIdSet, PrivilegePoint sqlType,
@@ -184,9 +189,13 @@ public class CclRuleInfo<T> {
             posParamMap = JSON.parseObject(cclRuleRecord.params, Map.class);
         }
 
-        return new CclRuleInfo(cclRuleRecord, host, maxStayCount, needMatchDb,
+        CclRuleInfo cclRuleInfo = new CclRuleInfo(cclRuleRecord, host, maxStayCount, needMatchDb,
             needMatchTable, needMatchUser, needMatchHost, normalHost, keywords, templateId, templateIdSet,
             sqlType, posParamMap, queryMatch);
+        if (cclRuleRecord.adaptive > 0) {
+            cclRuleInfo.setAdaptiveLimiter(new CclAdaptiveLimiter(cclRuleRecord.parallelism));
+        }
+        return cclRuleInfo;
 
     }
 
@@ -224,6 +233,18 @@ public class CclRuleInfo<T> {
         return false;
     }
 
+    /**
+     * The max running count at the moment, MAX_CONCURRENCY unless the rule is adaptive.
+     */
+    public int getConcurrencyLimit() {
+        int parallelism = cclRuleRecord.parallelism;
+        CclAdaptiveLimiter limiter = adaptiveLimiter;
+        if (limiter == null || !enabled) {
+            return parallelism;
+        }
+        return Math.min(limiter.getLimit(), parallelism);
+    }
+
     public long getOrderValue() {
         return -cclRuleRecord.priority;
     }
@@ -43,6 +43,10 @@ public class RescheduleTask {
      * the end timestamp of reschedule waiting, unit: ms
      */
     private long waitEndTs;
+    /**
+     * the start of running after being rescheduled, unit: ns
+     */
+    private long runningStartNanos;
     /**
      * concurrency control rule information.
      */
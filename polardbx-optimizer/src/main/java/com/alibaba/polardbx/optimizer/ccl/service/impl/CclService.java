@@ -260,10 +260,8 @@ public class CclService implements ICclService {
         CclRuleInfo cclRuleInfo = cclContext.getCclRule();
 
         if (cclContext.setFinish()) {
-            boolean deliverResult = CclUtils.deliverRunningCount(cclRuleInfo);
-            if (!deliverResult) {
-                CclUtils.exitRunning(cclRuleInfo);
-            }
+            CclUtils.sampleRunning(cclRuleInfo, cclContext.getRunningStartNanos());
+            CclUtils.releaseRunning(cclRuleInfo);
         }
         CclUtils.exitStaying(cclRuleInfo);
         cclContext.setValid(false);
@@ -260,6 +260,7 @@ public class CclTriggerService implements ICclTriggerService {
             cclRuleRecord.waitTimeout = CclRuleRecord.DEFAULT_WAIT_TIMEOUT;
             cclRuleRecord.fastMatch = CclRuleRecord.DEFAULT_FAST_MATCH;
             cclRuleRecord.lightWait = CclRuleRecord.DEFAULT_LIGHT_WAIT;
+            cclRuleRecord.adaptive = CclRuleRecord.DEFAULT_ADAPTIVE;
             cclRuleRecord.triggerPriority = triggerPriority;
 
             //根据withRules设置ccl rule
@@ -427,6 +428,9 @@ public class CclTriggerService implements ICclTriggerService {
             case "LIGHT_WAIT":
                 cclRuleRecord.lightWait = value;
                 break;
+            case "ADAPTIVE":
+                cclRuleRecord.adaptive = value;
+                break;
             }
         }
     }
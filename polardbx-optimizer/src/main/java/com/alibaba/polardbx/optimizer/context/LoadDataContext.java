@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.optimizer.context;
 
+import com.alibaba.polardbx.common.utils.memory.SizeOf;
 import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
 import com.alibaba.polardbx.optimizer.core.rel.SimpleShardProcessor;
 import com.alibaba.polardbx.optimizer.utils.LoadDataCacheManager;
@@ -24,15 +25,19 @@ import org.apache.calcite.sql.type.SqlTypeName;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class LoadDataContext {
 
-    public static final List<String> END = new ArrayList<>();
+    public static final List<List<String>> END = new ArrayList<>();
 
     private final LoadDataCacheManager dataCacheManager;
-    private final BlockingQueue<List<String>> parameters;
+    /**
+     * Batches of parsed rows, each row is the list of its field values
+     */
+    private final BlockingQueue<List<List<String>>> parameters;
     private final long batchInsertNum;
     private String loadDataSql;
     private AtomicLong loadDataAffectRows = new AtomicLong(0);
@@ -50,9 +55,16 @@ public class LoadDataContext {
     private boolean swapColumns;
     private boolean gsiInsertTurn;
 
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong parsedRows = new AtomicLong(0);
+    /**
+     * Pending physical inserts of each group, registered once the writers start
+     */
+    private volatile Map<String, BlockingQueue<Object>> shardQueues;
+
     public LoadDataContext(
         LoadDataCacheManager dataCacheManager,
-        BlockingQueue<List<String>> parameters,
+        BlockingQueue<List<List<String>>> parameters,
         long batchInsertNum, String loadDataSql, List<SqlTypeName> valueTypes,
         String fieldTerminatedBy, Charset character, List<ColumnMeta> metaList, String tableName) {
         this.dataCacheManager = dataCacheManager;
@@ -70,7 +82,7 @@ public class LoadDataContext {
         return dataCacheManager;
     }
 
-    public BlockingQueue<List<String>> getParameters() {
+    public BlockingQueue<List<List<String>>> getParameters() {
         return parameters;
     }
 
@@ -179,4 +191,32 @@ public class LoadDataContext {
     public void setGsiInsertTurn(boolean gsiInsertTurn) {
         this.gsiInsertTurn = gsiInsertTurn;
     }
+
+    public AtomicLong getParsedRows() {
+        return parsedRows;
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1000000;
+    }
+
+    public Map<String, BlockingQueue<Object>> getShardQueues() {
+        return shardQueues;
+    }
+
+    public void setShardQueues(Map<String, BlockingQueue<Object>> shardQueues) {
+        this.shardQueues = shardQueues;
+    }
+
+    /**
+     * Memory accounted for one parsed row, the same value must be used on allocation and release.
+     */
+    public static long sizeOfRow(List<String> fields) {
+        long size = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            size += SizeOf.sizeOfCharArray(field == null ? 0 : field.length());
+        }
+        return size;
+    }
 }
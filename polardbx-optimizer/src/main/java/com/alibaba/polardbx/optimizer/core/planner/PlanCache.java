@@ -26,7 +26,6 @@ import com.alibaba.polardbx.optimizer.planmanager.PlanManager;
 import com.alibaba.polardbx.optimizer.planmanager.PlanManagerUtil;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.alibaba.polardbx.common.TddlConstants;
 import com.alibaba.polardbx.common.utils.Pair;
@@ -57,7 +56,9 @@ import com.alibaba.polardbx.rule.TableRule;
 import com.alibaba.polardbx.rule.meta.ShardFunctionMeta;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.collect.Sets;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.sql.SqlKind;
@@ -70,9 +71,11 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author lingce.ldm 2017-11-22 14:38
@@ -87,8 +90,26 @@ public final class PlanCache {
 
     private static final int MAX_ERROR_COUNT = 16;
 
+    /**
+     * cache 分段数，不同模板的加载与淘汰落在不同段上
+     */
+    private static final int CONCURRENCY_LEVEL = 16;
+
     private long currentCapacity;
 
+    /**
+     * 表名(小写) -> 表版本 -> 引用该版本的 cache key，按表失效时只触达相关的计划
+     */
+    private final ConcurrentHashMap<String, ConcurrentHashMap<TableVersion, Set<CacheKey>>> tableIndex =
+        new ConcurrentHashMap<>();
+
+    /**
+     * 值为 PlaceHolderExecutionPlan 的 cache key，invalidate() 时全部淘汰
+     */
+    private final Set<CacheKey> placeHolderKeys = ConcurrentHashMap.newKeySet();
+
+    private final Stats stats = new Stats();
+
     public PlanCache(String schemaName) {
         this.schemaName = schemaName;
         this.currentCapacity = TddlConstants.DEFAULT_OPTIMIZER_CACHE_SIZE;
@@ -102,11 +123,85 @@ public final class PlanCache {
         } else {
             planCacheExpireTime = 300 * 1000; // 5min
         }
-        return CacheBuilder.newBuilder()
+        IndexRemovalListener listener = new IndexRemovalListener();
+        Cache<CacheKey, ExecutionPlan> newCache = CacheBuilder.newBuilder()
             .maximumSize(maxSize)
             .expireAfterWrite(planCacheExpireTime, TimeUnit.MILLISECONDS)
             .softValues()
+            .concurrencyLevel(CONCURRENCY_LEVEL)
+            .removalListener(listener)
             .build();
+        listener.owner = newCache;
+        return newCache;
+    }
+
+    /**
+     * 维护表索引并按原因统计淘汰；resize 后旧 cache 的通知直接忽略
+     */
+    private final class IndexRemovalListener implements RemovalListener<CacheKey, ExecutionPlan> {
+
+        private volatile Cache<CacheKey, ExecutionPlan> owner;
+
+        @Override
+        public void onRemoval(RemovalNotification<CacheKey, ExecutionPlan> notification) {
+            final Cache<CacheKey, ExecutionPlan> current = owner;
+            if (current != cache) {
+                return;
+            }
+            CacheKey cacheKey = notification.getKey();
+            if (notification.getCause() == RemovalCause.REPLACED) {
+                // 表索引不变，只需跟踪占位计划是否被替换
+                if (current.asMap().get(cacheKey) != PlaceHolderExecutionPlan.INSTANCE) {
+                    placeHolderKeys.remove(cacheKey);
+                }
+                return;
+            }
+            stats.recordRemoval(notification.getCause());
+            unindex(cacheKey);
+            placeHolderKeys.remove(cacheKey);
+            // 通知与同 key 的重新加载并发时，重新加载的一方可能已先建好索引
+            ExecutionPlan reloaded = current.asMap().get(cacheKey);
+            if (reloaded != null) {
+                index(cacheKey, reloaded);
+            }
+        }
+    }
+
+    private static String indexName(TableMeta meta, boolean testing) {
+        return EagleeyeHelper.rebuildTableName(meta.getTableName(), testing).toLowerCase();
+    }
+
+    private void index(CacheKey cacheKey, ExecutionPlan plan) {
+        if (plan == PlaceHolderExecutionPlan.INSTANCE) {
+            placeHolderKeys.add(cacheKey);
+        }
+        index(cacheKey);
+    }
+
+    private void index(CacheKey cacheKey) {
+        for (TableMeta meta : cacheKey.getTableMetas()) {
+            final TableVersion tableVersion = new TableVersion(meta);
+            tableIndex.compute(indexName(meta, cacheKey.testing), (name, versions) -> {
+                if (versions == null) {
+                    versions = new ConcurrentHashMap<>();
+                }
+                versions.computeIfAbsent(tableVersion, v -> ConcurrentHashMap.newKeySet()).add(cacheKey);
+                return versions;
+            });
+        }
+    }
+
+    private void unindex(CacheKey cacheKey) {
+        for (TableMeta meta : cacheKey.getTableMetas()) {
+            final TableVersion tableVersion = new TableVersion(meta);
+            tableIndex.computeIfPresent(indexName(meta, cacheKey.testing), (name, versions) -> {
+                versions.computeIfPresent(tableVersion, (v, keys) -> {
+                    keys.remove(cacheKey);
+                    return keys.isEmpty() ? null : keys;
+                });
+                return versions.isEmpty() ? null : versions;
+            });
+        }
     }
 
     /**
@@ -213,6 +308,11 @@ public final class PlanCache {
 
         if (beCached.get()) {
             plan.getHitCount().incrementAndGet();
+            stats.hitCount.incrementAndGet();
+        } else {
+            // 插入之后再建索引，保证与淘汰通知并发时索引不会丢
+            index(cacheKey, plan);
+            stats.missCount.incrementAndGet();
         }
         plan.setHitCache(beCached.get());
         savePlanCachedKey(plannerContext, plan, cacheKey);
@@ -243,12 +343,28 @@ public final class PlanCache {
         return true;
     }
 
+    /**
+     * 淘汰所有占位计划，并按表索引失效所有引用了过期表版本的计划，每个表版本只查一次最新元数据
+     */
     public void invalidate() {
-        for (Map.Entry<CacheKey, ExecutionPlan> entry : cache.asMap().entrySet()) {
-            CacheKey cacheKey = entry.getKey();
-            ExecutionPlan executionPlan = entry.getValue();
-            ensureValid(cacheKey, executionPlan);
+        final long start = System.nanoTime();
+        long invalidated = 0;
+        for (CacheKey cacheKey : placeHolderKeys) {
+            cache.invalidate(cacheKey);
+            invalidated++;
         }
+        for (ConcurrentHashMap<TableVersion, Set<CacheKey>> versions : tableIndex.values()) {
+            for (Map.Entry<TableVersion, Set<CacheKey>> entry : versions.entrySet()) {
+                if (entry.getKey().isLatest()) {
+                    continue;
+                }
+                for (CacheKey cacheKey : entry.getValue()) {
+                    cache.invalidate(cacheKey);
+                    invalidated++;
+                }
+            }
+        }
+        stats.recordInvalidation(invalidated, System.nanoTime() - start);
     }
 
     /**
@@ -290,16 +406,60 @@ public final class PlanCache {
         if (tableName == null || tableName.isEmpty()) {
             return;
         }
-        final String tableNameLowercase = tableName.toLowerCase();
-        Set<CacheKey> cacheKeys = Sets.newHashSet();
-        cacheKeys.addAll(cache.asMap().keySet());
+        final long start = System.nanoTime();
+        long invalidated = 0;
+        Map<TableVersion, Set<CacheKey>> versions = tableIndex.remove(tableName.toLowerCase());
+        if (versions != null) {
+            for (Set<CacheKey> cacheKeys : versions.values()) {
+                for (CacheKey cacheKey : cacheKeys) {
+                    cache.invalidate(cacheKey);
+                    invalidated++;
+                }
+            }
+        }
+        stats.recordInvalidation(invalidated, System.nanoTime() - start);
+    }
 
-        for (CacheKey cacheKey : cacheKeys) {
-            if (cacheKey.getTableMetas().stream().anyMatch(
-                meta -> EagleeyeHelper.rebuildTableName(meta.getTableName(), cacheKey.testing).toLowerCase()
-                    .equals(tableNameLowercase))) {
-                cache.invalidate(cacheKey);
+    /**
+     * 表索引中的表版本
+     */
+    private static final class TableVersion {
+        final String schemaName;
+        final String tableName;
+        final long version;
+
+        TableVersion(TableMeta meta) {
+            this.schemaName = meta.getSchemaName();
+            this.tableName = meta.getTableName();
+            this.version = meta.getVersion();
+        }
+
+        boolean isLatest() {
+            OptimizerContext context = OptimizerContext.getContext(schemaName);
+            if (context == null) {
+                return false;
+            }
+            TableMeta newVersionMeta = context.getLatestSchemaManager().getTableWithNull(tableName);
+            return newVersionMeta != null && newVersionMeta.getVersion() <= version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
             }
+            TableVersion that = (TableVersion) o;
+            return version == that.version
+                && Objects.equals(schemaName, that.schemaName)
+                && Objects.equals(tableName, that.tableName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(schemaName, tableName, version);
         }
     }
 
@@ -555,6 +715,7 @@ public final class PlanCache {
         try {
             if (cacheKey != null && plan != null) {
                 cache.put(cacheKey, plan);
+                index(cacheKey, plan);
             }
         } catch (Throwable ex) {
             logger.warn("update cache plan failed!!!", ex);
@@ -592,6 +753,12 @@ public final class PlanCache {
             this.cache = newCache;
             this.currentCapacity = newSize;
             oldCache.invalidateAll();
+            // 旧 cache 的淘汰通知已被忽略，按新 cache 重建索引
+            tableIndex.clear();
+            placeHolderKeys.clear();
+            for (Map.Entry<CacheKey, ExecutionPlan> entry : newCache.asMap().entrySet()) {
+                index(entry.getKey(), entry.getValue());
+            }
             newInfo = getCurrentCapacityInfo();
         }
         return new Pair<>(oldInfo, newInfo);
@@ -619,6 +786,92 @@ public final class PlanCache {
         }
     }
 
+    /**
+     * 单个 schema 的 plan cache 统计
+     */
+    public static class Stats {
+        final AtomicLong hitCount = new AtomicLong();
+        final AtomicLong missCount = new AtomicLong();
+        final AtomicLong evictBySize = new AtomicLong();
+        final AtomicLong evictByExpire = new AtomicLong();
+        final AtomicLong evictByGc = new AtomicLong();
+        final AtomicLong evictExplicit = new AtomicLong();
+        final AtomicLong invalidateCount = new AtomicLong();
+        final AtomicLong invalidatedKeys = new AtomicLong();
+        final AtomicLong invalidateNanos = new AtomicLong();
+
+        void recordRemoval(RemovalCause cause) {
+            switch (cause) {
+            case SIZE:
+                evictBySize.incrementAndGet();
+                break;
+            case EXPIRED:
+                evictByExpire.incrementAndGet();
+                break;
+            case COLLECTED:
+                evictByGc.incrementAndGet();
+                break;
+            case EXPLICIT:
+                evictExplicit.incrementAndGet();
+                break;
+            default:
+                break;
+            }
+        }
+
+        void recordInvalidation(long keys, long nanos) {
+            invalidateCount.incrementAndGet();
+            invalidatedKeys.addAndGet(keys);
+            invalidateNanos.addAndGet(nanos);
+        }
+
+        public long getHitCount() {
+            return hitCount.get();
+        }
+
+        public long getMissCount() {
+            return missCount.get();
+        }
+
+        public double getHitRatio() {
+            long hit = hitCount.get();
+            long total = hit + missCount.get();
+            return total == 0 ? 0 : (double) hit / total;
+        }
+
+        public long getEvictBySize() {
+            return evictBySize.get();
+        }
+
+        public long getEvictByExpire() {
+            return evictByExpire.get();
+        }
+
+        public long getEvictByGc() {
+            return evictByGc.get();
+        }
+
+        public long getEvictExplicit() {
+            return evictExplicit.get();
+        }
+
+        public long getInvalidateCount() {
+            return invalidateCount.get();
+        }
+
+        public long getInvalidatedKeys() {
+            return invalidatedKeys.get();
+        }
+
+        public long getInvalidateTimeMicros() {
+            return TimeUnit.NANOSECONDS.toMicros(invalidateNanos.get());
+        }
+    }
+
+    public Stats getStats() {
+        return stats;
+    }
+
     public Cache<CacheKey, ExecutionPlan> getCache() {
         return cache;
     }
@@ -627,6 +880,21 @@ public final class PlanCache {
         return this.cache.size();
     }
 
+    /**
+     * 表索引中引用该表的 cache key 数，仅用于测试
+     */
+    int getIndexedKeyCount(String tableName) {
+        Map<TableVersion, Set<CacheKey>> versions = tableIndex.get(tableName.toLowerCase());
+        if (versions == null) {
+            return 0;
+        }
+        return versions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    int getPlaceHolderKeyCount() {
+        return placeHolderKeys.size();
+    }
+
     public long getCurrentCapacity() {
         return currentCapacity;
     }
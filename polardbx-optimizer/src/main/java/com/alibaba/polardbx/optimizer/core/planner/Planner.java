@@ -302,9 +302,11 @@ public class Planner {
             return null;
         }
 
-        final SQLStatement statement = parameterized.getStmt();
-        if (statement instanceof MySqlExplainStatement && !(((MySqlExplainStatement) statement).isDescribe())) {
-            parameterized = handleExplain(sql, (MySqlExplainStatement) statement, executionContext);
+        if (MySqlExplainStatement.class.isAssignableFrom(parameterized.getStmtClass())) {
+            final MySqlExplainStatement statement = (MySqlExplainStatement) parameterized.getStmt();
+            if (!statement.isDescribe()) {
+                parameterized = handleExplain(sql, statement, executionContext);
+            }
         }
 
         return doPlan(sqlType, parameterized, executionContext, sqlNodeList, forPrepare);
@@ -332,7 +334,7 @@ public class Planner {
         }
 
         SqlParameterized result =
-            SqlParameterizeUtils.parameterize(afterProcessSql, currentParameter, executionContext, forPrepare);
+            SqlParameterizeUtils.fastParameterize(afterProcessSql, currentParameter, executionContext, forPrepare);
 
         if (enableSqlCpu) {
             executionContext.getRuntimeStatistics()
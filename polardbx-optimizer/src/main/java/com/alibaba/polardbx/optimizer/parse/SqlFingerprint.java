@@ -0,0 +1,181 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.optimizer.parse;
+
+import com.alibaba.polardbx.druid.sql.dialect.mysql.parser.MySqlLexer;
+import com.alibaba.polardbx.druid.sql.parser.ByteString;
+import com.alibaba.polardbx.druid.sql.parser.ParserException;
+import com.alibaba.polardbx.druid.sql.parser.SQLParserFeature;
+import com.alibaba.polardbx.druid.sql.parser.Token;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于词法扫描的 SQL 指纹：一次遍历 token 流，把字面量替换为类型占位符并按出现顺序抽取参数值。
+ * 遇到注释、hint、变量、多语句等无法保证与完整参数化结果一致的结构时返回 null，由调用方走完整解析。
+ */
+public final class SqlFingerprint {
+
+    private static final BigInteger MAX_UNSIGNED_INT64 = new BigInteger(Long.toUnsignedString(0xffffffffffffffffL));
+    private static final BigInteger MIN_SIGNED_INT64 = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger MAX_SIGNED_INT64 = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private final String key;
+    private final List<Object> parameters;
+
+    private SqlFingerprint(String key, List<Object> parameters) {
+        this.key = key;
+        this.parameters = parameters;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    public static SqlFingerprint of(ByteString sql, SQLParserFeature... features) {
+        MySqlLexer lexer = new MySqlLexer(sql, false, false);
+        if (features != null) {
+            for (SQLParserFeature feature : features) {
+                lexer.config(feature, true);
+            }
+        }
+
+        try {
+            lexer.nextToken();
+            switch (lexer.token()) {
+            case SELECT:
+            case INSERT:
+            case REPLACE:
+            case UPDATE:
+            case DELETE:
+                break;
+            default:
+                return null;
+            }
+
+            StringBuilder key = new StringBuilder(sql.length());
+            List<Object> parameters = new ArrayList<>();
+            Token last = null;
+            for (; ; ) {
+                final Token token = lexer.token();
+                switch (token) {
+                case EOF:
+                    return new SqlFingerprint(key.toString(), parameters);
+                case LITERAL_INT: {
+                    Number number = normalizeInteger(lexer.integerValue());
+                    appendMarker(key, number, number.toString().charAt(0) == '-');
+                    parameters.add(number);
+                    break;
+                }
+                case LITERAL_FLOAT: {
+                    String text = sourceText(sql, lexer);
+                    Number number = text.indexOf('e') >= 0 || text.indexOf('E') >= 0 ?
+                        (Number) Double.parseDouble(text) : new BigDecimal(text);
+                    appendMarker(key, number, text.charAt(0) == '-');
+                    parameters.add(number);
+                    break;
+                }
+                case LITERAL_CHARS:
+                    // 只接受单引号字符串；相邻字符串会被拼接，标识符后的字符串可能是字符集前缀或 x''/b'' 字面量
+                    if (sql.charAt(lexer.getStartPos()) != '\''
+                        || last == Token.LITERAL_CHARS
+                        || last == Token.IDENTIFIER) {
+                        return null;
+                    }
+                    key.append("?s");
+                    parameters.add(lexer.stringVal());
+                    break;
+                case IDENTIFIER:
+                    key.append(sourceText(sql, lexer));
+                    break;
+                case LITERAL_HEX:
+                case LITERAL_NCHARS:
+                case LITERAL_ALIAS:
+                case LITERAL_PATH:
+                case BITS:
+                case VARIANT:
+                case QUES:
+                case QUESQUES:
+                case QUESBAR:
+                case QUESAMP:
+                case HINT:
+                case LINE_COMMENT:
+                case MULTI_LINE_COMMENT:
+                case SEMI:
+                case ERROR:
+                    return null;
+                default:
+                    key.append(token.name != null ? token.name : sourceText(sql, lexer));
+                    break;
+                }
+                key.append(' ');
+                last = token;
+                lexer.nextToken();
+            }
+        } catch (ParserException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 与 DrdsParameterizeSqlVisitor#printInteger 保持一致的整数归一化
+     */
+    private static Number normalizeInteger(Number number) {
+        if (number instanceof BigInteger) {
+            BigInteger bigInteger = (BigInteger) number;
+            if (bigInteger.compareTo(MAX_UNSIGNED_INT64) > 0 || bigInteger.compareTo(MIN_SIGNED_INT64) < 0) {
+                return new BigDecimal(bigInteger);
+            } else if (bigInteger.compareTo(MAX_SIGNED_INT64) <= 0) {
+                return bigInteger.longValue();
+            }
+        }
+        return number;
+    }
+
+    /**
+     * 占位符携带值的 Java 类型和符号，保证同一指纹下参数类型一致
+     */
+    private static void appendMarker(StringBuilder key, Number number, boolean negative) {
+        key.append('?');
+        if (number instanceof Integer) {
+            key.append('i');
+        } else if (number instanceof Long) {
+            key.append('l');
+        } else if (number instanceof BigInteger) {
+            key.append('u');
+        } else if (number instanceof Double) {
+            key.append('e');
+        } else {
+            key.append('d');
+        }
+        if (negative) {
+            key.append('-');
+        }
+    }
+
+    private static String sourceText(ByteString sql, MySqlLexer lexer) {
+        return sql.substring(lexer.getStartPos(), Math.min(lexer.pos(), sql.length())).trim();
+    }
+}
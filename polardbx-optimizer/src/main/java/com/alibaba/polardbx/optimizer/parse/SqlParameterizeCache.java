@@ -0,0 +1,190 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.optimizer.parse;
+
+import com.alibaba.polardbx.common.utils.Pair;
+import com.alibaba.polardbx.druid.sql.ast.SQLStatement;
+import com.alibaba.polardbx.druid.sql.parser.ByteString;
+import com.alibaba.polardbx.optimizer.parse.bean.SqlParameterized;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 参数化模板缓存，key 为 {@link SqlFingerprint} 指纹。
+ * 同一指纹需要两次不同字面量的完整参数化结果一致后才会启用，否则标记为不支持，始终走完整解析。
+ */
+public final class SqlParameterizeCache {
+
+    private static final int DEFAULT_MAX_SIZE = 4096;
+
+    /**
+     * 命中后每隔若干次用完整解析复核一次模板
+     */
+    private static final long VERIFY_INTERVAL = 1024;
+
+    private static final SqlParameterizeCache INSTANCE = new SqlParameterizeCache(DEFAULT_MAX_SIZE);
+
+    enum State {
+        PENDING, ACTIVE, UNSUPPORTED
+    }
+
+    static final class Template {
+        final State state;
+        final String sql;
+        final Class<? extends SQLStatement> stmtClass;
+        final Set<Pair<String, String>> tables;
+        final List<Object> sampleParameters;
+
+        Template(State state, SqlParameterized parameterized) {
+            this.state = state;
+            this.sql = parameterized == null ? null : parameterized.getSql();
+            // 只保存语句类型，共享的AST带有首条语句的字面量
+            this.stmtClass = parameterized == null ? null : parameterized.getStmtClass();
+            this.tables = parameterized == null ? null : parameterized.getTables();
+            this.sampleParameters = parameterized == null ? null : new ArrayList<>(parameterized.getParameters());
+        }
+    }
+
+    private static final Template UNSUPPORTED = new Template(State.UNSUPPORTED, null);
+
+    private final Cache<String, Template> cache;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong bypassCount = new AtomicLong();
+    private final AtomicLong verifyTick = new AtomicLong();
+
+    SqlParameterizeCache(int maxSize) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    public static SqlParameterizeCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 命中已启用的模板时直接拼装参数化结果，否则返回 null
+     */
+    SqlParameterized lookup(ByteString sql, SqlFingerprint fingerprint) {
+        Template template = cache.getIfPresent(fingerprint.getKey());
+        if (template == null || template.state != State.ACTIVE) {
+            if (template != null && template.state == State.UNSUPPORTED) {
+                bypassCount.incrementAndGet();
+            } else {
+                missCount.incrementAndGet();
+            }
+            return null;
+        }
+        if (verifyTick.incrementAndGet() % VERIFY_INTERVAL == 0) {
+            // 交给调用方完整解析后走 learn 复核
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return new SqlParameterized(sql, template.sql, fingerprint.getParameters(), template.stmtClass,
+            template.tables);
+    }
+
+    /**
+     * 用完整参数化的结果校验并推进指纹对应模板的状态
+     */
+    void learn(SqlFingerprint fingerprint, SqlParameterized parameterized) {
+        final String key = fingerprint.getKey();
+        final ConcurrentMap<String, Template> map = cache.asMap();
+        if (parameterized == null
+            || !parameterized.needCache()
+            || !sameParameters(fingerprint.getParameters(), parameterized.getParameters())) {
+            map.put(key, UNSUPPORTED);
+            return;
+        }
+
+        Template current = map.get(key);
+        if (current == null) {
+            map.putIfAbsent(key, new Template(State.PENDING, parameterized));
+            return;
+        }
+        switch (current.state) {
+        case PENDING:
+            if (!current.sql.equals(parameterized.getSql())) {
+                map.replace(key, current, UNSUPPORTED);
+            } else if (!current.sampleParameters.equals(parameterized.getParameters())) {
+                // 不同字面量得到同一模板，说明模板与取值无关
+                map.replace(key, current, new Template(State.ACTIVE, parameterized));
+            }
+            break;
+        case ACTIVE:
+            if (!current.sql.equals(parameterized.getSql())) {
+                map.replace(key, current, UNSUPPORTED);
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    void bypass() {
+        bypassCount.incrementAndGet();
+    }
+
+    private static boolean sameParameters(List<Object> expected, List<Object> actual) {
+        if (expected.size() != actual.size()) {
+            return false;
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            Object e = expected.get(i);
+            Object a = actual.get(i);
+            if (e == null || a == null || e.getClass() != a.getClass() || !Objects.equals(e, a)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getBypassCount() {
+        return bypassCount.get();
+    }
+
+    public double getHitRatio() {
+        long hit = hitCount.get();
+        long total = hit + missCount.get() + bypassCount.get();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -31,6 +31,7 @@ import com.alibaba.polardbx.druid.sql.visitor.VisitorFeature;
 import com.alibaba.polardbx.druid.util.JdbcConstants;
 import com.google.common.collect.Lists;
 import com.alibaba.polardbx.common.jdbc.ParameterContext;
+import com.alibaba.polardbx.common.properties.ConnectionParams;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.parse.bean.SqlParameterized;
 import com.alibaba.polardbx.optimizer.parse.visitor.DrdsParameterizeSqlVisitor;
@@ -79,6 +80,17 @@ public class SqlParameterizeUtils {
                                                 Map<Integer, ParameterContext> parameters,
                                                 ExecutionContext executionContext,
                                                 boolean forPrepare) {
+        final SQLStatement statement = parseStatement(sql);
+        if (statement == null) {
+            return null;
+        }
+        return parameterize(sql, statement, parameters, executionContext, forPrepare);
+    }
+
+    /**
+     * Parse the first statement of sql, or null if there is none
+     */
+    public static SQLStatement parseStatement(ByteString sql) {
         SQLStatementParser parser = SQLParserUtils.createSQLStatementParser(sql, JdbcConstants.MYSQL,
             SqlParameterizeUtils.parserFeatures);
 
@@ -86,8 +98,35 @@ public class SqlParameterizeUtils {
         if (statements.size() == 0) {
             return null;
         }
-        final SQLStatement statement = statements.get(0);
-        return parameterize(sql, statement, parameters, executionContext, forPrepare);
+        return statements.get(0);
+    }
+
+    /**
+     * 先按词法指纹查参数化模板缓存，未命中或不支持时退回完整解析
+     */
+    public static SqlParameterized fastParameterize(ByteString sql,
+                                                    Map<Integer, ParameterContext> parameters,
+                                                    ExecutionContext executionContext,
+                                                    boolean forPrepare) {
+        if ((parameters != null && parameters.size() > 0)
+            || !executionContext.getParamManager().getBoolean(ConnectionParams.ENABLE_PARAMETERIZE_CACHE)) {
+            return parameterize(sql, parameters, executionContext, forPrepare);
+        }
+
+        final SqlParameterizeCache cache = SqlParameterizeCache.getInstance();
+        final SqlFingerprint fingerprint = SqlFingerprint.of(sql, parserFeatures);
+        if (fingerprint == null) {
+            cache.bypass();
+            return parameterize(sql, parameters, executionContext, forPrepare);
+        }
+
+        SqlParameterized result = cache.lookup(sql, fingerprint);
+        if (result != null) {
+            return result;
+        }
+        result = parameterize(sql, parameters, executionContext, forPrepare);
+        cache.learn(fingerprint, result);
+        return result;
     }
 
     public static SqlParameterized parameterize(ByteString sql, SQLStatement statement,
@@ -118,11 +157,15 @@ public class SqlParameterizeUtils {
     }
 
     public static boolean needCache(SQLStatement stmt) {
-        return stmt instanceof SQLSelectStatement
-            || stmt instanceof SQLInsertStatement
-            || stmt instanceof SQLReplaceStatement
-            || stmt instanceof SQLUpdateStatement
-            || stmt instanceof SQLDeleteStatement;
+        return stmt != null && needCache(stmt.getClass());
+    }
+
+    public static boolean needCache(Class<? extends SQLStatement> stmtClass) {
+        return SQLSelectStatement.class.isAssignableFrom(stmtClass)
+            || SQLInsertStatement.class.isAssignableFrom(stmtClass)
+            || SQLReplaceStatement.class.isAssignableFrom(stmtClass)
+            || SQLUpdateStatement.class.isAssignableFrom(stmtClass)
+            || SQLDeleteStatement.class.isAssignableFrom(stmtClass);
     }
 
     private static SqlParameterized parameterizeStmt(SQLStatement stmt, ByteString sql,
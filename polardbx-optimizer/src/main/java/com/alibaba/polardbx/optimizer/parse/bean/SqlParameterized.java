@@ -17,6 +17,7 @@
 package com.alibaba.polardbx.optimizer.parse.bean;
 
 import com.alibaba.polardbx.common.jdbc.ParameterContext;
+import com.alibaba.polardbx.druid.sql.ast.SQLObjectImpl;
 import com.alibaba.polardbx.druid.sql.ast.SQLStatement;
 import com.alibaba.polardbx.druid.sql.ast.statement.SQLDeleteStatement;
 import com.alibaba.polardbx.druid.sql.ast.statement.SQLInsertStatement;
@@ -63,8 +64,11 @@ public class SqlParameterized {
      * non-parameterized sql ast
      * DO NOT use for execute
      * just for verify usage
+     * <p>
+     * Results of the parameterize cache parse it lazily from originSql, so it always holds the literals of this sql
      */
-    private final SQLStatement stmt;
+    private SQLStatement stmt;
+    private final Class<? extends SQLStatement> stmtClass;
     private final Set<Pair<String, String>> tables;
 
     /**
@@ -77,14 +81,38 @@ public class SqlParameterized {
         this.sql = sql;
         this.parameters = parameters;
         this.stmt = stmt;
+        this.stmtClass = stmt.getClass();
 
         FastSqlTableNameCollector collector = new FastSqlTableNameCollector();
         stmt.accept(collector);
         this.tables = collector.getTables();
     }
 
+    public SqlParameterized(ByteString originSql, String sql, List<Object> parameters, SQLStatement stmt,
+                            Set<Pair<String, String>> tables) {
+        this.originSql = originSql;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.stmt = stmt;
+        this.stmtClass = stmt.getClass();
+        this.tables = tables;
+    }
+
+    /**
+     * Result of the parameterize cache, the statement is parsed from originSql on first access
+     */
+    public SqlParameterized(ByteString originSql, String sql, List<Object> parameters,
+                            Class<? extends SQLStatement> stmtClass, Set<Pair<String, String>> tables) {
+        this.originSql = originSql;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.stmt = null;
+        this.stmtClass = stmtClass;
+        this.tables = tables;
+    }
+
     public SQLStatement getAst() {
-        return this.stmt;
+        return getStmt();
     }
 
     public ByteString getOriginSql() {
@@ -96,9 +124,27 @@ public class SqlParameterized {
     }
 
     public SQLStatement getStmt() {
+        if (stmt == null) {
+            stmt = SqlParameterizeUtils.parseStatement(originSql);
+        }
         return stmt;
     }
 
+    public Class<? extends SQLStatement> getStmtClass() {
+        return stmtClass;
+    }
+
+    /**
+     * Sql accepted by the parameterize cache never has hints or comments, so there is no need to parse it
+     */
+    public boolean hasHint() {
+        if (stmt == null) {
+            return false;
+        }
+        return stmt.getHeadHintsDirect() != null
+            || (stmt instanceof SQLObjectImpl && ((SQLObjectImpl) stmt).getHint() != null);
+    }
+
     public List<Object> getParameters() {
         return parameters;
     }
@@ -108,21 +154,21 @@ public class SqlParameterized {
     }
 
     public boolean needCache() {
-        return SqlParameterizeUtils.needCache(stmt);
+        return SqlParameterizeUtils.needCache(stmtClass);
     }
 
     public boolean isUpdateDelete() {
-        return stmt instanceof SQLUpdateStatement
-            || stmt instanceof SQLDeleteStatement;
+        return SQLUpdateStatement.class.isAssignableFrom(stmtClass)
+            || SQLDeleteStatement.class.isAssignableFrom(stmtClass);
     }
 
     public boolean isDML() {
-        return stmt instanceof SQLInsertStatement
-            || stmt instanceof SQLReplaceStatement
-            || stmt instanceof SQLUpdateStatement
-            || stmt instanceof SQLDeleteStatement
-            || stmt instanceof MySqlLoadDataInFileStatement
-            || stmt instanceof MySqlLoadXmlStatement;
+        return SQLInsertStatement.class.isAssignableFrom(stmtClass)
+            || SQLReplaceStatement.class.isAssignableFrom(stmtClass)
+            || SQLUpdateStatement.class.isAssignableFrom(stmtClass)
+            || SQLDeleteStatement.class.isAssignableFrom(stmtClass)
+            || MySqlLoadDataInFileStatement.class.isAssignableFrom(stmtClass)
+            || MySqlLoadXmlStatement.class.isAssignableFrom(stmtClass);
     }
 
     public long getDigest() {
@@ -17,6 +17,7 @@
 package com.alibaba.polardbx.optimizer.planmanager;
 
 import com.alibaba.polardbx.druid.sql.ast.SQLObjectImpl;
+import com.alibaba.polardbx.druid.sql.ast.SQLStatement;
 import com.alibaba.polardbx.druid.sql.ast.TDDLHint;
 import com.alibaba.polardbx.druid.sql.ast.statement.SQLDeleteStatement;
 import com.alibaba.polardbx.druid.sql.ast.statement.SQLInsertStatement;
@@ -617,28 +618,31 @@ public class PlanManagerUtil {
          * hint judgement, sql with hint should avoid get into spm
          */
 
-        if (sqlParameterized.getAst().getHeadHintsDirect() != null) {
-            if (sqlParameterized.getAst().getHeadHintsDirect().stream()
-                .anyMatch(sqlCommentHint -> sqlCommentHint instanceof TDDLHint)) {
-                return false;
+        if (sqlParameterized.hasHint()) {
+            if (sqlParameterized.getAst().getHeadHintsDirect() != null) {
+                if (sqlParameterized.getAst().getHeadHintsDirect().stream()
+                    .anyMatch(sqlCommentHint -> sqlCommentHint instanceof TDDLHint)) {
+                    return false;
+                }
             }
-        }
 
-        if ((sqlParameterized.getAst() instanceof SQLObjectImpl)
-            && ((SQLObjectImpl) (sqlParameterized.getAst())).getHint() != null) {
-            if (((SQLObjectImpl) (sqlParameterized.getAst())).getHint() instanceof TDDLHint) {
-                return false;
+            if ((sqlParameterized.getAst() instanceof SQLObjectImpl)
+                && ((SQLObjectImpl) (sqlParameterized.getAst())).getHint() != null) {
+                if (((SQLObjectImpl) (sqlParameterized.getAst())).getHint() instanceof TDDLHint) {
+                    return false;
+                }
             }
         }
 
         /**
          * sql type judgement, only support SELECT/INSERT/UPDATE/DELETE get into plancache
          */
+        final Class<? extends SQLStatement> stmtClass = sqlParameterized.getStmtClass();
         if (
-            !(sqlParameterized.getAst() instanceof SQLSelectStatement ||
-                sqlParameterized.getAst() instanceof SQLInsertStatement ||
-                sqlParameterized.getAst() instanceof SQLUpdateStatement ||
-                sqlParameterized.getAst() instanceof SQLDeleteStatement)) {
+            !(SQLSelectStatement.class.isAssignableFrom(stmtClass) ||
+                SQLInsertStatement.class.isAssignableFrom(stmtClass) ||
+                SQLUpdateStatement.class.isAssignableFrom(stmtClass) ||
+                SQLDeleteStatement.class.isAssignableFrom(stmtClass))) {
             return false;
         }
 
@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.optimizer.utils;
 
+import com.alibaba.polardbx.optimizer.ccl.common.CclAdaptiveLimiter;
 import com.alibaba.polardbx.optimizer.ccl.common.CclContext;
 import com.alibaba.polardbx.optimizer.ccl.common.CclRuleInfo;
 import com.alibaba.polardbx.optimizer.ccl.common.RescheduleTask;
@@ -49,10 +50,7 @@ public class CclUtils {
 
     private final static Function<CclRuleInfo<RescheduleTask>, Boolean> rescheduleCallback =
         (CclRuleInfo<RescheduleTask> cclRuleInfo) -> {
-            boolean deliverResult = deliverRunningCount(cclRuleInfo);
-            if (!deliverResult) {
-                CclUtils.exitRunning(cclRuleInfo);
-            }
+            CclUtils.releaseRunning(cclRuleInfo);
             CclUtils.exitStaying(cclRuleInfo);
             return Boolean.TRUE;
         };
@@ -71,7 +69,7 @@ public class CclUtils {
 
     public static boolean enterRunning(CclRuleInfo cclRuleInfo) {
         return CclUtils
-            .atomicallyIncrementCount(cclRuleInfo.getRunningCount(), cclRuleInfo.getCclRuleRecord().parallelism);
+            .atomicallyIncrementCount(cclRuleInfo.getRunningCount(), cclRuleInfo.getConcurrencyLimit());
     }
 
     public static void exitRunning(CclRuleInfo cclRuleInfo) {
@@ -87,6 +85,42 @@ public class CclUtils {
         cclRuleInfo.getStayCount().decrementAndGet();
     }
 
+    /**
+     * Hand the running slot of a finished query over to a waiting one, or give it back
+     * when an adaptive rule has lowered its limit.
+     */
+    public static <T> void releaseRunning(CclRuleInfo<T> cclRuleInfo) {
+        if (cclRuleInfo.getAdaptiveLimiter() == null) {
+            boolean deliverResult = deliverRunningCount(cclRuleInfo);
+            if (!deliverResult) {
+                exitRunning(cclRuleInfo);
+            }
+            return;
+        }
+        if (cclRuleInfo.getRunningCount().get() > cclRuleInfo.getConcurrencyLimit()) {
+            exitRunning(cclRuleInfo);
+            return;
+        }
+        boolean deliverResult = deliverRunningCount(cclRuleInfo);
+        if (!deliverResult) {
+            exitRunning(cclRuleInfo);
+        }
+        //the limit might have been raised
+        tryPollWaitQueue(cclRuleInfo);
+    }
+
+    /**
+     * Feed the running time of a finished query to the limiter of an adaptive rule.
+     */
+    public static void sampleRunning(CclRuleInfo cclRuleInfo, long runningStartNanos) {
+        CclAdaptiveLimiter limiter = cclRuleInfo.getAdaptiveLimiter();
+        if (limiter == null || runningStartNanos <= 0) {
+            return;
+        }
+        limiter.onSample(System.nanoTime() - runningStartNanos, cclRuleInfo.getRunningCount().get(),
+            cclRuleInfo.getCclRuleRecord().parallelism);
+    }
+
     public static <T> boolean deliverRunningCount(CclRuleInfo<T> cclRuleInfo) {
         Queue<T> queue = cclRuleInfo.getWaitQueue();
         T obj = queue.poll();
@@ -117,6 +151,7 @@ public class CclUtils {
     }
 
     public static boolean wakenUp(RescheduleTask rescheduleTask) {
+        rescheduleTask.setRunningStartNanos(System.nanoTime());
         boolean wakeUpResult = rescheduleTask.getReschedulable().reschedule(rescheduleCallback);
         return wakeUpResult;
     }
@@ -114,6 +114,12 @@ public class LoadDataCacheManager {
         }
     }
 
+    public long getAllocatedMemory() {
+        synchronized (lock) {
+            return memoryAllocatorCtx.getAllAllocated();
+        }
+    }
+
     public long getNotFullThreshold() {
         return notFullThreshold;
     }
@@ -1387,7 +1387,17 @@ public class InformationSchemaViewManager extends ViewManager {
             "COMPUTE_NODE",
             "SCHEMA_NAME",
             "CACHE_KEY_CNT",
-            "CAPACITY"
+            "CAPACITY",
+            "HIT_COUNT",
+            "MISS_COUNT",
+            "HIT_RATIO",
+            "EVICT_SIZE",
+            "EVICT_EXPIRE",
+            "EVICT_GC",
+            "EVICT_EXPLICIT",
+            "INVALIDATE_COUNT",
+            "INVALIDATE_KEYS",
+            "INVALIDATE_TIME_US"
         });
 
         defineVirtualView(VirtualViewType.SPM, new String[] {
@@ -1434,7 +1444,11 @@ public class InformationSchemaViewManager extends ViewManager {
             "KEYWORDS",
             "TEMPLATE_ID",
             "QUERY",
-            "CREATED_TIME"
+            "CREATED_TIME",
+            "ADAPTIVE",
+            "CURRENT_LIMIT",
+            "RTT_US",
+            "NO_LOAD_RTT_US"
         });
 
         defineVirtualView(VirtualViewType.CCL_TRIGGER, new String[] {
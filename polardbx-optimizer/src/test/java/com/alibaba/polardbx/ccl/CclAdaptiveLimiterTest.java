@@ -0,0 +1,60 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.ccl;
+
+import com.alibaba.polardbx.optimizer.ccl.common.CclAdaptiveLimiter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CclAdaptiveLimiterTest {
+
+    @Test
+    public void testGrowWithStableLatency() {
+        CclAdaptiveLimiter limiter = new CclAdaptiveLimiter(100);
+        Assert.assertEquals(CclAdaptiveLimiter.INITIAL_LIMIT, limiter.getLimit());
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(1_000_000L, limiter.getLimit(), 100);
+        }
+        Assert.assertEquals(100, limiter.getLimit());
+        Assert.assertEquals(1000, limiter.getRttMicros());
+    }
+
+    @Test
+    public void testShrinkWithInflatedLatency() {
+        CclAdaptiveLimiter limiter = new CclAdaptiveLimiter(100);
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(1_000_000L, limiter.getLimit(), 100);
+        }
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(10_000_000L, limiter.getLimit(), 100);
+        }
+        Assert.assertTrue(limiter.getLimit() < 50);
+        Assert.assertTrue(limiter.getRttMicros() > limiter.getNoLoadRttMicros());
+    }
+
+    @Test
+    public void testNotGrowWhenAppLimited() {
+        CclAdaptiveLimiter limiter = new CclAdaptiveLimiter(100);
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(1_000_000L, 1, 100);
+        }
+        Assert.assertEquals(CclAdaptiveLimiter.INITIAL_LIMIT, limiter.getLimit());
+
+        CclAdaptiveLimiter small = new CclAdaptiveLimiter(5);
+        Assert.assertEquals(5, small.getLimit());
+    }
+}
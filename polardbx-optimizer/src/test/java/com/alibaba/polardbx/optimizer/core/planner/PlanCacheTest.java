@@ -0,0 +1,135 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.planner;
+
+import com.alibaba.polardbx.gms.metadb.table.TableStatus;
+import com.alibaba.polardbx.optimizer.config.table.TableMeta;
+import com.alibaba.polardbx.optimizer.core.planner.PlanCache.CacheKey;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class PlanCacheTest {
+
+    private static final String SCHEMA = "plan_cache_test";
+
+    private static TableMeta table(String name, long version) {
+        TableMeta meta = new TableMeta(name, new ArrayList<>(), null, null, false, TableStatus.PUBLIC, version, 0);
+        meta.setSchemaName(SCHEMA);
+        return meta;
+    }
+
+    private static CacheKey key(String sql, TableMeta... tables) {
+        StringBuilder versionInfo = new StringBuilder();
+        for (TableMeta table : tables) {
+            versionInfo.append(table.getVersion()).append(',');
+        }
+        return new CacheKey(sql, versionInfo.toString(), Arrays.asList(tables), false, true);
+    }
+
+    private static ExecutionPlan plan() {
+        return new ExecutionPlan(null, null, null);
+    }
+
+    @Test
+    public void testIndexAndInvalidateByTable() {
+        PlanCache planCache = new PlanCache(SCHEMA);
+        TableMeta t1 = table("t1", 1);
+        TableMeta t2 = table("t2", 1);
+        planCache.putCachePlan(key("select * from t1", t1), plan());
+        planCache.putCachePlan(key("select * from t1 join t2", t1, t2), plan());
+        planCache.putCachePlan(key("select * from t2", t2), plan());
+        Assert.assertEquals(2, planCache.getIndexedKeyCount("t1"));
+        Assert.assertEquals(2, planCache.getIndexedKeyCount("T2"));
+
+        planCache.invalidate("T1");
+        Assert.assertEquals(1, planCache.getCacheKeyCount());
+        Assert.assertEquals(0, planCache.getIndexedKeyCount("t1"));
+        // 同时引用t2的计划被淘汰后，删除通知将其从t2的索引中移除
+        Assert.assertEquals(1, planCache.getIndexedKeyCount("t2"));
+        Assert.assertEquals(2, planCache.getStats().getInvalidatedKeys());
+        Assert.assertEquals(2, planCache.getStats().getEvictExplicit());
+
+        planCache.clean();
+        Assert.assertEquals(0, planCache.getIndexedKeyCount("t2"));
+    }
+
+    @Test
+    public void testReplacedKeepsIndex() {
+        PlanCache planCache = new PlanCache(SCHEMA);
+        TableMeta t1 = table("t1", 1);
+        CacheKey cacheKey = key("select * from t1", t1);
+        planCache.putCachePlan(cacheKey, PlaceHolderExecutionPlan.INSTANCE);
+        Assert.assertEquals(1, planCache.getPlaceHolderKeyCount());
+
+        // 替换不计入淘汰，索引保持不变
+        planCache.putCachePlan(cacheKey, plan());
+        Assert.assertEquals(1, planCache.getCacheKeyCount());
+        Assert.assertEquals(1, planCache.getIndexedKeyCount("t1"));
+        Assert.assertEquals(0, planCache.getPlaceHolderKeyCount());
+        Assert.assertEquals(0, planCache.getStats().getEvictExplicit());
+
+        planCache.invalidate("t1");
+        Assert.assertEquals(0, planCache.getCacheKeyCount());
+    }
+
+    @Test
+    public void testResize() {
+        PlanCache planCache = new PlanCache(SCHEMA);
+        TableMeta t1 = table("t1", 1);
+        TableMeta t2 = table("t2", 1);
+        planCache.putCachePlan(key("select * from t1", t1), plan());
+        planCache.putCachePlan(key("select * from t1 join t2", t1, t2), plan());
+        planCache.putCachePlan(key("select 1", new TableMeta[0]), PlaceHolderExecutionPlan.INSTANCE);
+
+        // 扩容时保留原有计划并按新 cache 重建索引，旧 cache 的通知不影响索引
+        planCache.resize(planCache.getCurrentCapacity() * 2);
+        Assert.assertEquals(3, planCache.getCacheKeyCount());
+        Assert.assertEquals(2, planCache.getIndexedKeyCount("t1"));
+        Assert.assertEquals(1, planCache.getIndexedKeyCount("t2"));
+        Assert.assertEquals(1, planCache.getPlaceHolderKeyCount());
+        Assert.assertEquals(0, planCache.getStats().getEvictExplicit());
+
+        planCache.invalidate("t2");
+        Assert.assertEquals(2, planCache.getCacheKeyCount());
+        Assert.assertEquals(1, planCache.getIndexedKeyCount("t1"));
+
+        // 缩容时清空
+        planCache.resize(planCache.getCurrentCapacity() / 2);
+        Assert.assertEquals(0, planCache.getCacheKeyCount());
+        Assert.assertEquals(0, planCache.getIndexedKeyCount("t1"));
+        Assert.assertEquals(0, planCache.getPlaceHolderKeyCount());
+    }
+
+    @Test
+    public void testInvalidateEvictsPlaceHolder() {
+        PlanCache planCache = new PlanCache(SCHEMA);
+        List<TableMeta> noTables = Collections.emptyList();
+        planCache.putCachePlan(new CacheKey("select 1", "", noTables, false, true),
+            PlaceHolderExecutionPlan.INSTANCE);
+        Assert.assertEquals(1, planCache.getCacheKeyCount());
+        Assert.assertEquals(1, planCache.getPlaceHolderKeyCount());
+
+        planCache.invalidate();
+        Assert.assertEquals(0, planCache.getCacheKeyCount());
+        Assert.assertEquals(0, planCache.getPlaceHolderKeyCount());
+    }
+}
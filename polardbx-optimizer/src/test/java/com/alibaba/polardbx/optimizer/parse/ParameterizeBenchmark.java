@@ -0,0 +1,101 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.optimizer.parse;
+
+import com.alibaba.polardbx.druid.sql.parser.ByteString;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.parse.bean.SqlParameterized;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 完整解析参数化与词法指纹缓存的对比
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParameterizeBenchmark {
+
+    @Param({
+        "select c1, c2 from t1 where id = %d and name = 'n%d'",
+        "insert into t1 (id, name, v) values (%d, 'n%d', 1.5)",
+        "update t1 set v = v + 1 where id = %d and name = 'n%d'"})
+    public String pattern;
+
+    private ExecutionContext executionContext;
+
+    private ByteString[] sqls;
+
+    private int index;
+
+    @Setup
+    public void setup() {
+        executionContext = new ExecutionContext();
+        sqls = new ByteString[1024];
+        for (int i = 0; i < sqls.length; i++) {
+            int v = ThreadLocalRandom.current().nextInt(1_000_000);
+            sqls[i] = ByteString.from(String.format(pattern, v, v));
+        }
+        SqlParameterizeCache.getInstance().invalidateAll();
+    }
+
+    private ByteString nextSql() {
+        return sqls[(index++) & (sqls.length - 1)];
+    }
+
+    @Benchmark
+    public SqlParameterized fullParse() {
+        return SqlParameterizeUtils.parameterize(nextSql(), null, executionContext, false);
+    }
+
+    @Benchmark
+    public SqlParameterized fingerprintCache() {
+        return SqlParameterizeUtils.fastParameterize(nextSql(), null, executionContext, false);
+    }
+
+    @Benchmark
+    public SqlFingerprint fingerprintOnly() {
+        return SqlFingerprint.of(nextSql());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(ParameterizeBenchmark.class.getSimpleName())
+            .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.optimizer.parse;
+
+import com.alibaba.polardbx.druid.sql.parser.ByteString;
+import com.alibaba.polardbx.optimizer.parse.bean.SqlParameterized;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+public class SqlFingerprintTest {
+
+    @Test
+    public void testFingerprint() {
+        SqlFingerprint f1 = SqlFingerprint.of(ByteString.from("select a from t where id = 12 and c = 'x''y' limit 10"));
+        SqlFingerprint f2 = SqlFingerprint.of(ByteString.from("SELECT a FROM t WHERE id=13 AND c='z' LIMIT 3"));
+        Assert.assertNotNull(f1);
+        Assert.assertNotNull(f2);
+        Assert.assertEquals(f1.getKey(), f2.getKey());
+        Assert.assertEquals(Arrays.<Object>asList(12, "x'y", 10), f1.getParameters());
+        Assert.assertEquals(Arrays.<Object>asList(13, "z", 3), f2.getParameters());
+    }
+
+    @Test
+    public void testNumberTypes() {
+        SqlFingerprint f = SqlFingerprint.of(ByteString.from(
+            "select * from t where a in (9223372036854775807, 18446744073709551615, 18446744073709551616, 8.8, -1)"));
+        Assert.assertNotNull(f);
+        Assert.assertEquals(Arrays.<Object>asList(Long.MAX_VALUE, new BigInteger("18446744073709551615"),
+            new BigDecimal("18446744073709551616"), new BigDecimal("8.8"), -1), f.getParameters());
+
+        SqlFingerprint small = SqlFingerprint.of(ByteString.from(
+            "select * from t where a in (1, 2, 3, 4, 5)"));
+        Assert.assertNotEquals(f.getKey(), small.getKey());
+    }
+
+    @Test
+    public void testUnsupported() {
+        Assert.assertNull(SqlFingerprint.of(ByteString.from("/*+TDDL:slave()*/ select 1")));
+        Assert.assertNull(SqlFingerprint.of(ByteString.from("select 1 -- comment")));
+        Assert.assertNull(SqlFingerprint.of(ByteString.from("select * from t where a = @v")));
+        Assert.assertNull(SqlFingerprint.of(ByteString.from("select * from t where a = ?")));
+        Assert.assertNull(SqlFingerprint.of(ByteString.from("select _utf8'x' from t")));
+        Assert.assertNull(SqlFingerprint.of(ByteString.from("select 'a' 'b' from t")));
+        Assert.assertNull(SqlFingerprint.of(ByteString.from("select 0x1F from t")));
+        Assert.assertNull(SqlFingerprint.of(ByteString.from("select 1; select 2")));
+        Assert.assertNull(SqlFingerprint.of(ByteString.from("show tables")));
+    }
+
+    @Test
+    public void testCacheLearn() {
+        SqlParameterizeCache cache = new SqlParameterizeCache(16);
+        String[] sqls = {
+            "select a from t where id = 1 and name = 'a'",
+            "select a from t where id = 2 and name = 'b'",
+            "select a from t where id = 3 and name = 'c'"};
+
+        SqlParameterized expected = null;
+        for (int i = 0; i < sqls.length; i++) {
+            ByteString sql = ByteString.from(sqls[i]);
+            SqlFingerprint fingerprint = SqlFingerprint.of(sql);
+            SqlParameterized cached = cache.lookup(sql, fingerprint);
+            expected = SqlParameterizeUtils.parameterize(sqls[i]);
+            if (i < 2) {
+                Assert.assertNull(cached);
+                cache.learn(fingerprint, expected);
+            } else {
+                Assert.assertNotNull(cached);
+                Assert.assertEquals(expected.getSql(), cached.getSql());
+                Assert.assertEquals(expected.getParameters(), cached.getParameters());
+                Assert.assertEquals(expected.getTables(), cached.getTables());
+                Assert.assertEquals(expected.getStmtClass(), cached.getStmtClass());
+                Assert.assertFalse(cached.hasHint());
+                // 命中时不共享首条语句的AST，按需解析出本条语句的字面量
+                Assert.assertEquals(expected.getStmt().toString(), cached.getStmt().toString());
+            }
+        }
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testCacheRejectValueDependentTemplate() {
+        SqlParameterizeCache cache = new SqlParameterizeCache(16);
+        // 投影中的常量会出现在别名里，模板随取值变化
+        String[] sqls = {"select 1 from t", "select 2 from t", "select 3 from t"};
+        for (String s : sqls) {
+            ByteString sql = ByteString.from(s);
+            SqlFingerprint fingerprint = SqlFingerprint.of(sql);
+            Assert.assertNull(cache.lookup(sql, fingerprint));
+            cache.learn(fingerprint, SqlParameterizeUtils.parameterize(s));
+        }
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(1, cache.getBypassCount());
+    }
+}
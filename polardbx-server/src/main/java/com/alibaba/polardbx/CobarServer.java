@@ -56,6 +56,9 @@ import com.alibaba.polardbx.manager.ManagerConnectionFactory;
 import com.alibaba.polardbx.matrix.jdbc.TDataSource;
 import com.alibaba.polardbx.net.NIOAcceptor;
 import com.alibaba.polardbx.net.NIOProcessor;
+import com.alibaba.polardbx.net.buffer.BufferPool;
+import com.alibaba.polardbx.net.buffer.IBufferPool;
+import com.alibaba.polardbx.net.buffer.ThreadLocalBufferPool;
 import com.alibaba.polardbx.net.util.TimeUtil;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.expression.ExtraFunctionManager;
@@ -206,7 +209,7 @@ public class CobarServer extends AbstractLifecycle implements Lifecycle {
             processors = new NIOProcessor[system.getProcessors()];
             for (int i = 0; i < processors.length; i++) {
                 processors[i] = new NIOProcessor(i, "Processor" + i,
-                    this.serverExecutor);
+                    this.serverExecutor, createBufferPool(system), system.isReactorInlineWrite());
                 processors[i].startup();
             }
 
@@ -485,6 +488,18 @@ public class CobarServer extends AbstractLifecycle implements Lifecycle {
         }
     }
 
+    /**
+     * 按bufferPoolMode为每个processor创建前端缓存池
+     */
+    private IBufferPool createBufferPool(SystemConfig system) {
+        if ("THREAD_LOCAL".equalsIgnoreCase(system.getBufferPoolMode())) {
+            return new ThreadLocalBufferPool(NIOProcessor.DEFAULT_BUFFER_SIZE,
+                NIOProcessor.DEFAULT_BUFFER_CHUNK_SIZE,
+                system.isBufferPoolDirect());
+        }
+        return new BufferPool(NIOProcessor.DEFAULT_BUFFER_SIZE, NIOProcessor.DEFAULT_BUFFER_CHUNK_SIZE);
+    }
+
     /**
      * 检查一下sslEnable设置,明确一下是否可以启用SSL
      */
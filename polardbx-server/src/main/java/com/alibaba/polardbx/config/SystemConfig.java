@@ -112,6 +112,26 @@ public final class SystemConfig {
     private int socketRecvBuffer = 32 * 1024;
     private int socketSendBuffer = 64 * 1024;
 
+    /**
+     * 前端缓存池模式，RING为单锁环形队列，THREAD_LOCAL为线程本地弹夹+无锁全局仓库
+     */
+    @Immutable
+    private String bufferPoolMode = "RING";
+    /**
+     * THREAD_LOCAL模式下是否使用堆外缓存
+     */
+    @Immutable
+    private boolean bufferPoolDirect = false;
+    /**
+     * 是否由提交数据的线程直接写出(合并多个缓存为一次gathering write)，关闭时使用独立的W线程
+     */
+    @Immutable
+    private boolean reactorInlineWrite = false;
+    /**
+     * 结果来自执行器Chunk时，是否直接按Chunk编码结果集行包
+     */
+    private volatile boolean chunkResultEncode = true;
+
     /**
      * 是否需要将在Calcite上执行异常的SQL在老Server的逻辑上进行重试，默认是打开，在随机SQL测试时要关闭
      */
@@ -707,6 +727,38 @@ public final class SystemConfig {
         this.socketSendBuffer = socketSendBuffer;
     }
 
+    public String getBufferPoolMode() {
+        return bufferPoolMode;
+    }
+
+    public void setBufferPoolMode(String bufferPoolMode) {
+        this.bufferPoolMode = bufferPoolMode;
+    }
+
+    public boolean isBufferPoolDirect() {
+        return bufferPoolDirect;
+    }
+
+    public void setBufferPoolDirect(boolean bufferPoolDirect) {
+        this.bufferPoolDirect = bufferPoolDirect;
+    }
+
+    public boolean isReactorInlineWrite() {
+        return reactorInlineWrite;
+    }
+
+    public void setReactorInlineWrite(boolean reactorInlineWrite) {
+        this.reactorInlineWrite = reactorInlineWrite;
+    }
+
+    public boolean isChunkResultEncode() {
+        return chunkResultEncode;
+    }
+
+    public void setChunkResultEncode(boolean chunkResultEncode) {
+        this.chunkResultEncode = chunkResultEncode;
+    }
+
     public String getVersionPrefix() {
         return versionPrefix;
     }
@@ -405,6 +405,26 @@ public final class ServerLoader extends AbstractLifecycle implements Lifecycle {
             this.system.setSocketSendBuffer(Integer.parseInt(socketSendBuffer));
         }
 
+        String bufferPoolMode = serverProps.getProperty("bufferPoolMode");
+        if (!StringUtil.isEmpty(bufferPoolMode)) {
+            this.system.setBufferPoolMode(bufferPoolMode.trim().toUpperCase());
+        }
+
+        String bufferPoolDirect = serverProps.getProperty("bufferPoolDirect");
+        if (!StringUtil.isEmpty(bufferPoolDirect)) {
+            this.system.setBufferPoolDirect(Boolean.parseBoolean(bufferPoolDirect));
+        }
+
+        String reactorInlineWrite = serverProps.getProperty("reactorInlineWrite");
+        if (!StringUtil.isEmpty(reactorInlineWrite)) {
+            this.system.setReactorInlineWrite(Boolean.parseBoolean(reactorInlineWrite));
+        }
+
+        String chunkResultEncode = serverProps.getProperty("chunkResultEncode");
+        if (!StringUtil.isEmpty(chunkResultEncode)) {
+            this.system.setChunkResultEncode(Boolean.parseBoolean(chunkResultEncode));
+        }
+
         String allowCrossDbQuery = serverProps.getProperty("allowCrossDbQuery");
         if (!TStringUtil.isEmpty(allowCrossDbQuery)) {
             this.system.setAllowCrossDbQuery(Boolean.parseBoolean(allowCrossDbQuery));
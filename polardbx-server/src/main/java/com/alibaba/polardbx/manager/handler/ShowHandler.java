@@ -68,6 +68,15 @@ public final class ShowHandler {
         case ManagerParseShow.THREADPOOL:
             ShowThreadPool.execute(c);
             break;
+        case ManagerParseShow.TSO:
+            ShowTso.execute(c);
+            break;
+        case ManagerParseShow.LOAD_DATA:
+            ShowLoadData.execute(c);
+            break;
+        case ManagerParseShow.OSS_BUFFER_POOL:
+            ShowOssBufferPool.execute(c);
+            break;
         case ManagerParseShow.MEMORYPOOL:
             ShowMemoryPool.execute(c);
             break;
@@ -61,6 +61,9 @@ public final class ManagerParseShow {
     public static final int MEMORYPOOL = 33;
     public static final int LEADER = 34;
     public static final int CCL_STATS = 35;
+    public static final int TSO = 36;
+    public static final int LOAD_DATA = 37;
+    public static final int OSS_BUFFER_POOL = 38;
 
     public static int parse(String stmt, int offset) {
         int i = offset;
@@ -109,7 +112,7 @@ public final class ManagerParseShow {
                     return show2HCheck(stmt, offset);
                 case 'L':
                 case 'l':
-                    return show2LeaderCheck(stmt, offset);
+                    return show2LCheck(stmt, offset);
                 case 'P':
                 case 'p':
                     return show2PCheck(stmt, offset);
@@ -125,6 +128,9 @@ public final class ManagerParseShow {
                 case 'M':
                 case 'm':
                     return show2MCheck(stmt, offset);
+                case 'O':
+                case 'o':
+                    return show2OssBufferPoolCheck(stmt, offset);
                 case 'V':
                 case 'v':
                     return show2VCheck(stmt, offset);
@@ -357,6 +363,77 @@ public final class ManagerParseShow {
         return OTHER;
     }
 
+    // SHOW @@L
+    static int show2LCheck(String stmt, int offset) {
+        if (stmt.length() > offset + 1) {
+            switch (stmt.charAt(offset + 1)) {
+            case 'E':
+            case 'e':
+                return show2LeaderCheck(stmt, offset);
+            case 'O':
+            case 'o':
+                return show2LoadDataCheck(stmt, offset);
+            default:
+                return OTHER;
+            }
+        }
+        return OTHER;
+    }
+
+    // SHOW @@LOAD_DATA
+    static int show2LoadDataCheck(String stmt, int offset) {
+        if (stmt.length() > offset + "OAD_DATA".length()) {
+            char c1 = stmt.charAt(++offset);
+            char c2 = stmt.charAt(++offset);
+            char c3 = stmt.charAt(++offset);
+            char c4 = stmt.charAt(++offset);
+            char c5 = stmt.charAt(++offset);
+            char c6 = stmt.charAt(++offset);
+            char c7 = stmt.charAt(++offset);
+            char c8 = stmt.charAt(++offset);
+            if ((c1 == 'O' || c1 == 'o') && (c2 == 'A' || c2 == 'a') && (c3 == 'D' || c3 == 'd') && c4 == '_'
+                && (c5 == 'D' || c5 == 'd') && (c6 == 'A' || c6 == 'a') && (c7 == 'T' || c7 == 't')
+                && (c8 == 'A' || c8 == 'a')) {
+                if (stmt.length() > ++offset && stmt.charAt(offset) != ' ') {
+                    return OTHER;
+                }
+                return LOAD_DATA;
+            }
+        }
+        return OTHER;
+    }
+
+    // SHOW @@OSS_BUFFER_POOL
+    static int show2OssBufferPoolCheck(String stmt, int offset) {
+        if (stmt.length() > offset + "SS_BUFFER_POOL".length()) {
+            char c1 = stmt.charAt(++offset);
+            char c2 = stmt.charAt(++offset);
+            char c3 = stmt.charAt(++offset);
+            char c4 = stmt.charAt(++offset);
+            char c5 = stmt.charAt(++offset);
+            char c6 = stmt.charAt(++offset);
+            char c7 = stmt.charAt(++offset);
+            char c8 = stmt.charAt(++offset);
+            char c9 = stmt.charAt(++offset);
+            char c10 = stmt.charAt(++offset);
+            char c11 = stmt.charAt(++offset);
+            char c12 = stmt.charAt(++offset);
+            char c13 = stmt.charAt(++offset);
+            char c14 = stmt.charAt(++offset);
+            if ((c1 == 'S' || c1 == 's') && (c2 == 'S' || c2 == 's') && c3 == '_'
+                && (c4 == 'B' || c4 == 'b') && (c5 == 'U' || c5 == 'u') && (c6 == 'F' || c6 == 'f')
+                && (c7 == 'F' || c7 == 'f') && (c8 == 'E' || c8 == 'e') && (c9 == 'R' || c9 == 'r') && c10 == '_'
+                && (c11 == 'P' || c11 == 'p') && (c12 == 'O' || c12 == 'o') && (c13 == 'O' || c13 == 'o')
+                && (c14 == 'L' || c14 == 'l')) {
+                if (stmt.length() > ++offset && stmt.charAt(offset) != ' ') {
+                    return OTHER;
+                }
+                return OSS_BUFFER_POOL;
+            }
+        }
+        return OTHER;
+    }
+
     // SHOW @@LEADER
     static int show2LeaderCheck(String stmt, int offset) {
         if (stmt.length() > offset + "EADER".length()) {
@@ -512,6 +589,9 @@ public final class ManagerParseShow {
             case 'I':
             case 'i':
                 return show2TiCheck(stmt, offset);
+            case 'S':
+            case 's':
+                return show2TsCheck(stmt, offset);
             default:
                 return OTHER;
             }
@@ -519,6 +599,20 @@ public final class ManagerParseShow {
         return OTHER;
     }
 
+    // SHOW @@TSO
+    static int show2TsCheck(String stmt, int offset) {
+        if (stmt.length() > offset + "O".length()) {
+            char c1 = stmt.charAt(++offset);
+            if (c1 == 'O' || c1 == 'o') {
+                if (stmt.length() > ++offset && stmt.charAt(offset) != ' ') {
+                    return OTHER;
+                }
+                return TSO;
+            }
+        }
+        return OTHER;
+    }
+
     // SHOW @@VERSION
     static int show2VCheck(String stmt, int offset) {
         if (stmt.length() > offset + "ERSION".length()) {
@@ -44,7 +44,7 @@ import com.alibaba.polardbx.server.util.StringUtil;
  */
 public final class ShowConnection {
 
-    private static final int FIELD_COUNT = 16;
+    private static final int FIELD_COUNT = 18;
     private static final ResultSetHeaderPacket header = PacketUtil.getHeader(FIELD_COUNT);
     private static final FieldPacket[] fields = new FieldPacket[FIELD_COUNT];
     private static final EOFPacket eof = new EOFPacket();
@@ -102,6 +102,12 @@ public final class ShowConnection {
         fields[i] = PacketUtil.getField("NEED_RECONNECT", Fields.FIELD_TYPE_LONG);
         fields[i++].packetId = ++packetId;
 
+        fields[i] = PacketUtil.getField("ENCODE_ROWS_PER_SEC", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("ENCODE_BYTES_PER_SEC", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
         eof.packetId = ++packetId;
     }
 
@@ -162,8 +168,12 @@ public final class ShowConnection {
         row.add(IntegerUtil.toBytes(bq == null ? 0 : bq.size()));
         int count = 0;
         int trx = 0;
+        long encodeRows = 0;
+        long encodeBytes = 0;
         if (c instanceof ServerConnection) {
             ServerConnection sc = (ServerConnection) c;
+            encodeRows = sc.getResultEncodeStats().getRowsPerSecond();
+            encodeBytes = sc.getResultEncodeStats().getBytesPerSecond();
             if (sc.getTddlConnection() != null) {
                 if (sc.getTddlConnection().getConnectionHolder() != null) {
                     count = sc.getTddlConnection().getConnectionHolder().getAllConnection().size();
@@ -177,6 +187,8 @@ public final class ShowConnection {
         row.add(IntegerUtil.toBytes(count));
         row.add(IntegerUtil.toBytes(trx));
         row.add(IntegerUtil.toBytes(c.isNeedReconnect() ? 1 : 0));
+        row.add(LongUtil.toBytes(encodeRows));
+        row.add(LongUtil.toBytes(encodeBytes));
         return row;
     }
 
@@ -107,6 +107,9 @@ public final class ShowHelp {
         helps.put("show @@version", "Report Cobar Server version");
         helps.put("show @@server", "Report server status");
         helps.put("show @@threadpool", "Report threadPool status");
+        helps.put("show @@tso", "Report TSO fetch latency, batch size and queueing time");
+        helps.put("show @@load_data", "Report progress and shard queue depth of running LOAD DATA");
+        helps.put("show @@oss_buffer_pool", "Report hit, miss and cached bytes of OSS buffer pool by table");
         helps.put("show @@database", "Report databases");
         helps.put("show @@processor", "Report processor status");
         helps.put("show @@command", "Report commands status");
@@ -0,0 +1,161 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.manager.response;
+
+import com.alibaba.polardbx.Fields;
+import com.alibaba.polardbx.manager.ManagerConnection;
+import com.alibaba.polardbx.net.buffer.ByteBufferHolder;
+import com.alibaba.polardbx.net.compress.IPacketOutputProxy;
+import com.alibaba.polardbx.net.compress.PacketOutputProxyFactory;
+import com.alibaba.polardbx.net.packet.EOFPacket;
+import com.alibaba.polardbx.net.packet.FieldPacket;
+import com.alibaba.polardbx.net.packet.ResultSetHeaderPacket;
+import com.alibaba.polardbx.net.packet.RowDataPacket;
+import com.alibaba.polardbx.optimizer.context.LoadDataContext;
+import com.alibaba.polardbx.server.handler.ServerLoadDataHandler;
+import com.alibaba.polardbx.server.util.LongUtil;
+import com.alibaba.polardbx.server.util.PacketUtil;
+import com.alibaba.polardbx.server.util.StringUtil;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 查看正在执行的 LOAD DATA 的进度、吞吐与各分片写入队列深度
+ */
+public final class ShowLoadData {
+
+    private static final int FIELD_COUNT = 10;
+    private static final ResultSetHeaderPacket header = PacketUtil.getHeader(FIELD_COUNT);
+    private static final FieldPacket[] fields = new FieldPacket[FIELD_COUNT];
+    private static final EOFPacket eof = new EOFPacket();
+
+    static {
+        int i = 0;
+        byte packetId = 0;
+        header.packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("ID", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("SCHEMA", Fields.FIELD_TYPE_VAR_STRING);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("TABLE", Fields.FIELD_TYPE_VAR_STRING);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("ELAPSED_MS", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("PARSED_ROWS", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("AFFECTED_ROWS", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("ROWS_PER_SEC", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("BUFFERED_BYTES", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("PENDING_BATCHES", Fields.FIELD_TYPE_LONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("SHARD_QUEUES", Fields.FIELD_TYPE_VAR_STRING);
+        fields[i++].packetId = ++packetId;
+
+        eof.packetId = ++packetId;
+    }
+
+    public static void execute(ManagerConnection c) {
+        ByteBufferHolder buffer = c.allocate();
+        IPacketOutputProxy proxy = PacketOutputProxyFactory.getInstance().createProxy(c, buffer);
+        proxy.packetBegin();
+
+        // write header
+        proxy = header.write(proxy);
+
+        // write fields
+        for (FieldPacket field : fields) {
+            proxy = field.write(proxy);
+        }
+
+        // write eof
+        proxy = eof.write(proxy);
+
+        // write rows
+        byte packetId = eof.packetId;
+        for (ServerLoadDataHandler load : ServerLoadDataHandler.getRunningLoads()) {
+            LoadDataContext context = load.getDataContext();
+            if (context == null) {
+                continue;
+            }
+            RowDataPacket row = getRow(load, context, c.getCharset());
+            row.packetId = ++packetId;
+            proxy = row.write(proxy);
+        }
+
+        // write last eof
+        EOFPacket lastEof = new EOFPacket();
+        lastEof.packetId = ++packetId;
+        proxy = lastEof.write(proxy);
+
+        // write buffer
+        proxy.packetEnd();
+    }
+
+    private static RowDataPacket getRow(ServerLoadDataHandler load, LoadDataContext context, String charset) {
+        final long elapsedMillis = context.getElapsedMillis();
+        final long parsedRows = context.getParsedRows().get();
+        RowDataPacket row = new RowDataPacket(FIELD_COUNT);
+        row.add(LongUtil.toBytes(load.getConnectionId()));
+        row.add(StringUtil.encode(load.getSchema(), charset));
+        row.add(StringUtil.encode(load.getTableName(), charset));
+        row.add(LongUtil.toBytes(elapsedMillis));
+        row.add(LongUtil.toBytes(parsedRows));
+        row.add(LongUtil.toBytes(context.getLoadDataAffectRows().get()));
+        row.add(LongUtil.toBytes(elapsedMillis > 0 ? parsedRows * 1000 / elapsedMillis : parsedRows));
+        row.add(LongUtil.toBytes(context.getDataCacheManager().getAllocatedMemory()));
+        row.add(LongUtil.toBytes(context.getParameters().size()));
+        row.add(StringUtil.encode(getShardQueues(context), charset));
+        return row;
+    }
+
+    /**
+     * group:depth pairs of the writer queues, groups sharing one queue report the same depth
+     */
+    private static String getShardQueues(LoadDataContext context) {
+        Map<String, BlockingQueue<Object>> queues = context.getShardQueues();
+        if (queues == null) {
+            return "";
+        }
+        Map<String, Integer> depths = new TreeMap<>();
+        for (Map.Entry<String, BlockingQueue<Object>> entry : queues.entrySet()) {
+            depths.put(entry.getKey(), entry.getValue().size());
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : depths.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(entry.getKey()).append(':').append(entry.getValue());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.manager.response;
+
+import com.alibaba.polardbx.Fields;
+import com.alibaba.polardbx.executor.archive.reader.BufferPoolManager;
+import com.alibaba.polardbx.manager.ManagerConnection;
+import com.alibaba.polardbx.net.buffer.ByteBufferHolder;
+import com.alibaba.polardbx.net.compress.IPacketOutputProxy;
+import com.alibaba.polardbx.net.compress.PacketOutputProxyFactory;
+import com.alibaba.polardbx.net.packet.EOFPacket;
+import com.alibaba.polardbx.net.packet.FieldPacket;
+import com.alibaba.polardbx.net.packet.ResultSetHeaderPacket;
+import com.alibaba.polardbx.net.packet.RowDataPacket;
+import com.alibaba.polardbx.server.util.LongUtil;
+import com.alibaba.polardbx.server.util.PacketUtil;
+import com.alibaba.polardbx.server.util.StringUtil;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 查看 OSS buffer pool 各表的命中、未命中与缓存字节数，最后一行为汇总
+ */
+public final class ShowOssBufferPool {
+
+    private static final int FIELD_COUNT = 6;
+    private static final ResultSetHeaderPacket header = PacketUtil.getHeader(FIELD_COUNT);
+    private static final FieldPacket[] fields = new FieldPacket[FIELD_COUNT];
+    private static final EOFPacket eof = new EOFPacket();
+
+    static {
+        int i = 0;
+        byte packetId = 0;
+        header.packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("SCHEMA", Fields.FIELD_TYPE_VAR_STRING);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("TABLE", Fields.FIELD_TYPE_VAR_STRING);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("HITS", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("MISSES", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("REJECTS", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("BYTES", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        eof.packetId = ++packetId;
+    }
+
+    public static void execute(ManagerConnection c) {
+        ByteBufferHolder buffer = c.allocate();
+        IPacketOutputProxy proxy = PacketOutputProxyFactory.getInstance().createProxy(c, buffer);
+        proxy.packetBegin();
+
+        // write header
+        proxy = header.write(proxy);
+
+        // write fields
+        for (FieldPacket field : fields) {
+            proxy = field.write(proxy);
+        }
+
+        // write eof
+        proxy = eof.write(proxy);
+
+        // write rows
+        byte packetId = eof.packetId;
+        BufferPoolManager bufferPool = BufferPoolManager.getInstance();
+        Map<String, BufferPoolManager.TableStats> stats = new TreeMap<>(bufferPool.getTableStats());
+        long hits = 0;
+        long misses = 0;
+        long rejects = 0;
+        for (BufferPoolManager.TableStats tableStats : stats.values()) {
+            RowDataPacket row = new RowDataPacket(FIELD_COUNT);
+            row.add(StringUtil.encode(tableStats.schemaName, c.getCharset()));
+            row.add(StringUtil.encode(tableStats.tableName, c.getCharset()));
+            row.add(LongUtil.toBytes(tableStats.hits.sum()));
+            row.add(LongUtil.toBytes(tableStats.misses.sum()));
+            row.add(LongUtil.toBytes(tableStats.rejects.sum()));
+            row.add(LongUtil.toBytes(tableStats.bytes.sum()));
+            row.packetId = ++packetId;
+            proxy = row.write(proxy);
+
+            hits += tableStats.hits.sum();
+            misses += tableStats.misses.sum();
+            rejects += tableStats.rejects.sum();
+        }
+
+        // summary row
+        RowDataPacket total = new RowDataPacket(FIELD_COUNT);
+        total.add(StringUtil.encode("*", c.getCharset()));
+        total.add(StringUtil.encode("capacity=" + bufferPool.getCapacity(), c.getCharset()));
+        total.add(LongUtil.toBytes(hits));
+        total.add(LongUtil.toBytes(misses));
+        total.add(LongUtil.toBytes(rejects));
+        total.add(LongUtil.toBytes(bufferPool.getUsedBytes()));
+        total.packetId = ++packetId;
+        proxy = total.write(proxy);
+
+        // write last eof
+        EOFPacket lastEof = new EOFPacket();
+        lastEof.packetId = ++packetId;
+        proxy = lastEof.write(proxy);
+
+        // write buffer
+        proxy.packetEnd();
+    }
+}
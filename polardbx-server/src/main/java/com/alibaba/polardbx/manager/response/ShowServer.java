@@ -27,6 +27,7 @@ import com.alibaba.polardbx.net.packet.FieldPacket;
 import com.alibaba.polardbx.net.packet.ResultSetHeaderPacket;
 import com.alibaba.polardbx.net.packet.RowDataPacket;
 import com.alibaba.polardbx.net.util.TimeUtil;
+import com.alibaba.polardbx.optimizer.parse.SqlParameterizeCache;
 import com.alibaba.polardbx.server.util.FormatUtil;
 import com.alibaba.polardbx.server.util.LongUtil;
 import com.alibaba.polardbx.server.util.PacketUtil;
@@ -40,7 +41,7 @@ import com.alibaba.polardbx.server.util.StringUtil;
  */
 public final class ShowServer {
 
-    private static final int FIELD_COUNT = 6;
+    private static final int FIELD_COUNT = 9;
     private static final ResultSetHeaderPacket header = PacketUtil.getHeader(FIELD_COUNT);
     private static final FieldPacket[] fields = new FieldPacket[FIELD_COUNT];
     private static final EOFPacket eof = new EOFPacket();
@@ -68,6 +69,15 @@ public final class ShowServer {
         fields[i] = PacketUtil.getField("STATUS", Fields.FIELD_TYPE_VAR_STRING);
         fields[i++].packetId = ++packetId;
 
+        fields[i] = PacketUtil.getField("PARAMETERIZE_CACHE_HIT", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("PARAMETERIZE_CACHE_MISS", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("PARAMETERIZE_CACHE_BYPASS", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
         eof.packetId = ++packetId;
     }
 
@@ -118,6 +128,10 @@ public final class ShowServer {
         row.add(LongUtil.toBytes(max));
         row.add(StringUtil.encode(charset, charset));
         row.add(StringUtil.encode(CobarServer.getInstance().isOnline() ? "ON" : "OFF", charset));
+        SqlParameterizeCache parameterizeCache = SqlParameterizeCache.getInstance();
+        row.add(LongUtil.toBytes(parameterizeCache.getHitCount()));
+        row.add(LongUtil.toBytes(parameterizeCache.getMissCount()));
+        row.add(LongUtil.toBytes(parameterizeCache.getBypassCount()));
         return row;
     }
 
@@ -0,0 +1,130 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.manager.response;
+
+import com.alibaba.polardbx.Fields;
+import com.alibaba.polardbx.manager.ManagerConnection;
+import com.alibaba.polardbx.net.buffer.ByteBufferHolder;
+import com.alibaba.polardbx.net.compress.IPacketOutputProxy;
+import com.alibaba.polardbx.net.compress.PacketOutputProxyFactory;
+import com.alibaba.polardbx.net.packet.EOFPacket;
+import com.alibaba.polardbx.net.packet.FieldPacket;
+import com.alibaba.polardbx.net.packet.ResultSetHeaderPacket;
+import com.alibaba.polardbx.net.packet.RowDataPacket;
+import com.alibaba.polardbx.server.util.LongUtil;
+import com.alibaba.polardbx.server.util.PacketUtil;
+import com.alibaba.polardbx.server.util.StringUtil;
+import com.alibaba.polardbx.stats.ExponentialHistogram;
+import com.alibaba.polardbx.transaction.tso.ClusterTimestampOracle;
+
+/**
+ * 查看 TSO 获取的延迟、批量大小与排队时间
+ */
+public final class ShowTso {
+
+    private static final int FIELD_COUNT = 8;
+    private static final ResultSetHeaderPacket header = PacketUtil.getHeader(FIELD_COUNT);
+    private static final FieldPacket[] fields = new FieldPacket[FIELD_COUNT];
+    private static final EOFPacket eof = new EOFPacket();
+
+    static {
+        int i = 0;
+        byte packetId = 0;
+        header.packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("NAME", Fields.FIELD_TYPE_VAR_STRING);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("COUNT", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("AVG", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("P50", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("P90", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("P99", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("MAX", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("INFLIGHT", Fields.FIELD_TYPE_LONG);
+        fields[i++].packetId = ++packetId;
+
+        eof.packetId = ++packetId;
+    }
+
+    public static void execute(ManagerConnection c) {
+        ByteBufferHolder buffer = c.allocate();
+        IPacketOutputProxy proxy = PacketOutputProxyFactory.getInstance().createProxy(c, buffer);
+        proxy.packetBegin();
+
+        // write header
+        proxy = header.write(proxy);
+
+        // write fields
+        for (FieldPacket field : fields) {
+            proxy = field.write(proxy);
+        }
+
+        // write eof
+        proxy = eof.write(proxy);
+
+        // write rows
+        byte packetId = eof.packetId;
+        final String charset = c.getCharset();
+        final int inflight = ClusterTimestampOracle.getInflight();
+
+        RowDataPacket row = getRow("FETCH_LATENCY_US", ClusterTimestampOracle.getFetchLatency(), inflight, charset);
+        row.packetId = ++packetId;
+        proxy = row.write(proxy);
+
+        row = getRow("BATCH_SIZE", ClusterTimestampOracle.getBatchSize(), inflight, charset);
+        row.packetId = ++packetId;
+        proxy = row.write(proxy);
+
+        row = getRow("QUEUE_TIME_US", ClusterTimestampOracle.getQueueTime(), inflight, charset);
+        row.packetId = ++packetId;
+        proxy = row.write(proxy);
+
+        // write last eof
+        EOFPacket lastEof = new EOFPacket();
+        lastEof.packetId = ++packetId;
+        proxy = lastEof.write(proxy);
+
+        // write buffer
+        proxy.packetEnd();
+    }
+
+    private static RowDataPacket getRow(String name, ExponentialHistogram histogram, int inflight, String charset) {
+        RowDataPacket row = new RowDataPacket(FIELD_COUNT);
+        row.add(StringUtil.encode(name, charset));
+        row.add(LongUtil.toBytes(histogram.getCount()));
+        row.add(LongUtil.toBytes((long) histogram.getAverage()));
+        row.add(LongUtil.toBytes(histogram.getPercentile(50)));
+        row.add(LongUtil.toBytes(histogram.getPercentile(90)));
+        row.add(LongUtil.toBytes(histogram.getPercentile(99)));
+        row.add(LongUtil.toBytes(histogram.getMax()));
+        row.add(LongUtil.toBytes(inflight));
+        return row;
+    }
+}
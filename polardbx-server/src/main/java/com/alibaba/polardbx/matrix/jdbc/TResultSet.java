@@ -21,6 +21,7 @@ import com.alibaba.polardbx.common.jdbc.ZeroTime;
 import com.alibaba.polardbx.common.jdbc.ZeroTimestamp;
 import com.alibaba.polardbx.common.utils.CaseInsensitive;
 import com.alibaba.polardbx.common.utils.GeneralUtil;
+import com.alibaba.polardbx.executor.cursor.ChunkCursor;
 import com.alibaba.polardbx.executor.cursor.Cursor;
 import com.alibaba.polardbx.executor.cursor.ResultCursor;
 import com.alibaba.polardbx.executor.cursor.impl.AffectRowCursor;
@@ -1490,6 +1491,23 @@ public class TResultSet implements ResultSet {
         return this.resultCursor;
     }
 
+    /**
+     * 底层Cursor支持按Chunk读取时返回该Cursor，否则返回null
+     */
+    public ChunkCursor getChunkCursor() {
+        if (isClosed || cacheRowToBuildMeta != null || resultCursor == null) {
+            return null;
+        }
+        Cursor cursor = resultCursor.getCursor();
+        while (cursor instanceof ResultCursor) {
+            cursor = ((ResultCursor) cursor).getCursor();
+        }
+        if (cursor instanceof ChunkCursor && ((ChunkCursor) cursor).isChunkOutputSupported()) {
+            return (ChunkCursor) cursor;
+        }
+        return null;
+    }
+
     public Map<String, Object> getExtraCmd() {
         return extraCmd;
     }
@@ -112,6 +112,7 @@ import com.alibaba.polardbx.optimizer.planmanager.PreparedStmtCache;
 import com.alibaba.polardbx.optimizer.planmanager.Statement;
 import com.alibaba.polardbx.optimizer.planmanager.StatementMap;
 import com.alibaba.polardbx.optimizer.statis.SQLRecorder;
+import com.alibaba.polardbx.optimizer.utils.CclUtils;
 import com.alibaba.polardbx.optimizer.utils.ExplainResult;
 import com.alibaba.polardbx.optimizer.utils.ITransaction;
 import com.alibaba.polardbx.optimizer.utils.RelUtils;
@@ -120,6 +121,7 @@ import com.alibaba.polardbx.optimizer.workload.WorkloadType;
 import com.alibaba.polardbx.optimizer.workload.WorkloadUtil;
 import com.alibaba.polardbx.server.executor.utils.BinaryResultSetUtil;
 import com.alibaba.polardbx.server.executor.utils.MysqlDefs;
+import com.alibaba.polardbx.server.executor.utils.ResultEncodeStats;
 import com.alibaba.polardbx.server.executor.utils.ResultSetUtil;
 import com.alibaba.polardbx.server.handler.ServerLoadDataHandler;
 import com.alibaba.polardbx.server.mock.MockExecutor;
@@ -261,6 +263,7 @@ public final class ServerConnection extends FrontendConnection implements Resche
     private RuntimeStatistics lastSqlRunTimeStat = null;
     private volatile RescheduleParam rescheduleParam;
     private volatile RescheduleTask rescheduleTask;
+    private final ResultEncodeStats resultEncodeStats = new ResultEncodeStats();
 
     /**
      * Session's active roles.
@@ -1682,6 +1685,8 @@ public final class ServerConnection extends FrontendConnection implements Resche
                     handleError(ErrorCode.ERR_HANDLE_DATA, e);
                 } finally {
                     if (function != null) {
+                        CclUtils.sampleRunning(currentRescheduleTask.getCclRuleInfo(),
+                            currentRescheduleTask.getRunningStartNanos());
                         function.apply(currentRescheduleTask.getCclRuleInfo());
                     }
                     setRescheduled(false, null);
@@ -2520,6 +2525,10 @@ public final class ServerConnection extends FrontendConnection implements Resche
         return lastSqlRunTimeStat;
     }
 
+    public ResultEncodeStats getResultEncodeStats() {
+        return resultEncodeStats;
+    }
+
     public void setLastSqlRunTimeStat(RuntimeStatistics lastSqlRunTimeStat) {
         this.lastSqlRunTimeStat = lastSqlRunTimeStat;
     }
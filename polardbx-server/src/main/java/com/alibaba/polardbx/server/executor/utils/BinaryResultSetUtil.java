@@ -158,6 +158,7 @@ public class BinaryResultSetUtil {
         }
 
         List<BinaryRowDataPacket> lazyRaws = new ArrayList<BinaryRowDataPacket>();
+        boolean tryChunkEncode = true;
         if (existNext) {
             do {
                 BinaryRowDataPacket row = new BinaryRowDataMultiPacket(columnCount);
@@ -223,6 +224,15 @@ public class BinaryResultSetUtil {
                 }
 
                 affectRow.incrementAndGet();
+
+                // 列类型都已确定时，剩余数据尽量直接按Chunk编码
+                if (tryChunkEncode && !existUndecidedType) {
+                    tryChunkEncode = false;
+                    if (ResultSetUtil.encodeRemainingChunks(rs, proxy, charset, c, affectRow, packet.fieldPackets,
+                        true)) {
+                        break;
+                    }
+                }
             } while (rs.next());
         }
 
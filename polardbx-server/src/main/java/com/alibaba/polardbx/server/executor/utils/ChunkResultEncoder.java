@@ -0,0 +1,374 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.server.executor.utils;
+
+import com.alibaba.polardbx.common.charset.CharsetName;
+import com.alibaba.polardbx.common.datatype.Decimal;
+import com.alibaba.polardbx.executor.chunk.Block;
+import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.alibaba.polardbx.executor.chunk.DecimalBlock;
+import com.alibaba.polardbx.executor.chunk.DoubleBlock;
+import com.alibaba.polardbx.executor.chunk.IntegerBlock;
+import com.alibaba.polardbx.executor.chunk.LongBlock;
+import com.alibaba.polardbx.executor.chunk.SliceBlock;
+import com.alibaba.polardbx.executor.cursor.ChunkCursor;
+import com.alibaba.polardbx.net.FrontendConnection;
+import com.alibaba.polardbx.net.compress.IPacketOutputProxy;
+import com.alibaba.polardbx.net.packet.FieldPacket;
+import com.alibaba.polardbx.net.packet.RowDataPacket;
+import com.alibaba.polardbx.optimizer.core.CursorMeta;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.row.Row;
+import io.airlift.slice.Slice;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 直接将执行器输出的Chunk按列编码为MySQL结果集行包(text/binary协议)，
+ * 不经过ResultSet逐行取值，也不为每行构造RowDataPacket。
+ * 常见类型的Block直接写入复用的行缓冲区，其余列退化为按Row取值，保证输出与逐行路径一致。
+ */
+public class ChunkResultEncoder {
+
+    private static final int MAX_PACKET_PAYLOAD_LENGTH = 0x1000000 - 1;
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private static final byte[] MIN_LONG_BYTES = String.valueOf(Long.MIN_VALUE).getBytes();
+
+    // text协议下各列的编码方式
+    private static final int TEXT_GENERIC = 0;
+    private static final int TEXT_LONG = 1;
+    private static final int TEXT_INT = 2;
+
+    // binary协议下各列的编码方式
+    private static final int BINARY_LONGLONG = 1;
+    private static final int BINARY_LONG = 2;
+    private static final int BINARY_DOUBLE = 3;
+
+    private final FrontendConnection c;
+    private final CursorMeta cursorMeta;
+    private final String charset;
+    private final boolean utf8;
+    private final boolean binary;
+    private final int[] columnKinds;
+    private final int columnCount;
+
+    private byte[] buf = new byte[INITIAL_BUFFER_SIZE];
+    private int pos;
+
+    private ChunkResultEncoder(FrontendConnection c, CursorMeta cursorMeta, String charset, boolean binary,
+                               int[] columnKinds) {
+        this.c = c;
+        this.cursorMeta = cursorMeta;
+        this.charset = charset;
+        this.utf8 = CharsetName.isUTF8(charset);
+        this.binary = binary;
+        this.columnKinds = columnKinds;
+        this.columnCount = columnKinds.length;
+    }
+
+    /**
+     * text协议编码器，任意列类型都可以编码
+     */
+    public static ChunkResultEncoder forText(FrontendConnection c, CursorMeta cursorMeta, String charset,
+                                             int columnCount) {
+        int[] kinds = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            DataType dataType = cursorMeta.getColumnMeta(i).getDataType();
+            if (DataTypeUtil.equalsSemantically(dataType, DataTypes.LongType)) {
+                kinds[i] = TEXT_LONG;
+            } else if (DataTypeUtil.equalsSemantically(dataType, DataTypes.IntegerType)) {
+                kinds[i] = TEXT_INT;
+            } else {
+                // decimal和slice按Block类型判断，其余类型按Row取值
+                kinds[i] = TEXT_GENERIC;
+            }
+        }
+        return new ChunkResultEncoder(c, cursorMeta, charset, false, kinds);
+    }
+
+    /**
+     * binary协议编码器，只支持有符号整数和double列，存在其他类型时返回null
+     */
+    public static ChunkResultEncoder forBinary(FrontendConnection c, CursorMeta cursorMeta, String charset,
+                                               FieldPacket[] fieldPackets) {
+        int[] kinds = new int[fieldPackets.length];
+        for (int i = 0; i < fieldPackets.length; i++) {
+            if (ResultSetUtil.isUnsigned(fieldPackets[i].flags)) {
+                return null;
+            }
+            int type = MysqlDefs.MySQLTypeUInt(fieldPackets[i].type);
+            if (type == MysqlDefs.FIELD_TYPE_LONGLONG) {
+                kinds[i] = BINARY_LONGLONG;
+            } else if (type == MysqlDefs.FIELD_TYPE_LONG || type == MysqlDefs.FIELD_TYPE_INT24) {
+                kinds[i] = BINARY_LONG;
+            } else if (type == MysqlDefs.FIELD_TYPE_DOUBLE) {
+                kinds[i] = BINARY_DOUBLE;
+            } else {
+                return null;
+            }
+        }
+        return new ChunkResultEncoder(c, cursorMeta, charset, true, kinds);
+    }
+
+    /**
+     * 编码cursor中剩余的全部数据
+     *
+     * @return 编码的行数
+     */
+    public long encode(ChunkCursor cursor, IPacketOutputProxy proxy, AtomicLong affectRow, ResultEncodeStats stats) {
+        long rows = 0;
+        long bytes = 0;
+        long nanos = 0;
+        Chunk chunk;
+        while ((chunk = cursor.nextResultChunk()) != null) {
+            final long start = System.nanoTime();
+            final int positionCount = chunk.getPositionCount();
+            for (int position = cursor.getChunkOffset(); position < positionCount; position++) {
+                pos = 0;
+                if (binary) {
+                    encodeBinaryRow(chunk, position);
+                } else {
+                    encodeTextRow(chunk, position);
+                }
+                bytes += writeRow(proxy);
+                rows++;
+            }
+            nanos += System.nanoTime() - start;
+            affectRow.addAndGet(positionCount - cursor.getChunkOffset());
+        }
+        if (stats != null) {
+            stats.add(rows, bytes, nanos);
+        }
+        return rows;
+    }
+
+    private void encodeTextRow(Chunk chunk, int position) {
+        Row row = null;
+        for (int i = 0; i < columnCount; i++) {
+            Block block = chunk.getBlock(i);
+            if (block.isNull(position)) {
+                ensureCapacity(1);
+                buf[pos++] = RowDataPacket.NULL_MARK;
+                continue;
+            }
+            final int kind = columnKinds[i];
+            if (kind == TEXT_LONG && block instanceof LongBlock) {
+                writeLongText(((LongBlock) block).getLong(position));
+            } else if (kind == TEXT_INT && block instanceof IntegerBlock) {
+                writeLongText(((IntegerBlock) block).getInt(position));
+            } else if (block instanceof DecimalBlock) {
+                Decimal decimal = ((DecimalBlock) block).getDecimal(position);
+                writeWithLength(decimal.toBytes());
+            } else if (utf8 && block instanceof SliceBlock) {
+                Slice slice = ((SliceBlock) block).getRegion(position);
+                final int length = slice.length();
+                writeLength(length);
+                ensureCapacity(length);
+                slice.getBytes(0, buf, pos, length);
+                pos += length;
+            } else {
+                if (row == null) {
+                    row = chunk.rowAt(position);
+                    row.setCursorMeta(cursorMeta);
+                }
+                byte[] value = row.getBytes(i, charset);
+                if (value == null) {
+                    ensureCapacity(1);
+                    buf[pos++] = RowDataPacket.NULL_MARK;
+                } else {
+                    writeWithLength(value);
+                }
+            }
+        }
+    }
+
+    private void encodeBinaryRow(Chunk chunk, int position) {
+        // 行头0x00 + null bitmap，bitmap前两位保留
+        final int bitmapLength = (columnCount + 7 + 2) / 8;
+        ensureCapacity(1 + bitmapLength);
+        buf[pos++] = 0;
+        final int bitmapPos = pos;
+        Arrays.fill(buf, bitmapPos, bitmapPos + bitmapLength, (byte) 0);
+        pos += bitmapLength;
+
+        Row row = null;
+        for (int i = 0; i < columnCount; i++) {
+            Block block = chunk.getBlock(i);
+            if (block.isNull(position)) {
+                buf[bitmapPos + (i + 2) / 8] |= (byte) (1 << ((i + 2) % 8));
+                continue;
+            }
+            switch (columnKinds[i]) {
+            case BINARY_LONGLONG:
+            case BINARY_LONG: {
+                final long v;
+                if (block instanceof LongBlock) {
+                    v = ((LongBlock) block).getLong(position);
+                } else if (block instanceof IntegerBlock) {
+                    v = ((IntegerBlock) block).getInt(position);
+                } else {
+                    if (row == null) {
+                        row = chunk.rowAt(position);
+                        row.setCursorMeta(cursorMeta);
+                    }
+                    Long l = row.getLong(i);
+                    if (l == null) {
+                        buf[bitmapPos + (i + 2) / 8] |= (byte) (1 << ((i + 2) % 8));
+                        continue;
+                    }
+                    v = l;
+                }
+                writeLittleEndian(v, columnKinds[i] == BINARY_LONGLONG ? 8 : 4);
+                break;
+            }
+            case BINARY_DOUBLE: {
+                final double v;
+                if (block instanceof DoubleBlock) {
+                    v = ((DoubleBlock) block).getDouble(position);
+                } else {
+                    if (row == null) {
+                        row = chunk.rowAt(position);
+                        row.setCursorMeta(cursorMeta);
+                    }
+                    Double d = row.getDouble(i);
+                    if (d == null) {
+                        buf[bitmapPos + (i + 2) / 8] |= (byte) (1 << ((i + 2) % 8));
+                        continue;
+                    }
+                    v = d;
+                }
+                writeLittleEndian(Double.doubleToLongBits(v), 8);
+                break;
+            }
+            default:
+                throw new AssertionError("unsupported binary column kind: " + columnKinds[i]);
+            }
+        }
+    }
+
+    /**
+     * 将行缓冲区按最大包长拆分写出，返回写出的字节数(含包头)
+     */
+    private long writeRow(IPacketOutputProxy proxy) {
+        final int headerSize = c.getPacketHeaderSize();
+        long written = 0;
+        int offset = 0;
+        int todo = pos;
+        while (true) {
+            final int length = Math.min(todo, MAX_PACKET_PAYLOAD_LENGTH);
+            proxy.packetBegin();
+            proxy.checkWriteCapacity(headerSize);
+            proxy.writeUB3(length);
+            proxy.write(c.getNewPacketId());
+            if (length > 0) {
+                proxy.checkWriteCapacity(length);
+                proxy.write(buf, offset, length);
+            }
+            proxy.packetEnd();
+
+            written += headerSize + length;
+            offset += length;
+            todo -= length;
+            // 恰好等于最大包长时需要再补一个空包
+            if (length < MAX_PACKET_PAYLOAD_LENGTH) {
+                break;
+            }
+        }
+        return written;
+    }
+
+    private void writeLongText(long v) {
+        if (v == Long.MIN_VALUE) {
+            writeWithLength(MIN_LONG_BYTES);
+            return;
+        }
+        final boolean negative = v < 0;
+        if (negative) {
+            v = -v;
+        }
+        final int length = stringSize(v) + (negative ? 1 : 0);
+        ensureCapacity(1 + length);
+        buf[pos++] = (byte) length;
+        int p = pos + length;
+        pos = p;
+        do {
+            buf[--p] = (byte) ('0' + (int) (v % 10));
+            v /= 10;
+        } while (v != 0);
+        if (negative) {
+            buf[--p] = '-';
+        }
+    }
+
+    static int stringSize(long v) {
+        long x = 10;
+        for (int i = 1; i < 19; i++) {
+            if (v < x) {
+                return i;
+            }
+            x *= 10;
+        }
+        return 19;
+    }
+
+    private void writeLittleEndian(long v, int length) {
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buf[pos++] = (byte) (v >>> (i << 3));
+        }
+    }
+
+    private void writeWithLength(byte[] src) {
+        writeLength(src.length);
+        ensureCapacity(src.length);
+        System.arraycopy(src, 0, buf, pos, src.length);
+        pos += src.length;
+    }
+
+    private void writeLength(long length) {
+        ensureCapacity(9);
+        if (length < 251) {
+            buf[pos++] = (byte) length;
+        } else if (length < 0x10000L) {
+            buf[pos++] = (byte) 252;
+            buf[pos++] = (byte) length;
+            buf[pos++] = (byte) (length >>> 8);
+        } else if (length < 0x1000000L) {
+            buf[pos++] = (byte) 253;
+            buf[pos++] = (byte) length;
+            buf[pos++] = (byte) (length >>> 8);
+            buf[pos++] = (byte) (length >>> 16);
+        } else {
+            buf[pos++] = (byte) 254;
+            for (int i = 0; i < 8; i++) {
+                buf[pos++] = (byte) (length >>> (i << 3));
+            }
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (pos + size > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, pos + size));
+        }
+    }
+}
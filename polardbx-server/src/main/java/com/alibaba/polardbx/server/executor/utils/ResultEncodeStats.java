@@ -0,0 +1,58 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.server.executor.utils;
+
+/**
+ * 连接级别的结果集编码统计，只由连接当前的执行线程写入
+ */
+public class ResultEncodeStats {
+
+    private volatile long rows;
+    private volatile long bytes;
+    private volatile long nanos;
+
+    public void add(long rows, long bytes, long nanos) {
+        this.rows += rows;
+        this.bytes += bytes;
+        this.nanos += nanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getRowsPerSecond() {
+        return perSecond(rows);
+    }
+
+    public long getBytesPerSecond() {
+        return perSecond(bytes);
+    }
+
+    private long perSecond(long count) {
+        long elapsed = nanos;
+        if (elapsed <= 0) {
+            return 0;
+        }
+        return (long) (count * 1_000_000_000D / elapsed);
+    }
+}
@@ -16,6 +16,9 @@
 
 package com.alibaba.polardbx.server.executor.utils;
 
+import com.alibaba.polardbx.CobarServer;
+import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.alibaba.polardbx.executor.cursor.ChunkCursor;
 import com.alibaba.polardbx.net.FrontendConnection;
 import com.alibaba.polardbx.net.compress.IPacketOutputProxy;
 import com.alibaba.polardbx.net.compress.PacketOutputProxyFactory;
@@ -26,6 +29,7 @@ import com.alibaba.polardbx.net.packet.ResultSetHeaderPacket;
 import com.alibaba.polardbx.net.packet.RowDataMultiPacket;
 import com.alibaba.polardbx.net.packet.RowDataPacket;
 import com.alibaba.polardbx.net.util.CharsetUtil;
+import com.alibaba.polardbx.server.ServerConnection;
 import com.alibaba.polardbx.server.util.StringUtil;
 import com.alibaba.druid.proxy.jdbc.ResultSetMetaDataProxy;
 import com.mysql.jdbc.Field;
@@ -35,9 +39,11 @@ import com.alibaba.polardbx.executor.Xprotocol.XRowSet;
 import com.alibaba.polardbx.matrix.jdbc.TResultSet;
 import com.alibaba.polardbx.matrix.jdbc.TResultSetMetaData;
 import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
+import com.alibaba.polardbx.optimizer.core.CursorMeta;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.row.Row;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -246,6 +252,7 @@ public class ResultSetUtil {
 
         }
 
+        boolean tryChunkEncode = true;
         do {
             if (!existNext) {
                 // 不存在记录，直接退出
@@ -305,6 +312,13 @@ public class ResultSetUtil {
 //            row.packetId = c.getNewPacketId();
             proxy = row.write(proxy);
             affectRow.incrementAndGet();// 计数
+            // 第一行确定了所有列类型后，剩余数据尽量直接按Chunk编码
+            if (tryChunkEncode) {
+                tryChunkEncode = false;
+                if (encodeRemainingChunks(rs, proxy, charset, c, affectRow, packet.fieldPackets, false)) {
+                    break;
+                }
+            }
             existNext = rs.next();
         } while (existNext);
 
@@ -315,6 +329,44 @@ public class ResultSetUtil {
         return proxy;
     }
 
+    /**
+     * 结果来自执行器的Chunk时，跳过ResultSet将剩余数据直接编码为行包
+     *
+     * @return 是否已经写出全部剩余数据，false表示不支持，需要继续逐行输出
+     */
+    static boolean encodeRemainingChunks(ResultSet rs, IPacketOutputProxy proxy, String charset,
+                                         FrontendConnection c, AtomicLong affectRow, FieldPacket[] fieldPackets,
+                                         boolean binary) {
+        if (!(rs instanceof TResultSet) || fieldPackets == null
+            || !CobarServer.getInstance().getConfig().getSystem().isChunkResultEncode()) {
+            return false;
+        }
+        TResultSet trs = (TResultSet) rs;
+        Row current = trs.getCurrentKVPair();
+        if (!(current instanceof Chunk.ChunkRow) || current.getParentCursorMeta() == null) {
+            return false;
+        }
+        int columnCount = fieldPackets.length;
+        CursorMeta cursorMeta = current.getParentCursorMeta();
+        if (((Chunk.ChunkRow) current).getChunk().getBlockCount() != columnCount
+            || cursorMeta.getColumns().size() < columnCount) {
+            return false;
+        }
+        ChunkCursor chunkCursor = trs.getChunkCursor();
+        if (chunkCursor == null) {
+            return false;
+        }
+
+        ChunkResultEncoder encoder = binary ? ChunkResultEncoder.forBinary(c, cursorMeta, charset, fieldPackets) :
+            ChunkResultEncoder.forText(c, cursorMeta, charset, columnCount);
+        if (encoder == null) {
+            return false;
+        }
+        ResultEncodeStats stats = c instanceof ServerConnection ? ((ServerConnection) c).getResultEncodeStats() : null;
+        encoder.encode(chunkCursor, proxy, affectRow, stats);
+        return true;
+    }
+
     public static void eofToPacket(IPacketOutputProxy proxy, FrontendConnection c) {
         // write last eof
         writeEOFPacket(proxy, c, EOFPacket.SERVER_STATUS_AUTOCOMMIT);
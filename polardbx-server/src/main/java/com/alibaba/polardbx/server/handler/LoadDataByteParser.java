@@ -0,0 +1,464 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.server.handler;
+
+import com.alibaba.polardbx.common.exception.TddlNestableRuntimeException;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming LOAD DATA parser working directly on the bytes of network packets.
+ * <p>
+ * Lines and fields are located on the raw bytes, enclosed and escaped values are
+ * unwrapped while scanning, and every field is decoded into a String exactly once.
+ * A field which lies entirely inside one packet and needs no unescaping is decoded
+ * straight from the packet, otherwise its bytes are collected in a reused scratch
+ * buffer. Partial rows are carried over to the next packet as parser state.
+ * <p>
+ * Not thread safe, one instance per LOAD DATA statement.
+ */
+public final class LoadDataByteParser {
+
+    public interface RowHandler {
+
+        void onRow(List<String> fields);
+    }
+
+    private static final int MODE_IGNORING = 0;
+    private static final int MODE_SEEKING = 1;
+    private static final int MODE_FIELD = 2;
+
+    private final Charset charset;
+    private final byte[] lineTerm;
+    private final byte[] fieldTerm;
+    private final byte[] startingBy;
+    private final int enclose;
+    private final int escape;
+    /**
+     * 双字节字符集的首字节表，首字节后面的字节不能当作分隔符或转义符
+     */
+    private final boolean[] leadBytes;
+    private final int lookahead;
+    private final RowHandler handler;
+
+    private int ignoreLines;
+    private long emptyLines = 0;
+    private int expectedFields = 8;
+
+    /**
+     * Unconsumed tail of the previous packet, which may be the prefix of a terminator
+     */
+    private byte[] carry;
+
+    private byte[] scratch = new byte[256];
+    private int scratchLen;
+
+    private int mode;
+    private List<String> row;
+    private int segStart;
+    private int segEnd;
+    private boolean buffered;
+    private boolean fieldEmpty;
+    private boolean quoted;
+    private boolean afterQuote;
+
+    public LoadDataByteParser(Charset charset, String lineTerminatedBy, String fieldTerminatedBy,
+                              String linesStartingBy, String enclose, String escape, int ignoreLines,
+                              RowHandler handler) {
+        this.charset = charset;
+        this.leadBytes = buildLeadBytes(charset);
+        this.lineTerm = lineTerminatedBy.getBytes(charset);
+        this.fieldTerm = fieldTerminatedBy.getBytes(charset);
+        if (lineTerm.length == 0 || fieldTerm.length == 0) {
+            throw new TddlNestableRuntimeException("Empty line or field terminator is not supported yet");
+        }
+        this.startingBy = linesStartingBy == null || linesStartingBy.isEmpty() ? null :
+            linesStartingBy.getBytes(charset);
+        this.enclose = singleByte(enclose, "enclosed by");
+        this.escape = singleByte(escape, "escaped by");
+        this.ignoreLines = Math.max(ignoreLines, 0);
+        this.handler = handler;
+
+        int maxTerm = Math.max(lineTerm.length, fieldTerm.length);
+        int look = maxTerm;
+        if (startingBy != null) {
+            look = Math.max(look, startingBy.length);
+        }
+        if (this.escape >= 0 || leadBytes != null) {
+            look = Math.max(look, 2);
+        }
+        if (this.enclose >= 0) {
+            look = Math.max(look, maxTerm + 1);
+        }
+        this.lookahead = look;
+        startLine(0);
+    }
+
+    /**
+     * Parse bytes [offset, end) of a packet, rows completed by these bytes are handed over immediately.
+     */
+    public void feed(byte[] data, int offset, int end) {
+        if (carry != null) {
+            byte[] joined = Arrays.copyOf(carry, carry.length + (end - offset));
+            System.arraycopy(data, offset, joined, carry.length, end - offset);
+            carry = null;
+            parse(joined, 0, joined.length, false);
+        } else {
+            parse(data, offset, end, false);
+        }
+    }
+
+    /**
+     * Flush the last line, which may not be terminated.
+     */
+    public void finish() {
+        if (carry != null) {
+            byte[] rest = carry;
+            carry = null;
+            parse(rest, 0, rest.length, true);
+        }
+        if (mode == MODE_FIELD && !(row.isEmpty() && fieldEmpty)) {
+            row.add(buffered ? decodeScratch() : "");
+            emitRow();
+        }
+        startLine(0);
+    }
+
+    public long getEmptyLines() {
+        return emptyLines;
+    }
+
+    /**
+     * Bytes of the unfinished row held by the parser.
+     */
+    public int getPendingBytes() {
+        return scratchLen + (carry == null ? 0 : carry.length);
+    }
+
+    private void parse(byte[] d, int pos, int end, boolean last) {
+        if (mode == MODE_FIELD) {
+            segStart = pos;
+            segEnd = pos;
+        }
+        while (pos < end) {
+            if (!last && end - pos < lookahead && needsMore(d, pos, end)) {
+                if (mode == MODE_FIELD) {
+                    flushSegment(d, pos);
+                }
+                carry = Arrays.copyOfRange(d, pos, end);
+                return;
+            }
+            final int b = d[pos] & 0xFF;
+
+            if (mode == MODE_IGNORING) {
+                if (matches(d, pos, end, lineTerm)) {
+                    pos += lineTerm.length;
+                    ignoreLines--;
+                    startLine(pos);
+                } else {
+                    pos += step(b);
+                }
+                continue;
+            }
+
+            if (mode == MODE_SEEKING) {
+                if (matches(d, pos, end, lineTerm)) {
+                    // 没有 starting by 前缀的行直接跳过
+                    emptyLines++;
+                    pos += lineTerm.length;
+                    startLine(pos);
+                } else if (matches(d, pos, end, startingBy)) {
+                    pos += startingBy.length;
+                    mode = MODE_FIELD;
+                    beginField(pos);
+                } else {
+                    pos += step(b);
+                }
+                continue;
+            }
+
+            if (leadBytes != null && leadBytes[b]) {
+                fieldEmpty = false;
+                pos = Math.min(pos + 2, end);
+                continue;
+            }
+
+            if (quoted) {
+                if (b == escape) {
+                    pos = unescape(d, pos, end);
+                } else if (b == enclose) {
+                    int next = pos + 1;
+                    if (next < end && (d[next] & 0xFF) == enclose) {
+                        // "" inside an enclosed field stands for a single enclose character
+                        appendScratch(d, segStart, next - segStart);
+                        buffered = true;
+                        pos = next + 1;
+                        segStart = pos;
+                    } else if (next == end || matches(d, next, end, fieldTerm) || matches(d, next, end, lineTerm)) {
+                        quoted = false;
+                        afterQuote = true;
+                        segEnd = pos;
+                        pos = next;
+                    } else {
+                        pos = next;
+                    }
+                } else {
+                    pos++;
+                }
+                continue;
+            }
+
+            if (matches(d, pos, end, lineTerm)) {
+                endLine(d, pos);
+                pos += lineTerm.length;
+                startLine(pos);
+            } else if (matches(d, pos, end, fieldTerm)) {
+                endField(d, pos);
+                pos += fieldTerm.length;
+                beginField(pos);
+            } else if (b == escape) {
+                pos = unescape(d, pos, end);
+            } else if (b == enclose && fieldEmpty) {
+                quoted = true;
+                fieldEmpty = false;
+                pos++;
+                segStart = pos;
+            } else {
+                fieldEmpty = false;
+                pos++;
+            }
+        }
+        if (mode == MODE_FIELD) {
+            flushSegment(d, end);
+        }
+    }
+
+    /**
+     * Whether the bytes left in this packet are too few to decide what the byte at pos means.
+     */
+    private boolean needsMore(byte[] d, int pos, int end) {
+        final int b = d[pos] & 0xFF;
+        if (isPrefix(d, pos, end, lineTerm)) {
+            return true;
+        }
+        if (mode == MODE_SEEKING) {
+            return isPrefix(d, pos, end, startingBy);
+        }
+        if (mode == MODE_IGNORING) {
+            return false;
+        }
+        if (leadBytes != null && leadBytes[b] && end - pos < 2) {
+            return true;
+        }
+        if (b == escape && end - pos < 2) {
+            return true;
+        }
+        if (quoted) {
+            return b == enclose;
+        }
+        return isPrefix(d, pos, end, fieldTerm);
+    }
+
+    private int unescape(byte[] d, int pos, int end) {
+        fieldEmpty = false;
+        if (pos + 1 >= end) {
+            // a trailing escape character is kept as is
+            return pos + 1;
+        }
+        appendScratch(d, segStart, pos - segStart);
+        buffered = true;
+        final byte n = d[pos + 1];
+        switch (n) {
+        case '0':
+            appendScratch((byte) 0);
+            break;
+        case 'b':
+            appendScratch((byte) '\b');
+            break;
+        case 'n':
+            appendScratch((byte) '\n');
+            break;
+        case 'r':
+            appendScratch((byte) '\r');
+            break;
+        case 't':
+            appendScratch((byte) '\t');
+            break;
+        case 'Z':
+            appendScratch((byte) 26);
+            break;
+        case 'N':
+            // \N 保持原样，由 LOAD_DATA_HANDLE_EMPTY_CHAR 决定是否为 NULL
+            appendScratch(d[pos]);
+            appendScratch(n);
+            break;
+        default:
+            appendScratch(n);
+        }
+        segStart = pos + 2;
+        return segStart;
+    }
+
+    private void startLine(int pos) {
+        row = new ArrayList<>(expectedFields);
+        if (ignoreLines > 0) {
+            mode = MODE_IGNORING;
+        } else if (startingBy != null) {
+            mode = MODE_SEEKING;
+        } else {
+            mode = MODE_FIELD;
+            beginField(pos);
+        }
+    }
+
+    private void beginField(int pos) {
+        segStart = pos;
+        segEnd = pos;
+        scratchLen = 0;
+        buffered = false;
+        fieldEmpty = true;
+        quoted = false;
+        afterQuote = false;
+    }
+
+    private void endField(byte[] d, int pos) {
+        final int contentEnd = afterQuote ? segEnd : pos;
+        if (buffered) {
+            appendScratch(d, segStart, contentEnd - segStart);
+            row.add(decodeScratch());
+        } else {
+            row.add(new String(d, segStart, contentEnd - segStart, charset));
+        }
+    }
+
+    private void endLine(byte[] d, int pos) {
+        if (row.isEmpty() && fieldEmpty) {
+            emptyLines++;
+            return;
+        }
+        endField(d, pos);
+        emitRow();
+    }
+
+    private void emitRow() {
+        expectedFields = Math.max(expectedFields, row.size());
+        handler.onRow(row);
+    }
+
+    /**
+     * Move the not yet copied part of the current field into the scratch buffer
+     * before the packet it lives in is released.
+     */
+    private void flushSegment(byte[] d, int end) {
+        final int contentEnd = afterQuote ? segEnd : end;
+        appendScratch(d, segStart, contentEnd - segStart);
+        buffered = true;
+        segStart = end;
+        segEnd = end;
+    }
+
+    private String decodeScratch() {
+        return new String(scratch, 0, scratchLen, charset);
+    }
+
+    private void appendScratch(byte[] d, int offset, int len) {
+        if (len <= 0) {
+            return;
+        }
+        ensureScratch(scratchLen + len);
+        System.arraycopy(d, offset, scratch, scratchLen, len);
+        scratchLen += len;
+    }
+
+    private void appendScratch(byte b) {
+        ensureScratch(scratchLen + 1);
+        scratch[scratchLen++] = b;
+    }
+
+    private void ensureScratch(int capacity) {
+        if (capacity > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(capacity, scratch.length << 1));
+        }
+    }
+
+    private int step(int b) {
+        return leadBytes != null && leadBytes[b] ? 2 : 1;
+    }
+
+    private static boolean matches(byte[] d, int pos, int end, byte[] token) {
+        if (token == null || end - pos < token.length) {
+            return false;
+        }
+        for (int i = 0; i < token.length; i++) {
+            if (d[pos + i] != token[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPrefix(byte[] d, int pos, int end, byte[] token) {
+        if (token == null || end - pos >= token.length) {
+            return false;
+        }
+        for (int i = pos; i < end; i++) {
+            if (d[i] != token[i - pos]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int singleByte(String str, String clause) {
+        if (str == null || str.isEmpty()) {
+            return -1;
+        }
+        if (str.length() > 1 || str.charAt(0) > 0x7F) {
+            throw new TddlNestableRuntimeException("Only single ascii character is supported in " + clause);
+        }
+        return str.charAt(0);
+    }
+
+    /**
+     * Lead bytes of the double byte charsets whose trailing byte may collide with ascii,
+     * null for charsets in which ascii bytes always stand for themselves.
+     */
+    static boolean[] buildLeadBytes(Charset charset) {
+        final String name = charset.name().toUpperCase();
+        if (name.startsWith("UTF-16") || name.startsWith("UTF-32")) {
+            throw new TddlNestableRuntimeException("Charset " + charset.name() + " is not supported by load data");
+        }
+        int[][] ranges;
+        if (name.startsWith("GB") || name.startsWith("BIG5") || name.equals("X-EUC-TW")) {
+            ranges = new int[][] {{0x81, 0xFE}};
+        } else if (name.equals("SHIFT_JIS") || name.equals("WINDOWS-31J") || name.equals("X-SJIS_0213")) {
+            ranges = new int[][] {{0x81, 0x9F}, {0xE0, 0xFC}};
+        } else {
+            return null;
+        }
+        boolean[] lead = new boolean[256];
+        for (int[] range : ranges) {
+            for (int i = range[0]; i <= range[1]; i++) {
+                lead[i] = true;
+            }
+        }
+        return lead;
+    }
+}
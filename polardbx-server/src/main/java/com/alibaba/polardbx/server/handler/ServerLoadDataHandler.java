@@ -33,14 +33,12 @@ import com.alibaba.polardbx.druid.sql.ast.SQLCommentHint;
 import com.alibaba.polardbx.druid.sql.ast.SQLStatement;
 import com.alibaba.polardbx.druid.sql.dialect.mysql.ast.statement.MySqlHintStatement;
 import com.alibaba.polardbx.druid.sql.parser.ByteString;
-import com.google.common.base.Splitter;
 import com.alibaba.polardbx.common.exception.TddlNestableRuntimeException;
 import com.alibaba.polardbx.common.properties.ConnectionParams;
 import com.alibaba.polardbx.common.properties.ParamManager;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.common.utils.logger.MDC;
-import com.alibaba.polardbx.common.utils.memory.SizeOf;
 import com.alibaba.polardbx.optimizer.OptimizerContext;
 import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
 import com.alibaba.polardbx.optimizer.config.table.TableMeta;
@@ -57,7 +55,6 @@ import com.alibaba.polardbx.optimizer.parse.visitor.ContextParameters;
 import com.alibaba.polardbx.optimizer.utils.LoadDataCacheManager;
 import org.apache.calcite.sql.SqlNodeList;
 import org.apache.calcite.sql.type.SqlTypeName;
-import org.apache.commons.lang.StringEscapeUtils;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -66,11 +63,13 @@ import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -91,6 +90,11 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
     private static String LOWER_LOAD_DATA = "load data";
     private static byte[] END_BYTE = new byte[4];
 
+    /**
+     * LOAD DATA statements being executed, keyed by connection id
+     */
+    private static final Map<Long, ServerLoadDataHandler> RUNNING_LOADS = new ConcurrentHashMap<>();
+
     private ServerConnection serverConnection;
     private String fileName;
     private volatile byte loadPackID = 0;
@@ -99,7 +103,6 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
     private String tableName;
     private int skippedEmptyLines = 0;
     private LoadDataResultHandler handler;
-    private byte[] restData = new byte[0];
 
     private AtomicBoolean isClosed = new AtomicBoolean(false);
 
@@ -111,7 +114,9 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
 
     private BlockingQueue<byte[]> cacheData = new LinkedBlockingQueue<>();
 
-    private List<String> lines = new ArrayList<>();
+    private List<List<String>> rows = new ArrayList<>();
+
+    private LoadDataByteParser byteParser;
 
     public ServerLoadDataHandler(ServerConnection serverConnection) {
         this.serverConnection = serverConnection;
@@ -203,10 +208,10 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
                 }
                 byte[] data = cacheData.take();
                 if (data == END_BYTE) {
-                    parser(data, loadData, true);
+                    parser(data, true);
                     break;
                 } else {
-                    parser(data, loadData, false);
+                    parser(data, false);
                     dataContext.getDataCacheManager().releaseMemory(data.length);
                 }
             }
@@ -218,176 +223,44 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
         return null;
     }
 
-    private int bytesLastIndexOf(byte[] source, byte[] target) {
-        if (source.length < target.length) {
-            return -1;
-        }
-        int idx = source.length - 1;
-        while (idx >= target.length - 1) {
-            boolean flag = true;
-            for (int i = target.length - 1; i >= 0; i--) {
-                if (target[i] != source[idx - (target.length - 1 - i)]) {
-                    flag = false;
-                    break;
-                }
-            }
-            if (flag) {
-                return idx + 1;
+    public void parser(byte[] data, boolean isEnd) {
+        if (isEnd) {
+            byteParser.finish();
+        } else {
+            byteParser.feed(data, 4, data.length);
+            // 如果未完成的数据量过大，也即单条数据很长，则直接抛弃并报错
+            if (byteParser.getPendingBytes() > dataContext.getDataCacheManager().getNotFullThreshold()) {
+                throw new RuntimeException("RestData is more than notFullThreshold!");
             }
-            idx--;
         }
-        return -1;
-    }
-
-    public void parser(byte[] data, LoadData loadData, boolean isEnd) {
-        // 如果RestData数据量过大，也即单条数据很长，则直接抛弃并报错
-        byte[] tempRestData = new byte[0];
-        byte[] lineTerminatedBy = loadData.getOriginLineTerminatedBy().getBytes();
-        int lastIndex = bytesLastIndexOf(data, lineTerminatedBy);
-        int startPoint = lastIndex == -1 ? 4 : lastIndex;
-
-        if (restData.length > dataContext.getDataCacheManager().getNotFullThreshold()) {
-            throw new RuntimeException("RestData is more than notFullThreshold!");
-        }
-        if (lastIndex == -1) {
-            if (!isEnd) {
-                tempRestData = new byte[data.length - startPoint + restData.length];
-                System.arraycopy(restData, 0, tempRestData, 0, restData.length);
-                System.arraycopy(data, startPoint, tempRestData, restData.length, data.length - startPoint);
-                restData = tempRestData;
-                return;
-            }
+        if (rows.size() > 0
+            && (isEnd || (cacheData.isEmpty() && dataContext.getDataCacheManager().isFull()))) {
+            dataContext.getParameters().add(rows);
+            rows = new ArrayList<>();
         }
-        tempRestData = new byte[data.length - startPoint];
-        System.arraycopy(data, startPoint, tempRestData, 0, data.length - startPoint);
-
-        String content;
-        if (restData.length == 0) {
-            content = new String(
-                data, 4, startPoint - 4, Charset.forName(CharsetUtil.getJavaCharset(loadData.getCharset())));
-        } else {
-            // 上一条记录中不完整的记录，与本次记录进行合并
-            byte[] currentBytes = new byte[restData.length + startPoint - 4];
-            System.arraycopy(restData, 0, currentBytes, 0, restData.length);
-            System.arraycopy(data, 4, currentBytes, restData.length, startPoint - 4);
-            content =
-                new String(currentBytes, 0, currentBytes.length,
-                    Charset.forName(CharsetUtil.getJavaCharset(loadData.getCharset())));
+        if (isEnd) {
+            dataContext.getParameters().add(END);
         }
+    }
 
-        List<String> lineContents = Splitter.on(loadData.getOriginLineTerminatedBy()).splitToList(content);
-
-        int realLineNumber = lineContents.size();
-
-        for (int lineNumber = 0; lineNumber < realLineNumber; lineNumber++) {
-            if (dataContext.isFinish()) {
-                throw new RuntimeException("DataContext is finished!");
-            }
-            if (loadData.getIgnoreLineNumber() != 0) {
-                loadData.setIgnoreLineNumber(loadData.getIgnoreLineNumber() - 1);
-                continue;
-            }
-            if (lineContents.get(lineNumber).equals("")) {
-                // 与Mysql的处理略有不同，mysql处理时可以会插入默认值，mysql支持insert into table values (); 而我们目前不支持
-                loadData.incrementEmptyLine();
-                continue;
-            }
-
-            String realLine = lineContents.get(lineNumber);
-            // 处理 starting by条件
-            if (loadData.getLinesStartingBy() != null) {
-                int lineStartIndex = realLine.indexOf(loadData.getLinesStartingBy());
-                if (lineStartIndex == -1 || (lineStartIndex + loadData.getLinesStartingBy().length() == realLine
-                    .length())) {
-                    loadData.incrementEmptyLine();
-                    continue;
-                } else {
-                    realLine =
-                        realLine.substring(lineStartIndex + loadData.getLinesStartingBy().length());
-                }
-            }
-
-            String[] fields = null;
-            if (loadData.getEnclose() != null) {
-                List<String> stringList = Splitter.on(loadData.getOriginFieldTerminatedBy()).splitToList(realLine);
-                fields = new String[stringList.size()];
-                for (int fieldIndex = 0; fieldIndex < stringList.size(); fieldIndex++) {
-                    fields[fieldIndex] = stringList.get(fieldIndex);
-                    // 如果有enclosed by，则进行处理
-                    if (!"".equals(loadData.getEnclose())) {
-                        if (fields[fieldIndex].length() < 2) {
-                            continue;
-                        }
-                        if ((fields[fieldIndex].startsWith(loadData.getEnclose())) && fields[fieldIndex]
-                            .endsWith(loadData.getEnclose())) {
-                            fields[fieldIndex] = fields[fieldIndex].substring(1, fields[fieldIndex].length() - 1);
-                        }
-                    }
-                }
-            }
-
-            if (loadData.getEscape() != null) {
-                if (fields == null) {
-                    List<String> stringList = Splitter.on(loadData.getOriginFieldTerminatedBy()).splitToList(realLine);
-                    fields = new String[stringList.size()];
-                    for (int fieldIndex = 0; fieldIndex < stringList.size(); fieldIndex++) {
-                        fields[fieldIndex] = StringEscapeUtils.unescapeJava(stringList.get(fieldIndex));
-                    }
-                } else {
-                    for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
-                        fields[fieldIndex] = StringEscapeUtils.unescapeJava(fields[fieldIndex]);
-                    }
-                }
-            }
-
-            if (loadData.getOutputColumnsIndex() == null || loadData.getOutputColumnsIndex().size() == 0) {
-                if (fields != null) {
-                    realLine = String.join(loadData.getOriginFieldTerminatedBy(), fields);
-                }
-            } else {
-                if (fields == null) {
-                    List<String> stringList = Splitter.on(loadData.getOriginFieldTerminatedBy()).splitToList(realLine);
-                    fields = new String[stringList.size()];
-                    for (int fieldIndex = 0; fieldIndex < stringList.size(); fieldIndex++) {
-                        fields[fieldIndex] = stringList.get(fieldIndex);
-                    }
-                }
-                List<Integer> outColumnsIndex = loadData.getOutputColumnsIndex();
-                boolean isFirst = true;
-                StringBuilder tempLine = new StringBuilder("");
-                for (Integer columnIndex : outColumnsIndex) {
-                    if (isFirst) {
-                        tempLine.append(fields[columnIndex]);
-                        isFirst = false;
-                    } else {
-                        tempLine.append(loadData.getOriginFieldTerminatedBy()).append(fields[columnIndex]);
-                    }
-                }
-                realLine = tempLine.toString();
-            }
-
-            long length = SizeOf.sizeOfCharArray(realLine.length());
-            dataContext.getDataCacheManager().allocateMemory(length);
-            lines.add(realLine);
-            if (lines.size() >= dataContext.getBatchInsertNum()) {
-                dataContext.getParameters().add(lines);
-                lines = new ArrayList<>();
-            }
-        }
-        if (cacheData.isEmpty() && dataContext.getDataCacheManager().isFull() && lines.size() > 0) {
-            dataContext.getParameters().add(lines);
-            lines = new ArrayList<>();
+    private void addRow(List<String> fields) {
+        if (dataContext.isFinish()) {
+            throw new RuntimeException("DataContext is finished!");
         }
-        if (isEnd) {
-            if (lines.size() > 0) {
-                dataContext.getParameters().add(lines);
-                lines = new ArrayList<>();
+        List<String> row = fields;
+        List<Integer> outColumnsIndex = loadData.getOutputColumnsIndex();
+        if (outColumnsIndex != null && outColumnsIndex.size() > 0) {
+            row = new ArrayList<>(outColumnsIndex.size());
+            for (Integer columnIndex : outColumnsIndex) {
+                row.add(fields.get(columnIndex));
             }
-            dataContext.getParameters().add(END);
         }
-        restData = tempRestData;
-        if (isEnd && restData.length > 0) {
-            throw new TddlNestableRuntimeException("restData should be empty here!");
+        dataContext.getDataCacheManager().allocateMemory(LoadDataContext.sizeOfRow(row));
+        dataContext.getParsedRows().incrementAndGet();
+        rows.add(row);
+        if (rows.size() >= dataContext.getBatchInsertNum()) {
+            dataContext.getParameters().add(rows);
+            rows = new ArrayList<>();
         }
     }
 
@@ -641,11 +514,15 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
                     Collectors.toList()).indexOf(true));
         }
         dataContext.setSwapColumns(loadData.isSwapColumns());
+        this.byteParser = new LoadDataByteParser(dataContext.getCharset(), loadData.getOriginLineTerminatedBy(),
+            loadData.getOriginFieldTerminatedBy(), loadData.getLinesStartingBy(), loadData.getEnclose(),
+            loadData.getEscape(), loadData.getIgnoreLineNumber(), this::addRow);
         if (loadData.isLocal()) {
             handler.sendRequestFilePacket(strSql);
         }
         if (!isClosed.get()) {
             bStart = true;
+            RUNNING_LOADS.put(serverConnection.getId(), this);
             final Map mdcContext = MDC.getCopyOfContextMap();
             serverConnection.getSchemaConfig().getDataSource().borrowExecutorService().submitListenableFuture(
                 serverConnection.getSchema(), serverConnection.getTraceId(), -1, () -> {
@@ -688,13 +565,33 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
 
     public void tryClose() {
         bStart = false;
+        RUNNING_LOADS.remove(serverConnection.getId(), this);
         if (dataContext != null) {
             this.dataContext.clear();
         }
-        this.lines.clear();
+        this.rows.clear();
         this.cacheData.clear();
         this.cacheData.add(END_BYTE);
-        restData = null;
+    }
+
+    public static Collection<ServerLoadDataHandler> getRunningLoads() {
+        return RUNNING_LOADS.values();
+    }
+
+    public long getConnectionId() {
+        return serverConnection.getId();
+    }
+
+    public String getSchema() {
+        return serverConnection.getSchema();
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public LoadDataContext getDataContext() {
+        return dataContext;
     }
 
     @Override
@@ -17,6 +17,7 @@
 package com.alibaba.polardbx.server.response;
 
 import com.alibaba.polardbx.Fields;
+import com.alibaba.polardbx.atom.AtomLatencyStats;
 import com.alibaba.polardbx.common.exception.TddlRuntimeException;
 import com.alibaba.polardbx.common.exception.code.ErrorCode;
 import com.alibaba.polardbx.common.utils.Pair;
@@ -58,7 +59,7 @@ import java.util.stream.Collectors;
  */
 public final class ShowStorage {
 
-    private static final int FIELD_COUNT = 10;
+    private static final int FIELD_COUNT = 11;
     private static final int EXTRA_FIELD_COUNT = 2;
 
     private static final ResultSetHeaderPacket HEADER_PACKET = PacketUtil.getHeader(FIELD_COUNT);
@@ -105,6 +106,9 @@ public final class ShowStorage {
         FIELD_PACKETS[i] = PacketUtil.getField("ACTIVE", Fields.FIELD_TYPE_VAR_STRING);
         FIELD_PACKETS[i++].packetId = ++packetId;
 
+        FIELD_PACKETS[i] = PacketUtil.getField("READ_LOAD", Fields.FIELD_TYPE_VAR_STRING);
+        FIELD_PACKETS[i++].packetId = ++packetId;
+
         EOF_PACKET.packetId = ++packetId;
 
         i = 0;
@@ -266,6 +270,9 @@ public final class ShowStorage {
             row.add(StringUtil.encode("null", charset));
             row.add(StringUtil.encode("null", charset));
         }
+        // 备库读的响应时间与并发，用于备库选择
+        String readLoad = AtomLatencyStats.describeStorage(storageId);
+        row.add(StringUtil.encode(readLoad == null ? "null" : readLoad, charset));
 
         row.add(StringUtil.encode(storageInstInfoMap.get("replicas"), charset));
 
@@ -0,0 +1,421 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.server.executor.utils;
+
+import com.alibaba.polardbx.common.charset.CharsetName;
+import com.alibaba.polardbx.common.charset.CollationName;
+import com.alibaba.polardbx.executor.chunk.Block;
+import com.alibaba.polardbx.executor.chunk.BlockBuilder;
+import com.alibaba.polardbx.executor.chunk.BlockBuilders;
+import com.alibaba.polardbx.executor.chunk.Chunk;
+import com.alibaba.polardbx.executor.cursor.ChunkCursor;
+import com.alibaba.polardbx.executor.cursor.impl.ArrayResultCursor;
+import com.alibaba.polardbx.matrix.jdbc.TResultSet;
+import com.alibaba.polardbx.mock.server.MockConnection;
+import com.alibaba.polardbx.net.FrontendConnection;
+import com.alibaba.polardbx.net.compress.RawPacketStreamOutputProxy;
+import com.alibaba.polardbx.net.packet.BinaryRowDataMultiPacket;
+import com.alibaba.polardbx.net.packet.BinaryRowDataPacket;
+import com.alibaba.polardbx.net.packet.FieldPacket;
+import com.alibaba.polardbx.net.packet.RowDataMultiPacket;
+import com.alibaba.polardbx.net.packet.RowDataPacket;
+import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
+import com.alibaba.polardbx.optimizer.config.table.Field;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.CursorMeta;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.datatype.VarcharType;
+import com.alibaba.polardbx.optimizer.core.row.Row;
+import io.airlift.slice.Slices;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按Chunk编码的结果需要与逐行构造RowDataPacket的输出逐字节一致
+ */
+public class ChunkResultEncoderTest {
+
+    private static final int MAX_PACKET_PAYLOAD_LENGTH = 0x1000000 - 1;
+
+    private static final DataType VARCHAR = new VarcharType(CharsetName.UTF8MB4, CollationName.UTF8MB4_GENERAL_CI);
+
+    private ServerSocketChannel server;
+    private SocketChannel client;
+    private SocketChannel accepted;
+    private FrontendConnection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        // FrontendConnection需要一个已连接的channel
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = SocketChannel.open(server.getLocalAddress());
+        accepted = server.accept();
+        connection = new MockConnection(client);
+        connection.setPacketHeaderSize(4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.close();
+        accepted.close();
+        server.close();
+    }
+
+    @Test
+    public void testStringSize() {
+        long[] values = {0, 1, 9, 10, 99, 100, 999999999999999999L, 1000000000000000000L, Long.MAX_VALUE};
+        for (long v : values) {
+            Assert.assertEquals(String.valueOf(v).length(), ChunkResultEncoder.stringSize(v));
+        }
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            long v = random.nextLong() >>> random.nextInt(64);
+            Assert.assertEquals(String.valueOf(v).length(), ChunkResultEncoder.stringSize(v));
+        }
+    }
+
+    @Test
+    public void testEncodeStats() {
+        ResultEncodeStats stats = new ResultEncodeStats();
+        Assert.assertEquals(0, stats.getRowsPerSecond());
+
+        stats.add(1000, 64000, 500_000_000L);
+        stats.add(1000, 64000, 500_000_000L);
+        Assert.assertEquals(2000, stats.getRows());
+        Assert.assertEquals(2000, stats.getRowsPerSecond());
+        Assert.assertEquals(128000, stats.getBytesPerSecond());
+    }
+
+    @Test
+    public void testTextNumbersAndNulls() throws Exception {
+        DataType[] types = {DataTypes.LongType, DataTypes.IntegerType, DataTypes.DoubleType, DataTypes.DecimalType};
+        Random random = new Random(1);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {Long.MIN_VALUE, Integer.MIN_VALUE, -0.0d, "-99999999999999999999.123456789"});
+        rows.add(new Object[] {Long.MAX_VALUE, Integer.MAX_VALUE, Double.MAX_VALUE, "0"});
+        rows.add(new Object[] {0L, 0, 0.5d, "0.000001"});
+        rows.add(new Object[] {null, null, null, null});
+        for (int i = 0; i < 1000; i++) {
+            rows.add(new Object[] {
+                random.nextInt(10) == 0 ? null : random.nextLong() >> random.nextInt(64),
+                random.nextInt(10) == 0 ? null : random.nextInt() >> random.nextInt(32),
+                random.nextInt(10) == 0 ? null : random.nextDouble() * random.nextInt(),
+                random.nextInt(10) == 0 ? null : random.nextInt() + "." + random.nextInt(1000)});
+        }
+        checkText(types, buildChunks(types, rows, 100), "utf8mb4", 0);
+        // 首个Chunk的部分行已经被逐行输出
+        checkText(types, buildChunks(types, rows, 100), "utf8mb4", 7);
+    }
+
+    @Test
+    public void testTextDates() throws Exception {
+        DataType[] types = {DataTypes.DateType, DataTypes.DatetimeType, DataTypes.DecimalType};
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {"2021-03-04", "2021-03-04 05:06:07", "123.4500"});
+        rows.add(new Object[] {"1970-01-01", "1970-01-01 00:00:00.000001", "-0.10"});
+        rows.add(new Object[] {"9999-12-31", "9999-12-31 23:59:59.999999", null});
+        rows.add(new Object[] {null, null, "1"});
+        rows.add(new Object[] {"2000-02-29", "2000-02-29 12:00:00.5", "100.00"});
+        checkText(types, buildChunks(types, rows, 2), "utf8mb4", 0);
+    }
+
+    @Test
+    public void testTextUtf8Slices() throws Exception {
+        DataType[] types = {VARCHAR, DataTypes.LongType};
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {"abc", 1L});
+        rows.add(new Object[] {"", 2L});
+        rows.add(new Object[] {null, 3L});
+        rows.add(new Object[] {"中文字符", null});
+        rows.add(new Object[] {"emoji \uD83D\uDE00", 5L});
+        rows.add(new Object[] {repeat('x', 250), 6L});
+        rows.add(new Object[] {repeat('y', 251), 7L});
+        rows.add(new Object[] {repeat('z', 0x10000), 8L});
+        // 同一个Block中的多行，写出的是各自的区间而不是整个底层数组
+        checkText(types, buildChunks(types, rows, rows.size()), "utf8mb4", 0);
+        checkText(types, buildChunks(types, rows, rows.size()), "utf8", 0);
+    }
+
+    @Test
+    public void testTextCharsetConversion() throws Exception {
+        DataType[] types = {VARCHAR, DataTypes.DecimalType};
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {"中文字符", "1.5"});
+        rows.add(new Object[] {"latin", null});
+        rows.add(new Object[] {null, "-2"});
+        // 非utf8字符集需要转码
+        byte[] gbk = checkText(types, buildChunks(types, rows, rows.size()), "gbk", 0);
+        byte[] utf8 = checkText(types, buildChunks(types, rows, rows.size()), "utf8mb4", 0);
+        Assert.assertFalse(Arrays.equals(gbk, utf8));
+    }
+
+    @Test
+    public void testTextRowAcrossMaxPacket() throws Exception {
+        DataType[] types = {DataTypes.LongType, VARCHAR, DataTypes.LongType};
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1L, repeat('a', MAX_PACKET_PAYLOAD_LENGTH + 100) + "中文", 2L});
+        rows.add(new Object[] {3L, "b", null});
+        byte[] bytes = checkText(types, buildChunks(types, rows, rows.size()), "utf8mb4", 0);
+
+        // 第一行被拆成两个包，包序号连续
+        Assert.assertEquals((byte) 0xff, bytes[0]);
+        Assert.assertEquals((byte) 0xff, bytes[1]);
+        Assert.assertEquals((byte) 0xff, bytes[2]);
+        Assert.assertEquals(1, bytes[3]);
+        Assert.assertEquals(2, bytes[4 + MAX_PACKET_PAYLOAD_LENGTH + 3]);
+    }
+
+    @Test
+    public void testBinary() throws Exception {
+        // 超过6列时null bitmap占两个字节
+        DataType[] types = {
+            DataTypes.LongType, DataTypes.IntegerType, DataTypes.DoubleType, DataTypes.LongType,
+            DataTypes.IntegerType, DataTypes.DoubleType, DataTypes.LongType, DataTypes.IntegerType};
+        int[] mysqlTypes = {
+            MysqlDefs.FIELD_TYPE_LONGLONG, MysqlDefs.FIELD_TYPE_LONG, MysqlDefs.FIELD_TYPE_DOUBLE,
+            MysqlDefs.FIELD_TYPE_LONGLONG, MysqlDefs.FIELD_TYPE_INT24, MysqlDefs.FIELD_TYPE_DOUBLE,
+            MysqlDefs.FIELD_TYPE_LONGLONG, MysqlDefs.FIELD_TYPE_LONG};
+        Random random = new Random(2);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[types.length]);
+        rows.add(new Object[] {
+            Long.MIN_VALUE, Integer.MIN_VALUE, Double.NaN, Long.MAX_VALUE, -1, -0.0d, 0L, Integer.MAX_VALUE});
+        for (int i = 0; i < 1000; i++) {
+            Object[] row = new Object[types.length];
+            for (int j = 0; j < types.length; j++) {
+                if (random.nextInt(5) == 0) {
+                    continue;
+                }
+                if (types[j] == DataTypes.LongType) {
+                    row[j] = random.nextLong();
+                } else if (types[j] == DataTypes.IntegerType) {
+                    row[j] = mysqlTypes[j] == MysqlDefs.FIELD_TYPE_INT24 ? random.nextInt(1 << 23) : random.nextInt();
+                } else {
+                    row[j] = random.nextGaussian() * 1e10;
+                }
+            }
+            rows.add(row);
+        }
+
+        FieldPacket[] fieldPackets = new FieldPacket[types.length];
+        for (int i = 0; i < types.length; i++) {
+            fieldPackets[i] = new FieldPacket();
+            fieldPackets[i].type = mysqlTypes[i];
+        }
+        checkBinary(types, fieldPackets, buildChunks(types, rows, 100), 0);
+        checkBinary(types, fieldPackets, buildChunks(types, rows, 100), 3);
+    }
+
+    @Test
+    public void testBinaryUnsupported() {
+        DataType[] types = {DataTypes.LongType, DataTypes.DecimalType};
+        FieldPacket[] fieldPackets = {new FieldPacket(), new FieldPacket()};
+        fieldPackets[0].type = MysqlDefs.FIELD_TYPE_LONGLONG;
+        fieldPackets[1].type = MysqlDefs.FIELD_TYPE_NEW_DECIMAL;
+        // decimal等其他类型仍然逐行输出
+        Assert.assertNull(ChunkResultEncoder.forBinary(connection, buildCursorMeta(types), "utf8mb4", fieldPackets));
+
+        fieldPackets[1].type = MysqlDefs.FIELD_TYPE_LONGLONG;
+        Assert.assertNotNull(
+            ChunkResultEncoder.forBinary(connection, buildCursorMeta(types), "utf8mb4", fieldPackets));
+        // unsigned
+        fieldPackets[1].flags = 32;
+        Assert.assertNull(ChunkResultEncoder.forBinary(connection, buildCursorMeta(types), "utf8mb4", fieldPackets));
+    }
+
+    private byte[] checkText(DataType[] types, List<Chunk> chunks, String charset, int firstOffset)
+        throws Exception {
+        CursorMeta cursorMeta = buildCursorMeta(types);
+        byte[] expected = encodeByRow(cursorMeta, chunks, charset, null, firstOffset);
+        byte[] actual = encodeByChunk(ChunkResultEncoder.forText(connection, cursorMeta, charset, types.length),
+            chunks, firstOffset);
+        Assert.assertArrayEquals(expected, actual);
+        return actual;
+    }
+
+    private void checkBinary(DataType[] types, FieldPacket[] fieldPackets, List<Chunk> chunks, int firstOffset)
+        throws Exception {
+        CursorMeta cursorMeta = buildCursorMeta(types);
+        byte[] expected = encodeByRow(cursorMeta, chunks, "utf8mb4", fieldPackets, firstOffset);
+        ChunkResultEncoder encoder = ChunkResultEncoder.forBinary(connection, cursorMeta, "utf8mb4", fieldPackets);
+        Assert.assertNotNull(encoder);
+        Assert.assertArrayEquals(expected, encodeByChunk(encoder, chunks, firstOffset));
+    }
+
+    /**
+     * 与ResultSetUtil/BinaryResultSetUtil逐行输出的方式相同
+     */
+    private byte[] encodeByRow(CursorMeta cursorMeta, List<Chunk> chunks, String charset,
+                               FieldPacket[] fieldPackets, int firstOffset) throws Exception {
+        final int columnCount = cursorMeta.getColumns().size();
+        ArrayResultCursor cursor = new ArrayResultCursor("t");
+        for (ColumnMeta columnMeta : cursorMeta.getColumns()) {
+            cursor.addColumn(columnMeta);
+        }
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk chunk = chunks.get(i);
+            for (int position = i == 0 ? firstOffset : 0; position < chunk.getPositionCount(); position++) {
+                Row row = chunk.rowAt(position);
+                row.setCursorMeta(cursorMeta);
+                cursor.getRows().add(row);
+            }
+        }
+        TResultSet rs = new TResultSet(cursor, new HashMap<>());
+
+        connection.setPacketId((byte) 0);
+        CaptureProxy proxy = new CaptureProxy(connection);
+        while (rs.next()) {
+            if (fieldPackets == null) {
+                RowDataPacket row = new RowDataMultiPacket(columnCount, connection::getNewPacketId);
+                for (int j = 1; j <= columnCount; j++) {
+                    row.fieldValues.add(rs.getBytes(j, charset));
+                }
+                row.write(proxy);
+            } else {
+                BinaryRowDataPacket row = new BinaryRowDataMultiPacket(columnCount);
+                for (int j = 1; j <= columnCount; j++) {
+                    FieldPacket fieldPacket = fieldPackets[j - 1];
+                    row.fieldValues.add(MysqlDefs.resultSetToByte(rs, j, MysqlDefs.MySQLTypeUInt(fieldPacket.type),
+                        ResultSetUtil.isUnsigned(fieldPacket.flags), charset));
+                }
+                row.write(proxy);
+            }
+        }
+        return proxy.toByteArray();
+    }
+
+    private byte[] encodeByChunk(ChunkResultEncoder encoder, List<Chunk> chunks, int firstOffset) {
+        connection.setPacketId((byte) 0);
+        CaptureProxy proxy = new CaptureProxy(connection);
+        AtomicLong affectRow = new AtomicLong();
+        long rows = encoder.encode(new ListChunkCursor(chunks, firstOffset), proxy, affectRow, null);
+
+        long expectedRows = -firstOffset;
+        for (Chunk chunk : chunks) {
+            expectedRows += chunk.getPositionCount();
+        }
+        Assert.assertEquals(expectedRows, rows);
+        Assert.assertEquals(expectedRows, affectRow.get());
+        return proxy.toByteArray();
+    }
+
+    private static CursorMeta buildCursorMeta(DataType[] types) {
+        List<ColumnMeta> columns = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            columns.add(new ColumnMeta("t", "c" + i, null, new Field("t", "c" + i, types[i])));
+        }
+        return CursorMeta.build(columns);
+    }
+
+    private static List<Chunk> buildChunks(DataType[] types, List<Object[]> rows, int chunkSize) {
+        ExecutionContext context = new ExecutionContext();
+        List<Chunk> chunks = new ArrayList<>();
+        for (int offset = 0; offset < rows.size(); offset += chunkSize) {
+            final int end = Math.min(rows.size(), offset + chunkSize);
+            Block[] blocks = new Block[types.length];
+            for (int i = 0; i < types.length; i++) {
+                BlockBuilder builder = BlockBuilders.create(types[i], context);
+                for (int r = offset; r < end; r++) {
+                    Object value = rows.get(r)[i];
+                    if (value == null) {
+                        builder.appendNull();
+                    } else if (types[i] == VARCHAR) {
+                        builder.writeObject(Slices.wrappedBuffer(((String) value).getBytes(StandardCharsets.UTF_8)));
+                    } else {
+                        builder.writeObject(types[i].convertFrom(value));
+                    }
+                }
+                blocks[i] = builder.build();
+            }
+            chunks.add(new Chunk(blocks));
+        }
+        return chunks;
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    private static class ListChunkCursor implements ChunkCursor {
+        private final List<Chunk> chunks;
+        private final int firstOffset;
+        private int index;
+
+        ListChunkCursor(List<Chunk> chunks, int firstOffset) {
+            this.chunks = chunks;
+            this.firstOffset = firstOffset;
+        }
+
+        @Override
+        public boolean isChunkOutputSupported() {
+            return true;
+        }
+
+        @Override
+        public Chunk nextResultChunk() {
+            return index < chunks.size() ? chunks.get(index++) : null;
+        }
+
+        @Override
+        public int getChunkOffset() {
+            return index == 1 ? firstOffset : 0;
+        }
+    }
+
+    /**
+     * 将写出的包按顺序收集到内存
+     */
+    private static class CaptureProxy extends RawPacketStreamOutputProxy {
+        private final FrontendConnection connection;
+
+        CaptureProxy(FrontendConnection connection) {
+            super(new ByteArrayOutputStream());
+            this.connection = connection;
+            // 单字节写入与数组写入输出到同一个流
+            this.waitForCompressStream = (ByteArrayOutputStream) out;
+        }
+
+        @Override
+        public FrontendConnection getConnection() {
+            return connection;
+        }
+
+        byte[] toByteArray() {
+            return ((ByteArrayOutputStream) out).toByteArray();
+        }
+    }
+}
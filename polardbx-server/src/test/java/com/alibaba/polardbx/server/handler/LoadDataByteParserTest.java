@@ -0,0 +1,97 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.server.handler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class LoadDataByteParserTest {
+
+    @Test
+    public void testSimpleLines() {
+        List<List<String>> rows = parseAllSplits("1\ta\n2\tb\n\n3\t\n", StandardCharsets.UTF_8,
+            "\n", "\t", null, null, null, 0);
+        Assert.assertEquals(Arrays.asList(
+            Arrays.asList("1", "a"), Arrays.asList("2", "b"), Arrays.asList("3", "")), rows);
+    }
+
+    @Test
+    public void testMultiByteTerminatorsAndLastLine() {
+        List<List<String>> rows = parseAllSplits("1||x\r\n22||yy\r\n333||中文", StandardCharsets.UTF_8,
+            "\r\n", "||", null, null, null, 0);
+        Assert.assertEquals(Arrays.asList(
+            Arrays.asList("1", "x"), Arrays.asList("22", "yy"), Arrays.asList("333", "中文")), rows);
+    }
+
+    @Test
+    public void testEncloseAndEscape() {
+        String data = "\"a,b\",\"say \"\"hi\"\"\",c\\,d\n"
+            + "\"line\nbreak\",x\\ty,\\N\n"
+            + "\"unclosed \" quote\",e\\\\f,\"\"\n";
+        List<List<String>> rows = parseAllSplits(data, StandardCharsets.UTF_8, "\n", ",", null, "\"", "\\", 0);
+        Assert.assertEquals(Arrays.asList(
+            Arrays.asList("a,b", "say \"hi\"", "c,d"),
+            Arrays.asList("line\nbreak", "x\ty", "\\N"),
+            Arrays.asList("unclosed \" quote", "e\\f", "")), rows);
+    }
+
+    @Test
+    public void testIgnoreLinesAndStartingBy() {
+        String data = "h1,h2\nskip me\nxxx>1,a\nno prefix\n>2,b\n>\n";
+        List<List<String>> rows = parseAllSplits(data, StandardCharsets.UTF_8, "\n", ",", ">", null, null, 1);
+        Assert.assertEquals(Arrays.asList(Arrays.asList("1", "a"), Arrays.asList("2", "b")), rows);
+    }
+
+    @Test
+    public void testDoubleByteCharset() {
+        // 0x5C is the trailing byte of some GBK characters and must not be taken as an escape
+        Charset gbk = Charset.forName("GBK");
+        String data = "\u4e57\\t,\u4fd3\n";
+        List<List<String>> rows = parseAllSplits(data, gbk, "\n", ",", null, null, "\\", 0);
+        Assert.assertEquals(Arrays.asList(Arrays.asList("\u4e57\t", "\u4fd3")), rows);
+    }
+
+    /**
+     * Feed the bytes in two packets split at every possible position, all results must agree.
+     */
+    private static List<List<String>> parseAllSplits(String data, Charset charset, String lineTerm, String fieldTerm,
+                                                     String startingBy, String enclose, String escape,
+                                                     int ignoreLines) {
+        byte[] bytes = data.getBytes(charset);
+        List<List<String>> expected = null;
+        for (int split = 0; split <= bytes.length; split++) {
+            List<List<String>> rows = new ArrayList<>();
+            LoadDataByteParser parser = new LoadDataByteParser(
+                charset, lineTerm, fieldTerm, startingBy, enclose, escape, ignoreLines, rows::add);
+            parser.feed(bytes, 0, split);
+            parser.feed(bytes, split, bytes.length);
+            parser.finish();
+            if (expected == null) {
+                expected = rows;
+            } else {
+                Assert.assertEquals("split at " + split, expected, rows);
+            }
+        }
+        return expected;
+    }
+}
@@ -19,26 +19,46 @@ package com.alibaba.polardbx.transaction.tso;
 import com.alibaba.polardbx.common.exception.TddlRuntimeException;
 import com.alibaba.polardbx.common.exception.code.ErrorCode;
 import com.alibaba.polardbx.common.model.lifecycle.AbstractLifecycle;
+import com.alibaba.polardbx.common.properties.DynamicConfig;
 import com.alibaba.polardbx.common.utils.GeneralUtil;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.common.utils.thread.NamedThreadFactory;
 import com.alibaba.polardbx.gms.util.MetaDbUtil;
 import com.alibaba.polardbx.optimizer.utils.ITimestampOracle;
 import com.alibaba.polardbx.rpc.XLog;
 import com.alibaba.polardbx.rpc.pool.XConnection;
+import com.alibaba.polardbx.stats.ExponentialHistogram;
 
+import java.io.EOFException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedChannelException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
 import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.concurrent.FutureTask;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 /**
+ * Waiters are batched by a dispatcher thread, and up to TSO_FETCH_MAX_INFLIGHT
+ * batches are fetched concurrently, each on its own meta db connection.
+ *
  * @version 1.0
  */
 public class ClusterTimestampOracle extends AbstractLifecycle implements ITimestampOracle {
@@ -49,77 +69,202 @@ public class ClusterTimestampOracle extends AbstractLifecycle implements ITimest
 
     public static final int BitReserved = 6;
 
+    private static final int MAX_BATCH_SIZE = 4096;
+
+    /**
+     * Upper bound of the time to wait for more waiters before sending a batch
+     */
+    private static final long MAX_BATCH_WINDOW_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    private static final int TOTAL_FETCH_TIMEOUT = 10000; // 10s
+    private static final int FETCH_TIMEOUT = 2000; // 2s
+
+    /**
+     * Backoff between retries, doubled on each retry
+     */
+    private static final long MIN_RETRY_BACKOFF_MILLIS = 10;
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 500;
+
+    /**
+     * MySQL error codes seen when the leader of GMS shuts down or is switched
+     */
+    private static final int ER_SERVER_SHUTDOWN = 1053;
+    private static final int ER_OPTION_PREVENTS_STATEMENT = 1290;
+    private static final int ER_CONNECTION_KILLED = 1927;
+    private static final int CR_SERVER_GONE_ERROR = 2006;
+    private static final int CR_SERVER_LOST = 2013;
+
+    /**
+     * Fetch latency in microseconds
+     */
+    private static final ExponentialHistogram FETCH_LATENCY = new ExponentialHistogram();
+
+    private static final ExponentialHistogram BATCH_SIZE = new ExponentialHistogram();
+
+    /**
+     * Time from a waiter enqueued to its batch sent, in microseconds
+     */
+    private static final ExponentialHistogram QUEUE_TIME = new ExponentialHistogram();
+
     @Override
     public void setTimeout(long timeout) {
         this.timeout = timeout;
     }
 
     class TsoFuture {
-        private final AtomicLong tso = new AtomicLong(0);
-        private final AtomicReference<Exception> exception = new AtomicReference<>(null);
-        private final FutureTask<Long> futureTask = new FutureTask<>(tso::get);
+        private final Thread waiter = Thread.currentThread();
+        private final long enqueueNanos = System.nanoTime();
+        private volatile long tso = 0;
+        private volatile Exception exception = null;
+        private volatile boolean done = false;
 
         public void setTso(long tso) {
-            this.tso.set(tso);
-            futureTask.run();
+            this.tso = tso;
+            this.done = true;
+            LockSupport.unpark(waiter);
         }
 
         public void setException(Exception exception) {
-            this.exception.set(exception);
-            futureTask.run();
+            this.exception = exception;
+            this.done = true;
+            LockSupport.unpark(waiter);
         }
 
         public long waitTso() throws Exception {
-            try {
-                final long tso = futureTask.get(timeout, TimeUnit.MILLISECONDS);
-                if (exception.get() != null) {
-                    throw exception.get();
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            while (!done) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new TimeoutException("Fetch TSO timeout.");
                 }
-                return tso;
-            } catch (TimeoutException e) {
-                throw new TimeoutException("Fetch TSO timeout.");
+                LockSupport.parkNanos(this, remaining);
             }
+            if (exception != null) {
+                throw exception;
+            }
+            return tso;
         }
     }
 
-    private static final ArrayList<TsoFuture> taskQueue = new ArrayList<>();
+    private static final ConcurrentLinkedQueue<TsoFuture> taskQueue = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicInteger inflight = new AtomicInteger(0);
+
+    private static final AtomicBoolean dispatcherIdle = new AtomicBoolean(false);
+
+    private static final Thread dispatcher;
+
+    private static final ExecutorService fetchExecutor =
+        new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            new NamedThreadFactory("TsoFetcher-Worker", true));
+
+    /**
+     * Only updated by dispatcher thread
+     */
+    private static long avgFetchNanos = 0;
+    private static double avgArrivalPerNano = 0;
+    private static long lastDispatchNanos = System.nanoTime();
+    private static volatile long lastFetchNanos = 0;
+
+    private static void wakeDispatcher() {
+        if (dispatcherIdle.get() && dispatcherIdle.compareAndSet(true, false)) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    private static void idleDispatcher() {
+        dispatcherIdle.set(true);
+        if (taskQueue.isEmpty() || inflight.get() >= maxInflight()) {
+            LockSupport.park();
+        }
+        dispatcherIdle.set(false);
+    }
+
+    private static int maxInflight() {
+        return Math.max(DynamicConfig.getInstance().getTsoFetchMaxInflight(), 1);
+    }
+
+    /**
+     * Batch immediately when nothing is in flight or waiters arrive slowly, otherwise wait a
+     * fraction of the fetch latency so that each in-flight request carries more waiters.
+     */
+    private static long batchWindowNanos() {
+        if (inflight.get() == 0 || avgFetchNanos == 0) {
+            return 0;
+        }
+        final long window = Math.min(avgFetchNanos / maxInflight(), MAX_BATCH_WINDOW_NANOS);
+        return avgArrivalPerNano * window >= 1 ? window : 0;
+    }
+
+    static private void dispatchTsoTask() {
+        if (taskQueue.isEmpty() || inflight.get() >= maxInflight()) {
+            idleDispatcher();
+            return;
+        }
+
+        final long window = batchWindowNanos();
+        if (window > 0) {
+            LockSupport.parkNanos(window);
+        }
+
+        final List<TsoFuture> batch = new ArrayList<>();
+        TsoFuture future;
+        while (batch.size() < MAX_BATCH_SIZE && (future = taskQueue.poll()) != null) {
+            batch.add(future);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        final long now = System.nanoTime();
+        final long interval = Math.max(now - lastDispatchNanos, 1);
+        lastDispatchNanos = now;
+        avgArrivalPerNano = avgArrivalPerNano * 0.875 + (double) batch.size() / interval * 0.125;
+        if (lastFetchNanos > 0) {
+            avgFetchNanos = avgFetchNanos == 0 ? lastFetchNanos : (avgFetchNanos * 7 + lastFetchNanos) / 8;
+        }
 
-    static private void fetchTsoTask() {
-        ArrayList<TsoFuture> copyed = null;
-        synchronized (taskQueue) {
-            while (taskQueue.isEmpty()) {
+        BATCH_SIZE.record(batch.size());
+        for (TsoFuture f : batch) {
+            QUEUE_TIME.record(TimeUnit.NANOSECONDS.toMicros(now - f.enqueueNanos));
+        }
+
+        inflight.incrementAndGet();
+        try {
+            fetchExecutor.execute(() -> {
                 try {
-                    taskQueue.wait();
-                } catch (InterruptedException ignore) {
+                    fetchTsoTask(batch);
+                } catch (Throwable t) {
+                    logger.error(t);
+                } finally {
+                    inflight.decrementAndGet();
+                    wakeDispatcher();
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            inflight.decrementAndGet();
+            for (TsoFuture f : batch) {
+                f.setException(e);
             }
-            copyed = (ArrayList<TsoFuture>) taskQueue.clone();
-            taskQueue.clear();
         }
+    }
 
-        final int totalFetchTimeout = 10000; // 10s
-        final int fetchTimeout = 2000; // 2s
+    static private void fetchTsoTask(List<TsoFuture> batch) {
         long tsoBase = 0;
         Exception exception = null;
 
         // Get TSO.
         final long startTime = System.currentTimeMillis();
+        long backoff = MIN_RETRY_BACKOFF_MILLIS;
         while (true) {
-            // Add new waited.
-            synchronized (taskQueue) {
-                if (!taskQueue.isEmpty()) {
-                    copyed.addAll(taskQueue);
-                    taskQueue.clear();
-                }
-            }
-
+            final long fetchStart = System.nanoTime();
             try (Connection metaDbConn = MetaDbUtil.getConnection()) {
                 if (metaDbConn.isWrapperFor(XConnection.class)) {
                     final XConnection xConnection = metaDbConn.unwrap(XConnection.class);
                     final int oldTimeout = xConnection.getNetworkTimeout();
                     try {
-                        xConnection.setNetworkTimeout(null, fetchTimeout);
-                        tsoBase = xConnection.getTSO(copyed.size());
+                        xConnection.setNetworkTimeout(null, FETCH_TIMEOUT);
+                        tsoBase = xConnection.getTSO(batch.size());
                         // Success.
                         break;
                     } finally {
@@ -128,9 +273,9 @@ public class ClusterTimestampOracle extends AbstractLifecycle implements ITimest
                 } else {
                     // JDBC.
                     try (Statement statement = metaDbConn.createStatement()) {
-                        statement.setQueryTimeout(fetchTimeout / 1000);
+                        statement.setQueryTimeout(FETCH_TIMEOUT / 1000);
                         try (ResultSet rs = statement.executeQuery(
-                            "call dbms_tso.get_timestamp('mysql', 'gts_base'," + copyed.size() + ")")) {
+                            "call dbms_tso.get_timestamp('mysql', 'gts_base'," + batch.size() + ")")) {
                             if (rs.next()) {
                                 tsoBase = rs.getLong(1);
                                 // Success.
@@ -144,57 +289,106 @@ public class ClusterTimestampOracle extends AbstractLifecycle implements ITimest
             } catch (Exception e) {
                 XLog.XLogLogger.error(e);
                 // Retry if HA occurs and not timeout.
-                if (e instanceof SQLException ||
-                    (e.getMessage() != null &&
-                        (e.getMessage().contains("Failed to get TSO") ||
-                            e.getMessage().contains("channel inactive") ||
-                            e.getMessage().contains("previous unfinished") ||
-                            e.getMessage().contains("timeout") ||
-                            e.getMessage().contains("Client removed") ||
-                            e.getMessage().contains("closed") ||
-                            e.getMessage().contains("EOF")))) {
-                    if (System.currentTimeMillis() - startTime < totalFetchTimeout) {
-                        continue;
-                    }
+                final long remaining = TOTAL_FETCH_TIMEOUT - (System.currentTimeMillis() - startTime);
+                if (isRetryable(e) && remaining > 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.min(backoff, remaining)));
+                    backoff = Math.min(backoff << 1, MAX_RETRY_BACKOFF_MILLIS);
+                    continue;
                 }
                 exception = e;
                 break;
+            } finally {
+                final long elapsed = System.nanoTime() - fetchStart;
+                lastFetchNanos = elapsed;
+                FETCH_LATENCY.record(TimeUnit.NANOSECONDS.toMicros(elapsed));
             }
         }
 
         // Ok now report success or error.
         if (exception != null) {
-            for (TsoFuture future : copyed) {
+            for (TsoFuture future : batch) {
                 future.setException(exception);
             }
         } else {
             long tso = tsoBase;
-            for (TsoFuture future : copyed) {
+            for (TsoFuture future : batch) {
                 future.setTso(tso += (1 << BitReserved));
             }
         }
     }
 
+    /**
+     * Only network errors and HA of GMS are retryable, other errors such as privileges or a
+     * missing procedure fail at once. X protocol errors are classified by error code, and
+     * TSO errors of X protocol only carry the message.
+     */
+    static boolean isRetryable(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof SQLException) {
+                if (isRetryable((SQLException) t)) {
+                    return true;
+                }
+            } else if (t instanceof SocketException || t instanceof SocketTimeoutException
+                || t instanceof ClosedChannelException || t instanceof EOFException) {
+                return true;
+            } else if (t instanceof TddlRuntimeException) {
+                final int code = ((TddlRuntimeException) t).getErrorCode();
+                final String message = t.getMessage();
+                if (code == ErrorCode.ERR_X_PROTOCOL_CLIENT.getCode()
+                    || code == ErrorCode.ERR_X_PROTOCOL_SESSION.getCode()
+                    || code == ErrorCode.ERR_X_PROTOCOL_CONNECTION.getCode()) {
+                    return true;
+                }
+                if (code == ErrorCode.ERR_X_PROTOCOL_RESULT.getCode() && message != null
+                    && (message.contains("Query timeout") || message.contains("Failed to get TSO"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRetryable(SQLException e) {
+        if (e instanceof SQLRecoverableException || e instanceof SQLTransientConnectionException
+            || e instanceof SQLNonTransientConnectionException || e instanceof SQLTimeoutException) {
+            return true;
+        }
+        // Class 08: connection exception
+        final String state = e.getSQLState();
+        if (state != null && state.startsWith("08")) {
+            return true;
+        }
+        switch (e.getErrorCode()) {
+        case ER_SERVER_SHUTDOWN:
+        case ER_OPTION_PREVENTS_STATEMENT:
+        case ER_CONNECTION_KILLED:
+        case CR_SERVER_GONE_ERROR:
+        case CR_SERVER_LOST:
+            return true;
+        default:
+            return false;
+        }
+    }
+
     static {
         final Runnable tsoAsyncTask = () -> {
             while (true) {
                 try {
-                    fetchTsoTask();
+                    dispatchTsoTask();
                 } catch (Throwable t) {
                     logger.error(t);
                 }
             }
         };
 
-        (new Thread(tsoAsyncTask, "TsoFetcher")).start();
+        dispatcher = new Thread(tsoAsyncTask, "TsoFetcher");
+        dispatcher.start();
     }
 
     private long nextTimestampGrouping() {
         final TsoFuture future = new TsoFuture();
-        synchronized (taskQueue) {
-            taskQueue.add(future);
-            taskQueue.notify();
-        }
+        taskQueue.offer(future);
+        wakeDispatcher();
         try {
             return future.waitTso();
         } catch (Exception e) {
@@ -207,4 +401,20 @@ public class ClusterTimestampOracle extends AbstractLifecycle implements ITimest
         return nextTimestampGrouping();
     }
 
+    public static ExponentialHistogram getFetchLatency() {
+        return FETCH_LATENCY;
+    }
+
+    public static ExponentialHistogram getBatchSize() {
+        return BATCH_SIZE;
+    }
+
+    public static ExponentialHistogram getQueueTime() {
+        return QUEUE_TIME;
+    }
+
+    public static int getInflight() {
+        return inflight.get();
+    }
+
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.transaction.tso;
+
+import com.alibaba.polardbx.common.exception.TddlRuntimeException;
+import com.alibaba.polardbx.common.exception.code.ErrorCode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.SocketTimeoutException;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+
+public class ClusterTimestampOracleTest {
+
+    @Test
+    public void testRetryableErrors() {
+        Assert.assertTrue(ClusterTimestampOracle.isRetryable(
+            new SQLException("Communications link failure", "08S01", 0)));
+        Assert.assertTrue(ClusterTimestampOracle.isRetryable(
+            new SQLException("Lost connection to MySQL server during query", "HY000", 2013)));
+        Assert.assertTrue(ClusterTimestampOracle.isRetryable(
+            new SQLException("The MySQL server is running with the --super-read-only option", "HY000", 1290)));
+        Assert.assertTrue(ClusterTimestampOracle.isRetryable(
+            new TddlRuntimeException(ErrorCode.ERR_GMS_GET_CONNECTION, new SocketTimeoutException("Read timed out"))));
+        Assert.assertTrue(ClusterTimestampOracle.isRetryable(
+            new TddlRuntimeException(ErrorCode.ERR_X_PROTOCOL_CONNECTION, "channel inactive")));
+    }
+
+    @Test
+    public void testPermanentErrors() {
+        // 权限和存储过程缺失等错误不重试
+        Assert.assertFalse(ClusterTimestampOracle.isRetryable(
+            new SQLException("Access denied for user", "42000", 1044)));
+        Assert.assertFalse(ClusterTimestampOracle.isRetryable(
+            new SQLSyntaxErrorException("PROCEDURE dbms_tso.get_timestamp does not exist", "42000", 1305)));
+        Assert.assertFalse(ClusterTimestampOracle.isRetryable(
+            new SQLException("Statement closed", "HY000", 0)));
+        Assert.assertFalse(ClusterTimestampOracle.isRetryable(
+            new TddlRuntimeException(ErrorCode.ERR_GMS_UNEXPECTED, "Cannot get TSO with unexpected column.")));
+    }
+}